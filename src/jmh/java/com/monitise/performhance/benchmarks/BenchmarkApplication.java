@@ -0,0 +1,94 @@
+package com.monitise.performhance.benchmarks;
+
+import com.monitise.performhance.Application;
+import com.monitise.performhance.generator.DataGenerator;
+import com.monitise.performhance.generator.GeneratedOrganization;
+import com.monitise.performhance.generator.GeneratorSettings;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// The application without a web server, on an in-memory H2 database filled with a generated dataset large enough
+// to expose per-row costs.
+public final class BenchmarkApplication {
+
+    private final ConfigurableApplicationContext context;
+    private final GeneratedOrganization organization;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context, GeneratedOrganization organization) {
+        this.context = context;
+        this.organization = organization;
+    }
+
+    // One organization of 10k users in 100 teams, reviewed 5 times each on average.
+    public static GeneratorSettings defaultSettings() {
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.setUsersPerOrganization(10000);
+        settings.setTeamsPerOrganization(100);
+        settings.setJobTitlesPerOrganization(20);
+        settings.setCriteriaPerOrganization(10);
+        settings.setCriteriaPerUser(5);
+        settings.setReviewsPerUser(5);
+        return settings;
+    }
+
+    public static BenchmarkApplication start() {
+        return start(defaultSettings());
+    }
+
+    public static BenchmarkApplication start(GeneratorSettings settings) {
+        // Command line arguments take precedence over application.properties.
+        String[] args = {
+                "--spring.datasource.url=jdbc:h2:mem:Benchmark;DB_CLOSE_DELAY=-1;MV_STORE=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database=H2",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN"
+        };
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(false)
+                .bannerMode(Banner.Mode.OFF)
+                .run(args);
+        List<GeneratedOrganization> organizations =
+                new DataGenerator(context.getBean(JdbcTemplate.class), settings).generate();
+        return new BenchmarkApplication(context, organizations.get(0));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int randomEmployeeId() {
+        return random(organization.getEmployeeIds());
+    }
+
+    public int randomTeamId() {
+        return random(organization.getTeamIds());
+    }
+
+    public void close() {
+        context.close();
+    }
+
+    // region Helper Methods
+
+    private static int random(List<Integer> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    // endregion
+
+    // region Getters
+
+    public GeneratedOrganization getOrganization() {
+        return organization;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,108 @@
+package com.monitise.performhance.benchmarks;
+
+import com.monitise.performhance.api.model.ReviewResponse;
+import com.monitise.performhance.api.model.SimplifiedUser;
+import com.monitise.performhance.api.model.TeamResponse;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.JobTitle;
+import com.monitise.performhance.entity.Organization;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.Team;
+import com.monitise.performhance.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Entity to response mapping on a detached, fully initialized object graph, so only the mapping cost is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int TEAM_SIZE = 20;
+    private static final int CRITERIA_COUNT = 10;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private List<User> users;
+    private List<Review> reviews;
+    private List<Team> teams;
+
+    @Setup
+    public void buildGraph() {
+        Organization organization = new Organization("Benchmark");
+        organization.setId(1);
+        JobTitle jobTitle = new JobTitle("Developer", organization);
+        List<Criteria> criteriaList = new ArrayList<>();
+        for (int i = 0; i < CRITERIA_COUNT; i++) {
+            Criteria criteria = new Criteria("Criteria " + i, organization);
+            criteria.setId(i + 1);
+            criteriaList.add(criteria);
+        }
+
+        users = new ArrayList<>();
+        teams = new ArrayList<>();
+        reviews = new ArrayList<>();
+        Team team = null;
+        for (int i = 0; i < size; i++) {
+            if (i % TEAM_SIZE == 0) {
+                team = new Team("Team " + i / TEAM_SIZE, organization);
+                team.setId(i / TEAM_SIZE + 1);
+                team.setMembers(new ArrayList<>());
+                teams.add(team);
+            }
+            User user = new User("Name" + i, "Surname" + i, organization, jobTitle, "user." + i, "123");
+            user.setId(i + 1);
+            user.setTeam(team);
+            team.getMembers().add(user);
+            if (team.getLeader() == null) {
+                team.setLeader(user);
+            }
+            users.add(user);
+        }
+
+        for (int i = 0; i < size; i++) {
+            Map<Criteria, Integer> evaluation = new HashMap<>();
+            for (Criteria criteria : criteriaList) {
+                evaluation.put(criteria, (i + criteria.getId()) % 101);
+            }
+            Review review = new Review(users.get(i), users.get((i + 1) % size), evaluation, "Comment " + i);
+            review.setId(i + 1);
+            reviews.add(review);
+        }
+    }
+
+    @Benchmark
+    public List<ReviewResponse> reviewResponses() {
+        return ReviewResponse.fromReviewList(reviews);
+    }
+
+    @Benchmark
+    public List<SimplifiedUser> simplifiedUsers() {
+        return SimplifiedUser.fromUserList(users);
+    }
+
+    @Benchmark
+    public List<TeamResponse> teamResponses() {
+        return TeamResponse.fromTeamList(teams);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.monitise.performhance.benchmarks;
+
+import com.monitise.performhance.api.model.AverageCriteriaScore;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.repositories.UserRepository;
+import com.monitise.performhance.services.CriteriaScoreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Score of a single employee, as read by GET /users/{userId}/score.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBenchmark {
+
+    private BenchmarkApplication application;
+    private TransactionTemplate transactionTemplate;
+    private UserRepository userRepository;
+    private CriteriaScoreService criteriaScoreService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        application = BenchmarkApplication.start();
+        transactionTemplate = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        userRepository = application.getBean(UserRepository.class);
+        criteriaScoreService = application.getBean(CriteriaScoreService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<AverageCriteriaScore> averageScores() {
+        int userId = application.randomEmployeeId();
+        return transactionTemplate.execute(status -> {
+            User employee = userRepository.findOne(userId);
+            return criteriaScoreService.getAverageScores(employee);
+        });
+    }
+
+}
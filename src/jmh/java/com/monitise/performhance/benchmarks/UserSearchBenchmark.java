@@ -0,0 +1,73 @@
+package com.monitise.performhance.benchmarks;
+
+import com.monitise.performhance.api.model.SimplifiedUser;
+import com.monitise.performhance.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// UserService.searchUsers as called by GET /users/search. It selects the response columns directly.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final String UNDEFINED = UserService.UNDEFINED;
+
+    private BenchmarkApplication application;
+    private UserService userService;
+    private int organizationId;
+    private String jobTitleId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        application = BenchmarkApplication.start();
+        userService = application.getBean(UserService.class);
+        organizationId = application.getOrganization().getId();
+        jobTitleId = String.valueOf(application.getOrganization().getJobTitleIds().get(2));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<SimplifiedUser> byTeam() {
+        return userService.searchUsers(organizationId, randomTeamId(), UNDEFINED, UNDEFINED, UNDEFINED);
+    }
+
+    @Benchmark
+    public List<SimplifiedUser> byName() {
+        return userService.searchUsers(organizationId, UNDEFINED, UNDEFINED, UNDEFINED, "Gul");
+    }
+
+    @Benchmark
+    public List<SimplifiedUser> byJobTitleAndName() {
+        return userService.searchUsers(organizationId, UNDEFINED, jobTitleId, "Pel", UNDEFINED);
+    }
+
+    // region Helper Methods
+
+    private String randomTeamId() {
+        return String.valueOf(application.randomTeamId());
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,90 @@
+package com.monitise.performhance.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Minimal JSON over HTTP client on HttpURLConnection, which keeps connections alive between requests.
+public class HttpClient {
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public HttpClient(int port) {
+        baseUrl = "http://localhost:" + port;
+    }
+
+    // Returns the status code. The response body is read fully, so that the connection can be reused.
+    public int send(String method, String path, String authorization, Object body) throws IOException {
+        return execute(method, path, authorization, body).status;
+    }
+
+    public String issueToken(String username, String password) throws IOException {
+        String credentials = Base64.getEncoder().encodeToString(
+                (username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        Result result = execute("POST", "/tokens/", "Basic " + credentials, null);
+        if (result.status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Could not issue a token for " + username + ", status " + result.status);
+        }
+        JsonNode response = objectMapper.readTree(result.body);
+        return "Bearer " + response.get("data").get("token").asText();
+    }
+
+    // region Helper Methods
+
+    private Result execute(String method, String path, String authorization, Object body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Authorization", authorization);
+        connection.setRequestProperty("Accept", "application/json");
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream output = connection.getOutputStream()) {
+                objectMapper.writeValue(output, body);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream input = status < HttpURLConnection.HTTP_BAD_REQUEST
+                ? connection.getInputStream() : connection.getErrorStream();
+        return new Result(status, readFully(input));
+    }
+
+    private byte[] readFully(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (input == null) {
+            return output.toByteArray();
+        }
+        try (InputStream stream = input) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        return output.toByteArray();
+    }
+
+    // endregion
+
+    private static class Result {
+
+        private final int status;
+        private final byte[] body;
+
+        Result(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+    }
+
+}
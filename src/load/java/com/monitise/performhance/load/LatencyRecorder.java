@@ -0,0 +1,48 @@
+package com.monitise.performhance.load;
+
+import java.util.Arrays;
+
+// Latencies of a single endpoint. Not thread-safe, every worker keeps its own and they are merged at the end.
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errorCount;
+
+    public void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errorCount++;
+        }
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], true);
+        }
+        errorCount += other.errorCount;
+    }
+
+    // Nearest-rank percentile in milliseconds, percentile in (0, 100].
+    public double getPercentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+}
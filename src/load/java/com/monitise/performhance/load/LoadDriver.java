@@ -0,0 +1,321 @@
+package com.monitise.performhance.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.monitise.performhance.Application;
+import com.monitise.performhance.generator.DataGenerator;
+import com.monitise.performhance.generator.GeneratedOrganization;
+import com.monitise.performhance.generator.GeneratorSettings;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Boots the application on a random port against a generated in-memory H2 dataset, drives concurrent token
+// authenticated traffic at its REST endpoints, and reports throughput and latency percentiles per endpoint.
+// Configured by load.* properties, see LoadSettings, and generator.* properties, see GeneratorSettings.
+public final class LoadDriver {
+
+    // Every tenth employee who does not lead a team is moved between teams, the others review their teammates.
+    private static final int MOVABLE_EMPLOYEE_INTERVAL = 10;
+    private static final String[] SEARCHED_NAMES = {"Pel", "Fa", "Ay", "Zeynep", "Can"};
+
+    private final LoadSettings settings;
+    private final GeneratedOrganization organization;
+    private final HttpClient client;
+    private final String password;
+
+    private String managerToken;
+    private final List<Integer> reviewerIndexes = new ArrayList<>();
+    private final List<String> reviewerTokens = new ArrayList<>();
+    private final Map<Integer, List<Integer>> stableMembers = new HashMap<>();
+    private final List<Integer> movableIndexes = new ArrayList<>();
+
+    private volatile boolean measuring;
+    private volatile long endTime;
+
+    private LoadDriver(LoadSettings settings, GeneratedOrganization organization, HttpClient client, String password) {
+        this.settings = settings;
+        this.organization = organization;
+        this.client = client;
+        this.password = password;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings loadSettings = LoadSettings.fromProperties(System.getProperties());
+        GeneratorSettings generatorSettings = GeneratorSettings.fromProperties(System.getProperties());
+        ConfigurableApplicationContext context = start();
+        try {
+            int port = ((EmbeddedWebApplicationContext) context).getEmbeddedServletContainer().getPort();
+            GeneratedOrganization organization =
+                    new DataGenerator(context.getBean(JdbcTemplate.class), generatorSettings).generate().get(0);
+            LoadDriver driver = new LoadDriver(loadSettings, organization, new HttpClient(port),
+                    generatorSettings.getPassword());
+            driver.prepare();
+            driver.report(driver.run());
+        } finally {
+            context.close();
+        }
+    }
+
+    // region Helper Methods
+
+    private static ConfigurableApplicationContext start() {
+        // Command line arguments take precedence over application.properties.
+        String[] args = {
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:Load;DB_CLOSE_DELAY=-1;MV_STORE=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database=H2",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN"
+        };
+        return new SpringApplicationBuilder(Application.class)
+                .bannerMode(Banner.Mode.OFF)
+                .run(args);
+    }
+
+    private void prepare() throws IOException {
+        managerToken = client.issueToken(organization.getManagerUsername(), password);
+
+        List<Integer> employeeIds = organization.getEmployeeIds();
+        int nonLeaderCount = 0;
+        for (int i = 0; i < employeeIds.size(); i++) {
+            if (organization.getTeamLeaderIds().contains(employeeIds.get(i))) {
+                continue;
+            }
+            if (nonLeaderCount++ % MOVABLE_EMPLOYEE_INTERVAL == 0) {
+                movableIndexes.add(i);
+            } else {
+                int teamId = organization.getEmployeeTeamIds().get(i);
+                stableMembers.computeIfAbsent(teamId, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (List<Integer> members : stableMembers.values()) {
+            if (members.size() < 2) {
+                continue;
+            }
+            for (int index : members) {
+                if (reviewerIndexes.size() == settings.getReviewerCount()) {
+                    return;
+                }
+                reviewerIndexes.add(index);
+                reviewerTokens.add(client.issueToken(organization.getEmployeeUsernames().get(index), password));
+            }
+        }
+    }
+
+    private Map<String, LatencyRecorder> run() throws Exception {
+        int concurrency = settings.getConcurrency();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>();
+        endTime = Long.MAX_VALUE;
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(i);
+            futures.add(executor.submit(worker::run));
+        }
+
+        Thread.sleep(settings.getWarmupSeconds() * 1000L);
+        measuring = true;
+        endTime = System.nanoTime() + settings.getDurationSeconds() * 1000000000L;
+
+        Map<String, LatencyRecorder> recorders = new TreeMap<>();
+        for (Future<Map<String, LatencyRecorder>> future : futures) {
+            for (Map.Entry<String, LatencyRecorder> entry : future.get().entrySet()) {
+                recorders.computeIfAbsent(entry.getKey(), key -> new LatencyRecorder()).merge(entry.getValue());
+            }
+        }
+        executor.shutdown();
+        return recorders;
+    }
+
+    private void report(Map<String, LatencyRecorder> recorders) throws IOException {
+        int duration = settings.getDurationSeconds();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.println();
+        System.out.println(String.format("%-40s %9s %7s %10s %9s %9s %9s", "Endpoint", "Requests", "Errors",
+                "Req/s", "p50 ms", "p95 ms", "p99 ms"));
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey());
+            row.put("requests", recorder.getCount());
+            row.put("errors", recorder.getErrorCount());
+            row.put("throughput", (double) recorder.getCount() / duration);
+            row.put("p50", recorder.getPercentileMillis(50));
+            row.put("p95", recorder.getPercentileMillis(95));
+            row.put("p99", recorder.getPercentileMillis(99));
+            rows.add(row);
+            System.out.println(String.format("%-40s %9d %7d %10.1f %9.2f %9.2f %9.2f", row.get("endpoint"),
+                    row.get("requests"), row.get("errors"), row.get("throughput"), row.get("p50"), row.get("p95"),
+                    row.get("p99")));
+        }
+
+        if (settings.getResultFile() != null) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("concurrency", settings.getConcurrency());
+            result.put("durationSeconds", duration);
+            result.put("mix", settings.getMix());
+            result.put("endpoints", rows);
+            File file = new File(settings.getResultFile());
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+            System.out.println("Results are saved to " + file.getAbsolutePath());
+        }
+    }
+
+    // endregion
+
+    // Picks operations by the configured mix until the measurement ends. Only moves its own share of the
+    // movable employees, so that workers do not conflict with each other.
+    private class Worker {
+
+        private final Random random;
+        private final Map<String, LatencyRecorder> recorders = new HashMap<>();
+        private final List<Integer> ownIndexes = new ArrayList<>();
+        private final Map<Integer, Integer> currentTeamIds = new HashMap<>();
+        private final int totalWeight;
+
+        Worker(int number) {
+            random = new Random(number);
+            for (int i = number; i < movableIndexes.size(); i += settings.getConcurrency()) {
+                int index = movableIndexes.get(i);
+                ownIndexes.add(index);
+                currentTeamIds.put(index, organization.getEmployeeTeamIds().get(index));
+            }
+            int weight = 0;
+            for (int value : settings.getMix().values()) {
+                weight += value;
+            }
+            totalWeight = weight;
+        }
+
+        Map<String, LatencyRecorder> run() {
+            while (System.nanoTime() < endTime) {
+                switch (nextOperation()) {
+                    case SUBMIT_REVIEW:
+                        submitReview();
+                        break;
+                    case READ_SCORE:
+                        readScore();
+                        break;
+                    case SEARCH_USERS:
+                        searchUsers();
+                        break;
+                    default:
+                        changeMembership();
+                        break;
+                }
+            }
+            return recorders;
+        }
+
+        private Operation nextOperation() {
+            int value = random.nextInt(totalWeight);
+            for (Map.Entry<Operation, Integer> entry : settings.getMix().entrySet()) {
+                value -= entry.getValue();
+                if (value < 0) {
+                    return entry.getKey();
+                }
+            }
+            return Operation.READ_SCORE;
+        }
+
+        private void submitReview() {
+            if (reviewerIndexes.isEmpty()) {
+                return;
+            }
+            int reviewer = random.nextInt(reviewerIndexes.size());
+            int reviewerIndex = reviewerIndexes.get(reviewer);
+            List<Integer> teammates = stableMembers.get(organization.getEmployeeTeamIds().get(reviewerIndex));
+            int reviewedIndex = reviewerIndex;
+            while (reviewedIndex == reviewerIndex) {
+                reviewedIndex = teammates.get(random.nextInt(teammates.size()));
+            }
+
+            Map<Integer, Integer> evaluation = new HashMap<>();
+            for (int criteriaId : organization.getEmployeeCriteriaIds().get(reviewedIndex)) {
+                evaluation.put(criteriaId, random.nextInt(101));
+            }
+            Map<String, Object> body = new HashMap<>();
+            body.put("reviewedEmployeeId", organization.getEmployeeIds().get(reviewedIndex));
+            body.put("reviewerId", organization.getEmployeeIds().get(reviewerIndex));
+            body.put("evaluationIdMap", evaluation);
+            body.put("comment", "Load test review.");
+            send("POST /reviews/", "POST", "/reviews/", reviewerTokens.get(reviewer), body);
+        }
+
+        private void readScore() {
+            List<Integer> employeeIds = organization.getEmployeeIds();
+            int userId = employeeIds.get(random.nextInt(employeeIds.size()));
+            send("GET /users/{userId}/score", "GET", "/users/" + userId + "/score", managerToken, null);
+        }
+
+        private void searchUsers() {
+            String query;
+            if (random.nextBoolean()) {
+                List<Integer> teamIds = organization.getTeamIds();
+                query = "teamId=" + teamIds.get(random.nextInt(teamIds.size()));
+            } else {
+                query = "name=" + SEARCHED_NAMES[random.nextInt(SEARCHED_NAMES.length)];
+            }
+            send("GET /users/search", "GET", "/users/search?" + query, managerToken, null);
+        }
+
+        private void changeMembership() {
+            if (ownIndexes.isEmpty()) {
+                return;
+            }
+            int index = ownIndexes.get(random.nextInt(ownIndexes.size()));
+            int userId = organization.getEmployeeIds().get(index);
+            Integer currentTeamId = currentTeamIds.get(index);
+            if (currentTeamId != null) {
+                String path = "/teams/" + currentTeamId + "/users/" + userId;
+                if (!send("DELETE /teams/{teamId}/users/{userId}", "DELETE", path, managerToken, null)) {
+                    return;
+                }
+                currentTeamIds.put(index, null);
+            }
+            List<Integer> teamIds = organization.getTeamIds();
+            int newTeamId = teamIds.get(random.nextInt(teamIds.size()));
+            String path = "/teams/" + newTeamId + "/users/" + userId;
+            if (send("POST /teams/{teamId}/users/{userId}", "POST", path, managerToken, null)) {
+                currentTeamIds.put(index, newTeamId);
+            }
+        }
+
+        // Returns whether the request succeeded. Only requests that finish within the measurement are recorded.
+        private boolean send(String endpoint, String method, String path, String token, Object body) {
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = client.send(method, path, token, body) < 400;
+            } catch (IOException exception) {
+                success = false;
+            }
+            long end = System.nanoTime();
+            if (measuring && end < endTime) {
+                recorders.computeIfAbsent(endpoint, key -> new LatencyRecorder()).record(end - start, success);
+            }
+            return success;
+        }
+
+    }
+
+}
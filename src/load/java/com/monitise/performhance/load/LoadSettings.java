@@ -0,0 +1,92 @@
+package com.monitise.performhance.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+// Read from load.* properties, e.g. -Dload.concurrency=16 -Dload.mix=reviews:20,scores:40,search:30,membership:10
+public class LoadSettings {
+
+    private int concurrency = 8;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 30;
+    // Relative weights of the operations.
+    private Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    // Number of employees that get a token and submit reviews.
+    private int reviewerCount = 100;
+    private String resultFile;
+
+    public LoadSettings() {
+        mix.put(Operation.SUBMIT_REVIEW, 20);
+        mix.put(Operation.READ_SCORE, 40);
+        mix.put(Operation.SEARCH_USERS, 30);
+        mix.put(Operation.CHANGE_MEMBERSHIP, 10);
+    }
+
+    public static LoadSettings fromProperties(Properties properties) {
+        LoadSettings settings = new LoadSettings();
+        settings.concurrency = getInt(properties, "concurrency", settings.concurrency);
+        settings.warmupSeconds = getInt(properties, "warmupSeconds", settings.warmupSeconds);
+        settings.durationSeconds = getInt(properties, "durationSeconds", settings.durationSeconds);
+        settings.reviewerCount = getInt(properties, "reviewerCount", settings.reviewerCount);
+        settings.resultFile = properties.getProperty("load.resultFile");
+        String mix = properties.getProperty("load.mix");
+        if (mix != null) {
+            settings.mix.clear();
+            for (Operation operation : Operation.values()) {
+                settings.mix.put(operation, 0);
+            }
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split(":");
+                settings.mix.put(toOperation(parts[0]), Integer.parseInt(parts[1]));
+            }
+        }
+        return settings;
+    }
+
+    // region Helper Methods
+
+    private static int getInt(Properties properties, String name, int defaultValue) {
+        return Integer.parseInt(properties.getProperty("load." + name, String.valueOf(defaultValue)));
+    }
+
+    private static Operation toOperation(String propertyName) {
+        for (Operation operation : Operation.values()) {
+            if (operation.getPropertyName().equals(propertyName)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in load.mix: " + propertyName);
+    }
+
+    // endregion
+
+    // region Getters
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public int getReviewerCount() {
+        return reviewerCount;
+    }
+
+    public String getResultFile() {
+        return resultFile;
+    }
+
+    // endregion
+
+}
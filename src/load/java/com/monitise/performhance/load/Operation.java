@@ -0,0 +1,21 @@
+package com.monitise.performhance.load;
+
+// Kinds of traffic the load driver generates. The property name is used to configure the mix.
+public enum Operation {
+
+    SUBMIT_REVIEW("reviews"),
+    READ_SCORE("scores"),
+    SEARCH_USERS("search"),
+    CHANGE_MEMBERSHIP("membership");
+
+    private final String propertyName;
+
+    Operation(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+}
@@ -1,12 +1,28 @@
 package com.monitise.performhance;
 
+import com.monitise.performhance.datasource.PrimaryRoutingInterceptor;
+import com.monitise.performhance.metrics.SessionStatisticsInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 @Configuration
 @EnableAspectJAutoProxy
 @ComponentScan("com.monitise.performhance")
 public class AppConfig extends WebMvcConfigurerAdapter {
+
+    @Autowired
+    private SessionStatisticsInterceptor sessionStatisticsInterceptor;
+    @Autowired
+    private PrimaryRoutingInterceptor primaryRoutingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sessionStatisticsInterceptor);
+        registry.addInterceptor(primaryRoutingInterceptor);
+    }
+
 }
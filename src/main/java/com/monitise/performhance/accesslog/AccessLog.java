@@ -0,0 +1,165 @@
+package com.monitise.performhance.accesslog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitise.performhance.metrics.Counter;
+import com.monitise.performhance.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+// Structured log of the requests. Request threads only put the entries into a ring buffer, a background writer
+// formats them as JSON lines and hands them to the "performhance.access" logger, which can be routed on its own.
+// Entries are dropped rather than slowing requests down when the writer cannot keep up.
+@Component
+public class AccessLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLog.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("performhance.access");
+    private static final String REDACTED = "[REDACTED]";
+
+    @Autowired
+    private AccessLogProperties properties;
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Keeps a single consumer on the buffer. Not the lock of start and stop, which wait for the writer.
+    private final Object flushLock = new Object();
+    private RingBuffer<AccessLogEntry> buffer;
+    private Counter droppedCounter;
+    // Null when no fields are redacted.
+    private Pattern redactedJsonField;
+    private Pattern redactedFormParameter;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        buffer = new RingBuffer<>(properties.getBufferSize());
+        droppedCounter = metricsRegistry.counter("performhance_access_log_dropped_total",
+                "Access log entries dropped because the buffer was full.");
+        metricsRegistry.gauge("performhance_access_log_buffer_depth",
+                "Access log entries waiting for the writer.", buffer::size);
+        compileRedactedFields();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Decided before the request is handled, so that unsampled requests skip capturing the body.
+    public boolean isSampled() {
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public boolean isCapturingBodies() {
+        return properties.isCaptureBodies();
+    }
+
+    public int getMaxBodyLength() {
+        return properties.getMaxBodyLength();
+    }
+
+    // Replaces the values of credential fields, e.g. the password of a new user, before the body is logged.
+    public String redact(String body) {
+        if (redactedJsonField == null) {
+            return body;
+        }
+        String redacted = redactedJsonField.matcher(body).replaceAll("$1\"" + REDACTED + "\"");
+        return redactedFormParameter.matcher(redacted).replaceAll("$1" + REDACTED);
+    }
+
+    public void record(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) {
+            droppedCounter.increment();
+        }
+    }
+
+    // Writes the entries in the buffer. Called by the writer, and on shutdown for the ones it has left.
+    public int flush() {
+        synchronized (flushLock) {
+            int written = 0;
+            AccessLogEntry entry;
+            while ((entry = buffer.poll()) != null) {
+                write(entry);
+                written++;
+            }
+            return written;
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (!isEnabled() || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drain, "access-log");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join();
+        flush();
+    }
+
+    // region Helper Methods
+
+    // Matches a JSON field or form parameter by name, and its value. JSON values may be of any type, and a string
+    // cut short is matched to its end.
+    private void compileRedactedFields() {
+        List<String> names = new ArrayList<>();
+        for (String field : properties.getRedactedFields()) {
+            names.add(Pattern.quote(field));
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        String name = "[^\"&=]*(?:" + String.join("|", names) + ")[^\"&=]*";
+        redactedJsonField = Pattern.compile("(\"" + name + "\"\\s*:\\s*)(?:\"(?:[^\"\\\\]|\\\\.)*\"?|[^,}\\]\\s]+)",
+                Pattern.CASE_INSENSITIVE);
+        redactedFormParameter = Pattern.compile("((?:^|&)" + name + "=)[^&]*", Pattern.CASE_INSENSITIVE);
+    }
+
+    private void drain() {
+        try {
+            while (running) {
+                if (flush() == 0) {
+                    Thread.sleep(properties.getFlushIntervalMillis());
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(AccessLogEntry entry) {
+        try {
+            accessLogger.info(objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException exception) {
+            logger.warn("Could not write an access log entry.", exception);
+        }
+    }
+
+    // endregion
+
+}
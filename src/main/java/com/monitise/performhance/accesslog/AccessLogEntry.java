@@ -0,0 +1,73 @@
+package com.monitise.performhance.accesslog;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One request, written as a JSON line. Principal and organization are left out for anonymous requests.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccessLogEntry {
+
+    private final long timestamp;
+    private final String method;
+    private final String path;
+    private final String query;
+    private final int status;
+    private final double latencyMillis;
+    private final String principal;
+    private final Integer organizationId;
+    private final String body;
+
+    public AccessLogEntry(long timestamp, String method, String path, String query, int status, double latencyMillis,
+                          String principal, Integer organizationId, String body) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.status = status;
+        this.latencyMillis = latencyMillis;
+        this.principal = principal;
+        this.organizationId = organizationId;
+        this.body = body;
+    }
+
+    // region Getters
+
+    // Start of the request in milliseconds since the epoch.
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public Integer getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,102 @@
+package com.monitise.performhance.accesslog;
+
+import com.monitise.performhance.helpers.AuthenticatedPrincipal;
+import com.monitise.performhance.helpers.AuthenticationContext;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Records the requests in the access log. Sits in the security filter chain right after the security context is
+// loaded, so that the authenticated user is still known when the request completes, also for rejected requests.
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final int SERVER_ERROR = 500;
+
+    private final AccessLog accessLog;
+    private final AuthenticationContext authenticationContext;
+
+    public AccessLogFilter(AccessLog accessLog, AuthenticationContext authenticationContext) {
+        this.accessLog = accessLog;
+        this.authenticationContext = authenticationContext;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!accessLog.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        boolean sampled = accessLog.isSampled();
+        // Only caches what the handler reads, so the body is not consumed here.
+        ContentCachingRequestWrapper wrapper = null;
+        if (sampled && accessLog.isCapturingBodies()) {
+            wrapper = new ContentCachingRequestWrapper(request);
+        }
+        boolean completed = false;
+        try {
+            chain.doFilter(wrapper == null ? request : wrapper, response);
+            completed = true;
+        } finally {
+            // An exception left to the container becomes a server error after this filter.
+            int status = completed ? response.getStatus() : SERVER_ERROR;
+            if (sampled || status >= SERVER_ERROR) {
+                double latencyMillis = (double) (System.nanoTime() - start) / TimeUnit.MILLISECONDS.toNanos(1);
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                boolean authenticated = auth != null && !(auth instanceof AnonymousAuthenticationToken);
+                accessLog.record(new AccessLogEntry(timestamp, request.getMethod(), request.getRequestURI(),
+                        request.getQueryString(), status, latencyMillis, authenticated ? auth.getName() : null,
+                        authenticated ? getOrganizationId(auth) : null, getBody(wrapper)));
+            }
+        }
+    }
+
+    // region Helper Methods
+
+    // Token authenticated requests carry the organization. For the others it is only there if the request has
+    // resolved the user already, it is not looked up for the log.
+    private Integer getOrganizationId(Authentication auth) {
+        if (auth.getPrincipal() instanceof AuthenticatedPrincipal) {
+            return ((AuthenticatedPrincipal) auth.getPrincipal()).getOrganizationId();
+        }
+        boolean inRequest = RequestContextHolder.getRequestAttributes() != null;
+        if (!inRequest || !authenticationContext.isResolvedFor(auth.getName())) {
+            return null;
+        }
+        return authenticationContext.getPrincipal().getOrganizationId();
+    }
+
+    private String getBody(ContentCachingRequestWrapper wrapper) {
+        if (wrapper == null) {
+            return null;
+        }
+        byte[] content = wrapper.getContentAsByteArray();
+        if (content.length == 0) {
+            return null;
+        }
+        String body;
+        try {
+            body = accessLog.redact(new String(content, wrapper.getCharacterEncoding()));
+        } catch (UnsupportedEncodingException exception) {
+            return null;
+        }
+        int maxBodyLength = accessLog.getMaxBodyLength();
+        return body.length() > maxBodyLength ? body.substring(0, maxBodyLength) : body;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,88 @@
+package com.monitise.performhance.accesslog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "performhance.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+    // Share of the requests that are logged, from 0 to 1. Server errors are logged regardless.
+    private double sampleRate = 1;
+    // Entries waiting for the writer. Must be a power of two, entries are dropped while it is full.
+    private int bufferSize = 8192;
+    // Wait of the writer when the buffer is empty.
+    private long flushIntervalMillis = 100;
+    // Logs the request body of sampled requests, as far as the handler has read it.
+    private boolean captureBodies;
+    private int maxBodyLength = 1024;
+    // Values of the JSON fields and form parameters whose name contains one of these, ignoring case, are replaced in
+    // the logged bodies.
+    private List<String> redactedFields = new ArrayList<>(Collections.singletonList("password"));
+
+    // region Getters & Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public boolean isCaptureBodies() {
+        return captureBodies;
+    }
+
+    public void setCaptureBodies(boolean captureBodies) {
+        this.captureBodies = captureBodies;
+    }
+
+    public int getMaxBodyLength() {
+        return maxBodyLength;
+    }
+
+    public void setMaxBodyLength(int maxBodyLength) {
+        this.maxBodyLength = maxBodyLength;
+    }
+
+    public List<String> getRedactedFields() {
+        return redactedFields;
+    }
+
+    public void setRedactedFields(List<String> redactedFields) {
+        this.redactedFields = redactedFields;
+    }
+
+    // endregion
+
+}
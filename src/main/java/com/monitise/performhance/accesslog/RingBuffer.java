@@ -0,0 +1,77 @@
+package com.monitise.performhance.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded queue that any number of threads offer to without taking a lock, drained by a single thread.
+// Each slot has a sequence telling whose turn it is: a producer claims the position by moving the tail, fills the slot
+// and then publishes it by moving the sequence on. The consumer takes a slot once it is published, and hands it back
+// to the producers one lap later. When the consumer falls behind by a whole lap, offers fail instead of waiting.
+public class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only moved by the consumer, volatile so that the size can be read from other threads.
+    private volatile long head;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity of the ring buffer must be a power of two.");
+        }
+        slots = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    // Returns false if the buffer is full.
+    public boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = item;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                // Another producer has claimed the position already.
+                position = tail.get();
+            }
+        }
+    }
+
+    // Returns null if nothing is published at the head. Must only be called by one thread at a time.
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        head = position + 1;
+        T item = (T) slots[index];
+        slots[index] = null;
+        sequences.set(index, position + slots.length);
+        return item;
+    }
+
+    // Items claimed and not yet taken, including ones that are still being published.
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.monitise.performhance.api;
+
+import com.monitise.performhance.api.model.CacheStatisticsResponse;
+import com.monitise.performhance.api.model.Response;
+import com.monitise.performhance.services.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/caches")
+public class CacheController {
+
+    // region Dependencies
+
+    @Autowired
+    private CacheService cacheService;
+
+    // endregion
+
+    @Secured("ROLE_ADMIN")
+    @RequestMapping(value = "/", method = RequestMethod.GET)
+    public Response<List<CacheStatisticsResponse>> getStatistics() {
+        Response<List<CacheStatisticsResponse>> response = new Response<>();
+        response.setData(cacheService.getStatistics());
+        response.setSuccess(true);
+        return response;
+    }
+
+    // For rows that were changed in the database directly.
+    @Secured("ROLE_ADMIN")
+    @RequestMapping(value = "/", method = RequestMethod.DELETE)
+    public Response<Object> evictAll() {
+        cacheService.evictAll();
+        Response<Object> response = new Response<>();
+        response.setSuccess(true);
+        return response;
+    }
+
+}
@@ -3,11 +3,14 @@ package com.monitise.performhance.api;
 import com.monitise.performhance.api.model.CriteriaRequest;
 import com.monitise.performhance.api.model.CriteriaResponse;
 import com.monitise.performhance.api.model.ExtendedResponse;
+import com.monitise.performhance.api.model.PagedResponse;
 import com.monitise.performhance.api.model.Response;
 import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.entity.Criteria;
 import com.monitise.performhance.entity.Organization;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
 import com.monitise.performhance.helpers.RelationshipHelper;
 import com.monitise.performhance.helpers.SecurityHelper;
 import com.monitise.performhance.helpers.Util;
@@ -23,6 +26,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
@@ -55,13 +59,18 @@ public class CriteriaController {
 
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/", method = RequestMethod.GET)
-    public Response<List<CriteriaResponse>> getAll() throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
-        List<Criteria> list = criteriaService.getAllFilterByOrganizationId(organizationId);
-
-        List<CriteriaResponse> criteriaResponseList = CriteriaResponse.fromList(list);
-        Response<List<CriteriaResponse>> response = new Response<>();
+    public PagedResponse<List<CriteriaResponse>> getAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", required = false, defaultValue = PaginationHelper.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(value = "sort", required = false, defaultValue = PaginationHelper.DEFAULT_SORT) String sort)
+            throws BaseException {
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
+        KeysetPage<Criteria> page = criteriaService.getPageFilterByOrganizationId(organizationId, after, size, sort);
+
+        List<CriteriaResponse> criteriaResponseList = CriteriaResponse.fromList(page.getContent());
+        PagedResponse<List<CriteriaResponse>> response = new PagedResponse<>();
         response.setData(criteriaResponseList);
+        response.setNextCursor(page.getNextCursor());
         response.setSuccess(true);
         return response;
     }
@@ -69,7 +78,7 @@ public class CriteriaController {
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/", method = RequestMethod.POST)
     public Response<CriteriaResponse> add(@RequestBody CriteriaRequest criteriaRequest) throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
         Criteria criteria = new Criteria(criteriaRequest.getCriteria(), organizationService.get(organizationId));
         Criteria criteriaFromService = criteriaService.add(criteria);
 
@@ -51,7 +51,7 @@ public class JobTitleController {
 
     @RequestMapping(value = "/", method = RequestMethod.GET)
     public Response<List<JobTitleResponse>> getAll() throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
         List<JobTitle> list = jobTitleService.getListFilterByOrganizationId(organizationId);
 
         List<JobTitleResponse> responseList = JobTitleResponse.fromList(list);
@@ -64,7 +64,7 @@ public class JobTitleController {
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/", method = RequestMethod.POST)
     public Response<JobTitleResponse> add(@RequestBody AddJobTitleRequest addJobTitleRequest) throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
         validateAddJobTitleRequest(addJobTitleRequest);
         Organization organization = organizationService.get(organizationId);
         JobTitle jobTitle = new JobTitle(addJobTitleRequest.getTitle(), organization);
@@ -0,0 +1,28 @@
+package com.monitise.performhance.api;
+
+import com.monitise.performhance.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    // region Dependencies
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // endregion
+
+    // In the Prometheus text format rather than a Response, so that it can be scraped as it is.
+    @Secured("ROLE_ADMIN")
+    @RequestMapping(value = "/", method = RequestMethod.GET, produces = MetricsRegistry.CONTENT_TYPE)
+    public String getMetrics() {
+        return metricsRegistry.write();
+    }
+
+}
@@ -2,12 +2,16 @@ package com.monitise.performhance.api;
 
 import com.monitise.performhance.api.model.AddOrganizationRequest;
 import com.monitise.performhance.api.model.CriteriaResponse;
+import com.monitise.performhance.api.model.LeaderboardResponse;
 import com.monitise.performhance.api.model.OrganizationJobTitleResponse;
 import com.monitise.performhance.api.model.OrganizationResponse;
 import com.monitise.performhance.api.model.OrganizationUserResponse;
+import com.monitise.performhance.api.model.PagedResponse;
+import com.monitise.performhance.api.model.RemovalReport;
 import com.monitise.performhance.api.model.Response;
 import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.api.model.ScoreDistributionResponse;
 import com.monitise.performhance.api.model.SimplifiedOrganization;
 import com.monitise.performhance.api.model.SimplifiedTeam;
 import com.monitise.performhance.api.model.UpdateOrganizationRequest;
@@ -17,12 +21,16 @@ import com.monitise.performhance.entity.Organization;
 import com.monitise.performhance.entity.Team;
 import com.monitise.performhance.entity.User;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
 import com.monitise.performhance.helpers.RelationshipHelper;
 import com.monitise.performhance.helpers.SecurityHelper;
 import com.monitise.performhance.helpers.Util;
 import com.monitise.performhance.services.CriteriaService;
 import com.monitise.performhance.services.JobTitleService;
+import com.monitise.performhance.services.LeaderboardService;
 import com.monitise.performhance.services.OrganizationService;
+import com.monitise.performhance.services.ScoreDistributionService;
 import com.monitise.performhance.services.TeamService;
 import com.monitise.performhance.services.UserService;
 import org.omg.CORBA.Object;
@@ -32,6 +40,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -56,16 +65,25 @@ public class OrganizationController {
     private CriteriaService criteriaService;
     @Autowired
     private RelationshipHelper relationshipHelper;
+    @Autowired
+    private ScoreDistributionService scoreDistributionService;
+    @Autowired
+    private LeaderboardService leaderboardService;
 
     // endregion
 
     @RequestMapping(value = "/", method = RequestMethod.GET)
-    public Response<List<SimplifiedOrganization>> getAll() {
-        List<Organization> list = organizationService.getAll();
-        List<SimplifiedOrganization> responseList = SimplifiedOrganization.fromList(list);
-        Response<List<SimplifiedOrganization>> response = new Response<>();
+    public PagedResponse<List<SimplifiedOrganization>> getAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", required = false, defaultValue = PaginationHelper.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(value = "sort", required = false, defaultValue = PaginationHelper.DEFAULT_SORT) String sort)
+            throws BaseException {
+        KeysetPage<Organization> page = organizationService.getPage(after, size, sort);
+        List<SimplifiedOrganization> responseList = SimplifiedOrganization.fromList(page.getContent());
+        PagedResponse<List<SimplifiedOrganization>> response = new PagedResponse<>();
         response.setSuccess(true);
         response.setData(responseList);
+        response.setNextCursor(page.getNextCursor());
         return response;
     }
 
@@ -97,7 +115,7 @@ public class OrganizationController {
 
     @RequestMapping(value = "/{organizationId}", method = RequestMethod.GET)
     public Response<OrganizationResponse> get(@PathVariable int organizationId) throws BaseException {
-        Organization organizationFromService = organizationService.get(organizationId);
+        Organization organizationFromService = organizationService.getWithDetails(organizationId);
         securityHelper.checkAuthentication(organizationId);
 
         OrganizationResponse responseOrganization = OrganizationResponse.fromOrganization(organizationFromService);
@@ -113,7 +131,7 @@ public class OrganizationController {
                                                  @PathVariable int organizationId) throws BaseException {
         securityHelper.checkAuthentication(organizationId);
         organizationService.updateFromRequest(updateOrganizationRequest, organizationId);
-        Organization organization = organizationService.get(organizationId);
+        Organization organization = organizationService.getWithDetails(organizationId);
 
         OrganizationResponse organizationResponse = OrganizationResponse.fromOrganization(organization);
         Response<OrganizationResponse> response = new Response<>();
@@ -124,10 +142,40 @@ public class OrganizationController {
 
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/{organizationId}", method = RequestMethod.DELETE)
-    public Response<Object> delete(@PathVariable int organizationId) throws BaseException {
+    public Response<RemovalReport> delete(@PathVariable int organizationId) throws BaseException {
+        securityHelper.checkAuthentication(organizationId);
+        RemovalReport removalReport = organizationService.remove(organizationId);
+        Response<RemovalReport> response = new Response<>();
+        response.setData(removalReport);
+        response.setSuccess(true);
+        return response;
+    }
+
+    @Secured("ROLE_MANAGER")
+    @RequestMapping(value = "/{organizationId}/scores/distribution", method = RequestMethod.GET)
+    public Response<List<ScoreDistributionResponse>> getScoreDistributions(@PathVariable int organizationId)
+            throws BaseException {
+        securityHelper.checkAuthentication(organizationId);
+        List<ScoreDistributionResponse> distributions = scoreDistributionService.getByOrganizationId(organizationId);
+        Response<List<ScoreDistributionResponse>> response = new Response<>();
+        response.setData(distributions);
+        response.setSuccess(true);
+        return response;
+    }
+
+    @Secured("ROLE_MANAGER")
+    @RequestMapping(value = "/{organizationId}/scores/leaderboard", method = RequestMethod.GET)
+    public Response<List<LeaderboardResponse>> getLeaderboards(
+            @PathVariable int organizationId,
+            @RequestParam(value = "criteriaId", required = false) Integer criteriaId,
+            @RequestParam(value = "size", required = false, defaultValue = LeaderboardService.DEFAULT_SIZE) int size,
+            @RequestParam(value = "order", required = false, defaultValue = LeaderboardService.TOP) String order)
+            throws BaseException {
         securityHelper.checkAuthentication(organizationId);
-        organizationService.remove(organizationId);
-        Response<Object> response = new Response<>();
+        List<LeaderboardResponse> leaderboards =
+                leaderboardService.getByOrganizationId(organizationId, criteriaId, size, order);
+        Response<List<LeaderboardResponse>> response = new Response<>();
+        response.setData(leaderboards);
         response.setSuccess(true);
         return response;
     }
@@ -1,17 +1,23 @@
 package com.monitise.performhance.api;
 
 import com.monitise.performhance.api.model.AddReviewRequest;
+import com.monitise.performhance.api.model.PagedResponse;
 import com.monitise.performhance.api.model.Response;
 import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.ReviewIngestionStatisticsResponse;
 import com.monitise.performhance.api.model.ReviewResponse;
 import com.monitise.performhance.api.model.SimplifiedReview;
 import com.monitise.performhance.entity.Criteria;
 import com.monitise.performhance.entity.Review;
 import com.monitise.performhance.entity.User;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.AuthenticatedPrincipal;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
 import com.monitise.performhance.helpers.RelationshipHelper;
 import com.monitise.performhance.helpers.SecurityHelper;
 import com.monitise.performhance.services.CriteriaService;
+import com.monitise.performhance.services.ReviewIngestionService;
 import com.monitise.performhance.services.ReviewService;
 import com.monitise.performhance.services.UserService;
 import org.omg.CORBA.Object;
@@ -21,6 +27,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
@@ -37,6 +44,8 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
     @Autowired
+    private ReviewIngestionService reviewIngestionService;
+    @Autowired
     private UserService userService;
     @Autowired
     private CriteriaService criteriaService;
@@ -49,11 +58,15 @@ public class ReviewController {
 
     @Secured({"ROLE_MANAGER", "ROLE_TEAM_LEADER"})
     @RequestMapping(value = "/", method = RequestMethod.GET)
-    public Response<List<SimplifiedReview>> getAll() throws BaseException {
-        List<Review> list = getListForAuthenticatedUser();
-        List<SimplifiedReview> simplifiedReviews = SimplifiedReview.fromList(list);
-        Response<List<SimplifiedReview>> response = new Response<>();
-        response.setData(simplifiedReviews);
+    public PagedResponse<List<SimplifiedReview>> getAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", required = false, defaultValue = PaginationHelper.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(value = "sort", required = false, defaultValue = PaginationHelper.DEFAULT_SORT) String sort)
+            throws BaseException {
+        KeysetPage<SimplifiedReview> page = getPageForAuthenticatedUser(after, size, sort);
+        PagedResponse<List<SimplifiedReview>> response = new PagedResponse<>();
+        response.setData(page.getContent());
+        response.setNextCursor(page.getNextCursor());
         response.setSuccess(true);
         return response;
     }
@@ -61,21 +74,40 @@ public class ReviewController {
     @Secured({"ROLE_EMPLOYEE", "ROLE_TEAM_LEADER"})
     @RequestMapping(value = "/", method = RequestMethod.POST)
     public Response<ReviewResponse> add(@RequestBody AddReviewRequest reviewRequest) throws BaseException {
-        validate(reviewRequest);
+        User reviewedUser = userService.get(reviewRequest.getReviewedEmployeeId());
+        User reviewer = userService.get(reviewRequest.getReviewerId());
+        relationshipHelper.ensureEmployeeRelationship(reviewedUser, reviewer);
+        Map<Criteria, Integer> evaluation = buildCriteriaMapFromIdMap(reviewedUser, reviewRequest.getEvaluationIdMap());
+        validate(reviewedUser, evaluation);
         Review review = new Review(
-                userService.get(reviewRequest.getReviewedEmployeeId()),
-                userService.get(reviewRequest.getReviewerId()),
-                buildCriteriaMapFromIdMap(reviewRequest.getEvaluationIdMap()),
+                reviewedUser,
+                reviewer,
+                evaluation,
                 reviewRequest.getComment()
         );
-        Review reviewFromService = reviewService.add(review);
-        ReviewResponse reviewResponse = new ReviewResponse(reviewFromService);
+        ReviewResponse reviewResponse;
+        if (reviewIngestionService.isEnabled()) {
+            // The review is written to the database later, so it has no id yet.
+            reviewIngestionService.accept(review);
+            reviewResponse = new ReviewResponse(review);
+        } else {
+            reviewResponse = new ReviewResponse(reviewService.add(review));
+        }
         Response<ReviewResponse> response = new Response<>();
         response.setData(reviewResponse);
         response.setSuccess(true);
         return response;
     }
 
+    @Secured("ROLE_ADMIN")
+    @RequestMapping(value = "/ingestion", method = RequestMethod.GET)
+    public Response<ReviewIngestionStatisticsResponse> getIngestionStatistics() throws BaseException {
+        Response<ReviewIngestionStatisticsResponse> response = new Response<>();
+        response.setData(reviewIngestionService.getStatistics());
+        response.setSuccess(true);
+        return response;
+    }
+
     @Secured({"ROLE_MANAGER", "ROLE_TEAM_LEADER"})
     @RequestMapping(value = "/{reviewId}", method = RequestMethod.GET)
     public Response<ReviewResponse> get(@PathVariable int reviewId) throws BaseException {
@@ -103,25 +135,13 @@ public class ReviewController {
 
     // region Helper Methods
 
-    private void validate(AddReviewRequest reviewRequest) throws BaseException {
-        User reviewedUser = userService.get(reviewRequest.getReviewedEmployeeId());
-        User reviewer = userService.get(reviewRequest.getReviewerId());
-        relationshipHelper.ensureEmployeeRelationship(reviewedUser, reviewer);
-
-        List<Criteria> criteriaList = reviewedUser.getCriteriaList();
-        int userCriteriaCount = criteriaList.size();
+    // Criteria of the evaluation are already resolved from the employee's own criteria list.
+    private void validate(User reviewedUser, Map<Criteria, Integer> evaluation) throws BaseException {
+        int userCriteriaCount = reviewedUser.getCriteriaList().size();
         int requestCriteriaCount = 0;
 
-        for (Map.Entry entry : buildCriteriaMapFromIdMap(reviewRequest.getEvaluationIdMap()).entrySet()) {
-            Criteria criteria = (Criteria) entry.getKey();
-            int value = (Integer) entry.getValue();
-
-            // Remove this criteria from user's criteria list.
-            // At the end the list should be empty, so that all criteria are evaluated.
-            if (!criteriaList.contains(criteria)) {
-                throw new BaseException(ResponseCode.CRITERIA_DOES_NOT_EXIST_IN_USER,
-                        "Criteria (" + criteria.getId() + ") does not belong to this employee.");
-            }
+        for (Map.Entry<Criteria, Integer> entry : evaluation.entrySet()) {
+            int value = entry.getValue();
             requestCriteriaCount++;
 
             if (value < 0 || value > 100) {
@@ -136,25 +156,39 @@ public class ReviewController {
         }
     }
 
-    private Map<Criteria, Integer> buildCriteriaMapFromIdMap(Map<Integer, Integer> map) throws BaseException {
+    // Resolves the criteria from the reviewed user's criteria list, which is loaded once for the whole request.
+    private Map<Criteria, Integer> buildCriteriaMapFromIdMap(User reviewedUser, Map<Integer, Integer> map)
+            throws BaseException {
+        Map<Integer, Criteria> userCriteriaMap = new HashMap<>();
+        for (Criteria criteria : reviewedUser.getCriteriaList()) {
+            userCriteriaMap.put(criteria.getId(), criteria);
+        }
+
         Map<Criteria, Integer> hashMap = new HashMap<>();
         for (Map.Entry entry : map.entrySet()) {
             int criteriaId = Integer.parseInt(entry.getKey().toString());
             int evaluationValue = Integer.parseInt(entry.getValue().toString());
-            Criteria criteria = criteriaService.get(criteriaId);
+            Criteria criteria = userCriteriaMap.get(criteriaId);
+            if (criteria == null) {
+                // Throws if the criteria does not exist at all.
+                criteriaService.get(criteriaId);
+                throw new BaseException(ResponseCode.CRITERIA_DOES_NOT_EXIST_IN_USER,
+                        "Criteria (" + criteriaId + ") does not belong to this employee.");
+            }
             hashMap.put(criteria, evaluationValue);
         }
         return hashMap;
     }
 
-    private List<Review> getListForAuthenticatedUser() throws BaseException {
-        User user = securityHelper.getAuthenticatedUser();
+    private KeysetPage<SimplifiedReview> getPageForAuthenticatedUser(String after, int size, String sort)
+            throws BaseException {
+        AuthenticatedPrincipal principal = securityHelper.getAuthenticatedPrincipal();
         if (securityHelper.isAuthenticatedUserManager()) {
-            return reviewService.getAllFilterByOrganizationId(user.getOrganization().getId());
-        } else if (securityHelper.isAuthenticatedUserTeamLeader()) {
-            return reviewService.getAllFilterByTeamId(user.getTeam().getId());
+            return reviewService.getPageFilterByOrganizationId(principal.getOrganizationId(), after, size, sort);
+        } else if (securityHelper.isAuthenticatedUserTeamLeader() && principal.getTeamId() != null) {
+            return reviewService.getPageFilterByTeamId(principal.getTeamId(), after, size, sort);
         } else {
-            return new ArrayList<>();
+            return new KeysetPage<>(new ArrayList<>(), null);
         }
     }
 
@@ -0,0 +1,50 @@
+package com.monitise.performhance.api;
+
+import com.monitise.performhance.api.model.Response;
+import com.monitise.performhance.api.model.SessionStatisticsResponse;
+import com.monitise.performhance.metrics.HandlerStatistics;
+import com.monitise.performhance.metrics.SessionStatisticsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/session-statistics")
+public class SessionStatisticsController {
+
+    // region Dependencies
+
+    @Autowired
+    private SessionStatisticsRegistry sessionStatisticsRegistry;
+
+    // endregion
+
+    @Secured("ROLE_ADMIN")
+    @RequestMapping(value = "/", method = RequestMethod.GET)
+    public Response<List<SessionStatisticsResponse>> getStatistics() {
+        List<SessionStatisticsResponse> statisticsList = new ArrayList<>();
+        for (HandlerStatistics statistics : sessionStatisticsRegistry.getAll()) {
+            statisticsList.add(new SessionStatisticsResponse(statistics));
+        }
+        Response<List<SessionStatisticsResponse>> response = new Response<>();
+        response.setData(statisticsList);
+        response.setSuccess(true);
+        return response;
+    }
+
+    // For measuring a change from a clean start.
+    @Secured("ROLE_ADMIN")
+    @RequestMapping(value = "/", method = RequestMethod.DELETE)
+    public Response<Object> reset() {
+        sessionStatisticsRegistry.reset();
+        Response<Object> response = new Response<>();
+        response.setSuccess(true);
+        return response;
+    }
+
+}
@@ -3,8 +3,11 @@ package com.monitise.performhance.api;
 import com.monitise.performhance.api.model.AddJobTitleRequest;
 import com.monitise.performhance.api.model.AddTeamRequest;
 import com.monitise.performhance.api.model.ExtendedResponse;
+import com.monitise.performhance.api.model.LeaderboardResponse;
+import com.monitise.performhance.api.model.PagedResponse;
 import com.monitise.performhance.api.model.Response;
 import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.ScoreDistributionResponse;
 import com.monitise.performhance.api.model.SimplifiedTeam;
 import com.monitise.performhance.api.model.SimplifiedUser;
 import com.monitise.performhance.api.model.TeamResponse;
@@ -12,11 +15,15 @@ import com.monitise.performhance.api.model.UpdateTeamRequest;
 import com.monitise.performhance.entity.Organization;
 import com.monitise.performhance.entity.Team;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
 import com.monitise.performhance.helpers.RelationshipHelper;
 import com.monitise.performhance.helpers.SecurityHelper;
 import com.monitise.performhance.helpers.Util;
 import com.monitise.performhance.services.CriteriaService;
+import com.monitise.performhance.services.LeaderboardService;
 import com.monitise.performhance.services.OrganizationService;
+import com.monitise.performhance.services.ScoreDistributionService;
 import com.monitise.performhance.services.TeamService;
 import com.monitise.performhance.services.UserService;
 import org.omg.CORBA.Object;
@@ -52,18 +59,26 @@ public class TeamController {
     private RelationshipHelper relationshipHelper;
     @Autowired
     private CriteriaService criteriaService;
+    @Autowired
+    private ScoreDistributionService scoreDistributionService;
+    @Autowired
+    private LeaderboardService leaderboardService;
 
     // endregion
 
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/", method = RequestMethod.GET)
-    public Response<List<SimplifiedTeam>> getAll() throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
-        List<Team> list = teamService.getListFilterByOrganizationId(organizationId);
+    public PagedResponse<List<SimplifiedTeam>> getAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", required = false, defaultValue = PaginationHelper.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(value = "sort", required = false, defaultValue = PaginationHelper.DEFAULT_SORT) String sort)
+            throws BaseException {
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
+        KeysetPage<SimplifiedTeam> page = teamService.getPageFilterByOrganizationId(organizationId, after, size, sort);
 
-        List<SimplifiedTeam> responseList = SimplifiedTeam.fromList(list);
-        Response<List<SimplifiedTeam>> response = new Response<>();
-        response.setData(responseList);
+        PagedResponse<List<SimplifiedTeam>> response = new PagedResponse<>();
+        response.setData(page.getContent());
+        response.setNextCursor(page.getNextCursor());
         response.setSuccess(true);
         return response;
     }
@@ -84,7 +99,7 @@ public class TeamController {
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/", method = RequestMethod.POST)
     public Response<TeamResponse> add(@RequestBody AddTeamRequest addTeamRequest) throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
         Organization organization = organizationService.get(organizationId);
         validateAddTeamRequest(addTeamRequest);
         Team team = new Team(addTeamRequest.getName(), organization);
@@ -194,6 +209,34 @@ public class TeamController {
         return response;
     }
 
+    @Secured("ROLE_MANAGER")
+    @RequestMapping(value = "/{teamId}/scores/distribution", method = RequestMethod.GET)
+    public Response<List<ScoreDistributionResponse>> getScoreDistributions(@PathVariable int teamId)
+            throws BaseException {
+        checkAuthentication(teamId);
+        List<ScoreDistributionResponse> distributions = scoreDistributionService.getByTeamId(teamId);
+        Response<List<ScoreDistributionResponse>> response = new Response<>();
+        response.setData(distributions);
+        response.setSuccess(true);
+        return response;
+    }
+
+    @Secured("ROLE_MANAGER")
+    @RequestMapping(value = "/{teamId}/scores/leaderboard", method = RequestMethod.GET)
+    public Response<List<LeaderboardResponse>> getLeaderboards(
+            @PathVariable int teamId,
+            @RequestParam(value = "criteriaId", required = false) Integer criteriaId,
+            @RequestParam(value = "size", required = false, defaultValue = LeaderboardService.DEFAULT_SIZE) int size,
+            @RequestParam(value = "order", required = false, defaultValue = LeaderboardService.TOP) String order)
+            throws BaseException {
+        checkAuthentication(teamId);
+        List<LeaderboardResponse> leaderboards = leaderboardService.getByTeamId(teamId, criteriaId, size, order);
+        Response<List<LeaderboardResponse>> response = new Response<>();
+        response.setData(leaderboards);
+        response.setSuccess(true);
+        return response;
+    }
+
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/search", method = RequestMethod.GET)
     public Response<List<SimplifiedUser>> searchUsers(
@@ -202,10 +245,9 @@ public class TeamController {
         if (teamName.equals(UserService.UNDEFINED)) {
             throw new BaseException(ResponseCode.SEARCH_MISSING_PARAMETERS, "teamName parameter must be specified.");
         }
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
-        List<Team> teamList = teamService.searchTeams(organizationId, teamName);
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
+        List<TeamResponse> teamResponseList = teamService.searchTeams(organizationId, teamName);
 
-        List<TeamResponse> teamResponseList = TeamResponse.fromTeamList(teamList);
         Response response = new Response();
         response.setData(teamResponseList);
         response.setSuccess(true);
@@ -0,0 +1,43 @@
+package com.monitise.performhance.api;
+
+import com.monitise.performhance.api.model.Response;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.TokenResponse;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.exceptions.NotAuthorizedException;
+import com.monitise.performhance.helpers.SecurityHelper;
+import com.monitise.performhance.security.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/tokens")
+public class TokenController {
+
+    // region Dependencies
+
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private SecurityHelper securityHelper;
+
+    // endregion
+
+    @RequestMapping(value = "/", method = RequestMethod.POST)
+    public Response<TokenResponse> issue() throws BaseException {
+        // Otherwise a leaked token could be renewed forever.
+        if (securityHelper.isAuthenticatedWithToken()) {
+            throw new NotAuthorizedException(ResponseCode.TOKEN_RENEWAL_NOT_ALLOWED,
+                    "Tokens can only be issued with username and password.");
+        }
+        TokenResponse tokenResponse = tokenService.issue(securityHelper.getAuthenticatedPrincipal());
+
+        Response<TokenResponse> response = new Response<>();
+        response.setData(tokenResponse);
+        response.setSuccess(true);
+        return response;
+    }
+
+}
@@ -5,6 +5,7 @@ import com.monitise.performhance.api.model.AverageCriteriaScore;
 import com.monitise.performhance.api.model.CriteriaResponse;
 import com.monitise.performhance.api.model.CriteriaUserResponse;
 import com.monitise.performhance.api.model.EmployeeScoreResponse;
+import com.monitise.performhance.api.model.PagedResponse;
 import com.monitise.performhance.api.model.Response;
 import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.api.model.ReviewResponse;
@@ -19,9 +20,14 @@ import com.monitise.performhance.entity.Team;
 import com.monitise.performhance.entity.User;
 import com.monitise.performhance.exceptions.BaseException;
 import com.monitise.performhance.exceptions.NotAuthorizedException;
+import com.monitise.performhance.helpers.AuthenticatedPrincipal;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
 import com.monitise.performhance.helpers.RelationshipHelper;
+import com.monitise.performhance.helpers.ScoreWindow;
 import com.monitise.performhance.helpers.SecurityHelper;
 import com.monitise.performhance.helpers.Util;
+import com.monitise.performhance.services.CriteriaScoreService;
 import com.monitise.performhance.services.CriteriaService;
 import com.monitise.performhance.services.JobTitleService;
 import com.monitise.performhance.services.OrganizationService;
@@ -37,9 +43,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/users")
@@ -61,18 +65,24 @@ public class UserController {
     private CriteriaService criteriaService;
     @Autowired
     private ReviewService reviewService;
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
 
     // endregion
 
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/", method = RequestMethod.GET)
-    public Response<List<SimplifiedUser>> getAll() throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
-        List<User> employees = userService.getByOrganizationId(organizationId);
+    public PagedResponse<List<SimplifiedUser>> getAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", required = false, defaultValue = PaginationHelper.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(value = "sort", required = false, defaultValue = PaginationHelper.DEFAULT_SORT) String sort)
+            throws BaseException {
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
+        KeysetPage<SimplifiedUser> page = userService.getPageByOrganizationId(organizationId, after, size, sort);
 
-        List<SimplifiedUser> simplifiedList = SimplifiedUser.fromUserList(employees);
-        Response<List<SimplifiedUser>> response = new Response<>();
-        response.setData(simplifiedList);
+        PagedResponse<List<SimplifiedUser>> response = new PagedResponse<>();
+        response.setData(page.getContent());
+        response.setNextCursor(page.getNextCursor());
         response.setSuccess(true);
         return response;
     }
@@ -80,7 +90,7 @@ public class UserController {
     @Secured("ROLE_MANAGER")
     @RequestMapping(value = "/", method = RequestMethod.POST)
     public Response<SimplifiedUser> add(@RequestBody AddUserRequest addUserRequest) throws BaseException {
-        int organizationId = securityHelper.getAuthenticatedUser().getOrganization().getId();
+        int organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
         Organization organization = organizationService.get(organizationId);
         validateUserRequest(organization, addUserRequest);
         JobTitle jobTitle = jobTitleService.get(addUserRequest.getJobTitleId());
@@ -178,15 +188,22 @@ public class UserController {
         return response;
     }
 
+    // Scores of the reviews written in the last given days or in the given range, or of all reviews when neither is
+    // given. Reviews written before their creation time was kept only count for all-time scores.
     @RequestMapping(value = "/{userId}/score", method = RequestMethod.GET)
-    public Response<EmployeeScoreResponse> getEmployeeReviewScore(@PathVariable int userId) throws BaseException {
+    public Response<EmployeeScoreResponse> getEmployeeReviewScore(
+            @PathVariable int userId,
+            @RequestParam(value = "days", required = false) Integer days,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to) throws BaseException {
         checkAuthentication(userId);
         checkRole(userId);
+        ScoreWindow window = ScoreWindow.of(days, from, to);
         User employee = userService.get(userId);
 
-        List<AverageCriteriaScore> criteriaScores = calculateCriteriaScores(employee);
-        int reviewCount = employee.getReviews().size();
-        List<String> comments = findAllComments(employee);
+        List<AverageCriteriaScore> criteriaScores = criteriaScoreService.getAverageScores(employee, window);
+        int reviewCount = reviewService.countByReviewedUserId(userId, window);
+        List<String> comments = reviewService.getCommentsByReviewedUserId(userId, window);
 
         EmployeeScoreResponse employeeScoreResponse = new EmployeeScoreResponse(
                 employee.getName() + " " + employee.getSurname(),
@@ -194,6 +211,10 @@ public class UserController {
                 criteriaScores,
                 comments
         );
+        if (window != null) {
+            employeeScoreResponse.setFrom(window.getFrom());
+            employeeScoreResponse.setTo(window.getTo());
+        }
         Response<EmployeeScoreResponse> response = new Response<>();
         response.setData(employeeScoreResponse);
         response.setSuccess(true);
@@ -234,9 +255,8 @@ public class UserController {
         int organizationId = organization.getId();
         formatValidateSearchRequest(titleId, teamId);
         semanticallyValidate(organization, titleId, teamId);
-        List<User> userList = userService.searchUsers(organizationId, teamId, titleId, name, surname);
+        List<SimplifiedUser> simpleList = userService.searchUsers(organizationId, teamId, titleId, name, surname);
 
-        List<SimplifiedUser> simpleList = SimplifiedUser.fromUserList(userList);
         Response response = new Response();
         response.setData(simpleList);
         response.setSuccess(true);
@@ -254,8 +274,8 @@ public class UserController {
     }
 
     private void checkRole(int userId) throws BaseException {
-        User authenticatedUser = securityHelper.getAuthenticatedUser();
-        int currentUserId = authenticatedUser.getId();
+        AuthenticatedPrincipal principal = securityHelper.getAuthenticatedPrincipal();
+        int currentUserId = principal.getUserId();
         Team userTeam = userService.get(userId).getTeam();
 
         if (securityHelper.isAuthenticatedUserEmployee() && currentUserId != userId) {
@@ -266,7 +286,7 @@ public class UserController {
             if (userTeam == null) {
                 throw new NotAuthorizedException(ResponseCode.REVIEW_NOT_AUTHORIZED_TO_VIEW,
                         "You are not authorized to view other teams' user's score.");
-            } else if (userTeam.getId() != authenticatedUser.getTeam().getId()) {
+            } else if (principal.getTeamId() == null || userTeam.getId() != principal.getTeamId()) {
                 throw new NotAuthorizedException(ResponseCode.REVIEW_NOT_AUTHORIZED_TO_VIEW,
                         "You are not authorized to view other teams' user's score.");
             }
@@ -344,63 +364,6 @@ public class UserController {
         return candidate > 0;
     }
 
-    private List<AverageCriteriaScore> calculateCriteriaScores(User employee) {
-        AverageCriteriaScore[] averageCriteriaScores = calculateAverageCriteriaScores(employee);
-        List<AverageCriteriaScore> criteriaScores = new ArrayList<>();
-        for (int index = 0; index < averageCriteriaScores.length; index++) {
-            criteriaScores.add(averageCriteriaScores[index]);
-        }
-        return criteriaScores;
-    }
-
-    private AverageCriteriaScore[] calculateAverageCriteriaScores(User employee) {
-        AverageCriteriaScore[] averageCriteriaScores = calculateTotalCriteriaScores(employee);
-        for (int index = 0; index < averageCriteriaScores.length; index++) {
-            AverageCriteriaScore current = averageCriteriaScores[index];
-            int averageScore = current.getTotalScore() / current.getReviewTimes();
-            current.setAverageScore(averageScore);
-        }
-        return averageCriteriaScores;
-    }
-
-    private AverageCriteriaScore[] calculateTotalCriteriaScores(User employee) {
-        List<Review> employeeReviews = employee.getReviews();
-        List<Criteria> employeeCriteriaList = employee.getCriteriaList();
-        int employeeCriteriaCount = employeeCriteriaList.size();
-
-        AverageCriteriaScore[] totalCriteriaScores = new AverageCriteriaScore[employeeCriteriaCount];
-        int index = 0;
-        for (Criteria criteria : employeeCriteriaList) {
-            totalCriteriaScores[index++] = new AverageCriteriaScore(criteria.getCriteria());
-        }
-
-        for (Review review : employeeReviews) {
-            Map<Criteria, Integer> evaluation = review.getEvaluation();
-            index = 0;
-            for (Criteria criteria : employeeCriteriaList) {
-                if (evaluation.containsKey(criteria)) {
-                    int criteriaScore = evaluation.get(criteria);
-                    AverageCriteriaScore current = totalCriteriaScores[index++];
-                    current.setTotalScore(current.getTotalScore() + criteriaScore);
-                    current.setReviewTimes(current.getReviewTimes() + 1);
-                }
-            }
-        }
-        return totalCriteriaScores;
-    }
-
-    private List<String> findAllComments(User employee) {
-        List<String> comments = new ArrayList<>();
-        List<Review> employeeReviews = employee.getReviews();
-        for (Review review : employeeReviews) {
-            String comment = review.getComment();
-            if (comment != null) {
-                comments.add(comment);
-            }
-        }
-        return comments;
-    }
-
     // endregion
 
 }
\ No newline at end of file
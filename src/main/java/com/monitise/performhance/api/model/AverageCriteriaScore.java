@@ -7,6 +7,8 @@ public class AverageCriteriaScore {
     private String criteriaName;
     private int averageScore;
     private int reviewTimes;
+    private int minScore;
+    private int maxScore;
     @JsonIgnore
     private int totalScore;
 
@@ -41,6 +43,22 @@ public class AverageCriteriaScore {
         this.averageScore = averageScore;
     }
 
+    public int getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(int minScore) {
+        this.minScore = minScore;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(int maxScore) {
+        this.maxScore = maxScore;
+    }
+
     public int getTotalScore() {
         return totalScore;
     }
@@ -0,0 +1,62 @@
+package com.monitise.performhance.api.model;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Statistics;
+import net.sf.ehcache.config.CacheConfiguration;
+
+public class CacheStatisticsResponse {
+
+    private String name;
+    private long size;
+    private int maxSize;
+    private long timeToLiveSeconds;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CacheStatisticsResponse(Ehcache cache) {
+        CacheConfiguration configuration = cache.getCacheConfiguration();
+        Statistics statistics = cache.getStatistics();
+        name = cache.getName();
+        size = statistics.getObjectCount();
+        maxSize = configuration.getMaxElementsInMemory();
+        timeToLiveSeconds = configuration.getTimeToLiveSeconds();
+        hits = statistics.getCacheHits();
+        misses = statistics.getCacheMisses();
+        evictions = statistics.getEvictionCount();
+    }
+
+    // region Getters
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTimeToLiveSeconds() {
+        return timeToLiveSeconds;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // Entries removed to keep the cache within its maximum size.
+    public long getEvictions() {
+        return evictions;
+    }
+
+    // endregion
+
+}
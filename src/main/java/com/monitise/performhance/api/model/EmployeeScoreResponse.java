@@ -8,6 +8,9 @@ public class EmployeeScoreResponse {
     private int reviewCount;
     private List<AverageCriteriaScore> averageCriteriaScores;
     private List<String> comments;
+    // First and last days of the window as yyyy-MM-dd, both null for all-time scores.
+    private String from;
+    private String to;
 
     public EmployeeScoreResponse(String reviewedEmployee, int reviewCount, List<AverageCriteriaScore> criteriaScores,
                                  List<String> comments) {
@@ -51,6 +54,22 @@ public class EmployeeScoreResponse {
         this.comments = comments;
     }
 
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
     // endregion
 
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.monitise.performhance.api.model;
+
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.helpers.Leaderboard;
+
+// An employee on a leaderboard, with their average score of the criteria.
+public class LeaderboardEntry {
+
+    private int rank;
+    private int userId;
+    private String name;
+    private String surname;
+    private double averageScore;
+    private int reviewCount;
+
+    public LeaderboardEntry(int rank, User user, Leaderboard.Standing standing) {
+        this.rank = rank;
+        userId = user.getId();
+        name = user.getName();
+        surname = user.getSurname();
+        averageScore = standing.getAverageScore();
+        reviewCount = standing.getReviewCount();
+    }
+
+    // region Getters
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSurname() {
+        return surname;
+    }
+
+    public double getAverageScore() {
+        return averageScore;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,36 @@
+package com.monitise.performhance.api.model;
+
+import com.monitise.performhance.entity.Criteria;
+
+import java.util.List;
+
+// The top or bottom employees of a criteria. Entries are empty when the criteria has no evaluations.
+public class LeaderboardResponse {
+
+    private int criteriaId;
+    private String criteria;
+    private List<LeaderboardEntry> entries;
+
+    public LeaderboardResponse(Criteria criteria, List<LeaderboardEntry> entries) {
+        criteriaId = criteria.getId();
+        this.criteria = criteria.getCriteria();
+        this.entries = entries;
+    }
+
+    // region Getters
+
+    public int getCriteriaId() {
+        return criteriaId;
+    }
+
+    public String getCriteria() {
+        return criteria;
+    }
+
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,16 @@
+package com.monitise.performhance.api.model;
+
+public class PagedResponse<T> extends Response<T> {
+
+    // Cursor to pass as the "after" parameter to get the next page, null on the last page.
+    private String nextCursor;
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.monitise.performhance.api.model;
+
+import java.util.Map;
+
+public class RemovalReport {
+
+    private Map<String, Integer> deletedRows;
+    private long elapsedMillis;
+
+    public RemovalReport(Map<String, Integer> deletedRows, long elapsedMillis) {
+        this.deletedRows = deletedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // region Getters
+
+    // Deleted row count of each table, in deletion order.
+    public Map<String, Integer> getDeletedRows() {
+        return deletedRows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // endregion
+
+}
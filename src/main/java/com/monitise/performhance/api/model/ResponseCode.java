@@ -82,6 +82,7 @@ public class ResponseCode {
     public static final int REVIEW_USER_IN_DIFFERENT_TEAM = 1605;
     public static final int REVIEW_SAME_USER = 1606;
     public static final int REVIEW_NOT_AUTHORIZED_TO_VIEW = 1607;
+    public static final int REVIEW_NOT_ACCEPTED = 1608;
 
     /**
      * RELATIONSHIP RELATED RESPONSE CODES.
@@ -99,6 +100,28 @@ public class ResponseCode {
     public static final int SEARCH_INVALID_ID_FORMAT = 1802;
     public static final int SEARCH_MISSING_PARAMETERS = 1803;
 
+    /**
+     * PAGINATION RELATED RESPONSE CODES.
+     */
+    public static final int PAGE_SIZE_INVALID = 1901;
+    public static final int PAGE_SORT_INVALID = 1902;
+    public static final int PAGE_CURSOR_INVALID = 1903;
+
+    /**
+     * TOKEN RELATED RESPONSE CODES.
+     */
+    public static final int TOKEN_INVALID = 2001;
+    public static final int TOKEN_EXPIRED = 2002;
+    public static final int TOKEN_RENEWAL_NOT_ALLOWED = 2003;
+
+    /**
+     * SCORE RELATED RESPONSE CODES.
+     */
+    public static final int SCORE_WINDOW_INVALID = 2101;
+    public static final int SCORE_WINDOW_DATE_INVALID = 2102;
+    public static final int SCORE_LEADERBOARD_SIZE_INVALID = 2103;
+    public static final int SCORE_LEADERBOARD_ORDER_INVALID = 2104;
+
     protected ResponseCode() {
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.monitise.performhance.api.model;
+
+public class ReviewIngestionStatisticsResponse {
+
+    private boolean enabled;
+    // Reviews accepted into the review log and not yet written to the database.
+    private long queueDepth;
+    // Age of the oldest review in the queue.
+    private long lagMillis;
+    private long acceptedCount;
+    private long writtenCount;
+    // Reviews not written, because they were written before a crash or their employee was removed.
+    private long droppedCount;
+    private long failedBatchCount;
+    // Reviews read back from the review log on startup.
+    private long replayedCount;
+    private long lastSequence;
+    private long checkpoint;
+    private int segmentCount;
+    private long logSizeInBytes;
+
+    // region Getters & Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(long queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public void setLagMillis(long lagMillis) {
+        this.lagMillis = lagMillis;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public void setAcceptedCount(long acceptedCount) {
+        this.acceptedCount = acceptedCount;
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public void setWrittenCount(long writtenCount) {
+        this.writtenCount = writtenCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public void setDroppedCount(long droppedCount) {
+        this.droppedCount = droppedCount;
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount;
+    }
+
+    public void setFailedBatchCount(long failedBatchCount) {
+        this.failedBatchCount = failedBatchCount;
+    }
+
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+
+    public void setReplayedCount(long replayedCount) {
+        this.replayedCount = replayedCount;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(long checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    public void setSegmentCount(int segmentCount) {
+        this.segmentCount = segmentCount;
+    }
+
+    public long getLogSizeInBytes() {
+        return logSizeInBytes;
+    }
+
+    public void setLogSizeInBytes(long logSizeInBytes) {
+        this.logSizeInBytes = logSizeInBytes;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,72 @@
+package com.monitise.performhance.api.model;
+
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.helpers.ScoreHistogram;
+
+// Distribution of the evaluations of a criteria. Statistics are null when the criteria has no evaluations.
+public class ScoreDistributionResponse {
+
+    private int criteriaId;
+    private String criteria;
+    private int evaluationCount;
+    private Double mean;
+    private Double standardDeviation;
+    private Double median;
+    private Integer percentile10;
+    private Integer percentile90;
+    // Number of evaluations with each score, indexed by score.
+    private int[] histogram;
+
+    public ScoreDistributionResponse(Criteria criteria, ScoreHistogram histogram) {
+        criteriaId = criteria.getId();
+        this.criteria = criteria.getCriteria();
+        evaluationCount = histogram.getCount();
+        mean = histogram.getMean();
+        standardDeviation = histogram.getStandardDeviation();
+        median = histogram.getMedian();
+        percentile10 = histogram.getPercentile(10);
+        percentile90 = histogram.getPercentile(90);
+        this.histogram = histogram.getCounts();
+    }
+
+    // region Getters
+
+    public int getCriteriaId() {
+        return criteriaId;
+    }
+
+    public String getCriteria() {
+        return criteria;
+    }
+
+    public int getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    public Double getMean() {
+        return mean;
+    }
+
+    public Double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public Double getMedian() {
+        return median;
+    }
+
+    public Integer getPercentile10() {
+        return percentile10;
+    }
+
+    public Integer getPercentile90() {
+        return percentile90;
+    }
+
+    public int[] getHistogram() {
+        return histogram;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,72 @@
+package com.monitise.performhance.api.model;
+
+import com.monitise.performhance.metrics.HandlerStatistics;
+
+public class SessionStatisticsResponse {
+
+    private String handler;
+    private long requests;
+    private long statements;
+    private long entitiesLoaded;
+    private long collectionsFetched;
+    private long flushes;
+    private long flaggedRequests;
+    private String repeatedQuery;
+    private int repeatedQueryCount;
+
+    public SessionStatisticsResponse(HandlerStatistics statistics) {
+        handler = statistics.getHandler();
+        requests = statistics.getRequests();
+        statements = statistics.getStatements();
+        entitiesLoaded = statistics.getEntitiesLoaded();
+        collectionsFetched = statistics.getCollectionsFetched();
+        flushes = statistics.getFlushes();
+        flaggedRequests = statistics.getFlaggedRequests();
+        repeatedQuery = statistics.getRepeatedQuery();
+        repeatedQueryCount = statistics.getRepeatedQueryCount();
+    }
+
+    // region Getters
+
+    // Controller and method, e.g. UserController.get
+    public String getHandler() {
+        return handler;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getCollectionsFetched() {
+        return collectionsFetched;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    // Requests that ran the same query shape more often than the threshold.
+    public long getFlaggedRequests() {
+        return flaggedRequests;
+    }
+
+    // Query shape that the last flagged request repeated, and how many times.
+    public String getRepeatedQuery() {
+        return repeatedQuery;
+    }
+
+    public int getRepeatedQueryCount() {
+        return repeatedQueryCount;
+    }
+
+    // endregion
+
+}
@@ -23,6 +23,19 @@ public class SimplifiedReview {
         comment = review.getComment();
     }
 
+    // Used by Review.simplifiedReview() projection. Reviewer columns are null when the reviewer was removed.
+    public SimplifiedReview(int id, String reviewedEmployeeName, String reviewedEmployeeSurname, String reviewerName,
+                            String reviewerSurname, String comment) {
+        this.id = id;
+        this.reviewedEmployeeName = reviewedEmployeeName + " " + reviewedEmployeeSurname;
+        if (reviewerName != null) {
+            this.reviewerName = reviewerName + " " + reviewerSurname;
+        } else {
+            this.reviewerName = "N/A";
+        }
+        this.comment = comment;
+    }
+
     public static List<SimplifiedReview> fromList(List<Review> reviewList) {
         List<SimplifiedReview> list = new ArrayList<>();
         for (Review review : reviewList) {
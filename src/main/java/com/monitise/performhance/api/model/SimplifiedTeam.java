@@ -21,6 +21,15 @@ public class SimplifiedTeam {
         }
     }
 
+    // Used by Team.simplifiedTeam() projection. Leader columns are null when the team has no leader.
+    public SimplifiedTeam(int id, String name, String leaderFirstName, String leaderSurname) {
+        this.id = id;
+        this.name = name;
+        if (leaderFirstName != null) {
+            leaderName = leaderFirstName + " " + leaderSurname;
+        }
+    }
+
     public static List<SimplifiedTeam> fromList(List<Team> teamList) {
         if (teamList == null) {
             return null;
@@ -30,6 +30,19 @@ public class SimplifiedUser {
         }
     }
 
+    // Used by User.simplifiedUser() projection.
+    public SimplifiedUser(int id, String name, String surname, Role role, int organizationId, String organizationName,
+                          String teamName, String jobTitle) {
+        this.id = id;
+        this.name = name;
+        this.surname = surname;
+        this.role = role;
+        this.organizationId = organizationId;
+        this.organizationName = organizationName;
+        this.teamName = teamName;
+        this.jobTitle = jobTitle;
+    }
+
     public static SimplifiedUser fromUser(User user) {
         if (user == null) {
             return null;
@@ -23,6 +23,19 @@ public class TeamResponse {
         }
     }
 
+    // Used by Team.teamResponse() projection. Leader columns are null when the team has no leader,
+    // members are added afterwards.
+    public TeamResponse(int id, int organizationId, String name, Integer leaderId, String leaderName,
+                        String leaderSurname, String leaderJobTitle) {
+        this.id = id;
+        this.organizationId = organizationId;
+        this.name = name;
+        if (leaderId != null) {
+            leader = new TeamUserResponse(leaderId, leaderName, leaderSurname, leaderJobTitle);
+        }
+        members = new ArrayList<>();
+    }
+
     public static TeamResponse fromTeam(Team team) {
         if (team == null) {
             return null;
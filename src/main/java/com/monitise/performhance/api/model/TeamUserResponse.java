@@ -21,6 +21,13 @@ public class TeamUserResponse {
         }
     }
 
+    public TeamUserResponse(int id, String name, String surname, String jobTitle) {
+        this.id = id;
+        this.name = name;
+        this.surname = surname;
+        this.jobTitle = jobTitle;
+    }
+
     public static List<TeamUserResponse> fromUserList(List<User> users) {
         if (users == null) {
             return null;
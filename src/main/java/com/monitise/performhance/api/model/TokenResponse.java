@@ -0,0 +1,26 @@
+package com.monitise.performhance.api.model;
+
+public class TokenResponse {
+
+    private String token;
+    private long expiresAt;
+
+    public TokenResponse(String token, long expiresAt) {
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+
+    // region Getters
+
+    public String getToken() {
+        return token;
+    }
+
+    // Expiry time in milliseconds since the epoch.
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    // endregion
+
+}
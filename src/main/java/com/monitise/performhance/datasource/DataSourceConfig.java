@@ -0,0 +1,97 @@
+package com.monitise.performhance.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+// Replaces the data source of Spring Boot when replicas are configured. Read-only transactions are routed to the
+// replicas, everything else, including the migrations, to the primary. Without replicas Spring Boot's data source is
+// used as before.
+@Configuration
+@ConditionalOnProperty(prefix = "performhance.datasource", name = "replicas[0].url")
+public class DataSourceConfig {
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+    @Autowired
+    private ReplicaProperties replicaProperties;
+
+    private final List<org.apache.tomcat.jdbc.pool.DataSource> replicaPools = new ArrayList<>();
+
+    // Pool settings of the primary are read from spring.datasource.tomcat, like Spring Boot does.
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties(prefix = "spring.datasource.tomcat")
+    public org.apache.tomcat.jdbc.pool.DataSource primaryDataSource() {
+        return createPool(dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor() {
+        return new ReplicaMonitor(primaryDataSource(), getReplicaPools(), replicaProperties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(primaryDataSource(), getReplicaPools(), replicaMonitor());
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // The replicas are used by the beans above, which are destroyed first.
+    @PreDestroy
+    public synchronized void closeReplicaPools() {
+        for (org.apache.tomcat.jdbc.pool.DataSource pool : replicaPools) {
+            pool.close();
+        }
+    }
+
+    // region Helper Methods
+
+    private synchronized List<DataSource> getReplicaPools() {
+        if (replicaPools.isEmpty()) {
+            for (ReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+                String username = replica.getUsername() == null
+                        ? dataSourceProperties.determineUsername() : replica.getUsername();
+                String password = replica.getPassword() == null
+                        ? dataSourceProperties.determinePassword() : replica.getPassword();
+                replicaPools.add(createPool(replica.getUrl(), username, password));
+            }
+        }
+        return new ArrayList<>(replicaPools);
+    }
+
+    private org.apache.tomcat.jdbc.pool.DataSource createPool(String url, String username, String password) {
+        org.apache.tomcat.jdbc.pool.DataSource pool = (org.apache.tomcat.jdbc.pool.DataSource) DataSourceBuilder
+                .create()
+                .type(org.apache.tomcat.jdbc.pool.DataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        String validationQuery = DatabaseDriver.fromJdbcUrl(url).getValidationQuery();
+        if (validationQuery != null) {
+            pool.setTestOnBorrow(true);
+            pool.setValidationQuery(validationQuery);
+        }
+        return pool;
+    }
+
+    // endregion
+
+}
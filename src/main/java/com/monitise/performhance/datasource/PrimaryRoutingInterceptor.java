@@ -0,0 +1,35 @@
+package com.monitise.performhance.datasource;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Reads every transaction of a request that may write from the primary. The persistence context is kept open for
+// the whole request, so an entity a read-only transaction loaded from a lagging replica would otherwise be the one
+// a later write transaction of the same request changes and saves, overwriting the newer row on the primary.
+// Requests with a safe method must not write. Registered in AppConfig.
+@Component
+public class PrimaryRoutingInterceptor extends HandlerInterceptorAdapter {
+
+    private static final Set<String> SAFE_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS"));
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            ReadWriteRoutingDataSource.usePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        ReadWriteRoutingDataSource.clearPrimary();
+    }
+
+}
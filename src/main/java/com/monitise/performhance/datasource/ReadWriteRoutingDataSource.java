@@ -0,0 +1,81 @@
+package com.monitise.performhance.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+// Takes the connections of read-only transactions from a replica and every other connection from the primary.
+// The transaction must have started before the connection is taken, so it is wrapped in a
+// LazyConnectionDataSourceProxy, which takes the connection on the first statement. A thread marked with
+// usePrimary, e.g. one handling a request that writes, reads from the primary as well.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final ReplicaMonitor replicaMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaMonitor replicaMonitor) {
+        this.replicaMonitor = replicaMonitor;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        // Used when the lookup key is null.
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        String username = getUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null) {
+                recordWriteAfterCommit(username);
+            }
+            return null;
+        }
+        if (PRIMARY_ONLY.get() != null) {
+            return null;
+        }
+        int replica = replicaMonitor.choose(username);
+        return replica < 0 ? null : replica;
+    }
+
+    public static void usePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clearPrimary() {
+        PRIMARY_ONLY.remove();
+    }
+
+    // region Helper Methods
+
+    // Any transaction that is not read-only is taken as a change, whether it has written or not.
+    private void recordWriteAfterCommit(String username) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                replicaMonitor.recordWrite(username);
+            }
+        });
+    }
+
+    private static String getUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+    // endregion
+
+}
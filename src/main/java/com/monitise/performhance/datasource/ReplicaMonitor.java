@@ -0,0 +1,145 @@
+package com.monitise.performhance.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+// Tracks how far each replica is behind the primary and picks the replica a read-only transaction reads from.
+// A heartbeat with the current time is written to the primary every interval. The heartbeat a replica returns is
+// the last one it has applied, so everything committed on the primary before that time is visible on the replica.
+// Heartbeats carry the clock of the application instance that wrote them, so clocks must be kept in sync.
+public class ReplicaMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaMonitor.class);
+    private static final String WRITE_HEARTBEAT = "UPDATE replica_heartbeat SET beat = ? WHERE id = 1";
+    private static final String READ_HEARTBEAT = "SELECT beat FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final List<JdbcTemplate> replicas = new ArrayList<>();
+    private final ReplicaProperties properties;
+    // Last heartbeat each replica has applied, zero while it is unknown or the replica is unreachable.
+    private final AtomicLongArray replicatedUpTo;
+    // Commit time of the last change of each user, while a replica could still be behind it.
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private Thread worker;
+    private volatile boolean running;
+
+    public ReplicaMonitor(DataSource primary, List<DataSource> replicas, ReplicaProperties properties) {
+        this.primary = new JdbcTemplate(primary);
+        for (DataSource replica : replicas) {
+            this.replicas.add(new JdbcTemplate(replica));
+        }
+        this.properties = properties;
+        replicatedUpTo = new AtomicLongArray(replicas.size());
+    }
+
+    // Index of a replica close enough to the primary, taking turns between them. Returns -1 if the transaction must
+    // read from the primary, which is also the case for a user whose last change no replica has applied yet.
+    public int choose(String username) {
+        long now = System.currentTimeMillis();
+        long lastWrite = 0;
+        if (properties.isReadYourWrites() && username != null) {
+            Long userLastWrite = lastWrites.get(username);
+            lastWrite = userLastWrite == null ? 0 : userLastWrite;
+        }
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (first + i) % replicas.size();
+            long upTo = replicatedUpTo.get(replica);
+            if (upTo != 0 && now - upTo <= properties.getMaxLagMillis() && upTo >= lastWrite) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    // Called after a transaction of the user has committed on the primary.
+    public void recordWrite(String username) {
+        if (properties.isReadYourWrites()) {
+            lastWrites.put(username, System.currentTimeMillis());
+        }
+    }
+
+    // -1 while the replica is unreachable or has not applied any heartbeat yet.
+    public long getLagMillis(int replica) {
+        long upTo = replicatedUpTo.get(replica);
+        return upTo == 0 ? -1 : Math.max(0, System.currentTimeMillis() - upTo);
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    // Writes a heartbeat to the primary and reads the last one each replica has applied.
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        try {
+            primary.update(WRITE_HEARTBEAT, now);
+        } catch (DataAccessException exception) {
+            logger.warn("Could not write the replica heartbeat to the primary.", exception);
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            try {
+                replicatedUpTo.set(i, replicas.get(i).queryForObject(READ_HEARTBEAT, Long.class));
+            } catch (DataAccessException exception) {
+                replicatedUpTo.set(i, 0);
+                logger.warn("Could not read the heartbeat of replica {}, reading from the primary.", i, exception);
+            }
+        }
+        // A replica that has not applied these writes is too far behind to be read from anyway.
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite > properties.getMaxLagMillis());
+    }
+
+    // Starts once the migrations have created the heartbeat table. The replicas are read once before requests are
+    // served, so that reads do not all go to the primary for the first interval.
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        refresh();
+        running = true;
+        worker = new Thread(this::beat, "replica-monitor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join();
+    }
+
+    // region Helper Methods
+
+    private void beat() {
+        try {
+            while (running) {
+                Thread.sleep(properties.getHeartbeatIntervalMillis());
+                refresh();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,94 @@
+package com.monitise.performhance.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "performhance.datasource")
+public class ReplicaProperties {
+
+    // Read replicas of the primary. Without any, every connection is taken from the primary.
+    private List<Replica> replicas = new ArrayList<>();
+    // Replicas further behind the primary are not read from. Includes up to one heartbeat interval.
+    private long maxLagMillis = 5000;
+    private long heartbeatIntervalMillis = 1000;
+    // After a user changes data, their reads go to the primary until a replica has applied the change.
+    private boolean readYourWrites = true;
+
+    // region Getters & Setters
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    public void setMaxLagMillis(long maxLagMillis) {
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public long getHeartbeatIntervalMillis() {
+        return heartbeatIntervalMillis;
+    }
+
+    public void setHeartbeatIntervalMillis(long heartbeatIntervalMillis) {
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+    }
+
+    public boolean isReadYourWrites() {
+        return readYourWrites;
+    }
+
+    public void setReadYourWrites(boolean readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    // endregion
+
+    // Username and password default to the ones of the primary.
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+
+        // region Getters & Setters
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        // endregion
+
+    }
+
+}
@@ -1,11 +1,18 @@
 package com.monitise.performhance.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Criteria {
 
     @Id
@@ -23,6 +30,16 @@ public class Criteria {
         this.organization = organization;
     }
 
+    // region Filter Specifications
+
+    public static Specification<Criteria> organizationIdIs(int organizationId) {
+        return (root, query, cb) -> {
+            return cb.equal(root.get("organization"), organizationId);
+        };
+    }
+
+    // endregion
+
     // region Getters
 
     public int getId() {
@@ -0,0 +1,126 @@
+package com.monitise.performhance.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+// Running totals of all evaluations an employee received for a single criteria.
+// Kept up to date by ReviewService, so scores can be read without walking the reviews.
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "criteria_id"}))
+public class CriteriaScore {
+
+    @Id
+    @GeneratedValue
+    private int id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User user;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Criteria criteria;
+    // Read-only copy of the foreign key, so that scores can be matched without initializing the criteria.
+    @Column(name = "criteria_id", insertable = false, updatable = false)
+    private int criteriaId;
+    private int totalScore;
+    private int reviewCount;
+    private int minScore;
+    private int maxScore;
+
+    protected CriteriaScore() {
+    }
+
+    public CriteriaScore(User user, Criteria criteria) {
+        this.user = user;
+        this.criteria = criteria;
+        criteriaId = criteria.getId();
+    }
+
+    public void addScore(int score) {
+        if (reviewCount == 0) {
+            minScore = score;
+            maxScore = score;
+        } else {
+            minScore = Math.min(minScore, score);
+            maxScore = Math.max(maxScore, score);
+        }
+        totalScore += score;
+        reviewCount++;
+    }
+
+    public int getAverageScore() {
+        if (reviewCount == 0) {
+            return 0;
+        }
+        return totalScore / reviewCount;
+    }
+
+    // region Getters & Setters
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Criteria getCriteria() {
+        return criteria;
+    }
+
+    public void setCriteria(Criteria criteria) {
+        this.criteria = criteria;
+        criteriaId = criteria.getId();
+    }
+
+    public int getCriteriaId() {
+        return criteriaId;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public void setTotalScore(int totalScore) {
+        this.totalScore = totalScore;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(int reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public int getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(int minScore) {
+        this.minScore = minScore;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(int maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    // endregion
+
+}
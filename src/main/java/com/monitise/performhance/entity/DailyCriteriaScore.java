@@ -0,0 +1,135 @@
+package com.monitise.performhance.entity;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+
+// Totals of the evaluations an employee received for a single criteria on one day, so that the scores of a time
+// window are summed from a row per day instead of walking the reviews. Kept up to date with CriteriaScore.
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "criteria_id", "review_day"}))
+public class DailyCriteriaScore {
+
+    @Id
+    @GeneratedValue
+    private int id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User user;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Criteria criteria;
+    // Read-only copy of the foreign key, so that scores can be matched without initializing the criteria.
+    @Column(name = "criteria_id", insertable = false, updatable = false)
+    private int criteriaId;
+    // Day of the server time zone the reviews were written on.
+    @Temporal(TemporalType.DATE)
+    @Column(name = "review_day")
+    private Date reviewDay;
+    private int totalScore;
+    private int reviewCount;
+    private int minScore;
+    private int maxScore;
+
+    protected DailyCriteriaScore() {
+    }
+
+    public DailyCriteriaScore(User user, Criteria criteria, Date reviewDay) {
+        this.user = user;
+        this.criteria = criteria;
+        this.reviewDay = reviewDay;
+        criteriaId = criteria.getId();
+    }
+
+    public void addScore(int score) {
+        if (reviewCount == 0) {
+            minScore = score;
+            maxScore = score;
+        } else {
+            minScore = Math.min(minScore, score);
+            maxScore = Math.max(maxScore, score);
+        }
+        totalScore += score;
+        reviewCount++;
+    }
+
+    // region Getters & Setters
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Criteria getCriteria() {
+        return criteria;
+    }
+
+    public void setCriteria(Criteria criteria) {
+        this.criteria = criteria;
+        criteriaId = criteria.getId();
+    }
+
+    public int getCriteriaId() {
+        return criteriaId;
+    }
+
+    public Date getReviewDay() {
+        return reviewDay;
+    }
+
+    public void setReviewDay(Date reviewDay) {
+        this.reviewDay = reviewDay;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public void setTotalScore(int totalScore) {
+        this.totalScore = totalScore;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(int reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public int getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(int minScore) {
+        this.minScore = minScore;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(int maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    // endregion
+
+}
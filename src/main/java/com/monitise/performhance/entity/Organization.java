@@ -1,7 +1,12 @@
 package com.monitise.performhance.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
@@ -9,7 +14,10 @@ import javax.persistence.OneToOne;
 import java.util.ArrayList;
 import java.util.List;
 
+// Organizations, their job titles and their criteria rarely change, so they are kept in the second-level cache.
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Organization {
 
     @Id
@@ -21,12 +29,15 @@ public class Organization {
     @OneToMany
     private List<User> users;
     @OneToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<JobTitle> jobTitles;
     @OneToMany
     private List<Team> teams;
     @OneToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Criteria> criteriaList;
-    @OneToOne
+    // Lazy, so that an organization read from the cache does not load its manager from the database.
+    @OneToOne(fetch = FetchType.LAZY)
     private User manager;
 
     protected Organization() {
@@ -1,30 +1,53 @@
 package com.monitise.performhance.entity;
 
+import com.monitise.performhance.api.model.SimplifiedReview;
+import com.monitise.performhance.helpers.Projection;
+import org.springframework.data.jpa.domain.Specification;
+
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Selection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 @Entity
+@NamedEntityGraph(name = Review.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("reviewedEmployee"), @NamedAttributeNode("reviewer"), @NamedAttributeNode("evaluation")})
 public class Review {
 
+    // Everything ReviewResponse reads. Fetches the evaluation, so queries using it must select distinct reviews.
+    public static final String DETAIL_GRAPH = "Review.detail";
+
     @Id
     @GeneratedValue
     private int id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User reviewedEmployee;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User reviewer;
     @ElementCollection
     private Map<Criteria, Integer> evaluation;
     private String comment;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Organization organization;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Team team;
+    // Sequence of the review log entry the review was written from, null for reviews written directly.
+    private Long ingestionSequence;
+    // Null for reviews written before the creation time was kept, those only count for the all-time scores.
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
 
     protected Review() {
         evaluation = new HashMap();
@@ -38,8 +61,38 @@ public class Review {
         organization = reviewedEmployee.getOrganization();
         team = reviewedEmployee.getTeam();
         this.comment = comment;
+        createdAt = new Date();
+    }
+
+    // region Filter Specifications
+
+    public static Specification<Review> organizationIdIs(int organizationId) {
+        return (root, query, cb) -> {
+            return cb.equal(root.get("organization"), organizationId);
+        };
+    }
+
+    public static Specification<Review> teamIdIs(int teamId) {
+        return (root, query, cb) -> {
+            return cb.equal(root.get("team"), teamId);
+        };
+    }
+
+    // endregion
+
+    // region Projections
+
+    public static Projection<Review, SimplifiedReview> simplifiedReview() {
+        return new Projection<>(SimplifiedReview.class, (root, cb) -> {
+            Join<Review, User> reviewedEmployee = root.join("reviewedEmployee");
+            Join<Review, User> reviewer = root.join("reviewer", JoinType.LEFT);
+            return new Selection<?>[]{root.get("id"), reviewedEmployee.get("name"), reviewedEmployee.get("surname"),
+                    reviewer.get("name"), reviewer.get("surname"), root.get("comment")};
+        }, SimplifiedReview::getId);
     }
 
+    // endregion
+
     // region Getters & Setters
 
     public int getId() {
@@ -98,6 +151,18 @@ public class Review {
         this.team = team;
     }
 
+    public Long getIngestionSequence() {
+        return ingestionSequence;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
     // endregion
 
 }
\ No newline at end of file
@@ -1,28 +1,47 @@
 package com.monitise.performhance.entity;
 
+import com.monitise.performhance.api.model.SimplifiedTeam;
+import com.monitise.performhance.api.model.TeamResponse;
+import com.monitise.performhance.helpers.Projection;
 import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Selection;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
+@NamedEntityGraph(name = Team.DETAIL_GRAPH,
+        attributeNodes = {@NamedAttributeNode("organization"),
+                @NamedAttributeNode(value = "leader", subgraph = "user"),
+                @NamedAttributeNode(value = "members", subgraph = "user")},
+        subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("jobTitle")))
 public class Team {
 
+    // Everything TeamResponse reads. Fetches the members, so queries using it must select distinct teams.
+    public static final String DETAIL_GRAPH = "Team.detail";
+
     @Id
     @GeneratedValue
     private int id;
     private String name;
     @OneToMany
     private List<User> members;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Organization organization;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private User leader;
 
     protected Team() {
@@ -49,14 +68,41 @@ public class Team {
         };
     }
 
+    public static Specification<Team> idIn(List<Integer> idList) {
+        return (root, query, cb) -> {
+            return root.get("id").in(idList);
+        };
+    }
+
     public static Specification<Team> teamNameContains(String name) {
         return (root, query, cb) -> {
-            return cb.like(cb.upper(root.<String>get("name")), "%" + name.toUpperCase() + "%");
+            return cb.like(cb.lower(root.<String>get("name")), "%" + name.toLowerCase(Locale.ROOT) + "%");
         };
     }
 
     // endregion
 
+    // region Projections
+
+    public static Projection<Team, SimplifiedTeam> simplifiedTeam() {
+        return new Projection<>(SimplifiedTeam.class, (root, cb) -> {
+            Join<Team, User> leader = root.join("leader", JoinType.LEFT);
+            return new Selection<?>[]{root.get("id"), root.get("name"), leader.get("name"), leader.get("surname")};
+        }, SimplifiedTeam::getId);
+    }
+
+    // Members are not selected, since a row can not hold a list.
+    public static Projection<Team, TeamResponse> teamResponse() {
+        return new Projection<>(TeamResponse.class, (root, cb) -> {
+            Join<Team, User> leader = root.join("leader", JoinType.LEFT);
+            Join<User, JobTitle> leaderJobTitle = leader.join("jobTitle", JoinType.LEFT);
+            return new Selection<?>[]{root.get("id"), root.get("organization").get("id"), root.get("name"),
+                    leader.get("id"), leader.get("name"), leader.get("surname"), leaderJobTitle.get("title")};
+        }, TeamResponse::getId);
+    }
+
+    // endregion
+
     // region Getters & Setters
 
     public int getId() {
@@ -1,34 +1,50 @@
 package com.monitise.performhance.entity;
 
 import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.api.model.SimplifiedUser;
+import com.monitise.performhance.helpers.Projection;
 import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Selection;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
+// Associations are lazy. Lists are read with projections, or with the graph below when entities are needed.
 @Entity
+@NamedEntityGraph(name = User.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("organization"), @NamedAttributeNode("team"), @NamedAttributeNode("jobTitle")})
 public class User {
 
+    // Everything SimplifiedUser reads.
+    public static final String SUMMARY_GRAPH = "User.summary";
+
+
     @Id
     @GeneratedValue
     private int id;
     private String name;
     private String surname;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private JobTitle jobTitle;
     @Enumerated(EnumType.STRING)
     private Role role;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Organization organization;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Team team;
     @ManyToMany
     private List<Criteria> criteriaList;
@@ -88,15 +104,21 @@ public class User {
         };
     }
 
+    public static Specification<User> idIn(List<Integer> idList) {
+        return (root, query, cb) -> {
+            return root.get("id").in(idList);
+        };
+    }
+
     public static Specification<User> nameContains(String input) {
         return (root, query, cb) -> {
-            return cb.like(cb.upper(root.<String>get("name")), "%" + input.toUpperCase() + "%");
+            return cb.like(cb.lower(root.<String>get("name")), "%" + input.toLowerCase(Locale.ROOT) + "%");
         };
     }
 
     public static Specification<User> surnameContains(String input) {
         return (root, query, cb) -> {
-            return cb.like(cb.upper(root.<String>get("surname")), "%" + input.toUpperCase() + "%");
+            return cb.like(cb.lower(root.<String>get("surname")), "%" + input.toLowerCase(Locale.ROOT) + "%");
         };
     }
 
@@ -115,6 +137,20 @@ public class User {
 
     // endregion
 
+    // region Projections
+
+    public static Projection<User, SimplifiedUser> simplifiedUser() {
+        return new Projection<>(SimplifiedUser.class, (root, cb) -> {
+            Join<User, Organization> organization = root.join("organization");
+            Join<User, Team> team = root.join("team", JoinType.LEFT);
+            Join<User, JobTitle> jobTitle = root.join("jobTitle", JoinType.LEFT);
+            return new Selection<?>[]{root.get("id"), root.get("name"), root.get("surname"), root.get("role"),
+                    organization.get("id"), organization.get("name"), team.get("name"), jobTitle.get("title")};
+        }, SimplifiedUser::getId);
+    }
+
+    // endregion
+
     // region Getters & Setters
 
     public String getName() {
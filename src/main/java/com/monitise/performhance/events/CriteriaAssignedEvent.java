@@ -0,0 +1,31 @@
+package com.monitise.performhance.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A criteria is assigned to users that did not have it.
+public class CriteriaAssignedEvent extends DomainEvent {
+
+    private final int criteriaId;
+    private final List<Integer> userIds;
+
+    public CriteriaAssignedEvent(int organizationId, int criteriaId, List<Integer> userIds) {
+        super(organizationId);
+        this.criteriaId = criteriaId;
+        this.userIds = Collections.unmodifiableList(new ArrayList<>(userIds));
+    }
+
+    // region Getters
+
+    public int getCriteriaId() {
+        return criteriaId;
+    }
+
+    public List<Integer> getUserIds() {
+        return userIds;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,28 @@
+package com.monitise.performhance.events;
+
+// A change that is committed to the database, published through the DomainEventBus.
+// Events only hold ids and values, so subscribers can read them outside of the session that made the change.
+public abstract class DomainEvent {
+
+    private final int organizationId;
+    private final long occurredAt;
+
+    protected DomainEvent(int organizationId) {
+        this.organizationId = organizationId;
+        occurredAt = System.currentTimeMillis();
+    }
+
+    // region Getters
+
+    // Events of one organization are delivered in the order they are published, see DomainEventBus.
+    public int getOrganizationId() {
+        return organizationId;
+    }
+
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+
+    // endregion
+
+}
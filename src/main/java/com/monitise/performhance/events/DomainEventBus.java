@@ -0,0 +1,215 @@
+package com.monitise.performhance.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+
+// In-process bus of domain events, so that read models can follow the changes made by the services.
+// An event published within a transaction is delivered after it commits, and dropped if it rolls back. Outside of a
+// transaction the change is already committed, so the event is delivered once the events before it are.
+// Each event takes the next sequence of its organization when it is published, and the events of one organization
+// are delivered one at a time in that order, to synchronous and asynchronous subscribers alike. An event waits for
+// the transactions that published the events before it to complete. A transaction that reads a committed change
+// publishes after the one that made it, so its events are delivered after the ones of that change, e.g. a review is
+// never removed before it is added. Events of transactions that ran side by side are delivered in the order they
+// were published, which may differ from the order the transactions committed in.
+// Organizations are split into stripes, each with a lock and a single thread.
+@Component
+public class DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventBus.class);
+    private static final int STRIPE_COUNT = 4;
+
+    public enum Delivery {
+        // After commit, before the service returns unless an earlier event of the organization is still waiting for its
+        // transaction, in which case the thread completing that transaction delivers it. Should be quick and must not
+        // throw.
+        SYNCHRONOUS,
+        // In the thread of the stripe of the organization, after the publisher has moved on.
+        ASYNCHRONOUS
+    }
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private final Object[] stripeLocks = new Object[STRIPE_COUNT];
+    private final ExecutorService[] stripeExecutors = new ExecutorService[STRIPE_COUNT];
+    // Sequences of the organizations of the stripe that have events not delivered yet, guarded by the lock of the
+    // stripe. An organization is removed once all its events are delivered, and starts over with its next event.
+    private final List<Map<Integer, OrganizationSequence>> stripeSequences = new ArrayList<>();
+
+    public DomainEventBus() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            String threadName = "domain-events-" + i;
+            stripeLocks[i] = new Object();
+            stripeSequences.add(new HashMap<>());
+            stripeExecutors[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // Subscribes to the events of the given type and its subtypes. Subscribers usually subscribe on startup.
+    public <E extends DomainEvent> Subscription<E> subscribe(Class<E> eventType, Delivery delivery,
+                                                             Consumer<? super E> subscriber) {
+        Subscription<E> subscription = new Subscription<>(eventType, delivery, subscriber);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public void publish(DomainEvent event) {
+        int organizationId = event.getOrganizationId();
+        int stripe = Math.floorMod(organizationId, STRIPE_COUNT);
+        Map<Integer, OrganizationSequence> organizationSequences = stripeSequences.get(stripe);
+        OrganizationSequence sequences;
+        long sequence;
+        synchronized (stripeLocks[stripe]) {
+            sequences = organizationSequences.computeIfAbsent(organizationId, id -> new OrganizationSequence());
+            sequence = sequences.nextPublished++;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    boolean committed = status == TransactionSynchronization.STATUS_COMMITTED;
+                    complete(stripe, organizationId, sequences, sequence, committed ? event : null);
+                }
+            });
+        } else {
+            complete(stripe, organizationId, sequences, sequence, event);
+        }
+    }
+
+    // Waits until the asynchronous subscribers have received the events dispatched so far. Returns false on timeout.
+    public boolean awaitDelivered(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        List<Future<?>> markers = new ArrayList<>();
+        for (ExecutorService executor : stripeExecutors) {
+            markers.add(executor.submit(() -> { }));
+        }
+        try {
+            for (Future<?> marker : markers) {
+                marker.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException exception) {
+            return false;
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return true;
+    }
+
+    // Organizations that have events not delivered yet.
+    int getPendingOrganizationCount() {
+        int count = 0;
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            synchronized (stripeLocks[stripe]) {
+                count += stripeSequences.get(stripe).size();
+            }
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ExecutorService executor : stripeExecutors) {
+            executor.shutdown();
+        }
+    }
+
+    // region Helper Methods
+
+    // Records the outcome of the event with the given sequence, null if its transaction rolled back, and dispatches
+    // the events that no longer wait for an earlier one.
+    private void complete(int stripe, int organizationId, OrganizationSequence sequences, long sequence,
+                          DomainEvent event) {
+        synchronized (stripeLocks[stripe]) {
+            sequences.completed.put(sequence, event);
+            while (sequences.completed.containsKey(sequences.nextDelivered)) {
+                DomainEvent next = sequences.completed.remove(sequences.nextDelivered++);
+                if (next != null) {
+                    dispatch(stripe, next);
+                }
+            }
+            // Nothing holds the sequences any more, every publisher that took one has completed.
+            if (sequences.nextDelivered == sequences.nextPublished) {
+                stripeSequences.get(stripe).remove(organizationId);
+            }
+        }
+    }
+
+    // Asynchronous deliveries are queued under the lock of the stripe too, so they keep the order of the synchronous
+    // ones.
+    private void dispatch(int stripe, DomainEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            if (!subscription.accepts(event)) {
+                continue;
+            }
+            if (subscription.delivery == Delivery.SYNCHRONOUS) {
+                subscription.deliver(event);
+            } else {
+                stripeExecutors[stripe].execute(() -> subscription.deliver(event));
+            }
+        }
+    }
+
+    // endregion
+
+    private static class OrganizationSequence {
+
+        private long nextPublished;
+        private long nextDelivered;
+        // Events whose transaction has completed but that wait for an earlier one, keyed by sequence.
+        private final Map<Long, DomainEvent> completed = new HashMap<>();
+
+    }
+
+    public final class Subscription<E extends DomainEvent> {
+
+        private final Class<E> eventType;
+        private final Delivery delivery;
+        private final Consumer<? super E> subscriber;
+
+        private Subscription(Class<E> eventType, Delivery delivery, Consumer<? super E> subscriber) {
+            this.eventType = eventType;
+            this.delivery = delivery;
+            this.subscriber = subscriber;
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+
+        private boolean accepts(DomainEvent event) {
+            return eventType.isInstance(event);
+        }
+
+        // The change is committed already, so a failing subscriber is logged and the others still get the event.
+        private void deliver(DomainEvent event) {
+            try {
+                subscriber.accept(eventType.cast(event));
+            } catch (RuntimeException exception) {
+                logger.error("Subscriber of {} failed.", eventType.getSimpleName(), exception);
+            }
+        }
+
+    }
+
+}
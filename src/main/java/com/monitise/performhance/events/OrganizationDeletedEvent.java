@@ -0,0 +1,10 @@
+package com.monitise.performhance.events;
+
+// The organization is removed with all of its data, no other event is published for what is removed with it.
+public class OrganizationDeletedEvent extends DomainEvent {
+
+    public OrganizationDeletedEvent(int organizationId) {
+        super(organizationId);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.monitise.performhance.events;
+
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.helpers.PendingReview;
+
+public class ReviewAddedEvent extends ReviewEvent {
+
+    public ReviewAddedEvent(Review review) {
+        super(review);
+    }
+
+    // A review written from the review log, with the id it is given in the database.
+    public ReviewAddedEvent(PendingReview review, int reviewId) {
+        super(reviewId, review.getOrganizationId(), review.getReviewedEmployeeId(), review.getTeamId(),
+                review.getEvaluation());
+    }
+
+}
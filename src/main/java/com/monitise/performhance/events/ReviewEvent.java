@@ -0,0 +1,62 @@
+package com.monitise.performhance.events;
+
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Review;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Base of the events of a review, holding what read models need to add or take out its evaluation.
+public abstract class ReviewEvent extends DomainEvent {
+
+    private final int reviewId;
+    private final int reviewedEmployeeId;
+    private final Integer teamId;
+    // Key: criteriaId, Value: evaluationValue
+    private final Map<Integer, Integer> evaluation;
+
+    protected ReviewEvent(Review review) {
+        this(review.getId(), review.getOrganization().getId(), review.getReviewedEmployee().getId(),
+                review.getTeam() == null ? null : review.getTeam().getId(), evaluationOf(review));
+    }
+
+    protected ReviewEvent(int reviewId, int organizationId, int reviewedEmployeeId, Integer teamId,
+                          Map<Integer, Integer> evaluation) {
+        super(organizationId);
+        this.reviewId = reviewId;
+        this.reviewedEmployeeId = reviewedEmployeeId;
+        this.teamId = teamId;
+        this.evaluation = Collections.unmodifiableMap(new HashMap<>(evaluation));
+    }
+
+    // region Getters
+
+    public int getReviewId() {
+        return reviewId;
+    }
+
+    public int getReviewedEmployeeId() {
+        return reviewedEmployeeId;
+    }
+
+    // Null if the review is not made in a team.
+    public Integer getTeamId() {
+        return teamId;
+    }
+
+    public Map<Integer, Integer> getEvaluation() {
+        return evaluation;
+    }
+
+    // endregion
+
+    private static Map<Integer, Integer> evaluationOf(Review review) {
+        Map<Integer, Integer> evaluation = new HashMap<>();
+        for (Map.Entry<Criteria, Integer> entry : review.getEvaluation().entrySet()) {
+            evaluation.put(entry.getKey().getId(), entry.getValue());
+        }
+        return evaluation;
+    }
+
+}
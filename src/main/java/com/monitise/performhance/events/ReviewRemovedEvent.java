@@ -0,0 +1,11 @@
+package com.monitise.performhance.events;
+
+import com.monitise.performhance.entity.Review;
+
+public class ReviewRemovedEvent extends ReviewEvent {
+
+    public ReviewRemovedEvent(Review review) {
+        super(review);
+    }
+
+}
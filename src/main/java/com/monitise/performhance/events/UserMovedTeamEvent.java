@@ -0,0 +1,35 @@
+package com.monitise.performhance.events;
+
+// A user joined a team, left one, or was removed while in one.
+public class UserMovedTeamEvent extends DomainEvent {
+
+    private final int userId;
+    private final Integer previousTeamId;
+    private final Integer teamId;
+
+    public UserMovedTeamEvent(int organizationId, int userId, Integer previousTeamId, Integer teamId) {
+        super(organizationId);
+        this.userId = userId;
+        this.previousTeamId = previousTeamId;
+        this.teamId = teamId;
+    }
+
+    // region Getters
+
+    public int getUserId() {
+        return userId;
+    }
+
+    // Null if the user was not in a team.
+    public Integer getPreviousTeamId() {
+        return previousTeamId;
+    }
+
+    // Null if the user is not in a team anymore.
+    public Integer getTeamId() {
+        return teamId;
+    }
+
+    // endregion
+
+}
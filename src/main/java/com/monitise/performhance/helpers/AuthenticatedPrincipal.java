@@ -0,0 +1,62 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.entity.User;
+
+import java.security.Principal;
+
+// The parts of the authenticated user that authorization checks need, resolved once per request.
+public class AuthenticatedPrincipal implements Principal {
+
+    private final int userId;
+    private final String username;
+    private final Role role;
+    private final Integer organizationId;
+    private final Integer teamId;
+
+    public AuthenticatedPrincipal(int userId, String username, Role role, Integer organizationId, Integer teamId) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.organizationId = organizationId;
+        this.teamId = teamId;
+    }
+
+    public static AuthenticatedPrincipal fromUser(User user) {
+        Integer organizationId = user.getOrganization() == null ? null : user.getOrganization().getId();
+        Integer teamId = user.getTeam() == null ? null : user.getTeam().getId();
+        return new AuthenticatedPrincipal(user.getId(), user.getUsername(), user.getRole(), organizationId, teamId);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    // region Getters
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    // Null for admins, who do not belong to an organization.
+    public Integer getOrganizationId() {
+        return organizationId;
+    }
+
+    // Null if the user is not a member of a team.
+    public Integer getTeamId() {
+        return teamId;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,38 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.entity.User;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.WebApplicationContext;
+
+// Holds the authenticated user of the current request, so that it is looked up only once per request.
+@Component
+@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
+public class AuthenticationContext {
+
+    private AuthenticatedPrincipal principal;
+    private User user;
+
+    public boolean isResolvedFor(String username) {
+        return principal != null && principal.getUsername().equals(username);
+    }
+
+    public void resolve(User user) {
+        this.user = user;
+        principal = AuthenticatedPrincipal.fromUser(user);
+    }
+
+    // region Getters
+
+    public AuthenticatedPrincipal getPrincipal() {
+        return principal;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    // endregion
+
+}
@@ -4,7 +4,9 @@ import com.monitise.performhance.api.model.Error;
 import com.monitise.performhance.api.model.Response;
 import com.monitise.performhance.exceptions.BaseException;
 import com.monitise.performhance.exceptions.NotAuthorizedException;
+import com.monitise.performhance.metrics.ResponseCodeMetrics;
 import org.omg.CORBA.Object;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -14,10 +16,14 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private ResponseCodeMetrics responseCodeMetrics;
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ResponseBody
     public Response<Object> handleBaseException(BaseException exception) {
+        responseCodeMetrics.count(exception.getCode());
         Response<Object> response = new Response<>();
         Error error = new Error(exception.getCode(), exception.getMessage());
         response.setError(error);
@@ -28,6 +34,7 @@ public class GlobalExceptionHandler {
     @ResponseStatus(HttpStatus.FORBIDDEN)
     @ResponseBody
     public Response<Object> handleNotAuthorizedException(NotAuthorizedException exception) {
+        responseCodeMetrics.count(exception.getCode());
         Response<Object> response = new Response<>();
         Error error = new Error(exception.getCode(), exception.getMessage());
         response.setError(error);
@@ -0,0 +1,29 @@
+package com.monitise.performhance.helpers;
+
+import java.util.List;
+
+// One page of a keyset paginated list. The next page starts after the row nextCursor points to.
+public class KeysetPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    // region Getters
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    // Null when this is the last page.
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,128 @@
+package com.monitise.performhance.helpers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Employees ordered by their average score of a single criteria, highest first. Updating an employee takes
+// O(log n) and reading the top or bottom k takes O(k), so no score is aggregated or sorted at read time.
+// Not thread safe, LeaderboardIndex locks around it.
+public class Leaderboard {
+
+    private final TreeSet<Standing> standings = new TreeSet<>();
+    private final Map<Integer, Standing> standingsByUserId = new HashMap<>();
+
+    // Adds the given total and count to the standing of the user. The user leaves the board when the count is zero.
+    public void add(int userId, int totalScore, int reviewCount) {
+        Standing standing = remove(userId);
+        if (standing == null) {
+            standing = new Standing(userId, totalScore, reviewCount);
+        } else {
+            standing = new Standing(userId, standing.totalScore + totalScore, standing.reviewCount + reviewCount);
+        }
+        put(standing);
+    }
+
+    // Null if the user is not on the board.
+    public Standing get(int userId) {
+        return standingsByUserId.get(userId);
+    }
+
+    public Standing remove(int userId) {
+        Standing standing = standingsByUserId.remove(userId);
+        if (standing != null) {
+            standings.remove(standing);
+        }
+        return standing;
+    }
+
+    public void put(Standing standing) {
+        if (standing.reviewCount <= 0) {
+            return;
+        }
+        standingsByUserId.put(standing.userId, standing);
+        standings.add(standing);
+    }
+
+    // The given number of highest averages, highest first.
+    public List<Standing> getTop(int size) {
+        return first(standings.iterator(), size);
+    }
+
+    // The given number of lowest averages, lowest first.
+    public List<Standing> getBottom(int size) {
+        return first(standings.descendingIterator(), size);
+    }
+
+    public int size() {
+        return standings.size();
+    }
+
+    // region Helper Methods
+
+    private static List<Standing> first(Iterator<Standing> iterator, int size) {
+        List<Standing> first = new ArrayList<>();
+        while (first.size() < size && iterator.hasNext()) {
+            first.add(iterator.next());
+        }
+        return first;
+    }
+
+    // endregion
+
+    // Immutable, so that read standings can be handed out without copying.
+    public static final class Standing implements Comparable<Standing> {
+
+        private final int userId;
+        private final int totalScore;
+        private final int reviewCount;
+
+        public Standing(int userId, int totalScore, int reviewCount) {
+            this.userId = userId;
+            this.totalScore = totalScore;
+            this.reviewCount = reviewCount;
+        }
+
+        public double getAverageScore() {
+            return (double) totalScore / reviewCount;
+        }
+
+        // Higher average first, compared without rounding, then lower user id first.
+        @Override
+        public int compareTo(Standing other) {
+            int byAverage = Long.compare((long) other.totalScore * reviewCount, (long) totalScore * other.reviewCount);
+            return byAverage != 0 ? byAverage : Integer.compare(userId, other.userId);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Standing && compareTo((Standing) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return userId;
+        }
+
+        // region Getters
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public int getTotalScore() {
+            return totalScore;
+        }
+
+        public int getReviewCount() {
+            return reviewCount;
+        }
+
+        // endregion
+
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.events.DomainEventBus;
+import com.monitise.performhance.events.OrganizationDeletedEvent;
+import com.monitise.performhance.events.ReviewAddedEvent;
+import com.monitise.performhance.events.ReviewEvent;
+import com.monitise.performhance.events.ReviewRemovedEvent;
+import com.monitise.performhance.events.UserMovedTeamEvent;
+import com.monitise.performhance.repositories.CriteriaScoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+
+// In-memory leaderboards of each criteria, for every organization and for every team in it, ranking employees by
+// their all-time average score like CriteriaScore does. Unlike the score distributions, an employee counts for the
+// team they are in now, so they move between team leaderboards with their scores.
+// Built from the scores on startup, then kept up to date by the review and team events.
+@Component
+public class LeaderboardIndex {
+
+    @Autowired
+    private CriteriaScoreRepository criteriaScoreRepository;
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    private final Map<Integer, OrganizationLeaderboards> organizations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        domainEventBus.subscribe(ReviewAddedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, this::add);
+        domainEventBus.subscribe(ReviewRemovedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, this::remove);
+        domainEventBus.subscribe(UserMovedTeamEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, this::move);
+        domainEventBus.subscribe(OrganizationDeletedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, this::remove);
+    }
+
+    // The first standings of the criteria in the organization, from the top or from the bottom.
+    public List<Leaderboard.Standing> getByOrganizationId(int organizationId, int criteriaId, int size,
+                                                          boolean bottom) {
+        OrganizationLeaderboards leaderboards = organizations.get(organizationId);
+        if (leaderboards == null) {
+            return new ArrayList<>();
+        }
+        synchronized (leaderboards) {
+            return first(leaderboards.organization.get(criteriaId), size, bottom);
+        }
+    }
+
+    public List<Leaderboard.Standing> getByTeamId(int organizationId, int teamId, int criteriaId, int size,
+                                                  boolean bottom) {
+        OrganizationLeaderboards leaderboards = organizations.get(organizationId);
+        if (leaderboards == null) {
+            return new ArrayList<>();
+        }
+        synchronized (leaderboards) {
+            Map<Integer, Leaderboard> team = leaderboards.teams.get(teamId);
+            return team == null ? new ArrayList<>() : first(team.get(criteriaId), size, bottom);
+        }
+    }
+
+    // Reads the scores of all organizations with one query. Changes committed while it runs may be counted twice, so
+    // it is only run before requests are served.
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        Map<Integer, OrganizationLeaderboards> rebuilt = new HashMap<>();
+        // The row is organization id, team id, user id, criteria id, total score and review count.
+        for (Object[] row : criteriaScoreRepository.findAllSelectScoresWithTeam()) {
+            int organizationId = ((Number) row[0]).intValue();
+            OrganizationLeaderboards leaderboards =
+                    rebuilt.computeIfAbsent(organizationId, id -> new OrganizationLeaderboards());
+            Integer teamId = row[1] == null ? null : ((Number) row[1]).intValue();
+            int userId = ((Number) row[2]).intValue();
+            leaderboards.teamIds.put(userId, teamId);
+            for (Map<Integer, Leaderboard> criteriaLeaderboards : leaderboards.leaderboardsOf(teamId)) {
+                criteriaLeaderboards.computeIfAbsent(((Number) row[3]).intValue(), id -> new Leaderboard())
+                        .add(userId, ((Number) row[4]).intValue(), ((Number) row[5]).intValue());
+            }
+        }
+        organizations.clear();
+        organizations.putAll(rebuilt);
+    }
+
+    // region Helper Methods
+
+    private void add(ReviewEvent event) {
+        update(event, 1);
+    }
+
+    private void remove(ReviewEvent event) {
+        update(event, -1);
+    }
+
+    private void remove(OrganizationDeletedEvent event) {
+        organizations.remove(event.getOrganizationId());
+    }
+
+    private void update(ReviewEvent event, int sign) {
+        OrganizationLeaderboards leaderboards =
+                organizations.computeIfAbsent(event.getOrganizationId(), id -> new OrganizationLeaderboards());
+        int userId = event.getReviewedEmployeeId();
+        synchronized (leaderboards) {
+            // The team of the review is the team of the employee, unless they have moved since.
+            if (!leaderboards.teamIds.containsKey(userId)) {
+                leaderboards.teamIds.put(userId, event.getTeamId());
+            }
+            for (Map<Integer, Leaderboard> criteriaLeaderboards
+                    : leaderboards.leaderboardsOf(leaderboards.teamIds.get(userId))) {
+                for (Map.Entry<Integer, Integer> entry : event.getEvaluation().entrySet()) {
+                    criteriaLeaderboards.computeIfAbsent(entry.getKey(), id -> new Leaderboard())
+                            .add(userId, sign * entry.getValue(), sign);
+                }
+            }
+        }
+    }
+
+    // Moves the standings of the employee from the leaderboards of the previous team to the ones of the new team.
+    private void move(UserMovedTeamEvent event) {
+        OrganizationLeaderboards leaderboards =
+                organizations.computeIfAbsent(event.getOrganizationId(), id -> new OrganizationLeaderboards());
+        int userId = event.getUserId();
+        synchronized (leaderboards) {
+            Integer previousTeamId = leaderboards.teamIds.get(userId);
+            leaderboards.teamIds.put(userId, event.getTeamId());
+            // The organization leaderboards hold every standing of the employee, whichever team they are in.
+            for (Map.Entry<Integer, Leaderboard> entry : leaderboards.organization.entrySet()) {
+                Leaderboard.Standing standing = entry.getValue().get(userId);
+                if (standing == null) {
+                    continue;
+                }
+                if (previousTeamId != null) {
+                    leaderboards.teamLeaderboard(previousTeamId, entry.getKey()).remove(userId);
+                }
+                if (event.getTeamId() != null) {
+                    leaderboards.teamLeaderboard(event.getTeamId(), entry.getKey()).put(standing);
+                }
+            }
+        }
+    }
+
+    private static List<Leaderboard.Standing> first(Leaderboard leaderboard, int size, boolean bottom) {
+        if (leaderboard == null) {
+            return new ArrayList<>();
+        }
+        return bottom ? leaderboard.getBottom(size) : leaderboard.getTop(size);
+    }
+
+    // endregion
+
+    private static class OrganizationLeaderboards {
+
+        // Keyed by criteria id.
+        private final Map<Integer, Leaderboard> organization = new HashMap<>();
+        // Keyed by team id, then by criteria id.
+        private final Map<Integer, Map<Integer, Leaderboard>> teams = new HashMap<>();
+        // Team of each employee with scores or a known move, null for employees without a team.
+        private final Map<Integer, Integer> teamIds = new HashMap<>();
+
+        Leaderboard teamLeaderboard(int teamId, int criteriaId) {
+            Map<Integer, Leaderboard> team = teams.computeIfAbsent(teamId, id -> new HashMap<>());
+            return team.computeIfAbsent(criteriaId, id -> new Leaderboard());
+        }
+
+        // Leaderboards the scores of an employee in the given team count for.
+        List<Map<Integer, Leaderboard>> leaderboardsOf(Integer teamId) {
+            List<Map<Integer, Leaderboard>> leaderboards = new ArrayList<>();
+            leaderboards.add(organization);
+            if (teamId != null) {
+                leaderboards.add(teams.computeIfAbsent(teamId, id -> new HashMap<>()));
+            }
+            return leaderboards;
+        }
+
+    }
+
+}
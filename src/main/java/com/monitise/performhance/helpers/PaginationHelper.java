@@ -0,0 +1,194 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.exceptions.BaseException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+// Keyset (cursor based) pagination over entity Specifications, of entities or of projections.
+// Pages continue after the sort key and id of the last seen row instead of skipping rows with an offset, and no
+// count query is run, so every page costs the same as the first one.
+@Component
+public class PaginationHelper {
+
+    public static final String DEFAULT_PAGE_SIZE = "50";
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final String DEFAULT_SORT = "id";
+    private static final String ID = "id";
+    private static final String DESCENDING_PREFIX = "-";
+    private static final String CURSOR_SEPARATOR = ",";
+    private static final ConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Sort is a field name from sortableFields, prefixed with "-" for descending order.
+    // Ties are broken by id in the same direction, so the order is stable.
+    // The sort field must be readable as a property of the results, which entities and projections both are.
+    public <T> KeysetPage<T> getPage(Class<T> type, Specification<T> filter, String after, int size, String sort,
+                                     String... sortableFields) throws BaseException {
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        return getPage(type, type, (root, cb) -> root, entity -> (Integer) persistenceUnitUtil.getIdentifier(entity),
+                filter, after, size, sort, sortableFields);
+    }
+
+    // Same as above, but selects the columns of the projection instead of managed entities.
+    public <T, R> KeysetPage<R> getPage(Class<T> type, Projection<T, R> projection, Specification<T> filter,
+                                        String after, int size, String sort, String... sortableFields)
+            throws BaseException {
+        return getPage(type, projection.getResultType(), projection::select, projection::getId, filter, after, size,
+                sort, sortableFields);
+    }
+
+    // region Helper Methods
+
+    private <T, R> KeysetPage<R> getPage(Class<T> type, Class<R> resultType,
+                                         BiFunction<Root<T>, CriteriaBuilder, Selection<? extends R>> selection,
+                                         Function<R, Integer> idOf, Specification<T> filter, String after,
+                                         int size, String sort, String... sortableFields)
+            throws BaseException {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BaseException(ResponseCode.PAGE_SIZE_INVALID,
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        boolean descending = sort.startsWith(DESCENDING_PREFIX);
+        String sortField = descending ? sort.substring(DESCENDING_PREFIX.length()) : sort;
+        if (!sortField.equals(ID) && !Arrays.asList(sortableFields).contains(sortField)) {
+            throw new BaseException(ResponseCode.PAGE_SORT_INVALID, "Results can not be sorted by " + sortField + ".");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(resultType);
+        Root<T> root = query.from(type);
+        query.select(selection.apply(root, cb));
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            predicates.add(filter.toPredicate(root, query, cb));
+        }
+        if (after != null) {
+            predicates.add(after(root, cb, decodeCursor(after, sort), sortField, descending));
+        }
+        query.where(predicates.toArray(new Predicate[predicates.size()]));
+        query.orderBy(getOrder(root, cb, sortField, descending));
+
+        // One extra row tells whether there is a next page.
+        TypedQuery<R> typedQuery = entityManager.createQuery(query).setMaxResults(size + 1);
+        List<R> content = typedQuery.getResultList();
+        String nextCursor = null;
+        if (content.size() > size) {
+            content = new ArrayList<>(content.subList(0, size));
+            R last = content.get(size - 1);
+            Object sortValue = sortField.equals(ID) ? null
+                    : PropertyAccessorFactory.forBeanPropertyAccess(last).getPropertyValue(sortField);
+            nextCursor = encodeCursor(sort, idOf.apply(last), sortValue);
+        }
+        return new KeysetPage<>(content, nextCursor);
+    }
+
+    // Nulls of the sort field come first in ascending order and last in descending order, like MySQL sorts them, but
+    // stated in the query so that the predicates of after match it on any database.
+    private <T> List<Order> getOrder(Root<T> root, CriteriaBuilder cb, String sortField, boolean descending) {
+        Path<Integer> id = root.get(ID);
+        if (sortField.equals(ID)) {
+            return Collections.singletonList(descending ? cb.desc(id) : cb.asc(id));
+        }
+        Path<?> field = root.get(sortField);
+        Expression<Integer> notNull = cb.<Integer>selectCase().when(cb.isNull(field), 0).otherwise(1);
+        if (descending) {
+            return Arrays.asList(cb.desc(notNull), cb.desc(field), cb.desc(id));
+        }
+        return Arrays.asList(cb.asc(notNull), cb.asc(field), cb.asc(id));
+    }
+
+    // Rows strictly after the cursor in (sortField, id) order.
+    private <T, V extends Comparable<? super V>> Predicate after(Root<T> root, CriteriaBuilder cb, Cursor cursor,
+                                                                String sortField, boolean descending)
+            throws BaseException {
+        Path<Integer> id = root.get(ID);
+        Predicate idAfter = descending ? cb.lessThan(id, cursor.id) : cb.greaterThan(id, cursor.id);
+        if (sortField.equals(ID)) {
+            return idAfter;
+        }
+
+        Path<V> field = root.get(sortField);
+        if (cursor.value == null) {
+            Predicate nullAfter = cb.and(cb.isNull(field), idAfter);
+            return descending ? nullAfter : cb.or(nullAfter, cb.isNotNull(field));
+        }
+        V cursorValue;
+        try {
+            cursorValue = CONVERSION_SERVICE.convert(cursor.value, field.getJavaType());
+        } catch (ConversionException exception) {
+            throw new BaseException(ResponseCode.PAGE_CURSOR_INVALID, "Given cursor is not valid for this list.");
+        }
+        Predicate fieldAfter = descending ? cb.lessThan(field, cursorValue) : cb.greaterThan(field, cursorValue);
+        Predicate after = cb.or(fieldAfter, cb.and(cb.equal(field, cursorValue), idAfter));
+        return descending ? cb.or(after, cb.isNull(field)) : after;
+    }
+
+    // The cursor carries the sort, the id and the sort field value of the last row, so the next page is read
+    // without looking the row up again, and still starts at the right place if the row changed or was removed.
+    // The value is left out when it is null or when sorting by id.
+    private String encodeCursor(String sort, int id, Object sortValue) {
+        String cursor = sort + CURSOR_SEPARATOR + id;
+        if (sortValue != null) {
+            cursor += CURSOR_SEPARATOR + CONVERSION_SERVICE.convert(sortValue, String.class);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A cursor of a list with another sort is not valid.
+    private Cursor decodeCursor(String after, String sort) throws BaseException {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR, 3);
+            if (parts.length >= 2 && parts[0].equals(sort)) {
+                return new Cursor(Integer.parseInt(parts[1]), parts.length == 3 ? parts[2] : null);
+            }
+        } catch (IllegalArgumentException exception) {
+            // Not Base64, or the id is not a number.
+        }
+        throw new BaseException(ResponseCode.PAGE_CURSOR_INVALID, "Given cursor is not valid for this list.");
+    }
+
+    // endregion
+
+    private static class Cursor {
+
+        private final int id;
+        // Null if the sort field of the row is null.
+        private final String value;
+
+        Cursor(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Review;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// A validated review that is accepted into the review log and not yet written to the database.
+// Written to the log as a JSON line, so it only holds ids.
+public class PendingReview {
+
+    // Position in the review log, assigned when the review is appended.
+    private long sequence;
+    // Becomes the creation time of the written review, so that it counts for the day it was given on.
+    private long acceptedAt;
+    private int reviewedEmployeeId;
+    private Integer reviewerId;
+    private int organizationId;
+    private Integer teamId;
+    // Key: criteriaId, Value: evaluationValue
+    private Map<Integer, Integer> evaluation = new HashMap<>();
+    private String comment;
+
+    public PendingReview() {
+    }
+
+    // Takes the organization and team the employee is in when the review is accepted, like a saved review does.
+    public PendingReview(Review review, long acceptedAt) {
+        this.acceptedAt = acceptedAt;
+        reviewedEmployeeId = review.getReviewedEmployee().getId();
+        reviewerId = review.getReviewer().getId();
+        organizationId = review.getOrganization().getId();
+        if (review.getTeam() != null) {
+            teamId = review.getTeam().getId();
+        }
+        for (Map.Entry<Criteria, Integer> entry : review.getEvaluation().entrySet()) {
+            evaluation.put(entry.getKey().getId(), entry.getValue());
+        }
+        comment = review.getComment();
+    }
+
+    // region Getters & Setters
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(long acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    public int getReviewedEmployeeId() {
+        return reviewedEmployeeId;
+    }
+
+    public void setReviewedEmployeeId(int reviewedEmployeeId) {
+        this.reviewedEmployeeId = reviewedEmployeeId;
+    }
+
+    public Integer getReviewerId() {
+        return reviewerId;
+    }
+
+    public void setReviewerId(Integer reviewerId) {
+        this.reviewerId = reviewerId;
+    }
+
+    public int getOrganizationId() {
+        return organizationId;
+    }
+
+    public void setOrganizationId(int organizationId) {
+        this.organizationId = organizationId;
+    }
+
+    public Integer getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(Integer teamId) {
+        this.teamId = teamId;
+    }
+
+    public Map<Integer, Integer> getEvaluation() {
+        return evaluation;
+    }
+
+    public void setEvaluation(Map<Integer, Integer> evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    // endregion
+
+}
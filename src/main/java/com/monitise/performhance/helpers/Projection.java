@@ -0,0 +1,38 @@
+package com.monitise.performhance.helpers;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+// Selects the columns of a response model with a constructor expression, so that lists are read without
+// loading, hydrating and dirty checking managed entities. The model must have a constructor that takes
+// the columns in the same order, and must expose the id and the sortable fields of the entity, under the same
+// names, for keyset pagination.
+public class Projection<T, R> {
+
+    private final Class<R> resultType;
+    private final BiFunction<Root<T>, CriteriaBuilder, Selection<?>[]> columns;
+    private final Function<R, Integer> id;
+
+    public Projection(Class<R> resultType, BiFunction<Root<T>, CriteriaBuilder, Selection<?>[]> columns,
+                      Function<R, Integer> id) {
+        this.resultType = resultType;
+        this.columns = columns;
+        this.id = id;
+    }
+
+    public Selection<R> select(Root<T> root, CriteriaBuilder cb) {
+        return cb.construct(resultType, columns.apply(root, cb));
+    }
+
+    public Class<R> getResultType() {
+        return resultType;
+    }
+
+    public int getId(R result) {
+        return id.apply(result);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.monitise.performhance.helpers;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+// Reads lists of response models straight from the selected columns, see Projection.
+@Component
+public class ProjectionHelper {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Results are ordered by id.
+    public <T, R> List<R> getList(Class<T> type, Projection<T, R> projection, Specification<T> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(projection.getResultType());
+        Root<T> root = query.from(type);
+        query.select(projection.select(root, cb));
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, cb));
+        }
+        query.orderBy(cb.asc(root.get(ID)));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+}
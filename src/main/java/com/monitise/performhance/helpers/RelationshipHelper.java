@@ -17,6 +17,7 @@ import org.springframework.security.access.annotation.Secured;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class RelationshipHelper {
@@ -70,8 +71,16 @@ public class RelationshipHelper {
 
     public void ensureOrganizationUserListRelationship(int organizationId, List<Integer> userIdList)
             throws BaseException {
+        Map<Integer, Integer> organizationIdMap = userService.getOrganizationIdMap(userIdList);
         for (int userId : userIdList) {
-            ensureOrganizationUserRelationship(organizationId, userId);
+            if (!organizationIdMap.containsKey(userId)) {
+                throw new BaseException(ResponseCode.USER_ID_DOES_NOT_EXIST, "A user with given ID does not exist.");
+            }
+            Integer id = organizationIdMap.get(userId);
+            if (id == null || id != organizationId) {
+                throw new BaseException(ResponseCode.USER_BELONGS_TO_ANOTHER_ORGANIZATION,
+                        "Given user does not belong to this organization.");
+            }
         }
     }
 
@@ -98,8 +107,8 @@ public class RelationshipHelper {
 
     @Secured("ROLE_MANAGER")
     public void ensureManagerReviewRelationship(Review review) throws BaseException {
-        User manager = securityHelper.getAuthenticatedUser();
-        if (manager.getOrganization().getId() != review.getOrganization().getId()) {
+        Integer organizationId = securityHelper.getAuthenticatedPrincipal().getOrganizationId();
+        if (organizationId == null || organizationId != review.getOrganization().getId()) {
             throw new BaseException(ResponseCode.RELATIONSHIP_MANAGER_REVIEW_UNSATISFIED,
                     "Given review and current manager are in different organizations.");
         }
@@ -107,8 +116,8 @@ public class RelationshipHelper {
 
     @Secured("ROLE_TEAM_LEADER")
     public void ensureTeamLeaderReviewRelationship(Review review) throws BaseException {
-        User leader = securityHelper.getAuthenticatedUser();
-        if (leader.getTeam().getId() != review.getTeam().getId()) {
+        Integer teamId = securityHelper.getAuthenticatedPrincipal().getTeamId();
+        if (teamId == null || teamId != review.getTeam().getId()) {
             throw new BaseException(ResponseCode.RELATIONSHIP_TEAM_LEADER_REVIEW_UNSATISFIED,
                     "Given review and current team leader are in different teams.");
         }
@@ -0,0 +1,202 @@
+package com.monitise.performhance.helpers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Append-only log of accepted reviews, kept on local disk until they are written to the database.
+// Reviews are JSON lines in segment files named after the sequence of their first review. The checkpoint file holds
+// the sequence of the last review written to the database, segments that end before it are deleted.
+// Appends are thread-safe, the checkpoint is moved by a single drain worker.
+public class ReviewLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "reviews-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final byte NEW_LINE = '\n';
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final boolean syncOnAppend;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Segment files keyed by their first sequence. The last one is appended to.
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel activeChannel;
+    private long activeSize;
+    private volatile long lastSequence;
+    private volatile long checkpoint;
+
+    public ReviewLog(Path directory, long maxSegmentBytes, boolean syncOnAppend) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.syncOnAppend = syncOnAppend;
+    }
+
+    // Reads the log left by the previous run and returns the reviews after the checkpoint, in order.
+    // A review whose write was cut off by a crash was never acknowledged, so it is cut off the segment.
+    public synchronized List<PendingReview> open() throws IOException {
+        Files.createDirectories(directory);
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpointFile)) {
+            checkpoint = Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim());
+        }
+        lastSequence = checkpoint;
+
+        String segmentPattern = SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, segmentPattern)) {
+            for (Path segment : stream) {
+                segments.put(firstSequenceOf(segment), segment);
+            }
+        }
+
+        List<PendingReview> pendingReviews = new ArrayList<>();
+        for (Path segment : segments.values()) {
+            byte[] content = Files.readAllBytes(segment);
+            int lineStart = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] != NEW_LINE) {
+                    continue;
+                }
+                PendingReview review = objectMapper.readValue(Arrays.copyOfRange(content, lineStart, i),
+                        PendingReview.class);
+                lastSequence = Math.max(lastSequence, review.getSequence());
+                if (review.getSequence() > checkpoint) {
+                    pendingReviews.add(review);
+                }
+                lineStart = i + 1;
+            }
+            if (lineStart < content.length) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(lineStart);
+                }
+            }
+        }
+
+        if (!segments.isEmpty()) {
+            Path lastSegment = segments.lastEntry().getValue();
+            activeChannel = FileChannel.open(lastSegment, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            activeSize = activeChannel.size();
+        }
+        return pendingReviews;
+    }
+
+    // Assigns the next sequence to the review and writes it. Once this returns, the review survives a crash of the
+    // application, and with syncOnAppend a crash of the machine too.
+    public synchronized long append(PendingReview review) throws IOException {
+        review.setSequence(lastSequence + 1);
+        byte[] record = objectMapper.writeValueAsBytes(review);
+        ByteBuffer buffer = ByteBuffer.allocate(record.length + 1);
+        buffer.put(record).put(NEW_LINE).flip();
+
+        if (activeChannel == null || (activeSize > 0 && activeSize + buffer.remaining() > maxSegmentBytes)) {
+            startSegment(review.getSequence());
+        }
+        try {
+            while (buffer.hasRemaining()) {
+                activeChannel.write(buffer);
+            }
+            if (syncOnAppend) {
+                activeChannel.force(false);
+            }
+        } catch (IOException exception) {
+            // The next review must not follow a partly written one.
+            activeChannel.truncate(activeSize);
+            throw exception;
+        }
+        activeSize += record.length + 1;
+        lastSequence = review.getSequence();
+        return lastSequence;
+    }
+
+    // Marks the reviews up to the given sequence as written to the database and deletes the segments they filled.
+    public synchronized void checkpoint(long sequence) throws IOException {
+        Path temporaryFile = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(sequence).getBytes(StandardCharsets.UTF_8)));
+            channel.force(false);
+        }
+        Files.move(temporaryFile, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = sequence;
+
+        // A segment is done when the next one starts after the checkpoint. The active segment is never deleted.
+        Map.Entry<Long, Path> segment = segments.firstEntry();
+        while (segment != null) {
+            Map.Entry<Long, Path> next = segments.higherEntry(segment.getKey());
+            if (next == null || next.getKey() - 1 > sequence) {
+                break;
+            }
+            Files.deleteIfExists(segment.getValue());
+            segments.remove(segment.getKey());
+            segment = next;
+        }
+    }
+
+    // Sequence of the last review appended.
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    // Sequence of the last review written to the database.
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public synchronized long getSizeInBytes() throws IOException {
+        long size = 0;
+        for (Path segment : segments.values()) {
+            size += Files.size(segment);
+        }
+        return size;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+            activeChannel = null;
+        }
+    }
+
+    // region Helper Methods
+
+    private void startSegment(long firstSequence) throws IOException {
+        if (activeChannel != null) {
+            activeChannel.force(false);
+            activeChannel.close();
+        }
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        activeSize = activeChannel.size();
+        segments.put(firstSequence, segment);
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // endregion
+
+}
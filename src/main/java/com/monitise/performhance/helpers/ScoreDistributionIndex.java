@@ -0,0 +1,146 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.events.DomainEventBus;
+import com.monitise.performhance.events.OrganizationDeletedEvent;
+import com.monitise.performhance.events.ReviewAddedEvent;
+import com.monitise.performhance.events.ReviewEvent;
+import com.monitise.performhance.events.ReviewRemovedEvent;
+import com.monitise.performhance.repositories.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+
+// In-memory score histograms of each criteria, for every organization and for every team in it. A review counts for
+// the team it was made in. Built from the evaluations on startup, then kept up to date by the review events.
+@Component
+public class ScoreDistributionIndex {
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    private final Map<Integer, OrganizationDistributions> organizations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        domainEventBus.subscribe(ReviewAddedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, this::add);
+        domainEventBus.subscribe(ReviewRemovedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, this::remove);
+        domainEventBus.subscribe(OrganizationDeletedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, this::remove);
+    }
+
+    // Copies of the histograms of the organization keyed by criteria id. Criteria without evaluations are left out.
+    public Map<Integer, ScoreHistogram> getByOrganizationId(int organizationId) {
+        OrganizationDistributions distributions = organizations.get(organizationId);
+        if (distributions == null) {
+            return new HashMap<>();
+        }
+        synchronized (distributions) {
+            return copy(distributions.organization);
+        }
+    }
+
+    public Map<Integer, ScoreHistogram> getByTeamId(int organizationId, int teamId) {
+        OrganizationDistributions distributions = organizations.get(organizationId);
+        if (distributions == null) {
+            return new HashMap<>();
+        }
+        synchronized (distributions) {
+            Map<Integer, ScoreHistogram> team = distributions.teams.get(teamId);
+            return team == null ? new HashMap<>() : copy(team);
+        }
+    }
+
+    // Reads the evaluation counts of all organizations with one grouped query. Changes committed while it runs may be
+    // counted twice, so it is only run before requests are served.
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        Map<Integer, OrganizationDistributions> rebuilt = new HashMap<>();
+        // The row is organization id, team id, criteria id, evaluation and count.
+        for (Object[] row : reviewRepository.findAllSelectEvaluationCounts()) {
+            int organizationId = ((Number) row[0]).intValue();
+            OrganizationDistributions distributions =
+                    rebuilt.computeIfAbsent(organizationId, id -> new OrganizationDistributions());
+            Integer teamId = row[1] == null ? null : ((Number) row[1]).intValue();
+            int criteriaId = ((Number) row[2]).intValue();
+            int score = ((Number) row[3]).intValue();
+            int times = ((Number) row[4]).intValue();
+            for (Map<Integer, ScoreHistogram> histograms : distributions.histogramsOf(teamId)) {
+                histograms.computeIfAbsent(criteriaId, id -> new ScoreHistogram()).add(score, times);
+            }
+        }
+        organizations.clear();
+        organizations.putAll(rebuilt);
+    }
+
+    // region Helper Methods
+
+    private void add(ReviewEvent event) {
+        OrganizationDistributions distributions =
+                organizations.computeIfAbsent(event.getOrganizationId(), id -> new OrganizationDistributions());
+        synchronized (distributions) {
+            for (Map<Integer, ScoreHistogram> histograms : distributions.histogramsOf(event.getTeamId())) {
+                for (Map.Entry<Integer, Integer> entry : event.getEvaluation().entrySet()) {
+                    histograms.computeIfAbsent(entry.getKey(), id -> new ScoreHistogram()).add(entry.getValue(), 1);
+                }
+            }
+        }
+    }
+
+    private void remove(ReviewEvent event) {
+        OrganizationDistributions distributions = organizations.get(event.getOrganizationId());
+        if (distributions == null) {
+            return;
+        }
+        synchronized (distributions) {
+            for (Map<Integer, ScoreHistogram> histograms : distributions.histogramsOf(event.getTeamId())) {
+                for (Map.Entry<Integer, Integer> entry : event.getEvaluation().entrySet()) {
+                    ScoreHistogram histogram = histograms.get(entry.getKey());
+                    if (histogram != null) {
+                        histogram.remove(entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private void remove(OrganizationDeletedEvent event) {
+        organizations.remove(event.getOrganizationId());
+    }
+
+    private static Map<Integer, ScoreHistogram> copy(Map<Integer, ScoreHistogram> histograms) {
+        Map<Integer, ScoreHistogram> copies = new HashMap<>();
+        for (Map.Entry<Integer, ScoreHistogram> entry : histograms.entrySet()) {
+            copies.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copies;
+    }
+
+    // endregion
+
+    private static class OrganizationDistributions {
+
+        // Keyed by criteria id.
+        private final Map<Integer, ScoreHistogram> organization = new HashMap<>();
+        // Keyed by team id, then by criteria id.
+        private final Map<Integer, Map<Integer, ScoreHistogram>> teams = new HashMap<>();
+
+        // Histograms an evaluation of a review in the given team counts for.
+        Iterable<Map<Integer, ScoreHistogram>> histogramsOf(Integer teamId) {
+            if (teamId == null) {
+                return Collections.singletonList(organization);
+            }
+            return Arrays.asList(organization, teams.computeIfAbsent(teamId, id -> new HashMap<>()));
+        }
+
+    }
+
+}
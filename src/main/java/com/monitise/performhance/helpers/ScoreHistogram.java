@@ -0,0 +1,114 @@
+package com.monitise.performhance.helpers;
+
+import java.util.Arrays;
+
+// Number of evaluations with each value, from 0 to 100 as validated by ReviewController. Statistics read from the
+// counts are exact, without keeping the evaluations themselves. Not thread-safe.
+public class ScoreHistogram {
+
+    public static final int MAX_SCORE = 100;
+
+    private final int[] counts;
+    private int count;
+
+    public ScoreHistogram() {
+        counts = new int[MAX_SCORE + 1];
+    }
+
+    private ScoreHistogram(ScoreHistogram histogram) {
+        counts = Arrays.copyOf(histogram.counts, histogram.counts.length);
+        count = histogram.count;
+    }
+
+    public void add(int score, int times) {
+        counts[score] += times;
+        count += times;
+    }
+
+    public void remove(int score) {
+        if (counts[score] > 0) {
+            counts[score]--;
+            count--;
+        }
+    }
+
+    public ScoreHistogram copy() {
+        return new ScoreHistogram(this);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Counts indexed by score.
+    public int[] getCounts() {
+        return Arrays.copyOf(counts, counts.length);
+    }
+
+    // The statistics below are null for an empty histogram.
+
+    public Double getMean() {
+        if (count == 0) {
+            return null;
+        }
+        return (double) getSum() / count;
+    }
+
+    // Standard deviation of all the evaluations, not of a sample.
+    public Double getStandardDeviation() {
+        if (count == 0) {
+            return null;
+        }
+        long sumOfSquares = 0;
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            sumOfSquares += (long) counts[score] * score * score;
+        }
+        double mean = (double) getSum() / count;
+        return Math.sqrt(Math.max(0, (double) sumOfSquares / count - mean * mean));
+    }
+
+    // Middle value, or the mean of the two middle values for an even count.
+    public Double getMedian() {
+        if (count == 0) {
+            return null;
+        }
+        if (count % 2 == 1) {
+            return (double) scoreAtRank(count / 2 + 1);
+        }
+        return (scoreAtRank(count / 2) + scoreAtRank(count / 2 + 1)) / 2.0;
+    }
+
+    // Nearest-rank percentile, the smallest score that at least the given percent of the evaluations are at or below.
+    public Integer getPercentile(int percent) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, ((long) percent * count + 99) / 100);
+        return scoreAtRank(rank);
+    }
+
+    // region Helper Methods
+
+    private long getSum() {
+        long sum = 0;
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            sum += (long) counts[score] * score;
+        }
+        return sum;
+    }
+
+    // Score of the evaluation at the given position, from 1, when they are sorted.
+    private int scoreAtRank(long rank) {
+        long seen = 0;
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            seen += counts[score];
+            if (seen >= rank) {
+                return score;
+            }
+        }
+        return MAX_SCORE;
+    }
+
+    // endregion
+
+}
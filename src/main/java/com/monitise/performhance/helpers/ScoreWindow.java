@@ -0,0 +1,117 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.exceptions.BaseException;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+// Days of the reviews that scores are computed from, both ends included. Days are in the time zone of the server, the
+// same one the daily scores are kept in.
+public final class ScoreWindow {
+
+    // Ten years, further than any review goes back.
+    public static final int MAX_DAYS = 3660;
+
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+
+    private ScoreWindow(LocalDate firstDay, LocalDate lastDay) {
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+    }
+
+    // Today and the days before it, e.g. 30, 90 or 365.
+    public static ScoreWindow ofLastDays(int days) throws BaseException {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new BaseException(ResponseCode.SCORE_WINDOW_INVALID,
+                    "Number of days must be between 1 and " + MAX_DAYS + ".");
+        }
+        LocalDate today = LocalDate.now();
+        return new ScoreWindow(today.minusDays(days - 1), today);
+    }
+
+    // Dates are given as yyyy-MM-dd.
+    public static ScoreWindow ofRange(String from, String to) throws BaseException {
+        LocalDate firstDay = parse(from);
+        LocalDate lastDay = parse(to);
+        if (firstDay.isAfter(lastDay)) {
+            throw new BaseException(ResponseCode.SCORE_WINDOW_INVALID, "Start of the window is after its end.");
+        }
+        return new ScoreWindow(firstDay, lastDay);
+    }
+
+    // The day the given time falls on.
+    public static ScoreWindow ofDayOf(Date time) {
+        LocalDate day = time.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return new ScoreWindow(day, day);
+    }
+
+    // Returns the window given either by a number of days or by a range, or null for all-time scores.
+    public static ScoreWindow of(Integer days, String from, String to) throws BaseException {
+        if (days != null) {
+            if (from != null || to != null) {
+                throw new BaseException(ResponseCode.SCORE_WINDOW_INVALID,
+                        "Window must be given either by a number of days or by a range.");
+            }
+            return ofLastDays(days);
+        }
+        if (from == null && to == null) {
+            return null;
+        }
+        if (from == null || to == null) {
+            throw new BaseException(ResponseCode.SCORE_WINDOW_INVALID, "Range must have both a start and an end.");
+        }
+        return ofRange(from, to);
+    }
+
+    // Day the given time falls on, as a date column holds it. Null for a null time.
+    public static Date dayOf(Date time) {
+        if (time == null) {
+            return null;
+        }
+        return ofDayOf(time).getFirstDay();
+    }
+
+    // First and last days as yyyy-MM-dd.
+    public String getFrom() {
+        return firstDay.toString();
+    }
+
+    public String getTo() {
+        return lastDay.toString();
+    }
+
+    // Date column values of the first and last days.
+    public Date getFirstDay() {
+        return java.sql.Date.valueOf(firstDay);
+    }
+
+    public Date getLastDay() {
+        return java.sql.Date.valueOf(lastDay);
+    }
+
+    // Times of the reviews in the window are at or after the start and before the end.
+    public Date getStart() {
+        return Date.from(firstDay.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    public Date getEnd() {
+        return Date.from(lastDay.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    // region Helper Methods
+
+    private static LocalDate parse(String date) throws BaseException {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException exception) {
+            throw new BaseException(ResponseCode.SCORE_WINDOW_DATE_INVALID, "Dates must be given as yyyy-MM-dd.");
+        }
+    }
+
+    // endregion
+
+}
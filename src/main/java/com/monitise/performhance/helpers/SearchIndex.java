@@ -0,0 +1,200 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.entity.Organization;
+import com.monitise.performhance.entity.Team;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.repositories.TeamRepository;
+import com.monitise.performhance.repositories.UserRepository;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// In-memory trigram indexes of the user names, user surnames and team names of each organization, so that name
+// searches find the matching ids without scanning the tables. All organizations are indexed on startup, one that is
+// not indexed yet is loaded on its first search. UserService and TeamService keep the indexes up to date.
+@Component
+public class SearchIndex {
+
+    // Beyond this many matches the database is asked to filter by name instead of by a list of ids.
+    public static final int MAX_ID_FILTER_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+
+    private final Map<Integer, OrganizationIndex> organizationIndexes = new ConcurrentHashMap<>();
+
+    // Ids of the users whose name and surname contain the given values, in ascending order. Null is not a condition.
+    public List<Integer> findUserIds(int organizationId, String name, String surname) {
+        OrganizationIndex index = getLoaded(organizationId);
+        synchronized (index) {
+            if (surname == null) {
+                return index.userNames.search(name);
+            }
+            List<Integer> idList = index.userSurnames.search(surname);
+            if (name != null) {
+                idList.retainAll(new HashSet<>(index.userNames.search(name)));
+            }
+            return idList;
+        }
+    }
+
+    // Ids of the teams whose name contains the given value, in ascending order.
+    public List<Integer> findTeamIds(int organizationId, String name) {
+        OrganizationIndex index = getLoaded(organizationId);
+        synchronized (index) {
+            return index.teamNames.search(name);
+        }
+    }
+
+    public void putUser(User user) {
+        if (user.getOrganization() == null) {
+            return;
+        }
+        int id = user.getId();
+        String name = user.getName();
+        String surname = user.getSurname();
+        change(idOf(user.getOrganization()), index -> {
+            index.userNames.put(id, name);
+            index.userSurnames.put(id, surname);
+        });
+    }
+
+    public void removeUser(int organizationId, int userId) {
+        change(organizationId, index -> {
+            index.userNames.remove(userId);
+            index.userSurnames.remove(userId);
+        });
+    }
+
+    public void putTeam(Team team) {
+        int id = team.getId();
+        String name = team.getName();
+        change(idOf(team.getOrganization()), index -> index.teamNames.put(id, name));
+    }
+
+    public void removeTeam(int organizationId, int teamId) {
+        change(organizationId, index -> index.teamNames.remove(teamId));
+    }
+
+    public void removeOrganization(int organizationId) {
+        organizationIndexes.remove(organizationId);
+    }
+
+    // Indexes every organization with one query for all users and one for all teams.
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        Map<Integer, OrganizationIndex> indexes = new HashMap<>();
+        for (Object[] row : userRepository.findAllSelectName()) {
+            OrganizationIndex index = indexes.computeIfAbsent((Integer) row[0], id -> new OrganizationIndex());
+            index.putUser(row);
+        }
+        for (Object[] row : teamRepository.findAllSelectName()) {
+            OrganizationIndex index = indexes.computeIfAbsent((Integer) row[0], id -> new OrganizationIndex());
+            index.putTeam(row);
+        }
+        for (OrganizationIndex index : indexes.values()) {
+            index.loaded = true;
+        }
+        organizationIndexes.clear();
+        organizationIndexes.putAll(indexes);
+    }
+
+    public void clear() {
+        organizationIndexes.clear();
+    }
+
+    // region Helper Methods
+
+    // Reads the id of a lazy organization without loading it, which may be outside of a session.
+    private int idOf(Organization organization) {
+        if (organization instanceof HibernateProxy) {
+            return (Integer) ((HibernateProxy) organization).getHibernateLazyInitializer().getIdentifier();
+        }
+        return organization.getId();
+    }
+
+    // The organization is loaded while its index is locked, so changes made meanwhile wait and are applied after.
+    private OrganizationIndex getLoaded(int organizationId) {
+        OrganizationIndex index = organizationIndexes.computeIfAbsent(organizationId, id -> new OrganizationIndex());
+        synchronized (index) {
+            if (!index.loaded) {
+                for (Object[] row : userRepository.findAllByOrganizationIdSelectName(organizationId)) {
+                    index.putUser(row);
+                }
+                for (Object[] row : teamRepository.findAllByOrganizationIdSelectName(organizationId)) {
+                    index.putTeam(row);
+                }
+                index.loaded = true;
+            }
+        }
+        return index;
+    }
+
+    // Organizations that are not indexed yet read the change from the database when they are loaded.
+    // Within a transaction the change is applied again after commit, in case the organization was loaded meanwhile,
+    // and after a rollback the organization is dropped to be loaded again.
+    private void change(int organizationId, Consumer<OrganizationIndex> change) {
+        applyIfLoaded(organizationId, change);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                        applyIfLoaded(organizationId, change);
+                    } else {
+                        organizationIndexes.remove(organizationId);
+                    }
+                }
+            });
+        }
+    }
+
+    private void applyIfLoaded(int organizationId, Consumer<OrganizationIndex> change) {
+        OrganizationIndex index = organizationIndexes.get(organizationId);
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            if (index.loaded) {
+                change.accept(index);
+            }
+        }
+    }
+
+    // endregion
+
+    private static class OrganizationIndex {
+
+        private final TrigramIndex userNames = new TrigramIndex();
+        private final TrigramIndex userSurnames = new TrigramIndex();
+        private final TrigramIndex teamNames = new TrigramIndex();
+        private boolean loaded;
+
+        // The row is organization id, user id, name and surname.
+        void putUser(Object[] row) {
+            userNames.put((Integer) row[1], (String) row[2]);
+            userSurnames.put((Integer) row[1], (String) row[3]);
+        }
+
+        // The row is organization id, team id and name.
+        void putTeam(Object[] row) {
+            teamNames.put((Integer) row[1], (String) row[2]);
+        }
+
+    }
+
+}
@@ -10,18 +10,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 public class SecurityHelper {
 
     @Autowired
     private UserService userService;
+    @Autowired
+    private AuthenticationContext authenticationContext;
 
     public User getAuthenticatedUser() throws BaseException {
+        return resolve().getUser();
+    }
+
+    // Token authenticated requests carry the principal, so it is looked up only for username and password logins.
+    public AuthenticatedPrincipal getAuthenticatedPrincipal() throws BaseException {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String authenticatedUsername = auth.getName();
-        User authenticatedUser = userService.getByUsername(authenticatedUsername);
-        return authenticatedUser;
+        if (auth.getPrincipal() instanceof AuthenticatedPrincipal) {
+            return (AuthenticatedPrincipal) auth.getPrincipal();
+        }
+        return resolve().getPrincipal();
+    }
+
+    public boolean isAuthenticatedWithToken() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthenticatedPrincipal;
     }
 
     public void checkAuthentication(int organizationId) throws BaseException {
@@ -31,27 +45,45 @@ public class SecurityHelper {
     }
 
     public boolean isAuthenticatedUserManager() throws BaseException {
-        return getAuthenticatedUser().getRole().equals(Role.MANAGER);
+        return getAuthenticatedPrincipal().getRole().equals(Role.MANAGER);
     }
 
     public boolean isAuthenticatedUserTeamLeader() throws BaseException {
-        return getAuthenticatedUser().getRole().equals(Role.TEAM_LEADER);
+        return getAuthenticatedPrincipal().getRole().equals(Role.TEAM_LEADER);
     }
 
     public boolean isAuthenticatedUserEmployee() throws BaseException {
-        return getAuthenticatedUser().getRole().equals(Role.EMPLOYEE);
+        return getAuthenticatedPrincipal().getRole().equals(Role.EMPLOYEE);
     }
 
     public boolean isAuthenticatedUserAdmin() throws BaseException {
-        return getAuthenticatedUser().getRole().equals(Role.ADMIN);
+        return getAuthenticatedPrincipal().getRole().equals(Role.ADMIN);
+    }
+
+    // region Helper Methods
+
+    // Looks the user up once per request. Outside of a request, e.g. in a background thread, looks up every time.
+    private AuthenticationContext resolve() throws BaseException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String authenticatedUsername = auth.getName();
+        AuthenticationContext context = authenticationContext;
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            context = new AuthenticationContext();
+        }
+        if (!context.isResolvedFor(authenticatedUsername)) {
+            context.resolve(userService.getByUsername(authenticatedUsername));
+        }
+        return context;
     }
 
     private void checkUserOrganizationAuthorization(int organizationId) throws BaseException {
-        User authenticatedUser = getAuthenticatedUser();
-        if (authenticatedUser.getOrganization().getId() != organizationId) {
+        Integer authenticatedOrganizationId = getAuthenticatedPrincipal().getOrganizationId();
+        if (authenticatedOrganizationId == null || authenticatedOrganizationId != organizationId) {
             throw new NotAuthorizedException(ResponseCode.USER_UNAUTHORIZED_ORGANIZATION,
                     "You are not authorized for this organization.");
         }
     }
 
-}
\ No newline at end of file
+    // endregion
+
+}
@@ -0,0 +1,153 @@
+package com.monitise.performhance.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Case-insensitive substring search over one text field of many rows, e.g. the names of the users of an organization.
+// Every three consecutive characters of a value point to the ids of the rows containing them. A query is answered by
+// intersecting the id lists of its trigrams, then checking the remaining values, so the result is exact.
+// Not thread-safe.
+public class TrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Integer, String> values = new HashMap<>();
+    private final Map<String, IdList> postings = new HashMap<>();
+
+    public void put(int id, String value) {
+        remove(id);
+        if (value == null) {
+            return;
+        }
+        String normalized = normalize(value);
+        values.put(id, normalized);
+        for (String gram : gramsOf(normalized)) {
+            IdList idList = postings.get(gram);
+            if (idList == null) {
+                idList = new IdList();
+                postings.put(gram, idList);
+            }
+            idList.add(id);
+        }
+    }
+
+    public void remove(int id) {
+        String value = values.remove(id);
+        if (value == null) {
+            return;
+        }
+        for (String gram : gramsOf(value)) {
+            IdList idList = postings.get(gram);
+            idList.remove(id);
+            if (idList.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    // Ids of the rows whose value contains the query, in ascending order.
+    public List<Integer> search(String query) {
+        String normalized = normalize(query);
+        List<Integer> result = new ArrayList<>();
+        if (normalized.length() < GRAM_LENGTH) {
+            // Too short to have a trigram, the values are scanned instead.
+            for (Map.Entry<Integer, String> entry : values.entrySet()) {
+                if (entry.getValue().contains(normalized)) {
+                    result.add(entry.getKey());
+                }
+            }
+            result.sort(null);
+            return result;
+        }
+
+        List<IdList> idLists = new ArrayList<>();
+        for (String gram : gramsOf(normalized)) {
+            IdList idList = postings.get(gram);
+            if (idList == null) {
+                return result;
+            }
+            idLists.add(idList);
+        }
+        // The shortest list is walked and looked up in the others.
+        idLists.sort((first, second) -> Integer.compare(first.size, second.size));
+        IdList shortest = idLists.get(0);
+        for (int i = 0; i < shortest.size; i++) {
+            int id = shortest.ids[i];
+            if (containsInAll(idLists, id) && values.get(id).contains(normalized)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    // region Helper Methods
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static boolean containsInAll(List<IdList> idLists, int id) {
+        for (int i = 1; i < idLists.size(); i++) {
+            if (!idLists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // endregion
+
+    // Sorted array of ids, smaller than a set of boxed integers.
+    private static class IdList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.monitise.performhance.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.monitise.performhance.metrics;
+
+import com.monitise.performhance.datasource.ReplicaMonitor;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+// Gauges of the connection pools, read from the pools when the metrics are written, and the lag of the replicas.
+@Component
+public class DataSourceMetrics {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+    // Keyed by bean name. Only the connection pools among them are measured.
+    @Autowired
+    private Map<String, DataSource> dataSources;
+    // Only there when replicas are configured.
+    @Autowired(required = false)
+    private ReplicaMonitor replicaMonitor;
+
+    @PostConstruct
+    public void register() {
+        for (Map.Entry<String, DataSource> entry : dataSources.entrySet()) {
+            if (entry.getValue() instanceof DataSourceProxy) {
+                registerPool(entry.getKey(), (DataSourceProxy) entry.getValue());
+            }
+        }
+        if (replicaMonitor != null) {
+            for (int i = 0; i < replicaMonitor.getReplicaCount(); i++) {
+                int replica = i;
+                DoubleSupplier lagSeconds = () -> toSeconds(replicaMonitor.getLagMillis(replica));
+                metricsRegistry.gauge("performhance_replica_lag_seconds",
+                        "Time since the last heartbeat the replica has applied, -1 while it is unknown.", lagSeconds,
+                        "replica", String.valueOf(replica));
+            }
+        }
+    }
+
+    // region Helper Methods
+
+    private void registerPool(String name, DataSourceProxy pool) {
+        metricsRegistry.gauge("performhance_jdbc_connections_active", "Connections in use.",
+                pool::getActive, "pool", name);
+        metricsRegistry.gauge("performhance_jdbc_connections_idle", "Open connections waiting to be used.",
+                pool::getIdle, "pool", name);
+        metricsRegistry.gauge("performhance_jdbc_connections_max", "Maximum number of connections in use.",
+                pool::getMaxActive, "pool", name);
+        metricsRegistry.gauge("performhance_jdbc_connections_waiting", "Threads waiting for a connection.",
+                pool::getWaitCount, "pool", name);
+    }
+
+    private static double toSeconds(long millis) {
+        return millis < 0 ? -1 : millis / 1000.0;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,77 @@
+package com.monitise.performhance.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Session statistics of all the requests of one controller handler since startup or the last reset.
+public class HandlerStatistics {
+
+    private final String handler;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder entitiesLoaded = new LongAdder();
+    private final LongAdder collectionsFetched = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flaggedRequests = new LongAdder();
+    // Of the last flagged request.
+    private volatile String repeatedQuery;
+    private volatile int repeatedQueryCount;
+
+    public HandlerStatistics(String handler) {
+        this.handler = handler;
+    }
+
+    public void add(SessionStatistics statistics) {
+        requests.increment();
+        statements.add(statistics.getStatements());
+        entitiesLoaded.add(statistics.getEntitiesLoaded());
+        collectionsFetched.add(statistics.getCollectionsFetched());
+        flushes.add(statistics.getFlushes());
+    }
+
+    public void flag(String query, int count) {
+        flaggedRequests.increment();
+        repeatedQuery = query;
+        repeatedQueryCount = count;
+    }
+
+    // region Getters
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.sum();
+    }
+
+    public long getCollectionsFetched() {
+        return collectionsFetched.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public long getFlaggedRequests() {
+        return flaggedRequests.sum();
+    }
+
+    public String getRepeatedQuery() {
+        return repeatedQuery;
+    }
+
+    public int getRepeatedQueryCount() {
+        return repeatedQueryCount;
+    }
+
+    // endregion
+
+}
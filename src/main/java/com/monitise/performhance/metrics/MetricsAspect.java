@@ -0,0 +1,90 @@
+package com.monitise.performhance.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times every call of a controller, service or repository method, in a histogram per class and method name. The
+// times of a layer include the calls it makes to the layers below. Overloads share a histogram.
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final String APPLICATION_PACKAGE = "com.monitise.performhance.";
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // Timers by the class of the called object, then by the called method. Repositories inherit most of their methods,
+    // so the method alone does not tell which repository was called.
+    private final ClassValue<Map<Method, Timer>> timers = new ClassValue<Map<Method, Timer>>() {
+        @Override
+        protected Map<Method, Timer> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    @Around("within(com.monitise.performhance.api..*) "
+            + "&& @within(org.springframework.web.bind.annotation.RestController)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "performhance_controller_seconds", "Latency of controller methods.");
+    }
+
+    @Around("within(com.monitise.performhance.services..*) && @within(org.springframework.stereotype.Service)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "performhance_service_seconds", "Latency of service methods.");
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "performhance_repository_seconds", "Latency of repository methods.");
+    }
+
+    // region Helper Methods
+
+    private Object time(ProceedingJoinPoint joinPoint, String name, String help) throws Throwable {
+        Timer timer = getTimer(joinPoint, name, help);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+
+    private Timer getTimer(ProceedingJoinPoint joinPoint, String name, String help) {
+        Class<?> type = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Map<Method, Timer> timersOfType = timers.get(type);
+        Timer timer = timersOfType.get(method);
+        if (timer == null) {
+            timer = metricsRegistry.timer(name, help, "class", getName(type), "method", method.getName());
+            timersOfType.put(method, timer);
+        }
+        return timer;
+    }
+
+    // Repositories are implemented by JDK proxies, which are named after the repository interface.
+    private static String getName(Class<?> type) {
+        if (Proxy.isProxyClass(type)) {
+            for (Class<?> proxiedInterface : type.getInterfaces()) {
+                if (proxiedInterface.getName().startsWith(APPLICATION_PACKAGE)) {
+                    return proxiedInterface.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(type).getSimpleName();
+    }
+
+    // endregion
+
+}
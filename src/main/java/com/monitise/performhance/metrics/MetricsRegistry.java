@@ -0,0 +1,121 @@
+package com.monitise.performhance.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+// Timers, counters and gauges of the application, written in the Prometheus text format for scraping. Metrics are
+// registered once and kept by their users, so that recording does not look anything up. Labels are given as name and
+// value pairs. Registering a timer or counter again with the same labels returns the existing one.
+@Component
+public class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String HISTOGRAM = "histogram";
+    private static final String COUNTER = "counter";
+    private static final String GAUGE = "gauge";
+
+    // Sorted by name, so that the text is written in the same order every time.
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public Timer timer(String name, String help, String... labels) {
+        return (Timer) getFamily(name, help, HISTOGRAM).series.computeIfAbsent(toText(labels), key -> new Timer());
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) getFamily(name, help, COUNTER).series.computeIfAbsent(toText(labels), key -> new Counter());
+    }
+
+    // The value is read when the metrics are written. Registering a gauge again replaces it.
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        getFamily(name, help, GAUGE).series.put(toText(labels), value);
+    }
+
+    public String write() {
+        StringBuilder text = new StringBuilder();
+        for (Family family : families.values()) {
+            text.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            text.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                String labels = series.getKey();
+                Object metric = series.getValue();
+                if (metric instanceof Timer) {
+                    writeTimer(text, family.name, labels, (Timer) metric);
+                } else if (metric instanceof Counter) {
+                    writeSample(text, family.name, labels, ((Counter) metric).getCount());
+                } else {
+                    writeSample(text, family.name, labels, ((DoubleSupplier) metric).getAsDouble());
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    // region Helper Methods
+
+    private Family getFamily(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(name + " is already registered as a " + family.type + ".");
+        }
+        return family;
+    }
+
+    private static void writeTimer(StringBuilder text, String name, String labels, Timer timer) {
+        long[] counts = timer.getCumulativeCounts();
+        String bucketLabels = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < counts.length; i++) {
+            writeSample(text, name + "_bucket", bucketLabels + "le=\"" + Timer.getBucketLabel(i) + "\"", counts[i]);
+        }
+        writeSample(text, name + "_sum", labels, timer.getSumSeconds());
+        writeSample(text, name + "_count", labels, counts[counts.length - 1]);
+    }
+
+    private static void writeSample(StringBuilder text, String name, String labels, Object value) {
+        text.append(name);
+        if (!labels.isEmpty()) {
+            text.append('{').append(labels).append('}');
+        }
+        text.append(' ').append(value).append('\n');
+    }
+
+    private static String toText(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name and value pairs.");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return text.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    // endregion
+
+    private static class Family {
+
+        private final String name;
+        private final String help;
+        private final String type;
+        // Keyed by the labels as they are written, so that the series are sorted by them.
+        private final Map<String, Object> series = new ConcurrentSkipListMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.monitise.performhance.metrics;
+
+import com.monitise.performhance.api.model.ResponseCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.PostConstruct;
+
+// Counts the error codes sent in responses. A counter is registered for every code in ResponseCode on startup and
+// looked up by binary search, so that counting does not box the code.
+@Component
+public class ResponseCodeMetrics {
+
+    private static final String NAME = "performhance_error_responses_total";
+    private static final String HELP = "Responses with an error, by response code.";
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private int[] codes;
+    private Counter[] counters;
+    private Counter unknownCodeCounter;
+
+    @PostConstruct
+    public void register() {
+        Map<Integer, String> names = new TreeMap<>();
+        for (Field field : ResponseCode.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == int.class) {
+                try {
+                    names.putIfAbsent(field.getInt(null), field.getName());
+                } catch (IllegalAccessException exception) {
+                    throw new IllegalStateException(exception);
+                }
+            }
+        }
+        codes = new int[names.size()];
+        counters = new Counter[names.size()];
+        int index = 0;
+        for (Map.Entry<Integer, String> entry : names.entrySet()) {
+            codes[index] = entry.getKey();
+            counters[index] = metricsRegistry.counter(NAME, HELP, "code", String.valueOf(entry.getKey()),
+                    "name", entry.getValue());
+            index++;
+        }
+        unknownCodeCounter = metricsRegistry.counter(NAME, HELP, "code", "other", "name", "OTHER");
+    }
+
+    public void count(int code) {
+        int index = Arrays.binarySearch(codes, code);
+        if (index >= 0) {
+            counters[index].increment();
+        } else {
+            unknownCodeCounter.increment();
+        }
+    }
+
+}
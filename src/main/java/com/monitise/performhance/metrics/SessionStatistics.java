@@ -0,0 +1,103 @@
+package com.monitise.performhance.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// What Hibernate did for the current request: statements prepared, entities loaded, collections fetched and flushes.
+// Statements are also counted by shape, with literals and parameter lists folded, so that a query run once per
+// element of a list shows up as one shape with a high count. Kept per thread between start and stop, work of other
+// threads is not counted.
+public class SessionStatistics {
+
+    private static final ThreadLocal<SessionStatistics> CURRENT = new ThreadLocal<>();
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private int entitiesLoaded;
+    private int collectionsFetched;
+    private int flushes;
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+
+    public static void start() {
+        CURRENT.set(new SessionStatistics());
+    }
+
+    // Returns null if nothing was started on this thread.
+    public static SessionStatistics stop() {
+        SessionStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    public static void countStatement(String sql) {
+        SessionStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.statementShapes.merge(getShape(sql), 1, Integer::sum);
+        }
+    }
+
+    public static void countEntityLoad() {
+        SessionStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    public static void countCollectionFetch() {
+        SessionStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionsFetched++;
+        }
+    }
+
+    public static void countFlush() {
+        SessionStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.flushes++;
+        }
+    }
+
+    static String getShape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    // Most frequent statement shape, null if no statement was prepared.
+    public Map.Entry<String, Integer> getMostRepeatedShape() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> shape : statementShapes.entrySet()) {
+            if (mostRepeated == null || shape.getValue() > mostRepeated.getValue()) {
+                mostRepeated = shape;
+            }
+        }
+        return mostRepeated;
+    }
+
+    // region Getters
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public int getCollectionsFetched() {
+        return collectionsFetched;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    // endregion
+
+}
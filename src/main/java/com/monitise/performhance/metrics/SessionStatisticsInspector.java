@@ -0,0 +1,17 @@
+package com.monitise.performhance.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the statements Hibernate prepares for the current request. Registered in application.properties, as
+// Hibernate creates it before the application context exists.
+public class SessionStatisticsInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        SessionStatistics.countStatement(sql);
+        return sql;
+    }
+
+}
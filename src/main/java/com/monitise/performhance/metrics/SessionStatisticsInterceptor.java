@@ -0,0 +1,40 @@
+package com.monitise.performhance.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Collects the session statistics of each request handled by a controller, including the lazy loads of the response
+// serialization, and records them under the handler. Registered in AppConfig.
+@Component
+public class SessionStatisticsInterceptor extends HandlerInterceptorAdapter {
+
+    @Autowired
+    private SessionStatisticsProperties properties;
+    @Autowired
+    private SessionStatisticsRegistry sessionStatisticsRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (properties.isEnabled() && handler instanceof HandlerMethod) {
+            SessionStatistics.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        SessionStatistics statistics = SessionStatistics.stop();
+        if (statistics != null) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            String controllerName = handlerMethod.getBeanType().getSimpleName();
+            sessionStatisticsRegistry.record(controllerName + "." + handlerMethod.getMethod().getName(), statistics);
+        }
+    }
+
+}
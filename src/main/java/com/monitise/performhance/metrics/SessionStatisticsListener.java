@@ -0,0 +1,69 @@
+package com.monitise.performhance.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+// Counts entity loads, collection fetches and flushes for the current request. Appended after the default
+// listeners, so that an automatic flush is only counted when it had something to write. Hibernate listeners are
+// Serializable, so the bean only registers them and does not implement them itself.
+@Component
+public class SessionStatisticsListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        CountingListener listener = new CountingListener();
+        registry.appendListeners(EventType.POST_LOAD, listener);
+        registry.appendListeners(EventType.INIT_COLLECTION, listener);
+        registry.appendListeners(EventType.FLUSH, listener);
+        registry.appendListeners(EventType.AUTO_FLUSH, listener);
+    }
+
+    private static class CountingListener implements PostLoadEventListener, InitializeCollectionEventListener,
+            FlushEventListener, AutoFlushEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            SessionStatistics.countEntityLoad();
+        }
+
+        @Override
+        public void onInitializeCollection(InitializeCollectionEvent event) {
+            SessionStatistics.countCollectionFetch();
+        }
+
+        @Override
+        public void onFlush(FlushEvent event) {
+            SessionStatistics.countFlush();
+        }
+
+        @Override
+        public void onAutoFlush(AutoFlushEvent event) {
+            if (event.isFlushRequired()) {
+                SessionStatistics.countFlush();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.monitise.performhance.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "performhance.session-statistics")
+public class SessionStatisticsProperties {
+
+    private boolean enabled = true;
+    // Logs what Hibernate did for every request.
+    private boolean logRequests = true;
+    // A request running the same query shape more often than this is flagged as an N+1 fan-out.
+    private int repeatedQueryThreshold = 10;
+
+    // region Getters & Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isLogRequests() {
+        return logRequests;
+    }
+
+    public void setLogRequests(boolean logRequests) {
+        this.logRequests = logRequests;
+    }
+
+    public int getRepeatedQueryThreshold() {
+        return repeatedQueryThreshold;
+    }
+
+    public void setRepeatedQueryThreshold(int repeatedQueryThreshold) {
+        this.repeatedQueryThreshold = repeatedQueryThreshold;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,53 @@
+package com.monitise.performhance.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Session statistics by controller handler. Logs a line for every request, and a warning for the ones that run the
+// same query shape more often than the threshold, which is how a lazy association read in a loop over a list shows.
+@Component
+public class SessionStatisticsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStatisticsRegistry.class);
+
+    @Autowired
+    private SessionStatisticsProperties properties;
+
+    private final Map<String, HandlerStatistics> handlers = new ConcurrentHashMap<>();
+
+    public void record(String handler, SessionStatistics statistics) {
+        HandlerStatistics handlerStatistics = handlers.computeIfAbsent(handler, HandlerStatistics::new);
+        handlerStatistics.add(statistics);
+        if (properties.isLogRequests()) {
+            logger.info("{}: {} statements, {} entities loaded, {} collections fetched, {} flushes", handler,
+                    statistics.getStatements(), statistics.getEntitiesLoaded(), statistics.getCollectionsFetched(),
+                    statistics.getFlushes());
+        }
+        Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeatedShape();
+        if (mostRepeated != null && mostRepeated.getValue() > properties.getRepeatedQueryThreshold()) {
+            handlerStatistics.flag(mostRepeated.getKey(), mostRepeated.getValue());
+            logger.warn("{} ran the same query {} times, possibly once per element of a list: {}", handler,
+                    mostRepeated.getValue(), mostRepeated.getKey());
+        }
+    }
+
+    // Sorted by handler.
+    public List<HandlerStatistics> getAll() {
+        List<HandlerStatistics> statisticsList = new ArrayList<>(handlers.values());
+        statisticsList.sort(Comparator.comparing(HandlerStatistics::getHandler));
+        return statisticsList;
+    }
+
+    public void reset() {
+        handlers.clear();
+    }
+
+}
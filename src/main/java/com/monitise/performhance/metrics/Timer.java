@@ -0,0 +1,63 @@
+package com.monitise.performhance.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram with fixed buckets. Recording takes no lock and allocates nothing, so it can stay on for every
+// call. Buckets are counted separately and summed up when written, as the text format expects cumulative counts.
+public class Timer {
+
+    // Upper bounds of the buckets in seconds. Longer durations are counted in a last, unbounded bucket.
+    private static final double[] BUCKET_BOUNDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS.length];
+    private static final String[] BUCKET_LABELS = new String[BUCKET_BOUNDS.length + 1];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+            BUCKET_LABELS[i] = BigDecimal.valueOf(BUCKET_BOUNDS[i]).stripTrailingZeros().toPlainString();
+        }
+        BUCKET_LABELS[BUCKET_BOUNDS.length] = "+Inf";
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public Timer() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    // Number of durations up to the upper bound of each bucket, the last one being the total count.
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long count = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            count += buckets[i].sum();
+            counts[i] = count;
+        }
+        return counts;
+    }
+
+    public double getSumSeconds() {
+        return (double) sumNanos.sum() / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    static String getBucketLabel(int bucket) {
+        return BUCKET_LABELS[bucket];
+    }
+
+}
@@ -2,6 +2,7 @@ package com.monitise.performhance.repositories;
 
 import com.monitise.performhance.entity.Criteria;
 import com.monitise.performhance.entity.Organization;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,8 +14,10 @@ public interface CriteriaRepository extends CrudRepository<Criteria, Integer> {
     @Override
     List<Criteria> findAll();
 
+    @Query("SELECT c FROM Criteria c WHERE c.organization.id = ?1")
     List<Criteria> findByOrganizationId(int organizationId);
 
+    @Query("SELECT c FROM Criteria c WHERE c.organization = ?1 AND c.criteria = ?2")
     Criteria findByOrganizationAndCriteria(Organization organization, String criteria);
 
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.monitise.performhance.repositories;
+
+import com.monitise.performhance.entity.CriteriaScore;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+
+@Repository
+public interface CriteriaScoreRepository extends CrudRepository<CriteriaScore, Integer> {
+
+    @Query("SELECT s FROM CriteriaScore s WHERE s.user.id = ?1")
+    List<CriteriaScore> findByUserId(int userId);
+
+    // Locks the rows so that concurrent reviews of the same employee do not lose updates.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CriteriaScore s WHERE s.user.id = ?1")
+    List<CriteriaScore> findByUserIdForUpdate(int userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CriteriaScore s WHERE s.user.id IN ?1")
+    List<CriteriaScore> findByUserIdInForUpdate(Collection<Integer> userIds);
+
+    // Every score with the organization and the current team of its employee.
+    @Query(value = "SELECT u.organization_id, u.team_id, s.user_id, s.criteria_id, s.total_score, s.review_count "
+            + "FROM criteria_score s JOIN user u ON u.id = s.user_id", nativeQuery = true)
+    List<Object[]> findAllSelectScoresWithTeam();
+
+    @Modifying
+    @Query("DELETE FROM CriteriaScore s WHERE s.user.id = ?1")
+    int deleteByUserId(int userId);
+
+    @Modifying
+    @Query("DELETE FROM CriteriaScore s WHERE s.criteria.id = ?1")
+    int deleteByCriteriaId(int criteriaId);
+
+}
@@ -0,0 +1,36 @@
+package com.monitise.performhance.repositories;
+
+import com.monitise.performhance.entity.DailyCriteriaScore;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import javax.persistence.LockModeType;
+
+@Repository
+public interface DailyCriteriaScoreRepository extends CrudRepository<DailyCriteriaScore, Integer> {
+
+    // Locks the rows so that concurrent reviews of the same employee do not lose updates.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DailyCriteriaScore s WHERE s.user.id = ?1 AND s.reviewDay IN (?2)")
+    List<DailyCriteriaScore> findByUserIdAndReviewDayInForUpdate(int userId, Collection<Date> reviewDays);
+
+    // Sums the days of the window, both ends included. Returns criteria id, total score, review count, min and max.
+    @Query("SELECT s.criteriaId, SUM(s.totalScore), SUM(s.reviewCount), MIN(s.minScore), MAX(s.maxScore) "
+            + "FROM DailyCriteriaScore s WHERE s.user.id = ?1 AND s.reviewDay BETWEEN ?2 AND ?3 GROUP BY s.criteriaId")
+    List<Object[]> sumByUserIdAndReviewDayBetween(int userId, Date firstDay, Date lastDay);
+
+    @Modifying
+    @Query("DELETE FROM DailyCriteriaScore s WHERE s.user.id = ?1")
+    int deleteByUserId(int userId);
+
+    @Modifying
+    @Query("DELETE FROM DailyCriteriaScore s WHERE s.criteria.id = ?1")
+    int deleteByCriteriaId(int criteriaId);
+
+}
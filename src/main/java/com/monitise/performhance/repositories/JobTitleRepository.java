@@ -1,6 +1,7 @@
 package com.monitise.performhance.repositories;
 
 import com.monitise.performhance.entity.JobTitle;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +13,7 @@ public interface JobTitleRepository extends CrudRepository<JobTitle, Integer> {
     @Override
     List<JobTitle> findAll();
 
+    @Query("SELECT j FROM JobTitle j WHERE j.title = ?1 AND j.organization.id = ?2")
     JobTitle findByTitleAndOrganizationId(String title, int organizationId);
 
 }
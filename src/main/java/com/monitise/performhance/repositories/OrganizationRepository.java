@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface OrganizationRepository extends CrudRepository<Organization, Integer> {
+public interface OrganizationRepository extends CrudRepository<Organization, Integer>, OrganizationRepositoryCustom {
 
     @Override
     List<Organization> findAll();
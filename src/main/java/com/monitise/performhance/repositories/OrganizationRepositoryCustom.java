@@ -0,0 +1,11 @@
+package com.monitise.performhance.repositories;
+
+import java.util.Map;
+
+// Bulk operations that are not expressible as Spring Data query methods.
+public interface OrganizationRepositoryCustom {
+
+    // Deletes the organization with everything that belongs to it, returns the deleted row count of each table.
+    Map<String, Integer> deleteWithAllData(int organizationId);
+
+}
@@ -0,0 +1,99 @@
+package com.monitise.performhance.repositories;
+
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.JobTitle;
+import com.monitise.performhance.entity.Organization;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+public class OrganizationRepositoryImpl implements OrganizationRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<String, Integer> deleteWithAllData(int organizationId) {
+        entityManager.flush();
+        Map<String, Integer> deletedRows = new LinkedHashMap<>();
+
+        // Rows that point to reviews, users and teams go first.
+        deleteReferencing(deletedRows, "review_evaluation", "review_id", "review", organizationId);
+        deleteReferencing(deletedRows, "user_reviews", "reviews_id", "review", organizationId);
+        deleteReferencing(deletedRows, "criteria_score", "user_id", "user", organizationId);
+        deleteReferencing(deletedRows, "daily_criteria_score", "user_id", "user", organizationId);
+        delete(deletedRows, "review", "organization_id = ?", organizationId);
+        deleteReferencing(deletedRows, "user_criteria_list", "user_id", "user", organizationId);
+        deleteReferencing(deletedRows, "team_members", "team_id", "team", organizationId);
+        delete(deletedRows, "organization_users", "organization_id = ?", organizationId);
+        delete(deletedRows, "organization_teams", "organization_id = ?", organizationId);
+        delete(deletedRows, "organization_job_titles", "organization_id = ?", organizationId);
+        delete(deletedRows, "organization_criteria_list", "organization_id = ?", organizationId);
+
+        // Users, teams and the organization refer to each other, so the cycle is broken before deleting them.
+        jdbcTemplate.update("UPDATE team SET leader_id = NULL WHERE organization_id = ?", organizationId);
+        jdbcTemplate.update("UPDATE organization SET manager_id = NULL WHERE id = ?", organizationId);
+        delete(deletedRows, "user", "organization_id = ?", organizationId);
+        delete(deletedRows, "team", "organization_id = ?", organizationId);
+        delete(deletedRows, "job_title", "organization_id = ?", organizationId);
+        delete(deletedRows, "criteria", "organization_id = ?", organizationId);
+        delete(deletedRows, "organization", "id = ?", organizationId);
+
+        // Entities of the organization that are loaded in this session do not exist anymore.
+        entityManager.clear();
+        evictFromCache(organizationId);
+        return deletedRows;
+    }
+
+    // region Helper Methods
+
+    // The cached rows of the organization were deleted behind Hibernate's back too. They are evicted again after
+    // commit, as other transactions may cache the old rows until then.
+    private void evictFromCache(int organizationId) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        Runnable eviction = () -> {
+            cache.evictEntity(Organization.class, organizationId);
+            cache.evictCollection(Organization.class.getName() + ".jobTitles", organizationId);
+            cache.evictCollection(Organization.class.getName() + ".criteriaList", organizationId);
+            // Job titles and criteria are not cached by organization, so their regions are cleared as a whole.
+            cache.evictEntityRegion(JobTitle.class);
+            cache.evictEntityRegion(Criteria.class);
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    // Deletes the rows of table whose column refers to a row of the organization in parentTable.
+    // A correlated lookup by primary key is used, as IN (SELECT ...) is not optimized for DELETE by every database.
+    private void deleteReferencing(Map<String, Integer> deletedRows, String table, String column, String parentTable,
+                                   int organizationId) {
+        String condition = "EXISTS (SELECT 1 FROM " + parentTable + " p WHERE p.id = " + table + "." + column
+                + " AND p.organization_id = ?)";
+        delete(deletedRows, table, condition, organizationId);
+    }
+
+    private void delete(Map<String, Integer> deletedRows, String table, String condition, int organizationId) {
+        int rowCount = jdbcTemplate.update("DELETE FROM " + table + " WHERE " + condition, organizationId);
+        deletedRows.put(table, rowCount);
+    }
+
+    // endregion
+
+}
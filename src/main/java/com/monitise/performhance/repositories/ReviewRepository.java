@@ -1,24 +1,74 @@
 package com.monitise.performhance.repositories;
 
 import com.monitise.performhance.entity.Review;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
-public interface ReviewRepository extends CrudRepository<Review, Integer> {
+public interface ReviewRepository extends CrudRepository<Review, Integer>, ReviewRepositoryCustom {
 
     @Override
     List<Review> findAll();
 
+    // Conditions are written on the foreign key, as a derived query would outer join the referenced table first.
+    @Query("SELECT r FROM Review r WHERE r.organization.id = ?1")
     List<Review> findByOrganizationId(int organizationId);
 
+    @Query("SELECT r FROM Review r WHERE r.team.id = ?1")
     List<Review> findByTeamId(int teamId);
 
+    @Query("SELECT r FROM Review r WHERE r.reviewer.id = ?1")
     List<Review> findByReviewerId(int reviewerId);
 
-    List<Review> findByReviewedEmployeeId(int reviewerId);
+    @EntityGraph(Review.DETAIL_GRAPH)
+    @Query("SELECT DISTINCT r FROM Review r WHERE r.reviewedEmployee.id = ?1")
+    List<Review> findByReviewedEmployeeId(int reviewedEmployeeId);
+
+    @Query("SELECT COUNT(r) FROM Review r WHERE r.reviewedEmployee.id = ?1")
+    int countByReviewedEmployeeId(int reviewedEmployeeId);
+
+    @Query("SELECT r.comment FROM Review r WHERE r.reviewedEmployee.id = ?1 AND r.comment IS NOT NULL")
+    List<String> findCommentsByReviewedEmployeeId(int reviewedEmployeeId);
+
+    // Windows are read through the index on reviewed employee and creation time.
+    @Query("SELECT COUNT(r) FROM Review r WHERE r.reviewedEmployee.id = ?1 AND r.createdAt >= ?2 AND r.createdAt < ?3")
+    int countByReviewedEmployeeIdAndCreatedAtBetween(int reviewedEmployeeId, Date start, Date end);
+
+    @Query("SELECT r.comment FROM Review r WHERE r.reviewedEmployee.id = ?1 AND r.createdAt >= ?2 "
+            + "AND r.createdAt < ?3 AND r.comment IS NOT NULL")
+    List<String> findCommentsByReviewedEmployeeIdAndCreatedAtBetween(int reviewedEmployeeId, Date start, Date end);
+
+    @Query(value = "SELECT MIN(e.evaluation) FROM review_evaluation e JOIN review r ON r.id = e.review_id "
+            + "WHERE r.reviewed_employee_id = ?1 AND e.evaluation_key = ?2 AND r.id <> ?3", nativeQuery = true)
+    Integer findMinEvaluationExcludingReview(int reviewedEmployeeId, int criteriaId, int excludedReviewId);
+
+    @Query(value = "SELECT MAX(e.evaluation) FROM review_evaluation e JOIN review r ON r.id = e.review_id "
+            + "WHERE r.reviewed_employee_id = ?1 AND e.evaluation_key = ?2 AND r.id <> ?3", nativeQuery = true)
+    Integer findMaxEvaluationExcludingReview(int reviewedEmployeeId, int criteriaId, int excludedReviewId);
+
+    // The reviews of the window are selected in a subquery, so that the evaluations are not read starting from every
+    // evaluation of the criteria, which a join may be planned as.
+    @Query(value = "SELECT MIN(e.evaluation) FROM review_evaluation e WHERE e.evaluation_key = ?4 AND e.review_id IN "
+            + "(SELECT r.id FROM review r WHERE r.reviewed_employee_id = ?1 AND r.created_at >= ?2 "
+            + "AND r.created_at < ?3 AND r.id <> ?5)", nativeQuery = true)
+    Integer findMinEvaluationBetweenExcludingReview(int reviewedEmployeeId, Date start, Date end, int criteriaId,
+                                                    int excludedReviewId);
+
+    @Query(value = "SELECT MAX(e.evaluation) FROM review_evaluation e WHERE e.evaluation_key = ?4 AND e.review_id IN "
+            + "(SELECT r.id FROM review r WHERE r.reviewed_employee_id = ?1 AND r.created_at >= ?2 "
+            + "AND r.created_at < ?3 AND r.id <> ?5)", nativeQuery = true)
+    Integer findMaxEvaluationBetweenExcludingReview(int reviewedEmployeeId, Date start, Date end, int criteriaId,
+                                                    int excludedReviewId);
+
+    // Counts each evaluation value per organization, team and criteria.
+    @Query(value = "SELECT r.organization_id, r.team_id, e.evaluation_key, e.evaluation, COUNT(*) "
+            + "FROM review_evaluation e JOIN review r ON r.id = e.review_id "
+            + "GROUP BY r.organization_id, r.team_id, e.evaluation_key, e.evaluation", nativeQuery = true)
+    List<Object[]> findAllSelectEvaluationCounts();
 
 }
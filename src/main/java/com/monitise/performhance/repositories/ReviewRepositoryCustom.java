@@ -0,0 +1,19 @@
+package com.monitise.performhance.repositories;
+
+import com.monitise.performhance.helpers.PendingReview;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Bulk operations that are not expressible as Spring Data query methods.
+public interface ReviewRepositoryCustom {
+
+    // Returns the given review log sequences that are already written as reviews.
+    List<Long> findExistingIngestionSequences(Collection<Long> sequences);
+
+    // Inserts the reviews with their evaluations and user_reviews rows in JDBC batches, returns the review ids keyed
+    // by review log sequence. Reviewers, teams and criteria must exist.
+    Map<Long, Integer> insertAll(List<PendingReview> reviews);
+
+}
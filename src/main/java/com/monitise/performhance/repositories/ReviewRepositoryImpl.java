@@ -0,0 +1,98 @@
+package com.monitise.performhance.repositories;
+
+import com.monitise.performhance.helpers.PendingReview;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> findExistingIngestionSequences(Collection<Long> sequences) {
+        if (sequences.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.queryForList(findExistingIngestionSequencesSql(sequences.size()), Long.class,
+                sequences.toArray());
+    }
+
+    @Override
+    public Map<Long, Integer> insertAll(List<PendingReview> reviews) {
+        if (reviews.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<Object[]> reviewRows = new ArrayList<>();
+        for (PendingReview review : reviews) {
+            Timestamp createdAt = new Timestamp(review.getAcceptedAt());
+            reviewRows.add(new Object[]{review.getComment(), review.getOrganizationId(), review.getReviewedEmployeeId(),
+                    review.getReviewerId(), review.getTeamId(), review.getSequence(), createdAt});
+        }
+        batchUpdate("INSERT INTO review(comment, organization_id, reviewed_employee_id, reviewer_id, team_id, "
+                + "ingestion_sequence, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", reviewRows);
+
+        // Generated keys of batches are not returned by every driver, so the ids are read back by sequence.
+        Map<Long, Integer> reviewIds = findReviewIdsBySequence(reviews);
+        List<Object[]> evaluationRows = new ArrayList<>();
+        List<Object[]> userReviewRows = new ArrayList<>();
+        for (PendingReview review : reviews) {
+            int reviewId = reviewIds.get(review.getSequence());
+            for (Map.Entry<Integer, Integer> entry : review.getEvaluation().entrySet()) {
+                evaluationRows.add(new Object[]{reviewId, entry.getKey(), entry.getValue()});
+            }
+            userReviewRows.add(new Object[]{review.getReviewedEmployeeId(), reviewId});
+        }
+        batchUpdate("INSERT INTO review_evaluation(review_id, evaluation_key, evaluation) VALUES (?, ?, ?)",
+                evaluationRows);
+        batchUpdate("INSERT INTO user_reviews(user_id, reviews_id) VALUES (?, ?)", userReviewRows);
+        return reviewIds;
+    }
+
+    // region Helper Methods
+
+    private Map<Long, Integer> findReviewIdsBySequence(List<PendingReview> reviews) {
+        List<Object> sequences = new ArrayList<>();
+        for (PendingReview review : reviews) {
+            sequences.add(review.getSequence());
+        }
+        Map<Long, Integer> reviewIds = new HashMap<>();
+        jdbcTemplate.query(findReviewIdsBySequenceSql(sequences.size()), sequences.toArray(),
+                (RowCallbackHandler) resultSet -> reviewIds.put(resultSet.getLong(2), resultSet.getInt(1)));
+        return reviewIds;
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    // The lookups by sequence run for every batch. Their SQL is shared with QueryPlanTest, as it does not see JDBC
+    // statements.
+    static String findExistingIngestionSequencesSql(int count) {
+        return "SELECT ingestion_sequence FROM review WHERE ingestion_sequence IN (" + placeholders(count) + ")";
+    }
+
+    static String findReviewIdsBySequenceSql(int count) {
+        return "SELECT id, ingestion_sequence FROM review WHERE ingestion_sequence IN (" + placeholders(count) + ")";
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // endregion
+
+}
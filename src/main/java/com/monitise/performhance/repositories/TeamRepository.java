@@ -1,18 +1,37 @@
 package com.monitise.performhance.repositories;
 
 import com.monitise.performhance.entity.Team;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface TeamRepository extends CrudRepository<Team, Integer>, JpaSpecificationExecutor {
+public interface TeamRepository extends CrudRepository<Team, Integer>, JpaSpecificationExecutor<Team> {
 
     @Override
     List<Team> findAll();
 
+    @EntityGraph(Team.DETAIL_GRAPH)
+    @Query("SELECT DISTINCT t FROM Team t WHERE t.organization.id = ?1")
     List<Team> findByOrganizationId(int organizationId);
 
+    // Each row is a team id followed by the id, name, surname and job title of one of its members.
+    @Query("SELECT t.id, m.id, m.name, m.surname, j.title FROM Team t JOIN t.members m LEFT JOIN m.jobTitle j "
+            + "WHERE t.id IN ?1")
+    List<Object[]> findAllByIdInSelectMembers(List<Integer> teamIdList);
+
+    @Query("SELECT t.id FROM Team t WHERE t.id IN ?1")
+    List<Integer> findAllByIdInSelectId(List<Integer> teamIdList);
+
+    // Each row is an organization id followed by the id and name of one of its teams.
+    @Query("SELECT o.id, t.id, t.name FROM Team t JOIN t.organization o")
+    List<Object[]> findAllSelectName();
+
+    @Query("SELECT o.id, t.id, t.name FROM Team t JOIN t.organization o WHERE o.id = ?1")
+    List<Object[]> findAllByOrganizationIdSelectName(int organizationId);
+
 }
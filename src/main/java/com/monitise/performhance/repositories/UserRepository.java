@@ -1,21 +1,38 @@
 package com.monitise.performhance.repositories;
 
 import com.monitise.performhance.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import javax.persistence.LockModeType;
 
 @Repository
-public interface UserRepository extends CrudRepository<User, Integer>, JpaSpecificationExecutor {
+public interface UserRepository extends CrudRepository<User, Integer>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
 
     @Override
     List<User> findAll();
 
     User findByUsername(String username);
 
+    // Locks the row, so that concurrent writes of the rows of a user can be serialized before those rows exist.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = ?1")
+    User findByIdForUpdate(int id);
+
+    // Locks the rows in id order, so that two transactions locking overlapping users can not deadlock each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN ?1 ORDER BY u.id")
+    List<User> findAllByIdInForUpdate(Collection<Integer> ids);
+
+    @EntityGraph(User.SUMMARY_GRAPH)
+    @Query("SELECT u FROM User u WHERE u.organization.id = ?1")
     List<User> findByOrganizationId(int organizationId);
 
     @Query(value = "SELECT id FROM user WHERE team_id = ?1", nativeQuery = true)
@@ -27,4 +44,19 @@ public interface UserRepository extends CrudRepository<User, Integer>, JpaSpecif
     @Query(value = "SELECT user_id FROM user_criteria_list WHERE criteria_list_id = ?1", nativeQuery = true)
     List<Integer> findAllByCriteriaIdSelectUserId(int criteriaId);
 
+    @Query(value = "SELECT user_id FROM user_criteria_list WHERE criteria_list_id = ?1 AND user_id IN ?2",
+            nativeQuery = true)
+    List<Integer> findAllByCriteriaIdAndUserIdInSelectUserId(int criteriaId, List<Integer> userIdList);
+
+    // Each row is a pair of user id and organization id. Ids that do not exist are missing from the result.
+    @Query("SELECT u.id, o.id FROM User u LEFT JOIN u.organization o WHERE u.id IN ?1")
+    List<Object[]> findAllByIdInSelectOrganizationId(List<Integer> userIdList);
+
+    // Each row is an organization id followed by the id, name and surname of one of its users.
+    @Query("SELECT o.id, u.id, u.name, u.surname FROM User u JOIN u.organization o")
+    List<Object[]> findAllSelectName();
+
+    @Query("SELECT o.id, u.id, u.name, u.surname FROM User u JOIN u.organization o WHERE o.id = ?1")
+    List<Object[]> findAllByOrganizationIdSelectName(int organizationId);
+
 }
\ No newline at end of file
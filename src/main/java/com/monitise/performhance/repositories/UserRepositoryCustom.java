@@ -0,0 +1,16 @@
+package com.monitise.performhance.repositories;
+
+import java.util.List;
+
+// Bulk operations that are not expressible as Spring Data query methods.
+public interface UserRepositoryCustom {
+
+    // Inserts the user_criteria_list rows in JDBC batches. Users must not have the criteria already.
+    void addCriteriaToUsers(int criteriaId, List<Integer> userIdList);
+
+    // Writes the join table row directly, so that the user's review list is neither loaded nor rewritten.
+    int addReviewToUser(int userId, int reviewId);
+
+    int removeReviewFromUser(int reviewId);
+
+}
@@ -0,0 +1,72 @@
+package com.monitise.performhance.repositories;
+
+import com.monitise.performhance.entity.User;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void addCriteriaToUsers(int criteriaId, List<Integer> userIdList) {
+        // Pending changes of the users must reach the database before the rows are written behind Hibernate's back.
+        entityManager.flush();
+        for (int from = 0; from < userIdList.size(); from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>();
+            for (int userId : userIdList.subList(from, Math.min(from + BATCH_SIZE, userIdList.size()))) {
+                batch.add(new Object[]{userId, criteriaId});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO user_criteria_list(user_id, criteria_list_id) VALUES (?, ?)", batch);
+        }
+        refreshLoadedUsers(userIdList);
+    }
+
+    // Through JDBC rather than a native query, which Hibernate takes as touching every table and answers by
+    // evicting the whole second-level cache.
+    @Override
+    public int addReviewToUser(int userId, int reviewId) {
+        entityManager.flush();
+        return jdbcTemplate.update("INSERT INTO user_reviews(user_id, reviews_id) VALUES (?, ?)", userId, reviewId);
+    }
+
+    @Override
+    public int removeReviewFromUser(int reviewId) {
+        entityManager.flush();
+        return jdbcTemplate.update("DELETE FROM user_reviews WHERE reviews_id = ?", reviewId);
+    }
+
+    // region Helper Methods
+
+    // Users that are already loaded in this session would otherwise keep their old criteria list.
+    private void refreshLoadedUsers(List<Integer> userIdList) {
+        Set<Integer> userIdSet = new HashSet<>(userIdList);
+        Session session = entityManager.unwrap(Session.class);
+        List<Object> loadedUsers = new ArrayList<>();
+        for (Object entity : ((SessionImplementor) session).getPersistenceContext().getEntitiesByKey().values()) {
+            if (entity instanceof User && userIdSet.contains(((User) entity).getId())) {
+                loadedUsers.add(entity);
+            }
+        }
+        for (Object user : loadedUsers) {
+            session.refresh(user);
+        }
+    }
+
+    // endregion
+
+}
@@ -1,13 +1,27 @@
 package com.monitise.performhance.security;
 
+import com.monitise.performhance.accesslog.AccessLog;
+import com.monitise.performhance.accesslog.AccessLogFilter;
+import com.monitise.performhance.helpers.AuthenticationContext;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.context.SecurityContextPersistenceFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
+
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private AccessLog accessLog;
+    @Autowired
+    private AuthenticationContext authenticationContext;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
 
@@ -15,8 +29,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/organizations/**").permitAll()
                 .anyRequest().fullyAuthenticated()
                 .and()
+                .addFilterAfter(new AccessLogFilter(accessLog, authenticationContext),
+                        SecurityContextPersistenceFilter.class)
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
                 .httpBasic()
                 .and()
                 .csrf().disable();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.monitise.performhance.security;
+
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.AuthenticatedPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Authenticates requests carrying an "Authorization: Bearer <token>" header. Requests with an invalid token
+// continue unauthenticated, and are rejected by the security configuration.
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenAuthenticationFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            try {
+                AuthenticatedPrincipal principal = tokenService.verify(header.substring(BEARER_PREFIX.length()));
+                SecurityContextHolder.getContext().setAuthentication(tokenService.toAuthentication(principal));
+            } catch (BaseException exception) {
+                logger.debug("Rejected token: {}", exception.getMessage());
+                SecurityContextHolder.clearContext();
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.monitise.performhance.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "performhance.token")
+public class TokenProperties {
+
+    private long expirySeconds = 3600;
+    // Id of the key new tokens are signed with.
+    private String activeKey;
+    // Secrets keyed by key id. Tokens signed with any of them are accepted.
+    private Map<String, String> keys = new HashMap<>();
+
+    // region Getters & Setters
+
+    public long getExpirySeconds() {
+        return expirySeconds;
+    }
+
+    public void setExpirySeconds(long expirySeconds) {
+        this.expirySeconds = expirySeconds;
+    }
+
+    public String getActiveKey() {
+        return activeKey;
+    }
+
+    public void setActiveKey(String activeKey) {
+        this.activeKey = activeKey;
+    }
+
+    public Map<String, String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Map<String, String> keys) {
+        this.keys = keys;
+    }
+
+    // endregion
+
+}
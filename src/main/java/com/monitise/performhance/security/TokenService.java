@@ -0,0 +1,134 @@
+package com.monitise.performhance.security;
+
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.api.model.TokenResponse;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.AuthenticatedPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+// Issues and verifies stateless tokens of the form keyId.payload.signature, where the signature is the
+// HMAC of keyId.payload. The payload carries everything authorization checks need, so verifying a token
+// requires no database access.
+@Component
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String GENERATED_KEY_ID = "generated";
+    private static final int GENERATED_KEY_LENGTH = 32;
+
+    @Autowired
+    private TokenProperties tokenProperties;
+
+    // Without configured keys tokens are signed with a random key, and stop being valid on restart.
+    @PostConstruct
+    public void ensureActiveKey() {
+        if (tokenProperties.getActiveKey() == null || tokenProperties.getKeys().isEmpty()) {
+            logger.warn("No token signing key is configured, tokens will not survive a restart.");
+            byte[] secret = new byte[GENERATED_KEY_LENGTH];
+            new SecureRandom().nextBytes(secret);
+            tokenProperties.getKeys().put(GENERATED_KEY_ID, Base64.getEncoder().encodeToString(secret));
+            tokenProperties.setActiveKey(GENERATED_KEY_ID);
+        } else if (!tokenProperties.getKeys().containsKey(tokenProperties.getActiveKey())) {
+            throw new IllegalStateException("The active token signing key is not among the configured keys.");
+        }
+    }
+
+    public TokenResponse issue(AuthenticatedPrincipal principal) throws BaseException {
+        String keyId = tokenProperties.getActiveKey();
+        long expiresAt = System.currentTimeMillis() + tokenProperties.getExpirySeconds() * 1000;
+        String payload = principal.getUserId() + ":" + principal.getRole().name()
+                + ":" + toString(principal.getOrganizationId()) + ":" + toString(principal.getTeamId())
+                + ":" + expiresAt + ":" + principal.getUsername();
+        String signedPart = keyId + "." + encode(payload.getBytes(StandardCharsets.UTF_8));
+        String token = signedPart + "." + encode(sign(keyId, signedPart));
+        return new TokenResponse(token, expiresAt);
+    }
+
+    public AuthenticatedPrincipal verify(String token) throws BaseException {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            throw new BaseException(ResponseCode.TOKEN_INVALID, "Malformed token.");
+        }
+        String keyId = parts[0];
+        byte[] expectedSignature = sign(keyId, parts[0] + "." + parts[1]);
+        if (!MessageDigest.isEqual(expectedSignature, decode(parts[2]))) {
+            throw new BaseException(ResponseCode.TOKEN_INVALID, "Token signature is invalid.");
+        }
+
+        // Username is the last field, so that it can contain the separator.
+        String[] fields = new String(decode(parts[1]), StandardCharsets.UTF_8).split(":", 6);
+        if (fields.length != 6) {
+            throw new BaseException(ResponseCode.TOKEN_INVALID, "Malformed token.");
+        }
+        try {
+            if (Long.parseLong(fields[4]) <= System.currentTimeMillis()) {
+                throw new BaseException(ResponseCode.TOKEN_EXPIRED, "Token is expired.");
+            }
+            return new AuthenticatedPrincipal(Integer.parseInt(fields[0]), fields[5], Role.valueOf(fields[1]),
+                    toInteger(fields[2]), toInteger(fields[3]));
+        } catch (IllegalArgumentException exception) {
+            throw new BaseException(ResponseCode.TOKEN_INVALID, "Malformed token.");
+        }
+    }
+
+    public Authentication toAuthentication(AuthenticatedPrincipal principal) {
+        String role = "ROLE_" + principal.getRole().name();
+        return new PreAuthenticatedAuthenticationToken(principal, null, AuthorityUtils.createAuthorityList(role));
+    }
+
+    // region Helper Methods
+
+    private byte[] sign(String keyId, String signedPart) throws BaseException {
+        String secret = tokenProperties.getKeys().get(keyId);
+        if (secret == null) {
+            throw new BaseException(ResponseCode.TOKEN_INVALID, "Token is signed with an unknown key.");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(signedPart.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException exception) {
+            throw new BaseException(ResponseCode.UNEXPECTED, "Could not sign the token.");
+        }
+    }
+
+    private String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private byte[] decode(String encoded) throws BaseException {
+        try {
+            return Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException exception) {
+            throw new BaseException(ResponseCode.TOKEN_INVALID, "Malformed token.");
+        }
+    }
+
+    private String toString(Integer value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private Integer toInteger(String value) {
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    // endregion
+
+}
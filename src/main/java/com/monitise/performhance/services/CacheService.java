@@ -0,0 +1,37 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.api.model.CacheStatisticsResponse;
+import net.sf.ehcache.CacheManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+
+// The second-level cache is kept up to date by Hibernate on every write through the entity manager.
+// Rows changed with plain SQL must be evicted explicitly, or they are seen again when their entries expire.
+@Service
+public class CacheService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Regions are sorted by name. Hibernate uses the singleton cache manager, see application.properties.
+    public List<CacheStatisticsResponse> getStatistics() {
+        CacheManager cacheManager = CacheManager.getInstance();
+        String[] cacheNames = cacheManager.getCacheNames();
+        Arrays.sort(cacheNames);
+        List<CacheStatisticsResponse> statisticsList = new ArrayList<>();
+        for (String cacheName : cacheNames) {
+            statisticsList.add(new CacheStatisticsResponse(cacheManager.getEhcache(cacheName)));
+        }
+        return statisticsList;
+    }
+
+    public void evictAll() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+}
@@ -0,0 +1,301 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.api.model.AverageCriteriaScore;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.CriteriaScore;
+import com.monitise.performhance.entity.DailyCriteriaScore;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.helpers.ScoreWindow;
+import com.monitise.performhance.repositories.CriteriaScoreRepository;
+import com.monitise.performhance.repositories.DailyCriteriaScoreRepository;
+import com.monitise.performhance.repositories.ReviewRepository;
+import com.monitise.performhance.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Transactional(readOnly = true)
+public class CriteriaScoreService {
+
+    @Autowired
+    private CriteriaScoreRepository criteriaScoreRepository;
+    @Autowired
+    private DailyCriteriaScoreRepository dailyCriteriaScoreRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    // Returns the scores of the given user keyed by criteria id.
+    public Map<Integer, CriteriaScore> getMapByUserId(int userId) {
+        Map<Integer, CriteriaScore> scoreMap = new HashMap<>();
+        for (CriteriaScore score : criteriaScoreRepository.findByUserId(userId)) {
+            scoreMap.put(score.getCriteriaId(), score);
+        }
+        return scoreMap;
+    }
+
+    // Reads the pre-aggregated scores, one row per criteria, instead of walking the reviews.
+    public List<AverageCriteriaScore> getAverageScores(User employee) {
+        Map<Integer, CriteriaScore> scoreMap = getMapByUserId(employee.getId());
+        List<AverageCriteriaScore> criteriaScores = new ArrayList<>();
+        for (Criteria criteria : employee.getCriteriaList()) {
+            AverageCriteriaScore averageCriteriaScore = new AverageCriteriaScore(criteria.getCriteria());
+            CriteriaScore score = scoreMap.get(criteria.getId());
+            if (score != null) {
+                setScore(averageCriteriaScore, score.getTotalScore(), score.getReviewCount(), score.getMinScore(),
+                        score.getMaxScore());
+            }
+            criteriaScores.add(averageCriteriaScore);
+        }
+        return criteriaScores;
+    }
+
+    // Sums the daily scores of the window, one row per criteria and day. All-time scores when the window is null.
+    public List<AverageCriteriaScore> getAverageScores(User employee, ScoreWindow window) {
+        if (window == null) {
+            return getAverageScores(employee);
+        }
+        Map<Integer, Object[]> sumMap = new HashMap<>();
+        for (Object[] sum : dailyCriteriaScoreRepository.sumByUserIdAndReviewDayBetween(employee.getId(),
+                window.getFirstDay(), window.getLastDay())) {
+            sumMap.put(((Number) sum[0]).intValue(), sum);
+        }
+        List<AverageCriteriaScore> criteriaScores = new ArrayList<>();
+        for (Criteria criteria : employee.getCriteriaList()) {
+            AverageCriteriaScore averageCriteriaScore = new AverageCriteriaScore(criteria.getCriteria());
+            Object[] sum = sumMap.get(criteria.getId());
+            if (sum != null) {
+                setScore(averageCriteriaScore, ((Number) sum[1]).intValue(), ((Number) sum[2]).intValue(),
+                        ((Number) sum[3]).intValue(), ((Number) sum[4]).intValue());
+            }
+            criteriaScores.add(averageCriteriaScore);
+        }
+        return criteriaScores;
+    }
+
+    // Locks the scores of the given employees, keyed by employee id, then by criteria id. Employees without scores
+    // get an empty map. The employees must already be locked, see ReviewService.
+    @Transactional
+    public Map<Integer, Map<Integer, CriteriaScore>> lockScoresOfUsers(Collection<Integer> userIds) {
+        Map<Integer, Map<Integer, CriteriaScore>> scoreMap = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return scoreMap;
+        }
+        for (Integer userId : userIds) {
+            scoreMap.put(userId, new HashMap<>());
+        }
+        for (CriteriaScore score : criteriaScoreRepository.findByUserIdInForUpdate(userIds)) {
+            scoreMap.get(score.getUser().getId()).put(score.getCriteriaId(), score);
+        }
+        return scoreMap;
+    }
+
+    // Must be called in the same transaction that saves the review, with the scores locked before it was saved.
+    @Transactional
+    public void addReview(Review review, Map<Integer, CriteriaScore> lockedScores) {
+        addEvaluations(review.getReviewedEmployee(), Collections.singletonMap(ScoreWindow.dayOf(review.getCreatedAt()),
+                Collections.singletonList(review.getEvaluation())), lockedScores);
+    }
+
+    // Adds the evaluations of several reviews of the same employee, keyed by the day they were written on, to the
+    // scores locked with lockScoresOfUsers. Evaluations under a null day only count for the all-time scores.
+    // Must be called in the same transaction that saves the reviews, with the scores locked before they were saved.
+    @Transactional
+    public void addEvaluations(User employee, Map<Date, List<Map<Criteria, Integer>>> evaluationsByDay,
+                               Map<Integer, CriteriaScore> lockedScores) {
+        // Concurrent reviews of the employee wait for its lock, so they can not create the same score or daily row.
+        Map<Integer, CriteriaScore> scoreMap = new HashMap<>(lockedScores);
+        Set<CriteriaScore> changedScores = new LinkedHashSet<>();
+        Map<Date, Map<Integer, DailyCriteriaScore>> dailyScoreMap = lockDailyScoresOfUser(employee.getId(),
+                evaluationsByDay.keySet());
+        Set<DailyCriteriaScore> changedDailyScores = new LinkedHashSet<>();
+
+        for (Map.Entry<Date, List<Map<Criteria, Integer>>> dayEntry : evaluationsByDay.entrySet()) {
+            Date day = dayEntry.getKey();
+            for (Map<Criteria, Integer> evaluation : dayEntry.getValue()) {
+                for (Map.Entry<Criteria, Integer> entry : evaluation.entrySet()) {
+                    Criteria criteria = entry.getKey();
+                    CriteriaScore score = scoreMap.get(criteria.getId());
+                    if (score == null) {
+                        score = new CriteriaScore(employee, criteria);
+                        scoreMap.put(criteria.getId(), score);
+                    }
+                    score.addScore(entry.getValue());
+                    changedScores.add(score);
+
+                    if (day == null) {
+                        continue;
+                    }
+                    Map<Integer, DailyCriteriaScore> scoresOfDay = dailyScoreMap.get(day);
+                    if (scoresOfDay == null) {
+                        scoresOfDay = new HashMap<>();
+                        dailyScoreMap.put(day, scoresOfDay);
+                    }
+                    DailyCriteriaScore dailyScore = scoresOfDay.get(criteria.getId());
+                    if (dailyScore == null) {
+                        dailyScore = new DailyCriteriaScore(employee, criteria, day);
+                        scoresOfDay.put(criteria.getId(), dailyScore);
+                    }
+                    dailyScore.addScore(entry.getValue());
+                    changedDailyScores.add(dailyScore);
+                }
+            }
+        }
+        for (CriteriaScore score : changedScores) {
+            criteriaScoreRepository.save(score);
+        }
+        for (DailyCriteriaScore dailyScore : changedDailyScores) {
+            dailyCriteriaScoreRepository.save(dailyScore);
+        }
+    }
+
+    // Must be called in the same transaction that deletes the review, before the review is deleted.
+    @Transactional
+    public void removeReview(Review review) {
+        int employeeId = review.getReviewedEmployee().getId();
+        Map<Integer, CriteriaScore> scoreMap = lockScoresOfUser(employeeId);
+
+        for (Map.Entry<Criteria, Integer> entry : review.getEvaluation().entrySet()) {
+            int criteriaId = entry.getKey().getId();
+            CriteriaScore score = scoreMap.get(criteriaId);
+            if (score == null) {
+                continue;
+            }
+            int removedScore = entry.getValue();
+            score.setTotalScore(score.getTotalScore() - removedScore);
+            score.setReviewCount(score.getReviewCount() - 1);
+
+            if (score.getReviewCount() <= 0) {
+                criteriaScoreRepository.delete(score);
+                continue;
+            }
+            // Min and max can not be reverted incrementally, recompute them only when the removed value was one. No
+            // evaluation left means the count was off, and the score is removed like after the last review.
+            Integer minScore = score.getMinScore();
+            if (removedScore == score.getMinScore()) {
+                minScore = reviewRepository.findMinEvaluationExcludingReview(employeeId, criteriaId, review.getId());
+            }
+            Integer maxScore = score.getMaxScore();
+            if (removedScore == score.getMaxScore()) {
+                maxScore = reviewRepository.findMaxEvaluationExcludingReview(employeeId, criteriaId, review.getId());
+            }
+            if (minScore == null || maxScore == null) {
+                criteriaScoreRepository.delete(score);
+                continue;
+            }
+            score.setMinScore(minScore);
+            score.setMaxScore(maxScore);
+            criteriaScoreRepository.save(score);
+        }
+        if (review.getCreatedAt() != null) {
+            removeDailyReview(review);
+        }
+    }
+
+    @Transactional
+    public void removeByUserId(int userId) {
+        criteriaScoreRepository.deleteByUserId(userId);
+        dailyCriteriaScoreRepository.deleteByUserId(userId);
+    }
+
+    @Transactional
+    public void removeByCriteriaId(int criteriaId) {
+        criteriaScoreRepository.deleteByCriteriaId(criteriaId);
+        dailyCriteriaScoreRepository.deleteByCriteriaId(criteriaId);
+    }
+
+    // region Helper Methods
+
+    private void removeDailyReview(Review review) {
+        int employeeId = review.getReviewedEmployee().getId();
+        ScoreWindow day = ScoreWindow.ofDayOf(review.getCreatedAt());
+        Map<Integer, DailyCriteriaScore> dailyScoreMap = lockDailyScoresOfUser(employeeId,
+                Collections.singleton(day.getFirstDay())).getOrDefault(day.getFirstDay(), new HashMap<>());
+
+        for (Map.Entry<Criteria, Integer> entry : review.getEvaluation().entrySet()) {
+            int criteriaId = entry.getKey().getId();
+            DailyCriteriaScore dailyScore = dailyScoreMap.get(criteriaId);
+            if (dailyScore == null) {
+                continue;
+            }
+            int removedScore = entry.getValue();
+            dailyScore.setTotalScore(dailyScore.getTotalScore() - removedScore);
+            dailyScore.setReviewCount(dailyScore.getReviewCount() - 1);
+
+            if (dailyScore.getReviewCount() <= 0) {
+                dailyCriteriaScoreRepository.delete(dailyScore);
+                continue;
+            }
+            // Only the reviews of the same day are read to recompute min and max.
+            Integer minScore = dailyScore.getMinScore();
+            if (removedScore == dailyScore.getMinScore()) {
+                minScore = reviewRepository.findMinEvaluationBetweenExcludingReview(employeeId, day.getStart(),
+                        day.getEnd(), criteriaId, review.getId());
+            }
+            Integer maxScore = dailyScore.getMaxScore();
+            if (removedScore == dailyScore.getMaxScore()) {
+                maxScore = reviewRepository.findMaxEvaluationBetweenExcludingReview(employeeId, day.getStart(),
+                        day.getEnd(), criteriaId, review.getId());
+            }
+            if (minScore == null || maxScore == null) {
+                dailyCriteriaScoreRepository.delete(dailyScore);
+                continue;
+            }
+            dailyScore.setMinScore(minScore);
+            dailyScore.setMaxScore(maxScore);
+            dailyCriteriaScoreRepository.save(dailyScore);
+        }
+    }
+
+    private void setScore(AverageCriteriaScore averageCriteriaScore, int totalScore, int reviewCount, int minScore,
+                          int maxScore) {
+        averageCriteriaScore.setTotalScore(totalScore);
+        averageCriteriaScore.setReviewTimes(reviewCount);
+        averageCriteriaScore.setAverageScore(totalScore / reviewCount);
+        averageCriteriaScore.setMinScore(minScore);
+        averageCriteriaScore.setMaxScore(maxScore);
+    }
+
+    // The row of the user is locked before the scores. Locking the scores alone would let two first reviews of the
+    // same employee both insert the score of a criteria, and one of them fail on the unique constraint.
+    private Map<Integer, CriteriaScore> lockScoresOfUser(int userId) {
+        userRepository.findByIdForUpdate(userId);
+        Map<Integer, CriteriaScore> scoreMap = new HashMap<>();
+        for (CriteriaScore score : criteriaScoreRepository.findByUserIdForUpdate(userId)) {
+            scoreMap.put(score.getCriteriaId(), score);
+        }
+        return scoreMap;
+    }
+
+    // Scores keyed by day, then by criteria id. Null days are left out.
+    private Map<Date, Map<Integer, DailyCriteriaScore>> lockDailyScoresOfUser(int userId, Collection<Date> days) {
+        Map<Date, Map<Integer, DailyCriteriaScore>> dailyScoreMap = new HashMap<>();
+        List<Date> reviewDays = new ArrayList<>(days);
+        reviewDays.remove(null);
+        if (reviewDays.isEmpty()) {
+            return dailyScoreMap;
+        }
+        for (DailyCriteriaScore dailyScore : dailyCriteriaScoreRepository.findByUserIdAndReviewDayInForUpdate(userId,
+                reviewDays)) {
+            dailyScoreMap.computeIfAbsent(dailyScore.getReviewDay(), key -> new HashMap<>())
+                    .put(dailyScore.getCriteriaId(), dailyScore);
+        }
+        return dailyScoreMap;
+    }
+
+    // endregion
+
+}
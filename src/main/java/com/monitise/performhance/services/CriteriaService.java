@@ -5,7 +5,11 @@ import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.entity.Criteria;
 import com.monitise.performhance.entity.Organization;
 import com.monitise.performhance.entity.User;
+import com.monitise.performhance.events.CriteriaAssignedEvent;
+import com.monitise.performhance.events.DomainEventBus;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
 import com.monitise.performhance.helpers.RelationshipHelper;
 import com.monitise.performhance.helpers.Util;
 import com.monitise.performhance.repositories.CriteriaRepository;
@@ -13,11 +17,17 @@ import com.monitise.performhance.repositories.ReviewRepository;
 import com.monitise.performhance.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class CriteriaService {
 
     @Autowired
@@ -32,6 +42,12 @@ public class CriteriaService {
     private UserRepository userRepository;
     @Autowired
     private ReviewRepository reviewRepository;
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+    @Autowired
+    private PaginationHelper paginationHelper;
+    @Autowired
+    private DomainEventBus domainEventBus;
 
     public List<Criteria> getAll() {
         return criteriaRepository.findAll();
@@ -41,6 +57,12 @@ public class CriteriaService {
         return criteriaRepository.findByOrganizationId(organizationId);
     }
 
+    public KeysetPage<Criteria> getPageFilterByOrganizationId(int organizationId, String after, int size,
+                                                              String sort) throws BaseException {
+        return paginationHelper.getPage(Criteria.class, Criteria.organizationIdIs(organizationId), after, size, sort,
+                "criteria");
+    }
+
     public Criteria get(int id) throws BaseException {
         Criteria criteria = criteriaRepository.findOne(id);
         if (criteria == null) {
@@ -50,6 +72,7 @@ public class CriteriaService {
         return criteria;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Criteria add(Criteria criteria) throws BaseException {
         validate(criteria);
         checkExistenceInOrganization(criteria);
@@ -61,6 +84,7 @@ public class CriteriaService {
         return criteriaFromRepo;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public void remove(int criteriaId) throws BaseException {
         ensureExistence(criteriaId);
         List<Integer> userIdList = userRepository.findAllByCriteriaIdSelectUserId(criteriaId);
@@ -69,15 +93,18 @@ public class CriteriaService {
                     "Criteria with given id is assigned to some users.");
         }
         removeCriteriaFromOrganization(criteriaId);
+        criteriaScoreService.removeByCriteriaId(criteriaId);
         criteriaRepository.delete(criteriaId);
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Criteria update(Criteria criteria) throws BaseException {
         validate(criteria);
         ensureExistence(criteria.getId());
         return criteriaRepository.save(criteria);
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Criteria updateFromRequest(CriteriaRequest criteriaRequest, int criteriaId) throws BaseException {
         Criteria criteria = get(criteriaId);
         checkUniqueness(criteriaRequest, criteria.getOrganization());
@@ -85,6 +112,7 @@ public class CriteriaService {
         return update(criteria);
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public User assignCriteriaToUserById(int criteriaId, int userId) throws BaseException {
         relationshipHelper.ensureUserCriteriaSameOrganization(userId, criteriaId);
         User user = userService.get(userId);
@@ -93,12 +121,16 @@ public class CriteriaService {
         List<Criteria> criteriaList = user.getCriteriaList();
         criteriaList.add(criteria);
         user.setCriteriaList(criteriaList);
-        return userService.update(user);
+        User updatedUser = userService.update(user);
+        domainEventBus.publish(new CriteriaAssignedEvent(criteria.getOrganization().getId(), criteriaId,
+                Collections.singletonList(userId)));
+        return updatedUser;
     }
 
     // Finds all the users of a given job title and assigns the criteria to each of them.
     // The criteria has already been assigned to some users, nothing happens.
     // Returns a list of user's ids who already have the criteria.
+    @Transactional(rollbackFor = BaseException.class)
     public ArrayList<Integer> assignCriteriaToJobTitle(int criteriaId, int jobTitleId) throws BaseException {
         relationshipHelper.ensureJobTitleCriteriaRelationship(jobTitleId, criteriaId);
         List<Integer> userIdList = userService.getIdListByJobTitleId(jobTitleId);
@@ -108,6 +140,7 @@ public class CriteriaService {
     // Finds all the users of a given team and assigns the criteria to each of them.
     // The criteria has already been assigned to some users, nothing happens.
     // Returns a list of user's ids who already have the criteria.
+    @Transactional(rollbackFor = BaseException.class)
     public ArrayList<Integer> assignCriteriaToTeam(int criteriaId, int teamId) throws BaseException {
         relationshipHelper.ensureTeamCriteriaRelationship(teamId, criteriaId);
         List<Integer> userIdList = userService.getIdListByTeamId(teamId);
@@ -115,20 +148,35 @@ public class CriteriaService {
     }
 
     // return List of users who already have the criteria.
+    // Ownership and existing assignments are checked with one query each, missing rows are inserted in batches.
+    @Transactional(rollbackFor = BaseException.class)
     public ArrayList<Integer> assignCriteriaToUserList(int criteriaId, List<Integer> userIdList) throws BaseException {
         int organizationId = get(criteriaId).getOrganization().getId();
-        relationshipHelper.ensureOrganizationUserListRelationship(organizationId, userIdList);
         ArrayList<Integer> existingUserList = new ArrayList<>();
-        // Add criteria to users. If user already has this criteria, add his/her ID to the list.
-        for (int userId : userIdList) {
-            boolean userAlreadyHasCriteria = checkUserExistenceAndAssignCriteriaById(userId, criteriaId);
-            if (userAlreadyHasCriteria) {
+        if (userIdList.isEmpty()) {
+            return existingUserList;
+        }
+        relationshipHelper.ensureOrganizationUserListRelationship(organizationId, userIdList);
+
+        Set<Integer> assignedUserIdSet = new HashSet<>(
+                userRepository.findAllByCriteriaIdAndUserIdInSelectUserId(criteriaId, userIdList));
+        // LinkedHashSet drops duplicate ids while keeping the order of the request.
+        List<Integer> newUserList = new ArrayList<>();
+        for (int userId : new LinkedHashSet<>(userIdList)) {
+            if (assignedUserIdSet.contains(userId)) {
                 existingUserList.add(userId);
+            } else {
+                newUserList.add(userId);
             }
         }
+        userRepository.addCriteriaToUsers(criteriaId, newUserList);
+        if (!newUserList.isEmpty()) {
+            domainEventBus.publish(new CriteriaAssignedEvent(organizationId, criteriaId, newUserList));
+        }
         return existingUserList;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public void removeCriteriaFromUserById(int criteriaId, int userId) throws BaseException {
         relationshipHelper.ensureUserCriteriaSameOrganization(userId, criteriaId);
         User user = userService.get(userId);
@@ -148,22 +196,6 @@ public class CriteriaService {
 
     // region Helper Methods
 
-    /**
-     * @return The existence of the user.
-     */
-    private boolean checkUserExistenceAndAssignCriteriaById(int userId, int criteriaId) throws BaseException {
-        try {
-            assignCriteriaToUserById(criteriaId, userId);
-        } catch (BaseException exception) {
-            if (exception.getCode() == ResponseCode.CRITERIA_EXISTS_IN_USER) {
-                return true;
-            } else {
-                throw new BaseException(ResponseCode.UNEXPECTED, "Could not add given criteria to given user list.");
-            }
-        }
-        return false;
-    }
-
     // Throws exception if the criteria DOES NOT EXIST.
     private void ensureExistence(int criteriaId) throws BaseException {
         Criteria criteriaFromRepo = criteriaRepository.findOne(criteriaId);
@@ -8,10 +8,12 @@ import com.monitise.performhance.exceptions.BaseException;
 import com.monitise.performhance.repositories.JobTitleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class JobTitleService {
 
     @Autowired
@@ -21,6 +23,7 @@ public class JobTitleService {
     @Autowired
     private UserService userService;
 
+    @Transactional(rollbackFor = BaseException.class)
     public JobTitle add(JobTitle jobTitle) throws BaseException {
         Organization organization = jobTitle.getOrganization();
         ensureUniquenessInOrganization(jobTitle, organization.getId());
@@ -49,6 +52,7 @@ public class JobTitleService {
         return organizationService.get(organizationId).getJobTitles();
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public JobTitle update(JobTitle jobTitle) throws BaseException {
         ensureExistence(jobTitle.getId());
         JobTitle jobTitleFromRepo = jobTitleRepository.save(jobTitle);
@@ -58,6 +62,7 @@ public class JobTitleService {
         return jobTitleFromRepo;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public JobTitle updateFromRequest(UpdateJobTitleRequest updateJobTitleRequest, int jobTitleId) throws BaseException {
         JobTitle jobTitle = get(jobTitleId);
         ensureNameIsUnique(updateJobTitleRequest, jobTitle.getOrganization().getId());
@@ -66,6 +71,7 @@ public class JobTitleService {
     }
 
 
+    @Transactional(rollbackFor = BaseException.class)
     public void remove(int jobTitleId) throws BaseException {
         ensureExistence(jobTitleId);
         ensureJobTitleIsNotUsed(jobTitleId);
@@ -0,0 +1,137 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.api.model.LeaderboardEntry;
+import com.monitise.performhance.api.model.LeaderboardResponse;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Team;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.Leaderboard;
+import com.monitise.performhance.helpers.LeaderboardIndex;
+import com.monitise.performhance.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Top and bottom employees of each criteria, read from the in-memory leaderboards instead of sorting the scores.
+@Service
+public class LeaderboardService {
+
+    public static final String TOP = "top";
+    public static final String BOTTOM = "bottom";
+    public static final String DEFAULT_SIZE = "10";
+    public static final int MAX_SIZE = 100;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private CriteriaService criteriaService;
+    @Autowired
+    private UserRepository userRepository;
+
+    // One leaderboard for each criteria of the organization, or only for the given criteria.
+    @Transactional(readOnly = true)
+    public List<LeaderboardResponse> getByOrganizationId(int organizationId, Integer criteriaId, int size,
+                                                         String order) throws BaseException {
+        organizationService.get(organizationId);
+        boolean bottom = isBottom(order);
+        validateSize(size);
+        Map<Criteria, List<Leaderboard.Standing>> standings = new LinkedHashMap<>();
+        for (Criteria criteria : getCriteriaList(organizationId, criteriaId)) {
+            standings.put(criteria,
+                    leaderboardIndex.getByOrganizationId(organizationId, criteria.getId(), size, bottom));
+        }
+        return toResponses(standings);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaderboardResponse> getByTeamId(int teamId, Integer criteriaId, int size, String order)
+            throws BaseException {
+        Team team = teamService.get(teamId);
+        int organizationId = team.getOrganization().getId();
+        boolean bottom = isBottom(order);
+        validateSize(size);
+        Map<Criteria, List<Leaderboard.Standing>> standings = new LinkedHashMap<>();
+        for (Criteria criteria : getCriteriaList(organizationId, criteriaId)) {
+            standings.put(criteria,
+                    leaderboardIndex.getByTeamId(organizationId, teamId, criteria.getId(), size, bottom));
+        }
+        return toResponses(standings);
+    }
+
+    // region Helper Methods
+
+    private List<Criteria> getCriteriaList(int organizationId, Integer criteriaId) throws BaseException {
+        if (criteriaId == null) {
+            return criteriaService.getAllFilterByOrganizationId(organizationId);
+        }
+        Criteria criteria = criteriaService.get(criteriaId);
+        if (criteria.getOrganization().getId() != organizationId) {
+            throw new BaseException(ResponseCode.CRITERIA_BELONGS_TO_ANOTHER_ORGANIZATION,
+                    "Given criteria belongs to another organization.");
+        }
+        return Collections.singletonList(criteria);
+    }
+
+    // Reads the employees of all leaderboards with one query.
+    private List<LeaderboardResponse> toResponses(Map<Criteria, List<Leaderboard.Standing>> standings) {
+        Set<Integer> userIds = new HashSet<>();
+        for (List<Leaderboard.Standing> criteriaStandings : standings.values()) {
+            for (Leaderboard.Standing standing : criteriaStandings) {
+                userIds.add(standing.getUserId());
+            }
+        }
+        Map<Integer, User> users = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (User user : userRepository.findAll(userIds)) {
+                users.put(user.getId(), user);
+            }
+        }
+
+        List<LeaderboardResponse> responses = new ArrayList<>();
+        for (Map.Entry<Criteria, List<Leaderboard.Standing>> entry : standings.entrySet()) {
+            List<LeaderboardEntry> entries = new ArrayList<>();
+            for (Leaderboard.Standing standing : entry.getValue()) {
+                User user = users.get(standing.getUserId());
+                // An employee removed in the meantime leaves the leaderboard once the removal is delivered.
+                if (user != null) {
+                    entries.add(new LeaderboardEntry(entries.size() + 1, user, standing));
+                }
+            }
+            responses.add(new LeaderboardResponse(entry.getKey(), entries));
+        }
+        return responses;
+    }
+
+    private boolean isBottom(String order) throws BaseException {
+        if (!TOP.equals(order) && !BOTTOM.equals(order)) {
+            throw new BaseException(ResponseCode.SCORE_LEADERBOARD_ORDER_INVALID,
+                    "Order must be " + TOP + " or " + BOTTOM + ".");
+        }
+        return BOTTOM.equals(order);
+    }
+
+    private void validateSize(int size) throws BaseException {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BaseException(ResponseCode.SCORE_LEADERBOARD_SIZE_INVALID,
+                    "Leaderboard size must be between 1 and " + MAX_SIZE + ".");
+        }
+    }
+
+    // endregion
+
+}
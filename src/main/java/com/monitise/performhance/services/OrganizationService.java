@@ -1,25 +1,33 @@
 package com.monitise.performhance.services;
 
+import com.monitise.performhance.api.model.RemovalReport;
 import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.api.model.UpdateOrganizationRequest;
-import com.monitise.performhance.entity.Criteria;
-import com.monitise.performhance.entity.JobTitle;
 import com.monitise.performhance.entity.Organization;
-import com.monitise.performhance.entity.Review;
-import com.monitise.performhance.entity.Team;
 import com.monitise.performhance.entity.User;
+import com.monitise.performhance.events.DomainEventBus;
+import com.monitise.performhance.events.OrganizationDeletedEvent;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
+import com.monitise.performhance.helpers.SearchIndex;
 import com.monitise.performhance.helpers.Util;
 import com.monitise.performhance.repositories.OrganizationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Transactional(readOnly = true)
 public class OrganizationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationService.class);
+
     @Autowired
     private OrganizationRepository organizationRepository;
     @Autowired
@@ -29,14 +37,20 @@ public class OrganizationService {
     @Autowired
     private TeamService teamService;
     @Autowired
-    private CriteriaService criteriaService;
+    private PaginationHelper paginationHelper;
+    @Autowired
+    private SearchIndex searchIndex;
     @Autowired
-    private ReviewService reviewService;
+    private DomainEventBus domainEventBus;
 
     public List<Organization> getAll() {
         return organizationRepository.findAll();
     }
 
+    public KeysetPage<Organization> getPage(String after, int size, String sort) throws BaseException {
+        return paginationHelper.getPage(Organization.class, null, after, size, sort, "name");
+    }
+
     public Organization get(int id) throws BaseException {
         Organization organization = organizationRepository.findOne(id);
         if (organization == null) {
@@ -46,6 +60,15 @@ public class OrganizationService {
         return organization;
     }
 
+    // Loads the users and teams of the organization with everything OrganizationResponse reads, in two queries.
+    // Its collections then resolve to these instances, as long as they are read in the same persistence context.
+    public Organization getWithDetails(int id) throws BaseException {
+        Organization organization = get(id);
+        userService.getByOrganizationId(id);
+        teamService.getListFilterByOrganizationId(id);
+        return organization;
+    }
+
     public Organization getByName(String name) throws BaseException {
         Organization organization = organizationRepository.findByName(name);
         if (organization == null) {
@@ -55,6 +78,7 @@ public class OrganizationService {
         return organization;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Organization add(Organization organization) throws BaseException {
         ensureUniqueness(organization.getName());
         Organization organizationFromRepo = organizationRepository.save(organization);
@@ -64,6 +88,7 @@ public class OrganizationService {
         return organizationFromRepo;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Organization update(Organization organization) throws BaseException {
         ensureExistence(organization.getId());
         Organization organizationFromRepo = organizationRepository.save(organization);
@@ -73,6 +98,7 @@ public class OrganizationService {
         return organizationFromRepo;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Organization updateFromRequest(UpdateOrganizationRequest updateOrganizationRequest, int organizationId)
             throws BaseException {
         checkUpdateRequest(updateOrganizationRequest);
@@ -93,6 +119,7 @@ public class OrganizationService {
         return organizationId == teamOrganizationId;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Organization addEmployee(int organizationId, int employeeId) throws BaseException {
         Organization organization = organizationRepository.findOne(organizationId);
         User employee = userService.get(employeeId);
@@ -106,6 +133,7 @@ public class OrganizationService {
         return updatedOrganization;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Organization setManager(int organizationId, int managerId) throws BaseException {
         Organization organization = organizationRepository.findOne(organizationId);
         User manager = userService.get(managerId);
@@ -117,14 +145,17 @@ public class OrganizationService {
         return updatedOrganization;
     }
 
-    public void remove(int organizationId) throws BaseException {
+    // Deletes everything of the organization with a few set-based statements in one transaction.
+    @Transactional(rollbackFor = BaseException.class)
+    public RemovalReport remove(int organizationId) throws BaseException {
         ensureExistence(organizationId);
-        removeJobTitles(organizationId);
-        removeReviews(organizationId);
-        removeAllCriteria(organizationId);
-        removeTeams(organizationId);
-        removeUsers(organizationId);
-        organizationRepository.delete(organizationId);
+        long start = System.currentTimeMillis();
+        Map<String, Integer> deletedRows = organizationRepository.deleteWithAllData(organizationId);
+        searchIndex.removeOrganization(organizationId);
+        domainEventBus.publish(new OrganizationDeletedEvent(organizationId));
+        long elapsedMillis = System.currentTimeMillis() - start;
+        logger.info("Removed organization {} in {} ms, deleted rows: {}", organizationId, elapsedMillis, deletedRows);
+        return new RemovalReport(deletedRows, elapsedMillis);
     }
 
     // region Helper Methods
@@ -145,105 +176,6 @@ public class OrganizationService {
         }
     }
 
-    private void removeJobTitles(int organizationId) throws BaseException {
-        removeJobTitleOfAllEmployees(organizationId);
-        Organization organization = get(organizationId);
-
-        List<JobTitle> jobTitles = organization.getJobTitles();
-        int jobTitleCount = jobTitles.size();
-        int jobTitleId = 0;
-        for (int i = 0; i < jobTitleCount; i++) {
-            jobTitleId = jobTitles.get(0).getId();
-            jobTitleService.remove(jobTitleId);
-        }
-    }
-
-    private void removeJobTitleOfAllEmployees(int organizationId) throws BaseException {
-        Organization organization = get(organizationId);
-        for (User employee : organization.getUsers()) {
-            employee.setJobTitle(null);
-            userService.update(employee);
-        }
-    }
-
-    private void removeAllCriteria(int organizationId) throws BaseException {
-        removeCriteriaOfAllEmployees(organizationId);
-        Organization organization = get(organizationId);
-
-        List<Criteria> criteriaList = organization.getCriteriaList();
-        int criteriaCount = criteriaList.size();
-        int criteriaId = 0;
-        for (int i = 0; i < criteriaCount; i++) {
-            criteriaId = criteriaList.get(0).getId();
-            criteriaService.remove(criteriaId);
-        }
-        update(organization);
-    }
-
-    private void removeCriteriaOfAllEmployees(int organizationId) throws BaseException {
-        Organization organization = get(organizationId);
-        for (User employee : organization.getUsers()) {
-            removeAllCriteriaOfAnEmployee(employee.getId());
-        }
-    }
-
-    private void removeAllCriteriaOfAnEmployee(int userId) throws BaseException {
-        User user = userService.get(userId);
-        List<Criteria> criteriaList = user.getCriteriaList();
-        int criteriaCount = criteriaList.size();
-        int criteriaId = 0;
-        for (int i = 0; i < criteriaCount; i++) {
-            criteriaId = criteriaList.get(0).getId();
-            criteriaService.removeCriteriaFromUserById(criteriaId, userId);
-        }
-    }
-
-    private void removeReviews(int organizationId) throws BaseException {
-        removeReviewsOfAllEmployees(organizationId);
-        List<Review> reviews = reviewService.getAllFilterByOrganizationId(organizationId);
-        for (Review review : reviews) {
-            reviewService.remove(review.getId());
-        }
-    }
-
-    private void removeReviewsOfAllEmployees(int organizationId) throws BaseException {
-        Organization organization = get(organizationId);
-        for (User employee : organization.getUsers()) {
-            removeReviewsOfAnEmployee(employee.getId());
-        }
-    }
-
-    private void removeReviewsOfAnEmployee(int userId) throws BaseException {
-        User user = userService.get(userId);
-        List<Review> reviews = user.getReviews();
-        int reviewCount = reviews.size();
-
-        for (int i = 0; i < reviewCount; i++) {
-            reviews.remove(0);
-        }
-        userService.update(user);
-    }
-
-    private void removeUsers(int organizationId) throws BaseException {
-        Organization organization = get(organizationId);
-        List<User> users = organization.getUsers();
-        int userCount = users.size();
-        for (int i = 0; i < userCount; i++) {
-            User user = users.get(0);
-            userService.remove(user.getId());
-        }
-    }
-
-    private void removeTeams(int organizationId) throws BaseException {
-        Organization organization = get(organizationId);
-        List<Team> teams = organization.getTeams();
-        int teamCount = teams.size();
-        for (int i = 0; i < teamCount; i++) {
-            Team team = teams.get(0);
-            teamService.remove(team.getId());
-        }
-    }
-
     private void checkUpdateRequest(UpdateOrganizationRequest request) throws BaseException {
         String name = request.getName();
         if (Util.isNullOrEmpty(name)) {
@@ -0,0 +1,74 @@
+package com.monitise.performhance.services;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "performhance.review-ingestion")
+public class ReviewIngestionProperties {
+
+    // When disabled, reviews are written to the database before the request returns.
+    private boolean enabled;
+    private String directory = "review-log";
+    // Reviews written to the database in one transaction.
+    private int batchSize = 500;
+    // Segments are rolled over at this size, so drained ones can be deleted.
+    private long maxSegmentBytes = 64 * 1024 * 1024;
+    // Flushes every append to the disk. Without it, a review survives a crash of the application but not of the OS.
+    private boolean syncOnAppend = true;
+    // Wait before a batch that failed is written again.
+    private long retryDelayMillis = 1000;
+
+    // region Getters & Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getMaxSegmentBytes() {
+        return maxSegmentBytes;
+    }
+
+    public void setMaxSegmentBytes(long maxSegmentBytes) {
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    public boolean isSyncOnAppend() {
+        return syncOnAppend;
+    }
+
+    public void setSyncOnAppend(boolean syncOnAppend) {
+        this.syncOnAppend = syncOnAppend;
+    }
+
+    public long getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    public void setRetryDelayMillis(long retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    // endregion
+
+}
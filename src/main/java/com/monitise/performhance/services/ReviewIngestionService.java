@@ -0,0 +1,264 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.ReviewIngestionStatisticsResponse;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.PendingReview;
+import com.monitise.performhance.helpers.ReviewLog;
+import com.monitise.performhance.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+// Write-behind mode of adding reviews. A validated review is appended to the local review log and acknowledged,
+// then a background worker writes the accepted reviews to the database in batches. Reviews left in the log by a crash
+// are written after the next startup. Enabled with performhance.review-ingestion.enabled.
+@Service
+public class ReviewIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewIngestionService.class);
+    private static final long POLL_MILLIS = 100;
+
+    @Autowired
+    private ReviewIngestionProperties properties;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // Reviews in the order of their sequence, which the appends keep by holding the lock of the log.
+    private final BlockingQueue<PendingReview> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private volatile ReviewLog reviewLog;
+    private Thread worker;
+    private volatile boolean running;
+    private volatile long replayedCount;
+    // Accept time of the oldest review taken from the queue and not yet written, zero when there is none.
+    private volatile long oldestInFlightAcceptedAt;
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Returns the sequence of the review in the log. The review is written to the database later.
+    public long accept(Review review) throws BaseException {
+        if (reviewLog == null) {
+            throw new BaseException(ResponseCode.UNEXPECTED, "Review ingestion is not enabled.");
+        }
+        PendingReview pendingReview = new PendingReview(review, System.currentTimeMillis());
+        synchronized (reviewLog) {
+            try {
+                reviewLog.append(pendingReview);
+            } catch (IOException exception) {
+                logger.error("Could not append the review to the review log.", exception);
+                throw new BaseException(ResponseCode.REVIEW_NOT_ACCEPTED, "Could not accept the review.");
+            }
+            queue.add(pendingReview);
+        }
+        acceptedCount.incrementAndGet();
+        return pendingReview.getSequence();
+    }
+
+    public ReviewIngestionStatisticsResponse getStatistics() throws BaseException {
+        ReviewIngestionStatisticsResponse statistics = new ReviewIngestionStatisticsResponse();
+        statistics.setEnabled(isEnabled());
+        if (reviewLog == null) {
+            return statistics;
+        }
+        statistics.setQueueDepth(getQueueDepth());
+        statistics.setLagMillis(getLagMillis());
+        statistics.setAcceptedCount(acceptedCount.get());
+        statistics.setWrittenCount(writtenCount.get());
+        statistics.setDroppedCount(droppedCount.get());
+        statistics.setFailedBatchCount(failedBatchCount.get());
+        statistics.setReplayedCount(replayedCount);
+        statistics.setLastSequence(reviewLog.getLastSequence());
+        statistics.setCheckpoint(reviewLog.getCheckpoint());
+        statistics.setSegmentCount(reviewLog.getSegmentCount());
+        try {
+            statistics.setLogSizeInBytes(reviewLog.getSizeInBytes());
+        } catch (IOException exception) {
+            throw new BaseException(ResponseCode.UNEXPECTED, "Could not read the size of the review log.");
+        }
+        return statistics;
+    }
+
+    // Waits until every review accepted so far is written to the database. Returns false on timeout.
+    public boolean awaitWritten(long timeoutMillis) throws InterruptedException {
+        long target = reviewLog.getLastSequence();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (reviewLog.getCheckpoint() < target) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        metricsRegistry.gauge("performhance_review_ingestion_queue_depth",
+                "Reviews accepted and not yet written to the database.", this::getQueueDepth);
+        DoubleSupplier lagSeconds = () -> reviewLog == null ? 0 : getLagMillis() / 1000.0;
+        metricsRegistry.gauge("performhance_review_ingestion_lag_seconds",
+                "Age of the oldest review accepted and not yet written to the database.", lagSeconds);
+    }
+
+    // Replays the reviews left in the log, then starts the worker once the application is ready to write them.
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() throws IOException {
+        if (!isEnabled() || running) {
+            return;
+        }
+        reviewLog = new ReviewLog(Paths.get(properties.getDirectory()), properties.getMaxSegmentBytes(),
+                properties.isSyncOnAppend());
+        List<PendingReview> pendingReviews = reviewLog.open();
+        queue.addAll(pendingReviews);
+        replayedCount = pendingReviews.size();
+        if (!pendingReviews.isEmpty()) {
+            logger.info("Replaying {} reviews from the review log.", pendingReviews.size());
+        }
+
+        running = true;
+        worker = new Thread(this::drain, "review-ingestion");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Reviews that are not written yet stay in the log and are written after the next start.
+    @PreDestroy
+    public synchronized void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join();
+        reviewLog.close();
+    }
+
+    // region Helper Methods
+
+    private void drain() {
+        try {
+            while (running) {
+                PendingReview first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingReview> batch = new ArrayList<>();
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                oldestInFlightAcceptedAt = first.getAcceptedAt();
+                writeUntilDone(batch);
+                oldestInFlightAcceptedAt = 0;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Retries failed batches, as the database may be unavailable for a while. If a review breaks a constraint, the
+    // reviews are written one by one and the failing ones are dropped, so they do not block the rest.
+    private void writeUntilDone(List<PendingReview> batch) throws InterruptedException {
+        while (true) {
+            try {
+                write(batch);
+                return;
+            } catch (DataIntegrityViolationException exception) {
+                logger.warn("Writing a batch of reviews failed, writing them one by one.", exception);
+                writeOneByOne(batch);
+                return;
+            } catch (RuntimeException | IOException exception) {
+                failedBatchCount.incrementAndGet();
+                logger.error("Writing a batch of reviews failed, retrying.", exception);
+                Thread.sleep(properties.getRetryDelayMillis());
+            }
+        }
+    }
+
+    private void writeOneByOne(List<PendingReview> batch) throws InterruptedException {
+        for (PendingReview review : batch) {
+            writeOne(review);
+        }
+    }
+
+    // Retries the review on its own until it is written, or drops it if it breaks a constraint.
+    private void writeOne(PendingReview review) throws InterruptedException {
+        while (true) {
+            try {
+                write(Collections.singletonList(review));
+                return;
+            } catch (DataIntegrityViolationException exception) {
+                logger.error("Dropping review {} of the review log.", review.getSequence(), exception);
+                droppedCount.incrementAndGet();
+                checkpoint(review.getSequence());
+                return;
+            } catch (RuntimeException | IOException exception) {
+                failedBatchCount.incrementAndGet();
+                logger.error("Writing a review failed, retrying.", exception);
+                Thread.sleep(properties.getRetryDelayMillis());
+            }
+        }
+    }
+
+    private void write(List<PendingReview> batch) throws IOException {
+        int written = reviewService.addAll(batch);
+        writtenCount.addAndGet(written);
+        droppedCount.addAndGet(batch.size() - written);
+        reviewLog.checkpoint(batch.get(batch.size() - 1).getSequence());
+    }
+
+    private void checkpoint(long sequence) throws InterruptedException {
+        try {
+            reviewLog.checkpoint(sequence);
+        } catch (IOException exception) {
+            failedBatchCount.incrementAndGet();
+            logger.error("Could not move the checkpoint of the review log.", exception);
+            Thread.sleep(properties.getRetryDelayMillis());
+        }
+    }
+
+    private long getQueueDepth() {
+        ReviewLog currentLog = reviewLog;
+        return currentLog == null ? 0 : currentLog.getLastSequence() - currentLog.getCheckpoint();
+    }
+
+    // Age of the oldest review that is accepted and not yet written.
+    private long getLagMillis() {
+        long oldestAcceptedAt = oldestInFlightAcceptedAt;
+        if (oldestAcceptedAt == 0) {
+            PendingReview oldest = queue.peek();
+            if (oldest == null) {
+                return 0;
+            }
+            oldestAcceptedAt = oldest.getAcceptedAt();
+        }
+        return Math.max(0, System.currentTimeMillis() - oldestAcceptedAt);
+    }
+
+    // endregion
+
+}
@@ -1,19 +1,39 @@
 package com.monitise.performhance.services;
 
 import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.SimplifiedReview;
 import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.CriteriaScore;
 import com.monitise.performhance.entity.Review;
 import com.monitise.performhance.entity.User;
+import com.monitise.performhance.events.DomainEventBus;
+import com.monitise.performhance.events.ReviewAddedEvent;
+import com.monitise.performhance.events.ReviewRemovedEvent;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
+import com.monitise.performhance.helpers.PendingReview;
+import com.monitise.performhance.helpers.ScoreWindow;
+import com.monitise.performhance.repositories.CriteriaRepository;
 import com.monitise.performhance.repositories.ReviewRepository;
+import com.monitise.performhance.repositories.TeamRepository;
 import com.monitise.performhance.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class ReviewService {
 
     @Autowired
@@ -21,11 +41,21 @@ public class ReviewService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private CriteriaRepository criteriaRepository;
+    @Autowired
     private OrganizationService organizationService;
     @Autowired
     private TeamService teamService;
     @Autowired
     private CriteriaService criteriaService;
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+    @Autowired
+    private PaginationHelper paginationHelper;
+    @Autowired
+    private DomainEventBus domainEventBus;
 
     public List<Review> getAll() {
         return reviewRepository.findAll();
@@ -37,12 +67,26 @@ public class ReviewService {
         return reviewRepository.findByOrganizationId(organizationId);
     }
 
+    public KeysetPage<SimplifiedReview> getPageFilterByOrganizationId(int organizationId, String after, int size,
+                                                                      String sort) throws BaseException {
+        organizationService.get(organizationId);
+        return paginationHelper.getPage(Review.class, Review.simplifiedReview(),
+                Review.organizationIdIs(organizationId), after, size, sort);
+    }
+
     public List<Review> getAllFilterByTeamId(int teamId) throws BaseException {
         // Make sure a team with given id exists.
         teamService.get(teamId);
         return reviewRepository.findByTeamId(teamId);
     }
 
+    public KeysetPage<SimplifiedReview> getPageFilterByTeamId(int teamId, String after, int size, String sort)
+            throws BaseException {
+        teamService.get(teamId);
+        return paginationHelper.getPage(Review.class, Review.simplifiedReview(), Review.teamIdIs(teamId), after, size,
+                sort);
+    }
+
     public Review get(int reviewId) throws BaseException {
         Review review = reviewRepository.findOne(reviewId);
         if (review == null) {
@@ -51,37 +95,143 @@ public class ReviewService {
         return review;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Review add(Review review) throws BaseException {
+        User employee = review.getReviewedEmployee();
+        Set<Integer> userIds = new HashSet<>();
+        userIds.add(employee.getId());
+        if (review.getReviewer() != null) {
+            userIds.add(review.getReviewer().getId());
+        }
+        userRepository.findAllByIdInForUpdate(userIds);
+        Map<Integer, CriteriaScore> scores = criteriaScoreService.lockScoresOfUsers(
+                Collections.singleton(employee.getId())).get(employee.getId());
+
         Review reviewFromRepo = reviewRepository.save(review);
         if (reviewFromRepo == null) {
             throw new BaseException(ResponseCode.UNEXPECTED, "Could not add the given review.");
         }
-        User employee = review.getReviewedEmployee();
-        employee.getReviews().add(review);
-        userRepository.save(employee);
+        userRepository.addReviewToUser(employee.getId(), reviewFromRepo.getId());
+        criteriaScoreService.addReview(reviewFromRepo, scores);
+        domainEventBus.publish(new ReviewAddedEvent(reviewFromRepo));
         return reviewFromRepo;
     }
 
+    // Writes reviews accepted into the review log, see ReviewIngestionService. Reviews that were written before a
+    // crash are skipped. Reviews of employees removed since they were accepted are dropped, removed reviewers, teams
+    // and criteria are left out like they are from saved reviews. Returns the number of reviews written.
+    // The employees, reviewers and scores are locked before any row is inserted. On InnoDB the foreign key checks of
+    // the inserts share-lock the user rows, and two transactions each holding a share lock of an employee while
+    // waiting for its exclusive lock would deadlock.
+    @Transactional
+    public int addAll(List<PendingReview> pendingReviews) {
+        if (pendingReviews.isEmpty()) {
+            return 0;
+        }
+        Set<Long> sequences = new HashSet<>();
+        Set<Integer> userIds = new HashSet<>();
+        Set<Integer> teamIds = new HashSet<>();
+        Set<Integer> criteriaIds = new HashSet<>();
+        for (PendingReview review : pendingReviews) {
+            sequences.add(review.getSequence());
+            userIds.add(review.getReviewedEmployeeId());
+            if (review.getReviewerId() != null) {
+                userIds.add(review.getReviewerId());
+            }
+            if (review.getTeamId() != null) {
+                teamIds.add(review.getTeamId());
+            }
+            criteriaIds.addAll(review.getEvaluation().keySet());
+        }
+        Set<Long> writtenSequences = new HashSet<>(reviewRepository.findExistingIngestionSequences(sequences));
+        Map<Integer, User> users = new HashMap<>();
+        for (User user : userRepository.findAllByIdInForUpdate(userIds)) {
+            users.put(user.getId(), user);
+        }
+        Set<Integer> existingTeamIds = teamIds.isEmpty() ? new HashSet<>()
+                : new HashSet<>(teamRepository.findAllByIdInSelectId(new ArrayList<>(teamIds)));
+        Map<Integer, Criteria> criteriaMap = new HashMap<>();
+        for (Criteria criteria : criteriaRepository.findAll(criteriaIds)) {
+            criteriaMap.put(criteria.getId(), criteria);
+        }
+
+        List<PendingReview> reviewsToWrite = new ArrayList<>();
+        Map<User, Map<Date, List<Map<Criteria, Integer>>>> evaluationsByEmployee = new LinkedHashMap<>();
+        for (PendingReview review : pendingReviews) {
+            User employee = users.get(review.getReviewedEmployeeId());
+            if (writtenSequences.contains(review.getSequence()) || employee == null) {
+                continue;
+            }
+            if (review.getReviewerId() != null && !users.containsKey(review.getReviewerId())) {
+                review.setReviewerId(null);
+            }
+            if (review.getTeamId() != null && !existingTeamIds.contains(review.getTeamId())) {
+                review.setTeamId(null);
+            }
+            Map<Criteria, Integer> evaluation = new HashMap<>();
+            review.getEvaluation().keySet().retainAll(criteriaMap.keySet());
+            for (Map.Entry<Integer, Integer> entry : review.getEvaluation().entrySet()) {
+                evaluation.put(criteriaMap.get(entry.getKey()), entry.getValue());
+            }
+            reviewsToWrite.add(review);
+            evaluationsByEmployee.computeIfAbsent(employee, key -> new HashMap<>())
+                    .computeIfAbsent(ScoreWindow.dayOf(new Date(review.getAcceptedAt())), key -> new ArrayList<>())
+                    .add(evaluation);
+        }
+
+        Set<Integer> employeeIds = new HashSet<>();
+        for (User employee : evaluationsByEmployee.keySet()) {
+            employeeIds.add(employee.getId());
+        }
+        Map<Integer, Map<Integer, CriteriaScore>> scores = criteriaScoreService.lockScoresOfUsers(employeeIds);
+
+        Map<Long, Integer> reviewIds = reviewRepository.insertAll(reviewsToWrite);
+        for (Map.Entry<User, Map<Date, List<Map<Criteria, Integer>>>> entry : evaluationsByEmployee.entrySet()) {
+            criteriaScoreService.addEvaluations(entry.getKey(), entry.getValue(), scores.get(entry.getKey().getId()));
+        }
+        for (PendingReview review : reviewsToWrite) {
+            domainEventBus.publish(new ReviewAddedEvent(review, reviewIds.get(review.getSequence())));
+        }
+        return reviewsToWrite.size();
+    }
+
+    @Transactional(rollbackFor = BaseException.class)
     public void remove(int reviewId) throws BaseException {
-        ensureExistence(reviewId);
         Review review = get(reviewId);
-        review.getReviewedEmployee().getReviews().remove(review);
-        reviewRepository.delete(reviewId);
+        domainEventBus.publish(new ReviewRemovedEvent(review));
+        criteriaScoreService.removeReview(review);
+        userRepository.removeReviewFromUser(reviewId);
+        reviewRepository.delete(review);
     }
 
     public List<Review> getByReviewedUserId(int userId) {
         return reviewRepository.findByReviewedEmployeeId(userId);
     }
 
-    // region Helper Methods
+    public int countByReviewedUserId(int userId) {
+        return reviewRepository.countByReviewedEmployeeId(userId);
+    }
 
-    private void ensureExistence(int reviewId) throws BaseException {
-        Review reviewFromRepo = reviewRepository.findOne(reviewId);
-        if (reviewFromRepo == null) {
-            throw new BaseException(ResponseCode.REVIEW_ID_DOES_NOT_EXIST, "A review with given ID does not exist.");
+    // All-time count when the window is null.
+    public int countByReviewedUserId(int userId, ScoreWindow window) {
+        if (window == null) {
+            return countByReviewedUserId(userId);
         }
+        return reviewRepository.countByReviewedEmployeeIdAndCreatedAtBetween(userId, window.getStart(),
+                window.getEnd());
     }
 
-    // endregion
+    public List<String> getCommentsByReviewedUserId(int userId) {
+        return reviewRepository.findCommentsByReviewedEmployeeId(userId);
+    }
+
+    // All comments when the window is null.
+    public List<String> getCommentsByReviewedUserId(int userId, ScoreWindow window) {
+        if (window == null) {
+            return getCommentsByReviewedUserId(userId);
+        }
+        return reviewRepository.findCommentsByReviewedEmployeeIdAndCreatedAtBetween(userId, window.getStart(),
+                window.getEnd());
+    }
 
 }
@@ -0,0 +1,57 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.api.model.ScoreDistributionResponse;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Team;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.ScoreDistributionIndex;
+import com.monitise.performhance.helpers.ScoreHistogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Score distributions for dashboards, read from the in-memory histograms instead of the evaluations.
+@Service
+@Transactional(readOnly = true)
+public class ScoreDistributionService {
+
+    @Autowired
+    private ScoreDistributionIndex scoreDistributionIndex;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private CriteriaService criteriaService;
+
+    // One distribution for each criteria of the organization, including the ones without evaluations.
+    public List<ScoreDistributionResponse> getByOrganizationId(int organizationId) throws BaseException {
+        organizationService.get(organizationId);
+        return toResponses(organizationId, scoreDistributionIndex.getByOrganizationId(organizationId));
+    }
+
+    public List<ScoreDistributionResponse> getByTeamId(int teamId) throws BaseException {
+        Team team = teamService.get(teamId);
+        int organizationId = team.getOrganization().getId();
+        return toResponses(organizationId, scoreDistributionIndex.getByTeamId(organizationId, teamId));
+    }
+
+    // region Helper Methods
+
+    private List<ScoreDistributionResponse> toResponses(int organizationId, Map<Integer, ScoreHistogram> histograms)
+            throws BaseException {
+        List<ScoreDistributionResponse> responses = new ArrayList<>();
+        for (Criteria criteria : criteriaService.getAllFilterByOrganizationId(organizationId)) {
+            ScoreHistogram histogram = histograms.getOrDefault(criteria.getId(), new ScoreHistogram());
+            responses.add(new ScoreDistributionResponse(criteria, histogram));
+        }
+        return responses;
+    }
+
+    // endregion
+
+}
@@ -2,13 +2,22 @@ package com.monitise.performhance.services;
 
 import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.api.model.SimplifiedTeam;
+import com.monitise.performhance.api.model.TeamResponse;
+import com.monitise.performhance.api.model.TeamUserResponse;
 import com.monitise.performhance.api.model.UpdateTeamRequest;
 import com.monitise.performhance.entity.Organization;
 import com.monitise.performhance.entity.Review;
 import com.monitise.performhance.entity.Team;
 import com.monitise.performhance.entity.User;
+import com.monitise.performhance.events.DomainEventBus;
+import com.monitise.performhance.events.UserMovedTeamEvent;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
+import com.monitise.performhance.helpers.ProjectionHelper;
 import com.monitise.performhance.helpers.RelationshipHelper;
+import com.monitise.performhance.helpers.SearchIndex;
 import com.monitise.performhance.helpers.SecurityHelper;
 import com.monitise.performhance.repositories.TeamRepository;
 import com.monitise.performhance.repositories.UserRepository;
@@ -16,11 +25,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Transactional(readOnly = true)
 public class TeamService {
 
     public static final String UNDEFINED = "c8e7279cd035b23bb9c0f1f954dff5b3";
@@ -39,6 +52,14 @@ public class TeamService {
     private RelationshipHelper relationshipHelper;
     @Autowired
     private ReviewService reviewService;
+    @Autowired
+    private PaginationHelper paginationHelper;
+    @Autowired
+    private ProjectionHelper projectionHelper;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private DomainEventBus domainEventBus;
 
     public List<Team> getAll() {
         return teamRepository.findAll();
@@ -52,36 +73,72 @@ public class TeamService {
         return team;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Team update(Team team) throws BaseException {
         ensureExistence(team.getId());
         Team teamFromRepo = teamRepository.save(team);
         if (teamFromRepo == null) {
             throw new BaseException(ResponseCode.UNEXPECTED, "Could not update given Team.");
         }
+        searchIndex.putTeam(teamFromRepo);
         return teamFromRepo;
     }
 
-    public List<Team> searchTeams(int organizationId, String teamName) {
+    // Reads only the response columns, with one query for the teams and one for all of their members.
+    public List<TeamResponse> searchTeams(int organizationId, String teamName) {
         Specification<Team> filter = Team.organizationIdIs(organizationId);
         if (!UNDEFINED.equals(teamName)) {
-            filter = Specifications.where(filter).and(Team.teamNameContains(teamName));
+            // Matching teams are found in the search index, so the database does not scan the names.
+            List<Integer> idList = searchIndex.findTeamIds(organizationId, teamName);
+            if (idList.isEmpty()) {
+                return new ArrayList<>();
+            } else if (idList.size() <= SearchIndex.MAX_ID_FILTER_SIZE) {
+                filter = Specifications.where(filter).and(Team.idIn(idList));
+            } else {
+                // Too many matches for a list of ids, the database compares the names instead.
+                filter = Specifications.where(filter).and(Team.teamNameContains(teamName));
+            }
+        }
+        List<TeamResponse> teams = projectionHelper.getList(Team.class, Team.teamResponse(), filter);
+        if (teams.isEmpty()) {
+            return teams;
         }
-        return teamRepository.findAll(filter);
+
+        Map<Integer, TeamResponse> teamMap = new HashMap<>();
+        for (TeamResponse team : teams) {
+            teamMap.put(team.getId(), team);
+        }
+        for (Object[] row : teamRepository.findAllByIdInSelectMembers(new ArrayList<>(teamMap.keySet()))) {
+            TeamUserResponse member = new TeamUserResponse((Integer) row[1], (String) row[2], (String) row[3],
+                    (String) row[4]);
+            teamMap.get(row[0]).getMembers().add(member);
+        }
+        return teams;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public void remove(int teamId) throws BaseException {
         ensureExistence(teamId);
+        final int organizationId = get(teamId).getOrganization().getId();
         checkAndRemoveLeadership(teamId);
         removeAllEmployeesFromTeam(teamId);
         removeTeamFromOrganization(teamId);
         removeTeamFromReviews(teamId);
         teamRepository.delete(teamId);
+        searchIndex.removeTeam(organizationId, teamId);
     }
 
     public List<Team> getListFilterByOrganizationId(int organizationId) throws BaseException {
         return teamRepository.findByOrganizationId(organizationId);
     }
 
+    public KeysetPage<SimplifiedTeam> getPageFilterByOrganizationId(int organizationId, String after, int size,
+                                                                    String sort) throws BaseException {
+        return paginationHelper.getPage(Team.class, Team.simplifiedTeam(), Team.organizationIdIs(organizationId), after,
+                size, sort, "name");
+    }
+
+    @Transactional(rollbackFor = BaseException.class)
     public Team add(Team team) throws BaseException {
         Organization organization = team.getOrganization();
         ensureTeamNameIsUnique(team.getName(), organization);
@@ -92,14 +149,17 @@ public class TeamService {
             throw new BaseException(ResponseCode.UNEXPECTED, "Could not add given team.");
         }
         addTeamToOrganization(organization.getId(), teamFromRepo);
+        searchIndex.putTeam(teamFromRepo);
         return teamFromRepo;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Team assignEmployeeToTeam(int userId, int teamId) throws BaseException {
         relationshipHelper.ensureTeamUserSameOrganization(teamId, userId);
         relationshipHelper.ensureTeamEmployeeIndependence(teamId, userId);
         Team team = get(teamId);
         User user = userService.get(userId);
+        final Integer previousTeamId = user.getTeam() == null ? null : user.getTeam().getId();
 
         team.getMembers().add(user);
         Team updatedTeam = teamRepository.save(team);
@@ -109,9 +169,11 @@ public class TeamService {
         if (updatedTeam == null || userFromRepo == null) {
             throw new BaseException(ResponseCode.UNEXPECTED, "Could not assign given employee to the given team.");
         }
+        domainEventBus.publish(new UserMovedTeamEvent(team.getOrganization().getId(), userId, previousTeamId, teamId));
         return updatedTeam;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Team removeEmployeeFromTeam(int employeeId, int teamId) throws BaseException {
         Team team = get(teamId);
         User employee = userService.get(employeeId);
@@ -131,9 +193,11 @@ public class TeamService {
         if (updatedTeam == null || userFromRepo == null) {
             throw new BaseException(ResponseCode.UNEXPECTED, "Could not remove given employee from given team.");
         }
+        domainEventBus.publish(new UserMovedTeamEvent(team.getOrganization().getId(), employeeId, teamId, null));
         return updatedTeam;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Team assignLeaderToTeam(int leaderId, int teamId) throws BaseException {
         relationshipHelper.ensureTeamUserSameOrganization(teamId, leaderId);
         if (!isLeaderAMemberOfTheTeam(teamId, leaderId)) {
@@ -152,6 +216,7 @@ public class TeamService {
     }
 
     // Leader stays in the team, only his/her leadership is removed.
+    @Transactional(rollbackFor = BaseException.class)
     public Team removeLeadershipFromTeam(int teamId) throws BaseException {
         ensureTeamHasLeader(teamId);
         Team team = teamRepository.findOne(teamId);
@@ -166,6 +231,7 @@ public class TeamService {
         return updatedTeam;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public Team updateFromRequest(int teamId, UpdateTeamRequest updateRequest) throws BaseException {
         Team team = get(teamId);
         ensureTeamNameIsUnique(updateRequest.getName(), team.getOrganization());
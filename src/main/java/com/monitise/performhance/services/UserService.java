@@ -2,12 +2,20 @@ package com.monitise.performhance.services;
 
 import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.api.model.SimplifiedUser;
 import com.monitise.performhance.api.model.UpdateUserRequest;
 import com.monitise.performhance.entity.Organization;
 import com.monitise.performhance.entity.Review;
 import com.monitise.performhance.entity.Team;
 import com.monitise.performhance.entity.User;
+import com.monitise.performhance.events.DomainEventBus;
+import com.monitise.performhance.events.ReviewRemovedEvent;
+import com.monitise.performhance.events.UserMovedTeamEvent;
 import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.KeysetPage;
+import com.monitise.performhance.helpers.PaginationHelper;
+import com.monitise.performhance.helpers.ProjectionHelper;
+import com.monitise.performhance.helpers.SearchIndex;
 import com.monitise.performhance.helpers.Util;
 import com.monitise.performhance.repositories.ReviewRepository;
 import com.monitise.performhance.repositories.UserRepository;
@@ -17,10 +25,15 @@ import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Transactional(readOnly = true)
 public class UserService {
 
     public static final String UNDEFINED = "C8E7279CD035B23BB9C0F1F954DFF5B3";
@@ -34,6 +47,16 @@ public class UserService {
     private TeamService teamService;
     @Autowired
     private ReviewRepository reviewRepository;
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+    @Autowired
+    private PaginationHelper paginationHelper;
+    @Autowired
+    private ProjectionHelper projectionHelper;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private DomainEventBus domainEventBus;
 
     public List<User> getAll() {
         return userRepository.findAll();
@@ -59,6 +82,24 @@ public class UserService {
         return userRepository.findByOrganizationId(id);
     }
 
+    public KeysetPage<SimplifiedUser> getPageByOrganizationId(int organizationId, String after, int size,
+                                                              String sort) throws BaseException {
+        return paginationHelper.getPage(User.class, User.simplifiedUser(), User.organizationIdIs(organizationId), after,
+                size, sort, "name", "surname");
+    }
+
+    // Maps the ids of the existing users to their organization ids, with a single query.
+    public Map<Integer, Integer> getOrganizationIdMap(List<Integer> userIdList) {
+        Map<Integer, Integer> organizationIdMap = new HashMap<>();
+        if (userIdList.isEmpty()) {
+            return organizationIdMap;
+        }
+        for (Object[] row : userRepository.findAllByIdInSelectOrganizationId(userIdList)) {
+            organizationIdMap.put((Integer) row[0], (Integer) row[1]);
+        }
+        return organizationIdMap;
+    }
+
     public List<Integer> getIdListByTeamId(int teamId) {
         return userRepository.findAllByTeamIdSelectUserId(teamId);
     }
@@ -67,7 +108,8 @@ public class UserService {
         return userRepository.findAllByJobTitleIdSelectUserId(jobTitleId);
     }
 
-    public List<User> searchUsers(int organizationId, String teamId, String titleId, String name, String surname) {
+    public List<SimplifiedUser> searchUsers(int organizationId, String teamId, String titleId, String name,
+                                            String surname) {
         Specification<User> filter = User.organizationIdIs(organizationId);
 
         if (!UNDEFINED.equals(teamId)) {
@@ -78,18 +120,34 @@ public class UserService {
             int intTitleId = Integer.parseInt(titleId);
             filter = Specifications.where(filter).and(User.titleIdIs(intTitleId));
         }
-        if (!UNDEFINED.equals(name)) {
-            filter = Specifications.where(filter).and(User.nameContains(name));
-        }
-        if (!UNDEFINED.equals(surname)) {
-            filter = Specifications.where(filter).and(User.surnameContains(surname));
+        boolean hasName = !UNDEFINED.equals(name);
+        boolean hasSurname = !UNDEFINED.equals(surname);
+        if (hasName || hasSurname) {
+            // Matching users are found in the search index, so the database does not scan the names.
+            List<Integer> idList = searchIndex.findUserIds(organizationId, hasName ? name : null,
+                    hasSurname ? surname : null);
+            if (idList.isEmpty()) {
+                return new ArrayList<>();
+            } else if (idList.size() <= SearchIndex.MAX_ID_FILTER_SIZE) {
+                filter = Specifications.where(filter).and(User.idIn(idList));
+            } else {
+                // Too many matches for a list of ids, the database compares the names instead.
+                if (hasName) {
+                    filter = Specifications.where(filter).and(User.nameContains(name));
+                }
+                if (hasSurname) {
+                    filter = Specifications.where(filter).and(User.surnameContains(surname));
+                }
+            }
         }
 
-        return userRepository.findAll(filter);
+        return projectionHelper.getList(User.class, User.simplifiedUser(), filter);
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public void remove(int userId) throws BaseException {
         ensureExistence(userId);
+        final int organizationId = get(userId).getOrganization().getId();
         // Removes the reviews that are made TO this user.
         removeReviews(userId);
         // Makes the reviewer column null for all the reviews this user has made
@@ -99,17 +157,21 @@ public class UserService {
         removeUserFromOrganization(userId);
         checkAndClearManagerStatus(userId);
         userRepository.delete(userId);
+        searchIndex.removeUser(organizationId, userId);
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public User update(User user) throws BaseException {
         ensureExistence(user.getId());
         User userFromRepo = userRepository.save(user);
         if (userFromRepo == null) {
             throw new BaseException(ResponseCode.UNEXPECTED, "Could not update the user with given ID.");
         }
+        searchIndex.putUser(userFromRepo);
         return userFromRepo;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public User addEmployee(User user) throws BaseException {
         if (user.getRole() != Role.EMPLOYEE && user.getRole() != Role.TEAM_LEADER) {
             throw new BaseException(ResponseCode.USER_ROLE_INCORRECT, "Cannot add non-employee user.");
@@ -119,6 +181,7 @@ public class UserService {
         return addedUser;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public User addManager(User manager) throws BaseException {
         if (manager.getRole() != Role.MANAGER) {
             throw new BaseException(ResponseCode.USER_ROLE_INCORRECT, "Cannot add non-manager user.");
@@ -131,6 +194,7 @@ public class UserService {
         return addedManager;
     }
 
+    @Transactional(rollbackFor = BaseException.class)
     public User updateFromRequest(UpdateUserRequest updateUserRequest, int userId) throws BaseException {
         User user = get(userId);
         String name = updateUserRequest.getName();
@@ -162,6 +226,7 @@ public class UserService {
         if (userFromRepo == null) {
             throw new BaseException(ResponseCode.UNEXPECTED, "Could not add given User.");
         }
+        searchIndex.putUser(userFromRepo);
         return userFromRepo;
     }
 
@@ -194,6 +259,7 @@ public class UserService {
         if (team != null) {
             team.getMembers().remove(user);
             teamService.update(team);
+            domainEventBus.publish(new UserMovedTeamEvent(user.getOrganization().getId(), userId, team.getId(), null));
         }
     }
 
@@ -204,8 +270,10 @@ public class UserService {
         user.setReviews(null);
         update(user);
         for (Review review : reviews) {
+            domainEventBus.publish(new ReviewRemovedEvent(review));
             reviewRepository.delete(review.getId());
         }
+        criteriaScoreService.removeByUserId(userId);
     }
 
     // Makes the `reviewer_id` column null for all the reviews this user has made.
@@ -0,0 +1,54 @@
+-- Schema as Hibernate created it before the migrations existed. Databases that already have it are baselined at this
+-- version, see application.properties. The statements are plain enough for both MySQL and H2.
+
+create table criteria (id integer not null auto_increment, criteria varchar(255), organization_id integer, primary key (id));
+create table job_title (id integer not null auto_increment, title varchar(255), organization_id integer, primary key (id));
+create table organization (id integer not null auto_increment, name varchar(255), number_of_employees integer not null, manager_id integer, primary key (id));
+create table organization_criteria_list (organization_id integer not null, criteria_list_id integer not null);
+create table organization_job_titles (organization_id integer not null, job_titles_id integer not null);
+create table organization_teams (organization_id integer not null, teams_id integer not null);
+create table organization_users (organization_id integer not null, users_id integer not null);
+create table review (id integer not null auto_increment, comment varchar(255), organization_id integer, reviewed_employee_id integer, reviewer_id integer, team_id integer, primary key (id));
+create table review_evaluation (review_id integer not null, evaluation integer, evaluation_key integer not null, primary key (review_id, evaluation_key));
+create table team (id integer not null auto_increment, name varchar(255), leader_id integer, organization_id integer, primary key (id));
+create table team_members (team_id integer not null, members_id integer not null);
+create table user (id integer not null auto_increment, name varchar(255), password varchar(255), role varchar(255), surname varchar(255), username varchar(255), job_title_id integer, organization_id integer, team_id integer, primary key (id));
+create table user_criteria_list (user_id integer not null, criteria_list_id integer not null);
+create table user_reviews (user_id integer not null, reviews_id integer not null);
+
+alter table organization add constraint UK_8j5y8ipk73yx2joy9yr653c9t unique (name);
+alter table organization_criteria_list add constraint UK_feakka4npjjtssxylnd9cujgc unique (criteria_list_id);
+alter table organization_job_titles add constraint UK_mplypttwy776dcm26kfdjw3ur unique (job_titles_id);
+alter table organization_teams add constraint UK_7b983yc27bx03xgwiqs72jvo9 unique (teams_id);
+alter table organization_users add constraint UK_ag03e4qasggh4qxd93rfod6wk unique (users_id);
+alter table team_members add constraint UK_4adet9n1mfa8wy3wbe963bt36 unique (members_id);
+alter table user_reviews add constraint UK_63oe4q3ebxsiwoskr5fmxxr8i unique (reviews_id);
+
+alter table criteria add constraint FKq9mx44b04aw3jvwkga17r7n8o foreign key (organization_id) references organization (id);
+alter table job_title add constraint FKnqbamyfwr18y07hpoxh66bhq foreign key (organization_id) references organization (id);
+alter table organization add constraint FKlffui595btxn6jd014w1l62v9 foreign key (manager_id) references user (id);
+alter table organization_criteria_list add constraint FKqre6a6e2gjisrdy67o2d9kv8c foreign key (criteria_list_id) references criteria (id);
+alter table organization_criteria_list add constraint FKmysbmygbakfxihipu42m45p4n foreign key (organization_id) references organization (id);
+alter table organization_job_titles add constraint FK3mab5xyc980pshdj3jj6xnmmt foreign key (job_titles_id) references job_title (id);
+alter table organization_job_titles add constraint FKso99slfe4q2fu5smrc6u6qtg0 foreign key (organization_id) references organization (id);
+alter table organization_teams add constraint FKdji3mlph1xyfqejl8cijchxeo foreign key (teams_id) references team (id);
+alter table organization_teams add constraint FKbu7gfoc5vh790y00c052s0iml foreign key (organization_id) references organization (id);
+alter table organization_users add constraint FK70niif9oqfqq4r6uox830gm4x foreign key (users_id) references user (id);
+alter table organization_users add constraint FK15s2npsq3mkltwy8r6fuc3yky foreign key (organization_id) references organization (id);
+alter table review add constraint FKfietykoov7ydlue7g7cj8tduo foreign key (organization_id) references organization (id);
+alter table review add constraint FKof14mw6pu0rcb9appqy3i4mt1 foreign key (reviewed_employee_id) references user (id);
+alter table review add constraint FKt58e9mdgxpl7j90ketlaosmx4 foreign key (reviewer_id) references user (id);
+alter table review add constraint FK4a245rd9e9a0gholo36rcau7a foreign key (team_id) references team (id);
+alter table review_evaluation add constraint FKpffp2l6eofwj4k6dcd7tqx6fk foreign key (evaluation_key) references criteria (id);
+alter table review_evaluation add constraint FK5nf6r72a5vr8caoj5onpj3rl3 foreign key (review_id) references review (id);
+alter table team add constraint FKbxs8rhdluvnucyymbjowulrl6 foreign key (leader_id) references user (id);
+alter table team add constraint FKt2rwhhxcjdmje0gqqybiyjdpn foreign key (organization_id) references organization (id);
+alter table team_members add constraint FKbgffnx0q37cxji0csajwwcw3y foreign key (members_id) references user (id);
+alter table team_members add constraint FKb3toat7ors5scfmd3n69dhmr1 foreign key (team_id) references team (id);
+alter table user add constraint FK6d2u3dxag3ctv5kw7gd8reusi foreign key (job_title_id) references job_title (id);
+alter table user add constraint FKi3ynrf4qjomj2hdjx7ssa3mlh foreign key (organization_id) references organization (id);
+alter table user add constraint FKbmqm8c8m2aw1vgrij7h0od0ok foreign key (team_id) references team (id);
+alter table user_criteria_list add constraint FKju2po6mvggwg8w6fjasjguw4f foreign key (criteria_list_id) references criteria (id);
+alter table user_criteria_list add constraint FKrm6k7vjmb7uyrwfx8u8gxr3op foreign key (user_id) references user (id);
+alter table user_reviews add constraint FK34lot9t78mgstbdgjx7tqt675 foreign key (reviews_id) references review (id);
+alter table user_reviews add constraint FKmpa6y70qlh5ktrbf4kgxtlqxt foreign key (user_id) references user (id);
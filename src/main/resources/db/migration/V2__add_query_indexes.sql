@@ -0,0 +1,25 @@
+-- Indexes for the columns the repositories filter on. Each one starts with the filtered column and ends with the
+-- column the rows are read or paged by, so that the lookup does not have to visit the table. Index names are unique
+-- across tables, as H2 requires.
+
+-- Reviews are listed and paged by organization and by team, and read, counted and aggregated by reviewed employee.
+create index idx_review_organization_id on review (organization_id, id);
+create index idx_review_team_id on review (team_id, id);
+create index idx_review_reviewed_employee_id on review (reviewed_employee_id, id);
+create index idx_review_reviewer_id on review (reviewer_id);
+
+-- Users are found by username at every login, paged by organization and collected by team and by job title.
+create index idx_user_username on user (username);
+create index idx_user_organization_id on user (organization_id, id);
+create index idx_user_team_id on user (team_id, id);
+create index idx_user_job_title_id on user (job_title_id, id);
+
+-- The users of a criteria are looked up when it is assigned or removed.
+create index idx_user_criteria_list_criteria_list_id on user_criteria_list (criteria_list_id, user_id);
+
+-- Teams are paged by name within an organization.
+create index idx_team_organization_id_name on team (organization_id, name, id);
+
+-- Titles and criteria are unique within an organization, which is checked before every insert and update.
+create index idx_job_title_organization_id_title on job_title (organization_id, title);
+create index idx_criteria_organization_id_criteria on criteria (organization_id, criteria);
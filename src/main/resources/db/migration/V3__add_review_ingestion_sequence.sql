@@ -0,0 +1,4 @@
+-- Reviews written from the review log keep the sequence of their log entry, so that entries replayed after a crash
+-- are not written twice. Reviews written directly have none.
+alter table review add column ingestion_sequence bigint;
+create unique index idx_review_ingestion_sequence on review (ingestion_sequence);
@@ -0,0 +1,12 @@
+-- Reviews keep the time they were written, and scores are also kept per employee, criteria and day, so that the scores
+-- of a time window are summed from a few rows. Reviews written before have no creation time and only count for the
+-- all-time scores.
+alter table review add column created_at datetime;
+create index idx_review_reviewed_employee_id_created_at on review (reviewed_employee_id, created_at);
+
+create table daily_criteria_score (id integer not null auto_increment, criteria_id integer, max_score integer not null, min_score integer not null, review_count integer not null, review_day date, total_score integer not null, user_id integer, primary key (id));
+alter table daily_criteria_score add constraint uk_daily_criteria_score_user_id_criteria_id_review_day unique (user_id, criteria_id, review_day);
+alter table daily_criteria_score add constraint fk_daily_criteria_score_criteria_id foreign key (criteria_id) references criteria (id);
+alter table daily_criteria_score add constraint fk_daily_criteria_score_user_id foreign key (user_id) references user (id);
+-- Windows are read by employee and a range of days.
+create index idx_daily_criteria_score_user_id_review_day on daily_criteria_score (user_id, review_day);
@@ -0,0 +1,4 @@
+-- The application writes the time into this row on the primary every heartbeat. The value a replica returns is the
+-- last heartbeat it has applied, which tells how far it is behind the primary.
+create table replica_heartbeat (id integer not null, beat bigint not null, primary key (id));
+insert into replica_heartbeat (id, beat) values (1, 0);
@@ -0,0 +1,11 @@
+-- Scores are kept per employee and criteria, so that they are read from one row per criteria instead of summed over
+-- every review. The scores of the reviews written before are computed here once.
+create table criteria_score (id integer not null auto_increment, criteria_id integer, max_score integer not null, min_score integer not null, review_count integer not null, total_score integer not null, user_id integer, primary key (id));
+alter table criteria_score add constraint uk_criteria_score_user_id_criteria_id unique (user_id, criteria_id);
+alter table criteria_score add constraint fk_criteria_score_criteria_id foreign key (criteria_id) references criteria (id);
+alter table criteria_score add constraint fk_criteria_score_user_id foreign key (user_id) references user (id);
+
+insert into criteria_score (user_id, criteria_id, total_score, review_count, min_score, max_score)
+    select r.reviewed_employee_id, e.evaluation_key, sum(e.evaluation), count(*), min(e.evaluation), max(e.evaluation)
+    from review r join review_evaluation e on e.review_id = r.id
+    group by r.reviewed_employee_id, e.evaluation_key;
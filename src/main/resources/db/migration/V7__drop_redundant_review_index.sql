@@ -0,0 +1,6 @@
+-- The index on reviewed employee and creation time serves every lookup by reviewed employee, so the older one on
+-- reviewed employee and id only costs writes, and planners that pick it read whole histories for a time window. The
+-- foreign key is added again after the index it used is dropped.
+alter table review drop foreign key FKof14mw6pu0rcb9appqy3i4mt1;
+alter table review drop index idx_review_reviewed_employee_id;
+alter table review add constraint FKof14mw6pu0rcb9appqy3i4mt1 foreign key (reviewed_employee_id) references user (id);
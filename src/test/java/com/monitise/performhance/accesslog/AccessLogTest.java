@@ -0,0 +1,251 @@
+package com.monitise.performhance.accesslog;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.helpers.AuthenticatedPrincipal;
+import com.monitise.performhance.helpers.AuthenticationContext;
+import com.monitise.performhance.security.TokenService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+public class AccessLogTest {
+
+    private static final AuthenticatedPrincipal PELIN =
+            new AuthenticatedPrincipal(2, "pelin.sonmez", Role.TEAM_LEADER, 1, 1);
+
+    @Autowired
+    private AccessLog accessLog;
+    @Autowired
+    private AccessLogProperties accessLogProperties;
+    @Autowired
+    private AuthenticationContext authenticationContext;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private AccessLogFilter filter;
+
+    @Before
+    public void attachAppender() {
+        accessLog.flush();
+        appender.start();
+        ((Logger) LoggerFactory.getLogger("performhance.access")).addAppender(appender);
+        filter = new AccessLogFilter(accessLog, authenticationContext);
+    }
+
+    @After
+    public void restore() {
+        ((Logger) LoggerFactory.getLogger("performhance.access")).detachAppender(appender);
+        accessLogProperties.setSampleRate(1);
+        accessLogProperties.setCaptureBodies(false);
+        accessLogProperties.setMaxBodyLength(1024);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void request_shouldBeLoggedWithPrincipalAndOrganization() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(tokenService.toAuthentication(PELIN));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/2");
+        request.setQueryString("fields=name");
+        FilterChain chain = (servletRequest, servletResponse) ->
+                ((HttpServletResponse) servletResponse).setStatus(HttpServletResponse.SC_NOT_FOUND);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        List<Map<String, Object>> entries = flush();
+        Assert.assertEquals(1, entries.size());
+        Map<String, Object> entry = entries.get(0);
+        Assert.assertEquals("GET", entry.get("method"));
+        Assert.assertEquals("/users/2", entry.get("path"));
+        Assert.assertEquals("fields=name", entry.get("query"));
+        Assert.assertEquals(404, entry.get("status"));
+        Assert.assertEquals("pelin.sonmez", entry.get("principal"));
+        Assert.assertEquals(1, entry.get("organizationId"));
+        Assert.assertTrue(((Number) entry.get("latencyMillis")).doubleValue() >= 0);
+        Assert.assertFalse(entry.containsKey("body"));
+    }
+
+    @Test
+    public void rejectedRequest_shouldBeLoggedBySecurityChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/");
+        request.setServletPath("/users/");
+        FilterChain chain = (servletRequest, servletResponse) -> Assert.fail("The request should be rejected.");
+
+        springSecurityFilterChain.doFilter(request, new MockHttpServletResponse(), chain);
+        List<Map<String, Object>> entries = flush();
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals(401, entries.get(0).get("status"));
+        Assert.assertFalse(entries.get(0).containsKey("principal"));
+    }
+
+    @Test
+    public void unsampledRequests_shouldOnlyLogServerErrors() throws Exception {
+        accessLogProperties.setSampleRate(0);
+        FilterChain okChain = (servletRequest, servletResponse) -> { };
+        FilterChain errorChain = (servletRequest, servletResponse) ->
+                ((HttpServletResponse) servletResponse).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        FilterChain failingChain = (servletRequest, servletResponse) -> {
+            throw new IllegalStateException("Failed.");
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/teams/"), new MockHttpServletResponse(), okChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/teams/1"), new MockHttpServletResponse(), errorChain);
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/teams/2"), new MockHttpServletResponse(),
+                    failingChain);
+            Assert.fail("The exception should reach the container.");
+        } catch (IllegalStateException exception) {
+            // Expected
+        }
+        List<Map<String, Object>> entries = flush();
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals("/teams/1", entries.get(0).get("path"));
+        Assert.assertEquals(503, entries.get(0).get("status"));
+        Assert.assertEquals("/teams/2", entries.get(1).get("path"));
+        Assert.assertEquals(500, entries.get(1).get("status"));
+    }
+
+    @Test
+    public void capturedBody_shouldBeReadByHandlerAndCut() throws Exception {
+        accessLogProperties.setCaptureBodies(true);
+        accessLogProperties.setMaxBodyLength(10);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/reviews/");
+        request.setCharacterEncoding("UTF-8");
+        request.setContent("{\"comment\":\"Well done.\"}".getBytes(StandardCharsets.UTF_8));
+        List<String> handlerBodies = new ArrayList<>();
+        FilterChain chain = (servletRequest, servletResponse) -> handlerBodies.add(
+                StreamUtils.copyToString(servletRequest.getInputStream(), StandardCharsets.UTF_8));
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Assert.assertEquals("{\"comment\":\"Well done.\"}", handlerBodies.get(0));
+        Assert.assertEquals("{\"comment\"", flush().get(0).get("body"));
+    }
+
+    @Test
+    public void capturedBody_shouldRedactPasswords() throws Exception {
+        accessLogProperties.setCaptureBodies(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/");
+        request.setCharacterEncoding("UTF-8");
+        request.setContent(("{\"username\":\"new.user\",\"password\" : \"se\\\"cret\",\"newPassword\":123}")
+                .getBytes(StandardCharsets.UTF_8));
+        FilterChain chain = (servletRequest, servletResponse) ->
+                StreamUtils.copyToString(servletRequest.getInputStream(), StandardCharsets.UTF_8);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Assert.assertEquals("{\"username\":\"new.user\",\"password\" : \"[REDACTED]\",\"newPassword\":\"[REDACTED]\"}",
+                flush().get(0).get("body"));
+        Assert.assertEquals("username=new.user&password=[REDACTED]",
+                accessLog.redact("username=new.user&password=secret"));
+    }
+
+    @Test
+    public void ringBuffer_shouldRejectOffersWhenFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.offer(i));
+        }
+        Assert.assertFalse(buffer.offer(4));
+        Assert.assertEquals(4, buffer.size());
+
+        Assert.assertEquals(0, buffer.poll().intValue());
+        Assert.assertTrue(buffer.offer(5));
+        for (int expected : new int[] {1, 2, 3, 5}) {
+            Assert.assertEquals(expected, buffer.poll().intValue());
+        }
+        Assert.assertNull(buffer.poll());
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void ringBuffer_concurrentProducers_shouldDeliverEveryItemOnce() throws Exception {
+        int producerCount = 4;
+        int itemsPerProducer = 100000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producerCount);
+        List<Future<?>> producers = new ArrayList<>();
+        for (int producer = 0; producer < producerCount; producer++) {
+            int first = producer * itemsPerProducer;
+            producers.add(executor.submit(() -> {
+                for (int item = first; item < first + itemsPerProducer; item++) {
+                    while (!buffer.offer(item)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+
+        Set<Integer> taken = new HashSet<>();
+        int[] lastOfProducer = new int[producerCount];
+        Arrays.fill(lastOfProducer, -1);
+        while (taken.size() < producerCount * itemsPerProducer) {
+            Integer item = buffer.poll();
+            if (item == null) {
+                Thread.yield();
+                continue;
+            }
+            Assert.assertTrue(taken.add(item));
+            // Items of one producer arrive in the order they are offered.
+            int producer = item / itemsPerProducer;
+            Assert.assertTrue(item > lastOfProducer[producer]);
+            lastOfProducer[producer] = item;
+        }
+        for (Future<?> producer : producers) {
+            producer.get();
+        }
+        executor.shutdown();
+        Assert.assertNull(buffer.poll());
+    }
+
+    // region Helper Methods
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> flush() throws IOException {
+        accessLog.flush();
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (ILoggingEvent event : appender.list) {
+            entries.add(objectMapper.readValue(event.getFormattedMessage(), Map.class));
+        }
+        return entries;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,200 @@
+package com.monitise.performhance.datasource;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.UpdateUserRequest;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.services.TeamService;
+import com.monitise.performhance.services.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+
+// A second in-memory database stands in for the replica. It has the schema but none of the rows of the primary, so
+// the number of users read tells which database a query ran on. Replication is simulated by writing the heartbeat
+// to the replica, and the monitor is refreshed by the tests instead of its own thread.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class, properties = {
+        "performhance.datasource.replicas[0].url = " + ReadWriteRoutingTest.REPLICA_URL,
+        "performhance.datasource.max-lag-millis = " + ReadWriteRoutingTest.MAX_LAG_MILLIS,
+        "performhance.datasource.heartbeat-interval-millis = 3600000"
+})
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+public class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:PerformhanceReplica;DB_CLOSE_DELAY=-1;MV_STORE=FALSE";
+    static final long MAX_LAG_MILLIS = 5000;
+    private static final int PRIMARY_USER_COUNT = 9;
+    private static final int REPLICA_USER_COUNT = 0;
+
+    @Autowired
+    private ReplicaMonitor replicaMonitor;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor;
+    @Autowired
+    private PrimaryRoutingInterceptor primaryRoutingInterceptor;
+    @Autowired
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @Before
+    public void migrateReplica() {
+        DataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(dataSource);
+        flyway.setLocations("classpath:db/migration");
+        flyway.migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @After
+    public void resetReplica() {
+        replica.update("DELETE FROM user");
+        replicateUpTo(0);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void readOnlyTransaction_upToDateReplica_shouldReadFromReplica() {
+        replicateUpTo(System.currentTimeMillis());
+
+        Assert.assertEquals(REPLICA_USER_COUNT, userService.getAll().size());
+        long lagMillis = replicaMonitor.getLagMillis(0);
+        Assert.assertTrue(lagMillis >= 0 && lagMillis <= MAX_LAG_MILLIS);
+    }
+
+    @Test
+    public void writeTransaction_shouldReadFromPrimary() {
+        replicateUpTo(System.currentTimeMillis());
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Assert.assertEquals(PRIMARY_USER_COUNT, transaction.execute(status -> userService.getAll().size()).intValue());
+    }
+
+    @Test
+    public void readOnlyTransaction_laggingReplica_shouldReadFromPrimary() {
+        replicateUpTo(System.currentTimeMillis() - 2 * MAX_LAG_MILLIS);
+
+        Assert.assertEquals(PRIMARY_USER_COUNT, userService.getAll().size());
+    }
+
+    @Test
+    public void readOnlyTransaction_replicaWithoutHeartbeat_shouldReadFromPrimary() {
+        replicateUpTo(0);
+
+        Assert.assertEquals(PRIMARY_USER_COUNT, userService.getAll().size());
+        Assert.assertEquals(-1, replicaMonitor.getLagMillis(0));
+    }
+
+    @Test
+    public void readOnlyTransaction_afterOwnWrite_shouldReadFromPrimaryUntilReplicated() throws BaseException {
+        replicateUpTo(System.currentTimeMillis() - 1);
+        authenticate("pelin");
+        Assert.assertEquals(REPLICA_USER_COUNT, userService.getAll().size());
+
+        teamService.removeLeadershipFromTeam(1);
+        Assert.assertEquals(PRIMARY_USER_COUNT, userService.getAll().size());
+        // Other users still read from the replica.
+        authenticate("faruk");
+        Assert.assertEquals(REPLICA_USER_COUNT, userService.getAll().size());
+
+        replicateUpTo(System.currentTimeMillis());
+        authenticate("pelin");
+        Assert.assertEquals(REPLICA_USER_COUNT, userService.getAll().size());
+    }
+
+    @Test
+    public void readRequest_shouldReadFromReplica() {
+        replicateUpTo(System.currentTimeMillis());
+
+        int userCount = handle("GET", () -> userService.getAll().size());
+        Assert.assertEquals(REPLICA_USER_COUNT, userCount);
+    }
+
+    // The user read to authorize the change is the one the write transaction changes and saves.
+    @Test
+    public void writeRequest_readThenWrite_shouldNotSaveReplicaState() {
+        replicateUpTo(System.currentTimeMillis());
+        replica.update("INSERT INTO user(id, name, role, surname, username) VALUES (?, ?, ?, ?, ?)",
+                2, "Stale", "TEAM_LEADER", "Sonmez", "pelin.sonmez");
+
+        handle("PUT", () -> {
+            userService.get(2);
+            UpdateUserRequest updateUserRequest = new UpdateUserRequest();
+            updateUserRequest.setSurname("Renamed");
+            return userService.updateFromRequest(updateUserRequest, 2);
+        });
+        Assert.assertEquals("Pelin", primary.queryForObject("SELECT name FROM user WHERE id = 2", String.class));
+        Assert.assertEquals("Renamed", primary.queryForObject("SELECT surname FROM user WHERE id = 2", String.class));
+        Assert.assertEquals(1, primary.queryForObject("SELECT organization_id FROM user WHERE id = 2", Integer.class)
+                .intValue());
+    }
+
+    // region Helper Methods
+
+    // Runs the work like a handler of a request with the given method, in one persistence context.
+    private <T> T handle(String method, RequestWork<T> work) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        openEntityManagerInViewInterceptor.preHandle(webRequest);
+        primaryRoutingInterceptor.preHandle(request, response, null);
+        try {
+            return work.run();
+        } catch (BaseException exception) {
+            throw new IllegalStateException(exception);
+        } finally {
+            primaryRoutingInterceptor.afterCompletion(request, response, null, null);
+            openEntityManagerInViewInterceptor.afterCompletion(webRequest, null);
+        }
+    }
+
+
+    // The replica has applied everything the primary committed before the given time.
+    private void replicateUpTo(long time) {
+        replica.update("UPDATE replica_heartbeat SET beat = ? WHERE id = 1", time);
+        replicaMonitor.refresh();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+    }
+
+    // endregion
+
+    private interface RequestWork<T> {
+        T run() throws BaseException;
+    }
+
+}
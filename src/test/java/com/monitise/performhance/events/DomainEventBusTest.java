@@ -0,0 +1,311 @@
+package com.monitise.performhance.events;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.PendingReview;
+import com.monitise.performhance.repositories.UserRepository;
+import com.monitise.performhance.services.CriteriaService;
+import com.monitise.performhance.services.OrganizationService;
+import com.monitise.performhance.services.ReviewService;
+import com.monitise.performhance.services.TeamService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Events are delivered after commit, so the tests commit their changes and are not transactional.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+public class DomainEventBusTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private CriteriaService criteriaService;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<DomainEventBus.Subscription<?>> subscriptions = new ArrayList<>();
+
+    @After
+    public void cancelSubscriptions() {
+        for (DomainEventBus.Subscription<?> subscription : subscriptions) {
+            subscription.cancel();
+        }
+    }
+
+    @Test
+    public void publish_withinTransaction_shouldDeliverAfterCommit() {
+        List<DomainEvent> received = subscribe(DomainEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+
+        transactionTemplate.execute(status -> {
+            domainEventBus.publish(new OrganizationDeletedEvent(1));
+            Assert.assertTrue(received.isEmpty());
+            return null;
+        });
+        Assert.assertEquals(1, received.size());
+    }
+
+    @Test
+    public void publish_withinRolledBackTransaction_shouldNotDeliver() {
+        List<DomainEvent> received = subscribe(DomainEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+
+        transactionTemplate.execute(status -> {
+            domainEventBus.publish(new OrganizationDeletedEvent(1));
+            status.setRollbackOnly();
+            return null;
+        });
+        Assert.assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void publish_afterDelivery_shouldNotKeepSequencesOfOrganization() {
+        transactionTemplate.execute(status -> {
+            domainEventBus.publish(new OrganizationDeletedEvent(1));
+            domainEventBus.publish(new OrganizationDeletedEvent(2));
+            Assert.assertEquals(2, domainEventBus.getPendingOrganizationCount());
+            return null;
+        });
+        Assert.assertEquals(0, domainEventBus.getPendingOrganizationCount());
+
+        transactionTemplate.execute(status -> {
+            domainEventBus.publish(new OrganizationDeletedEvent(3));
+            status.setRollbackOnly();
+            return null;
+        });
+        Assert.assertEquals(0, domainEventBus.getPendingOrganizationCount());
+    }
+
+    @Test
+    public void publish_toAsynchronousSubscriber_shouldKeepOrderOfOrganization() throws InterruptedException {
+        Map<Integer, List<Integer>> criteriaIdsByOrganization = new ConcurrentHashMap<>();
+        subscriptions.add(domainEventBus.subscribe(CriteriaAssignedEvent.class, DomainEventBus.Delivery.ASYNCHRONOUS,
+                event -> criteriaIdsByOrganization.computeIfAbsent(event.getOrganizationId(), id -> new ArrayList<>())
+                        .add(event.getCriteriaId())));
+
+        for (int criteriaId = 0; criteriaId < 1000; criteriaId++) {
+            int organizationId = criteriaId % 10;
+            domainEventBus.publish(new CriteriaAssignedEvent(organizationId, criteriaId, Collections.emptyList()));
+        }
+        Assert.assertTrue(domainEventBus.awaitDelivered(TIMEOUT_MILLIS));
+
+        for (int organizationId = 0; organizationId < 10; organizationId++) {
+            List<Integer> criteriaIds = criteriaIdsByOrganization.get(organizationId);
+            Assert.assertEquals(100, criteriaIds.size());
+            for (int i = 0; i < criteriaIds.size(); i++) {
+                Assert.assertEquals(organizationId + i * 10, (int) criteriaIds.get(i));
+            }
+        }
+    }
+
+    // The first event is published in a transaction that is still open when the second one is published outside of one.
+    @Test
+    public void publish_afterEventOfOpenTransaction_shouldWaitForItsCommit() throws Exception {
+        List<CriteriaAssignedEvent> received = subscribe(CriteriaAssignedEvent.class,
+                DomainEventBus.Delivery.SYNCHRONOUS);
+
+        publishBehindOpenTransaction(false);
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals(1, received.get(0).getCriteriaId());
+        Assert.assertEquals(2, received.get(1).getCriteriaId());
+    }
+
+    @Test
+    public void publish_afterEventOfOpenTransaction_shouldBeDeliveredWhenItRollsBack() throws Exception {
+        List<CriteriaAssignedEvent> received = subscribe(CriteriaAssignedEvent.class,
+                DomainEventBus.Delivery.SYNCHRONOUS);
+
+        publishBehindOpenTransaction(true);
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(2, received.get(0).getCriteriaId());
+    }
+
+    @Test
+    public void publish_failingSubscriber_shouldNotStopOthers() {
+        subscriptions.add(domainEventBus.subscribe(DomainEvent.class, DomainEventBus.Delivery.SYNCHRONOUS, event -> {
+            throw new IllegalStateException("Subscriber failure for the test.");
+        }));
+        List<DomainEvent> received = subscribe(DomainEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+
+        domainEventBus.publish(new OrganizationDeletedEvent(1));
+        Assert.assertEquals(1, received.size());
+    }
+
+    @Test
+    public void subscribe_shouldOnlyReceiveGivenType() {
+        List<ReviewEvent> received = subscribe(ReviewEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+
+        domainEventBus.publish(new OrganizationDeletedEvent(1));
+        domainEventBus.publish(new ReviewAddedEvent(new PendingReview(), 1));
+        Assert.assertEquals(1, received.size());
+    }
+
+    @Test
+    public void addReview_shouldPublishReviewAdded() {
+        List<ReviewAddedEvent> received = subscribe(ReviewAddedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+
+        // Built and added in one transaction, like in a request.
+        Review added = transactionTemplate.execute(status -> {
+            try {
+                Map<Criteria, Integer> evaluation = new HashMap<>();
+                evaluation.put(criteriaService.get(1), 60);
+                Review review = new Review(userRepository.findOne(4), userRepository.findOne(2), evaluation,
+                        "Published.");
+                Review reviewFromService = reviewService.add(review);
+                Assert.assertTrue(received.isEmpty());
+                return reviewFromService;
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+
+        Assert.assertEquals(1, received.size());
+        ReviewAddedEvent event = received.get(0);
+        Assert.assertEquals(added.getId(), event.getReviewId());
+        Assert.assertEquals(1, event.getOrganizationId());
+        Assert.assertEquals(4, event.getReviewedEmployeeId());
+        Assert.assertEquals(Integer.valueOf(1), event.getTeamId());
+        Assert.assertEquals(Integer.valueOf(60), event.getEvaluation().get(1));
+    }
+
+    @Test
+    public void removeReview_shouldPublishReviewRemoved() throws BaseException {
+        List<ReviewRemovedEvent> received = subscribe(ReviewRemovedEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+
+        reviewService.remove(4);
+
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(4, received.get(0).getReviewId());
+        Assert.assertEquals(4, received.get(0).getEvaluation().size());
+    }
+
+    @Test
+    public void removeEmployeeFromTeam_shouldPublishUserMovedTeam() {
+        List<UserMovedTeamEvent> received = subscribe(UserMovedTeamEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+
+        transactionTemplate.execute(status -> {
+            try {
+                return teamService.removeEmployeeFromTeam(3, 1);
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+
+        Assert.assertEquals(1, received.size());
+        UserMovedTeamEvent event = received.get(0);
+        Assert.assertEquals(3, event.getUserId());
+        Assert.assertEquals(Integer.valueOf(1), event.getPreviousTeamId());
+        Assert.assertNull(event.getTeamId());
+    }
+
+    @Test
+    public void assignCriteriaToTeam_shouldPublishNewlyAssignedUsers() throws BaseException {
+        List<CriteriaAssignedEvent> received = subscribe(CriteriaAssignedEvent.class,
+                DomainEventBus.Delivery.SYNCHRONOUS);
+
+        // Pelya has the criteria already.
+        criteriaService.assignCriteriaToTeam(4, 1);
+
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(4, received.get(0).getCriteriaId());
+        Assert.assertEquals(2, received.get(0).getUserIds().size());
+        Assert.assertFalse(received.get(0).getUserIds().contains(4));
+    }
+
+    @Test
+    public void removeOrganization_shouldPublishOrganizationDeleted() throws BaseException {
+        List<OrganizationDeletedEvent> received = subscribe(OrganizationDeletedEvent.class,
+                DomainEventBus.Delivery.ASYNCHRONOUS);
+
+        organizationService.remove(2);
+
+        Assert.assertTrue(awaitDelivered());
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(2, received.get(0).getOrganizationId());
+    }
+
+    // region Helper Methods
+
+    private void publishBehindOpenTransaction(boolean rollback) throws Exception {
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch complete = new CountDownLatch(1);
+        List<DomainEvent> received = subscribe(DomainEvent.class, DomainEventBus.Delivery.SYNCHRONOUS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> transaction = executor.submit(() -> transactionTemplate.execute(status -> {
+                domainEventBus.publish(new CriteriaAssignedEvent(1, 1, Collections.emptyList()));
+                published.countDown();
+                try {
+                    complete.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                if (rollback) {
+                    status.setRollbackOnly();
+                }
+                return null;
+            }));
+            Assert.assertTrue(published.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            domainEventBus.publish(new CriteriaAssignedEvent(1, 2, Collections.emptyList()));
+            Assert.assertTrue(received.isEmpty());
+
+            complete.countDown();
+            transaction.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <E extends DomainEvent> List<E> subscribe(Class<E> eventType, DomainEventBus.Delivery delivery) {
+        List<E> received = Collections.synchronizedList(new ArrayList<>());
+        subscriptions.add(domainEventBus.subscribe(eventType, delivery, received::add));
+        return received;
+    }
+
+    private boolean awaitDelivered() {
+        try {
+            return domainEventBus.awaitDelivered(TIMEOUT_MILLIS);
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    // endregion
+
+}
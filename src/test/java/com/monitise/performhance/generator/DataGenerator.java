@@ -0,0 +1,371 @@
+package com.monitise.performhance.generator;
+
+import com.monitise.performhance.helpers.ScoreWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Fills an existing schema with synthetic organizations using JDBC batch inserts, bypassing JPA.
+// Generated ids continue after the largest existing ids, so it can be run on a database that already holds data.
+// Reviews are spread over the configured number of days up to now, in the order of their ids. Scores are aggregated
+// while the reviews are generated, so the criteria_score and daily_criteria_score tables are consistent with them.
+// For MySQL, add rewriteBatchedStatements=true to the connection url to send batches as multi-row inserts.
+public class DataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+    private static final String[] NAMES = {"Pelin", "Faruk", "Pelya", "Fatih", "Ahmet", "Ayse", "Mehmet", "Zeynep",
+            "Deniz", "Ece", "Can", "Elif"};
+    private static final String[] SURNAMES = {"Sonmez", "Gulmez", "Petroffski", "Songul", "Yilmaz", "Kaya", "Demir",
+            "Sahin", "Celik", "Arslan"};
+    private static final int MEAN_ABILITY = 70;
+    private static final int ABILITY_DEVIATION = 12;
+    private static final int EVALUATION_DEVIATION = 10;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneratorSettings settings;
+    private final Random random;
+    private final BatchWriter writer;
+
+    private final Batch organizations;
+    private final Batch jobTitles;
+    private final Batch organizationJobTitles;
+    private final Batch criteria;
+    private final Batch organizationCriteria;
+    private final Batch teams;
+    private final Batch organizationTeams;
+    private final Batch users;
+    private final Batch organizationUsers;
+    private final Batch teamMembers;
+    private final Batch userCriteria;
+    private final Batch reviews;
+    private final Batch userReviews;
+    private final Batch evaluations;
+    private final Batch scores;
+    private final Batch dailyScores;
+
+    private int nextOrganizationId;
+    private int nextJobTitleId;
+    private int nextCriteriaId;
+    private int nextTeamId;
+    private int nextUserId;
+    private int nextReviewId;
+    private long generationTime;
+
+    public DataGenerator(JdbcTemplate jdbcTemplate, GeneratorSettings settings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+        random = new Random(settings.getSeed());
+        writer = new BatchWriter(jdbcTemplate, settings.getBatchSize());
+
+        // Batches are flushed in this order, parents before children, so foreign keys are always satisfied.
+        organizations = writer.add("INSERT INTO organization(id, name, number_of_employees) VALUES (?, ?, ?)");
+        jobTitles = writer.add("INSERT INTO job_title(id, title, organization_id) VALUES (?, ?, ?)");
+        organizationJobTitles = writer.add("INSERT INTO organization_job_titles(organization_id, job_titles_id) "
+                + "VALUES (?, ?)");
+        criteria = writer.add("INSERT INTO criteria(id, criteria, organization_id) VALUES (?, ?, ?)");
+        organizationCriteria = writer.add("INSERT INTO organization_criteria_list(organization_id, criteria_list_id) "
+                + "VALUES (?, ?)");
+        teams = writer.add("INSERT INTO team(id, name, organization_id) VALUES (?, ?, ?)");
+        organizationTeams = writer.add("INSERT INTO organization_teams(organization_id, teams_id) VALUES (?, ?)");
+        users = writer.add("INSERT INTO user(id, name, surname, username, password, role, organization_id, "
+                + "job_title_id, team_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        organizationUsers = writer.add("INSERT INTO organization_users(organization_id, users_id) VALUES (?, ?)");
+        teamMembers = writer.add("INSERT INTO team_members(team_id, members_id) VALUES (?, ?)");
+        userCriteria = writer.add("INSERT INTO user_criteria_list(user_id, criteria_list_id) VALUES (?, ?)");
+        reviews = writer.add("INSERT INTO review(id, comment, organization_id, reviewed_employee_id, reviewer_id, "
+                + "team_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        userReviews = writer.add("INSERT INTO user_reviews(user_id, reviews_id) VALUES (?, ?)");
+        evaluations = writer.add("INSERT INTO review_evaluation(review_id, evaluation, evaluation_key) "
+                + "VALUES (?, ?, ?)");
+        scores = writer.add("INSERT INTO criteria_score(user_id, criteria_id, total_score, review_count, min_score, "
+                + "max_score) VALUES (?, ?, ?, ?, ?, ?)");
+        dailyScores = writer.add("INSERT INTO daily_criteria_score(user_id, criteria_id, review_day, total_score, "
+                + "review_count, min_score, max_score) VALUES (?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    // Usage: DataGenerator <jdbc url> [username] [password], with settings given as generator.* system properties.
+    // The schema must exist, e.g. created by starting the application once.
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: DataGenerator <jdbc url> [username] [password]");
+            System.exit(1);
+        }
+        String username = args.length > 1 ? args[1] : null;
+        String password = args.length > 2 ? args[2] : null;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(args[0], username, password));
+        new DataGenerator(jdbcTemplate, GeneratorSettings.fromProperties(System.getProperties())).generate();
+    }
+
+    public List<GeneratedOrganization> generate() {
+        long start = System.currentTimeMillis();
+        generationTime = start;
+        nextOrganizationId = nextId("organization");
+        nextJobTitleId = nextId("job_title");
+        nextCriteriaId = nextId("criteria");
+        nextTeamId = nextId("team");
+        nextUserId = nextId("user");
+        nextReviewId = nextId("review");
+
+        List<GeneratedOrganization> generated = new ArrayList<>();
+        for (int i = 0; i < settings.getOrganizationCount(); i++) {
+            generated.add(generateOrganization());
+        }
+        logger.info("Generated {} organizations with {} reviews in {} ms.", settings.getOrganizationCount(),
+                settings.getReviewCount(), System.currentTimeMillis() - start);
+        return generated;
+    }
+
+    // region Helper Methods
+
+    private GeneratedOrganization generateOrganization() {
+        GeneratedOrganization organization = new GeneratedOrganization(nextOrganizationId++);
+        int organizationId = organization.getId();
+        int userCount = settings.getUsersPerOrganization();
+        writer.insert(organizations, organizationId, "Generated Organization " + organizationId, userCount);
+
+        for (int i = 0; i < settings.getJobTitlesPerOrganization(); i++) {
+            int jobTitleId = nextJobTitleId++;
+            writer.insert(jobTitles, jobTitleId, "Job Title " + i, organizationId);
+            writer.insert(organizationJobTitles, organizationId, jobTitleId);
+            organization.getJobTitleIds().add(jobTitleId);
+        }
+        for (int i = 0; i < settings.getCriteriaPerOrganization(); i++) {
+            int criteriaId = nextCriteriaId++;
+            writer.insert(criteria, criteriaId, "Criteria " + i, organizationId);
+            writer.insert(organizationCriteria, organizationId, criteriaId);
+            organization.getCriteriaIds().add(criteriaId);
+        }
+        for (int i = 0; i < settings.getTeamsPerOrganization(); i++) {
+            int teamId = nextTeamId++;
+            writer.insert(teams, teamId, "Team " + i, organizationId);
+            writer.insert(organizationTeams, organizationId, teamId);
+            organization.getTeamIds().add(teamId);
+            organization.getTeamLeaderIds().add(null);
+            organization.getTeamLeaderUsernames().add(null);
+        }
+
+        int employeeCount = userCount - 1;
+        int[] employeeTeamIds = new int[employeeCount];
+        int[][] employeeCriteriaIds = new int[employeeCount][];
+        generateUsers(organization, employeeTeamIds, employeeCriteriaIds);
+        writer.flush();
+        assignLeadersAndManager(organization);
+        generateReviews(organization, employeeTeamIds, employeeCriteriaIds);
+        writer.flush();
+        return organization;
+    }
+
+    // Fills the team and criteria ids of every employee, in the order of GeneratedOrganization.getEmployeeIds.
+    private void generateUsers(GeneratedOrganization organization, int[] employeeTeamIds,
+                               int[][] employeeCriteriaIds) {
+        int organizationId = organization.getId();
+        ZipfDistribution teamDistribution = new ZipfDistribution(organization.getTeamIds().size(), settings.getSkew());
+        ZipfDistribution titleDistribution = new ZipfDistribution(organization.getJobTitleIds().size(),
+                settings.getSkew());
+        ZipfDistribution criteriaDistribution = new ZipfDistribution(organization.getCriteriaIds().size(),
+                settings.getSkew());
+        int criteriaPerUser = Math.min(settings.getCriteriaPerUser(), organization.getCriteriaIds().size());
+
+        int managerId = nextUserId++;
+        String managerUsername = "org" + organizationId + ".manager";
+        writer.insert(users, managerId, "Manager", "Of " + organizationId, managerUsername, settings.getPassword(),
+                "MANAGER", organizationId, null, null);
+        writer.insert(organizationUsers, organizationId, managerId);
+        organization.setManagerId(managerId);
+        organization.setManagerUsername(managerUsername);
+
+        for (int i = 0; i < employeeTeamIds.length; i++) {
+            int userId = nextUserId++;
+            String username = "org" + organizationId + ".user" + i;
+            int teamIndex = teamDistribution.sample(random);
+            int teamId = organization.getTeamIds().get(teamIndex);
+            int jobTitleId = organization.getJobTitleIds().get(titleDistribution.sample(random));
+            // The first member of a team leads it.
+            String role = "EMPLOYEE";
+            if (organization.getTeamLeaderIds().get(teamIndex) == null) {
+                role = "TEAM_LEADER";
+                organization.getTeamLeaderIds().set(teamIndex, userId);
+                organization.getTeamLeaderUsernames().set(teamIndex, username);
+            }
+            writer.insert(users, userId, NAMES[random.nextInt(NAMES.length)],
+                    SURNAMES[random.nextInt(SURNAMES.length)], username, settings.getPassword(), role,
+                    organizationId, jobTitleId, teamId);
+            writer.insert(organizationUsers, organizationId, userId);
+            writer.insert(teamMembers, teamId, userId);
+            employeeTeamIds[i] = teamId;
+
+            Set<Integer> criteriaIds = new LinkedHashSet<>();
+            while (criteriaIds.size() < criteriaPerUser) {
+                criteriaIds.add(organization.getCriteriaIds().get(criteriaDistribution.sample(random)));
+            }
+            employeeCriteriaIds[i] = new int[criteriaPerUser];
+            int j = 0;
+            for (int criteriaId : criteriaIds) {
+                writer.insert(userCriteria, userId, criteriaId);
+                employeeCriteriaIds[i][j++] = criteriaId;
+            }
+            organization.getEmployeeIds().add(userId);
+            organization.getEmployeeUsernames().add(username);
+            organization.getEmployeeTeamIds().add(teamId);
+            organization.getEmployeeCriteriaIds().add(employeeCriteriaIds[i]);
+        }
+    }
+
+    private void assignLeadersAndManager(GeneratedOrganization organization) {
+        List<Object[]> leaders = new ArrayList<>();
+        for (int i = 0; i < organization.getTeamIds().size(); i++) {
+            Integer leaderId = organization.getTeamLeaderIds().get(i);
+            if (leaderId != null) {
+                leaders.add(new Object[]{leaderId, organization.getTeamIds().get(i)});
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE team SET leader_id = ? WHERE id = ?", leaders);
+        jdbcTemplate.update("UPDATE organization SET manager_id = ? WHERE id = ?", organization.getManagerId(),
+                organization.getId());
+    }
+
+    // A few employees receive most of the reviews, and every employee has an ability their scores center on.
+    private void generateReviews(GeneratedOrganization organization, int[] employeeTeamIds,
+                                 int[][] employeeCriteriaIds) {
+        List<Integer> employeeIds = organization.getEmployeeIds();
+        int employeeCount = employeeIds.size();
+        if (employeeCount < 2) {
+            return;
+        }
+        List<Integer> popularity = new ArrayList<>();
+        int[] abilities = new int[employeeCount];
+        for (int i = 0; i < employeeCount; i++) {
+            popularity.add(i);
+            abilities[i] = clamp(MEAN_ABILITY + (int) (random.nextGaussian() * ABILITY_DEVIATION));
+        }
+        Collections.shuffle(popularity, random);
+        ZipfDistribution reviewedDistribution = new ZipfDistribution(employeeCount, settings.getSkew());
+
+        // Keyed by user and criteria id, the daily ones also by day.
+        Map<Long, int[]> aggregates = new HashMap<>();
+        Map<Long, Map<Date, int[]>> dailyAggregates = new HashMap<>();
+        long reviewCount = (long) employeeCount * settings.getReviewsPerUser();
+        long historyMillis = settings.getHistoryDays() * DAY_MILLIS;
+        for (long n = 0; n < reviewCount; n++) {
+            int reviewedIndex = popularity.get(reviewedDistribution.sample(random));
+            int reviewerIndex = (reviewedIndex + 1 + random.nextInt(employeeCount - 1)) % employeeCount;
+            int reviewedId = employeeIds.get(reviewedIndex);
+            int reviewId = nextReviewId++;
+            Timestamp createdAt = new Timestamp(generationTime - historyMillis
+                    + (long) ((n + random.nextDouble()) * historyMillis / reviewCount));
+            Date day = ScoreWindow.dayOf(createdAt);
+            writer.insert(reviews, reviewId, "Generated review " + reviewId, organization.getId(), reviewedId,
+                    employeeIds.get(reviewerIndex), employeeTeamIds[reviewedIndex], createdAt);
+            writer.insert(userReviews, reviewedId, reviewId);
+            for (int criteriaId : employeeCriteriaIds[reviewedIndex]) {
+                int evaluation = clamp(abilities[reviewedIndex]
+                        + (int) (random.nextGaussian() * EVALUATION_DEVIATION));
+                writer.insert(evaluations, reviewId, evaluation, criteriaId);
+                long key = ((long) reviewedId << 32) | criteriaId;
+                aggregate(aggregates, key, evaluation);
+                aggregate(dailyAggregates.computeIfAbsent(key, dailyKey -> new HashMap<>()), day, evaluation);
+            }
+        }
+
+        for (Map.Entry<Long, int[]> entry : aggregates.entrySet()) {
+            int[] aggregate = entry.getValue();
+            writer.insert(scores, (int) (entry.getKey() >> 32), (int) (long) entry.getKey(), aggregate[0],
+                    aggregate[1], aggregate[2], aggregate[3]);
+        }
+        for (Map.Entry<Long, Map<Date, int[]>> entry : dailyAggregates.entrySet()) {
+            for (Map.Entry<Date, int[]> dayEntry : entry.getValue().entrySet()) {
+                int[] aggregate = dayEntry.getValue();
+                writer.insert(dailyScores, (int) (entry.getKey() >> 32), (int) (long) entry.getKey(),
+                        dayEntry.getKey(), aggregate[0], aggregate[1], aggregate[2], aggregate[3]);
+            }
+        }
+    }
+
+    // Keeps total, count, min and max of the evaluations under a key.
+    private static <K> void aggregate(Map<K, int[]> aggregates, K key, int evaluation) {
+        int[] aggregate = aggregates.get(key);
+        if (aggregate == null) {
+            aggregates.put(key, new int[]{evaluation, 1, evaluation, evaluation});
+            return;
+        }
+        aggregate[0] += evaluation;
+        aggregate[1]++;
+        aggregate[2] = Math.min(aggregate[2], evaluation);
+        aggregate[3] = Math.max(aggregate[3], evaluation);
+    }
+
+    private int nextId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Integer.class);
+    }
+
+    private int clamp(int evaluation) {
+        return Math.max(0, Math.min(100, evaluation));
+    }
+
+    // endregion
+
+    // region Batching
+
+    private static class Batch {
+
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+    }
+
+    // Buffers rows per statement. When any buffer is full all of them are flushed, in the order they were added.
+    private static class BatchWriter {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final int batchSize;
+        private final List<Batch> batches = new ArrayList<>();
+
+        BatchWriter(JdbcTemplate jdbcTemplate, int batchSize) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.batchSize = batchSize;
+        }
+
+        Batch add(String sql) {
+            Batch batch = new Batch(sql);
+            batches.add(batch);
+            return batch;
+        }
+
+        void insert(Batch batch, Object... row) {
+            batch.rows.add(row);
+            if (batch.rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            for (Batch batch : batches) {
+                if (!batch.rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(batch.sql, batch.rows);
+                    batch.rows.clear();
+                }
+            }
+        }
+
+    }
+
+    // endregion
+
+}
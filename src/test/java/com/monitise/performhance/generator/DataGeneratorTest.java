@@ -0,0 +1,165 @@
+package com.monitise.performhance.generator;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.api.model.SimplifiedUser;
+import com.monitise.performhance.entity.CriteriaScore;
+import com.monitise.performhance.entity.Team;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.services.CriteriaScoreService;
+import com.monitise.performhance.services.TeamService;
+import com.monitise.performhance.services.UserService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class DataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+
+    private GeneratorSettings settings;
+
+    @Before
+    public void createSettings() {
+        settings = new GeneratorSettings();
+        settings.setOrganizationCount(2);
+        settings.setUsersPerOrganization(200);
+        settings.setTeamsPerOrganization(5);
+        settings.setJobTitlesPerOrganization(4);
+        settings.setCriteriaPerOrganization(6);
+        settings.setCriteriaPerUser(3);
+        settings.setReviewsPerUser(20);
+    }
+
+    @Test
+    public void generate_counts() {
+        List<GeneratedOrganization> organizations = new DataGenerator(jdbcTemplate, settings).generate();
+
+        Assert.assertEquals(2, organizations.size());
+        // Generated ids continue after the populated data.
+        Assert.assertEquals(4, organizations.get(0).getId());
+        for (GeneratedOrganization organization : organizations) {
+            Assert.assertEquals(199, organization.getEmployeeIds().size());
+            Assert.assertEquals(200, count("SELECT COUNT(*) FROM organization_users WHERE organization_id = ?",
+                    organization.getId()));
+            Assert.assertEquals(199 * 20, count("SELECT COUNT(*) FROM review WHERE organization_id = ?",
+                    organization.getId()));
+        }
+        Assert.assertEquals(settings.getReviewCount(), count("SELECT COUNT(*) FROM user_reviews WHERE reviews_id IN "
+                + "(SELECT id FROM review WHERE organization_id >= 4)"));
+        Assert.assertEquals(settings.getReviewCount() * 3, count("SELECT COUNT(*) FROM review_evaluation WHERE "
+                + "review_id IN (SELECT id FROM review WHERE organization_id >= 4)"));
+    }
+
+    @Test
+    public void generate_isReadableThroughServices() throws BaseException {
+        GeneratedOrganization organization = new DataGenerator(jdbcTemplate, settings).generate().get(0);
+
+        int teamId = organization.getTeamIds().get(0);
+        Team team = teamService.get(teamId);
+        Assert.assertEquals(organization.getTeamLeaderIds().get(0).intValue(), team.getLeader().getId());
+        Assert.assertEquals(Role.TEAM_LEADER, team.getLeader().getRole());
+        List<SimplifiedUser> members = userService.searchUsers(organization.getId(), String.valueOf(teamId),
+                UserService.UNDEFINED, UserService.UNDEFINED, UserService.UNDEFINED);
+        Assert.assertEquals(team.getMembers().size(), members.size());
+
+        User manager = userService.getByUsername(organization.getManagerUsername());
+        Assert.assertEquals(Role.MANAGER, manager.getRole());
+        Assert.assertEquals(manager.getId(), manager.getOrganization().getManager().getId());
+    }
+
+    @Test
+    public void generate_scoresMatchReviews() {
+        GeneratedOrganization organization = new DataGenerator(jdbcTemplate, settings).generate().get(0);
+
+        for (int userId : organization.getEmployeeIds().subList(0, 20)) {
+            Map<Integer, CriteriaScore> scoreMap = criteriaScoreService.getMapByUserId(userId);
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT e.evaluation_key, "
+                    + "SUM(e.evaluation) AS total, COUNT(*) AS times, MIN(e.evaluation) AS lowest, "
+                    + "MAX(e.evaluation) AS highest FROM review r JOIN review_evaluation e ON e.review_id = r.id "
+                    + "WHERE r.reviewed_employee_id = ? GROUP BY e.evaluation_key", userId);
+            Assert.assertEquals(rows.size(), scoreMap.size());
+            for (Map<String, Object> row : rows) {
+                CriteriaScore score = scoreMap.get(((Number) row.get("evaluation_key")).intValue());
+                Assert.assertEquals(((Number) row.get("total")).intValue(), score.getTotalScore());
+                Assert.assertEquals(((Number) row.get("times")).intValue(), score.getReviewCount());
+                Assert.assertEquals(((Number) row.get("lowest")).intValue(), score.getMinScore());
+                Assert.assertEquals(((Number) row.get("highest")).intValue(), score.getMaxScore());
+            }
+        }
+    }
+
+    @Test
+    public void generate_dailyScoresMatchReviews() {
+        settings.setHistoryDays(30);
+        long start = System.currentTimeMillis();
+        GeneratedOrganization organization = new DataGenerator(jdbcTemplate, settings).generate().get(0);
+
+        Assert.assertEquals(0, count("SELECT COUNT(*) FROM review WHERE organization_id = ? AND (created_at IS NULL "
+                + "OR created_at < ? OR created_at > ?)", organization.getId(),
+                new Timestamp(start - 31L * 24 * 60 * 60 * 1000), new Timestamp(System.currentTimeMillis())));
+        // Reviews are spread over the days, not written on one.
+        Assert.assertTrue(count("SELECT COUNT(DISTINCT CAST(created_at AS DATE)) FROM review WHERE "
+                + "organization_id = ?", organization.getId()) >= 30);
+        for (int userId : organization.getEmployeeIds().subList(0, 20)) {
+            List<Map<String, Object>> expected = jdbcTemplate.queryForList("SELECT e.evaluation_key, "
+                    + "CAST(r.created_at AS DATE) AS review_day, SUM(e.evaluation) AS total, COUNT(*) AS times, "
+                    + "MIN(e.evaluation) AS lowest, MAX(e.evaluation) AS highest FROM review r "
+                    + "JOIN review_evaluation e ON e.review_id = r.id WHERE r.reviewed_employee_id = ? "
+                    + "GROUP BY e.evaluation_key, CAST(r.created_at AS DATE) ORDER BY 1, 2", userId);
+            List<Map<String, Object>> actual = jdbcTemplate.queryForList("SELECT criteria_id AS evaluation_key, "
+                    + "review_day, total_score AS total, review_count AS times, min_score AS lowest, "
+                    + "max_score AS highest FROM daily_criteria_score WHERE user_id = ? ORDER BY 1, 2", userId);
+            // Compared as text, since the sums are of a wider type than the columns.
+            Assert.assertEquals(expected.toString(), actual.toString());
+        }
+    }
+
+    @Test
+    public void generate_reviewsAreSkewed() {
+        GeneratedOrganization organization = new DataGenerator(jdbcTemplate, settings).generate().get(0);
+
+        long maxReviews = count("SELECT MAX(c) FROM (SELECT COUNT(*) AS c FROM review WHERE organization_id = ? "
+                + "GROUP BY reviewed_employee_id)", organization.getId());
+        // The most reviewed employee gets far more than the average of 20 reviews.
+        Assert.assertTrue(maxReviews > 10 * settings.getReviewsPerUser());
+    }
+
+    // region Helper Methods
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    // endregion
+
+}
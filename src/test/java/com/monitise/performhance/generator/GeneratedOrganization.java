@@ -0,0 +1,90 @@
+package com.monitise.performhance.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Ids and usernames of a generated organization, so that benchmarks and load drivers can address its data.
+public class GeneratedOrganization {
+
+    private final int id;
+    private int managerId;
+    private String managerUsername;
+    private final List<Integer> employeeIds = new ArrayList<>();
+    private final List<String> employeeUsernames = new ArrayList<>();
+    private final List<Integer> employeeTeamIds = new ArrayList<>();
+    private final List<int[]> employeeCriteriaIds = new ArrayList<>();
+    private final List<Integer> teamIds = new ArrayList<>();
+    private final List<Integer> teamLeaderIds = new ArrayList<>();
+    private final List<String> teamLeaderUsernames = new ArrayList<>();
+    private final List<Integer> jobTitleIds = new ArrayList<>();
+    private final List<Integer> criteriaIds = new ArrayList<>();
+
+    public GeneratedOrganization(int id) {
+        this.id = id;
+    }
+
+    // region Getters & Setters
+
+    public int getId() {
+        return id;
+    }
+
+    public int getManagerId() {
+        return managerId;
+    }
+
+    public void setManagerId(int managerId) {
+        this.managerId = managerId;
+    }
+
+    public String getManagerUsername() {
+        return managerUsername;
+    }
+
+    public void setManagerUsername(String managerUsername) {
+        this.managerUsername = managerUsername;
+    }
+
+    // All users except the manager, including team leaders.
+    public List<Integer> getEmployeeIds() {
+        return employeeIds;
+    }
+
+    public List<String> getEmployeeUsernames() {
+        return employeeUsernames;
+    }
+
+    // Team the employee was generated in, at the same index of getEmployeeIds.
+    public List<Integer> getEmployeeTeamIds() {
+        return employeeTeamIds;
+    }
+
+    // Criteria the employee is evaluated on, at the same index of getEmployeeIds.
+    public List<int[]> getEmployeeCriteriaIds() {
+        return employeeCriteriaIds;
+    }
+
+    public List<Integer> getTeamIds() {
+        return teamIds;
+    }
+
+    // Leader of the team at the same index of getTeamIds, or null if the team has no members.
+    public List<Integer> getTeamLeaderIds() {
+        return teamLeaderIds;
+    }
+
+    public List<String> getTeamLeaderUsernames() {
+        return teamLeaderUsernames;
+    }
+
+    public List<Integer> getJobTitleIds() {
+        return jobTitleIds;
+    }
+
+    public List<Integer> getCriteriaIds() {
+        return criteriaIds;
+    }
+
+    // endregion
+
+}
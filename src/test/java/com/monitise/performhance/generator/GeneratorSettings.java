@@ -0,0 +1,158 @@
+package com.monitise.performhance.generator;
+
+import java.util.Properties;
+
+// Shape of a generated dataset. Every organization gets the same number of users, teams, job titles and criteria;
+// team sizes, job titles and the number of reviews per employee are skewed.
+public class GeneratorSettings {
+
+    private int organizationCount = 1;
+    private int usersPerOrganization = 1000;
+    private int teamsPerOrganization = 20;
+    private int jobTitlesPerOrganization = 10;
+    private int criteriaPerOrganization = 10;
+    private int criteriaPerUser = 5;
+    // Average number of reviews an employee receives.
+    private int reviewsPerUser = 10;
+    // Reviews are written evenly over this many days up to the time of generation.
+    private int historyDays = 365;
+    // Exponent of the Zipf distribution used for skewed choices, 0 means uniform.
+    private double skew = 1.0;
+    private long seed = 42;
+    private int batchSize = 1000;
+    private String password = "123";
+
+    // Reads the settings from properties named like the fields, prefixed with "generator.", e.g. generator.skew.
+    public static GeneratorSettings fromProperties(Properties properties) {
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.organizationCount = getInt(properties, "organizationCount", settings.organizationCount);
+        settings.usersPerOrganization = getInt(properties, "usersPerOrganization", settings.usersPerOrganization);
+        settings.teamsPerOrganization = getInt(properties, "teamsPerOrganization", settings.teamsPerOrganization);
+        settings.jobTitlesPerOrganization = getInt(properties, "jobTitlesPerOrganization",
+                settings.jobTitlesPerOrganization);
+        settings.criteriaPerOrganization = getInt(properties, "criteriaPerOrganization",
+                settings.criteriaPerOrganization);
+        settings.criteriaPerUser = getInt(properties, "criteriaPerUser", settings.criteriaPerUser);
+        settings.reviewsPerUser = getInt(properties, "reviewsPerUser", settings.reviewsPerUser);
+        settings.historyDays = getInt(properties, "historyDays", settings.historyDays);
+        settings.skew = Double.parseDouble(properties.getProperty("generator.skew", String.valueOf(settings.skew)));
+        settings.seed = Long.parseLong(properties.getProperty("generator.seed", String.valueOf(settings.seed)));
+        settings.batchSize = getInt(properties, "batchSize", settings.batchSize);
+        settings.password = properties.getProperty("generator.password", settings.password);
+        return settings;
+    }
+
+    public long getReviewCount() {
+        return (long) organizationCount * (usersPerOrganization - 1) * reviewsPerUser;
+    }
+
+    // region Helper Methods
+
+    private static int getInt(Properties properties, String name, int defaultValue) {
+        return Integer.parseInt(properties.getProperty("generator." + name, String.valueOf(defaultValue)));
+    }
+
+    // endregion
+
+    // region Getters & Setters
+
+    public int getOrganizationCount() {
+        return organizationCount;
+    }
+
+    public void setOrganizationCount(int organizationCount) {
+        this.organizationCount = organizationCount;
+    }
+
+    // Includes the manager of the organization.
+    public int getUsersPerOrganization() {
+        return usersPerOrganization;
+    }
+
+    public void setUsersPerOrganization(int usersPerOrganization) {
+        this.usersPerOrganization = usersPerOrganization;
+    }
+
+    public int getTeamsPerOrganization() {
+        return teamsPerOrganization;
+    }
+
+    public void setTeamsPerOrganization(int teamsPerOrganization) {
+        this.teamsPerOrganization = teamsPerOrganization;
+    }
+
+    public int getJobTitlesPerOrganization() {
+        return jobTitlesPerOrganization;
+    }
+
+    public void setJobTitlesPerOrganization(int jobTitlesPerOrganization) {
+        this.jobTitlesPerOrganization = jobTitlesPerOrganization;
+    }
+
+    public int getCriteriaPerOrganization() {
+        return criteriaPerOrganization;
+    }
+
+    public void setCriteriaPerOrganization(int criteriaPerOrganization) {
+        this.criteriaPerOrganization = criteriaPerOrganization;
+    }
+
+    public int getCriteriaPerUser() {
+        return criteriaPerUser;
+    }
+
+    public void setCriteriaPerUser(int criteriaPerUser) {
+        this.criteriaPerUser = criteriaPerUser;
+    }
+
+    public int getReviewsPerUser() {
+        return reviewsPerUser;
+    }
+
+    public void setReviewsPerUser(int reviewsPerUser) {
+        this.reviewsPerUser = reviewsPerUser;
+    }
+
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    public void setHistoryDays(int historyDays) {
+        this.historyDays = historyDays;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public void setSkew(double skew) {
+        this.skew = skew;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,26 @@
+package com.monitise.performhance.generator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Picks indexes in [0, size) where index k is chosen with a probability proportional to 1 / (k + 1)^exponent.
+public class ZipfDistribution {
+
+    private final double[] cumulativeWeights;
+
+    public ZipfDistribution(int size, double exponent) {
+        cumulativeWeights = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1 / Math.pow(i + 1, exponent);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public int sample(Random random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        return index >= 0 ? index : Math.min(-index - 1, cumulativeWeights.length - 1);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.monitise.performhance.helpers;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import javax.persistence.EntityManagerFactory;
+
+// The test scripts and DataGenerator write rows behind Hibernate's back and reuse ids once the test is rolled back,
+// so the second-level cache and the search index are emptied before every test, and the score distributions and
+// leaderboards are rebuilt from the rows of the test.
+// Registered in META-INF/spring.factories.
+public class CacheEvictingTestExecutionListener extends AbstractTestExecutionListener {
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        ApplicationContext context = testContext.getApplicationContext();
+        for (EntityManagerFactory entityManagerFactory : context.getBeansOfType(EntityManagerFactory.class).values()) {
+            entityManagerFactory.getCache().evictAll();
+        }
+        for (SearchIndex searchIndex : context.getBeansOfType(SearchIndex.class).values()) {
+            searchIndex.clear();
+        }
+        for (ScoreDistributionIndex scoreDistributionIndex : context.getBeansOfType(ScoreDistributionIndex.class)
+                .values()) {
+            scoreDistributionIndex.rebuild();
+        }
+        for (LeaderboardIndex leaderboardIndex : context.getBeansOfType(LeaderboardIndex.class).values()) {
+            leaderboardIndex.rebuild();
+        }
+    }
+
+}
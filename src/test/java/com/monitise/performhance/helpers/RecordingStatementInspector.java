@@ -0,0 +1,37 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.metrics.SessionStatisticsInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the SQL of the statements Hibernate prepares between start and stop, so that tests can look at what the
+// repositories actually run. Registered in the test application.properties, in place of the inspector it extends.
+public class RecordingStatementInspector extends SessionStatisticsInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+    private static boolean recording;
+
+    public static synchronized void start() {
+        STATEMENTS.clear();
+        recording = true;
+    }
+
+    public static synchronized List<String> stop() {
+        recording = false;
+        return new ArrayList<>(STATEMENTS);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (RecordingStatementInspector.class) {
+            if (recording) {
+                STATEMENTS.add(sql);
+            }
+        }
+        return super.inspect(sql);
+    }
+
+}
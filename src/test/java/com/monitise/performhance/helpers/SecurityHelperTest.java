@@ -0,0 +1,120 @@
+package com.monitise.performhance.helpers;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.security.TokenService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.persistence.EntityManagerFactory;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class SecurityHelperTest {
+
+    @Autowired
+    private SecurityHelper securityHelper;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private Statistics statistics;
+
+    @Before
+    public void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @After
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @WithMockUser(username = "google.manager", roles = {"MANAGER"})
+    public void authenticatedUser_lookedUpOncePerRequest() throws BaseException {
+        securityHelper.checkAuthentication(1);
+        Assert.assertTrue(securityHelper.isAuthenticatedUserManager());
+        Assert.assertFalse(securityHelper.isAuthenticatedUserTeamLeader());
+        Assert.assertEquals(1, securityHelper.getAuthenticatedUser().getId());
+        Assert.assertEquals(1, securityHelper.getAuthenticatedPrincipal().getOrganizationId().intValue());
+
+        Assert.assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    @WithMockUser(username = "pelin.sonmez", roles = {"TEAM_LEADER"})
+    public void authenticatedUser_lookedUpAgainInNewRequest() throws BaseException {
+        securityHelper.checkAuthentication(1);
+        Assert.assertEquals(1, statistics.getQueryExecutionCount());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        AuthenticatedPrincipal principal = securityHelper.getAuthenticatedPrincipal();
+        securityHelper.checkAuthentication(1);
+
+        Assert.assertEquals(2, statistics.getQueryExecutionCount());
+        Assert.assertEquals(2, principal.getUserId());
+        Assert.assertEquals(Role.TEAM_LEADER, principal.getRole());
+        Assert.assertEquals(1, principal.getTeamId().intValue());
+    }
+
+    @Test
+    public void tokenAuthenticatedUser_notLookedUp() throws BaseException {
+        AuthenticatedPrincipal pelin = new AuthenticatedPrincipal(2, "pelin.sonmez", Role.TEAM_LEADER, 1, 1);
+        String token = tokenService.issue(pelin).getToken();
+        AuthenticatedPrincipal verified = tokenService.verify(token);
+        SecurityContextHolder.getContext().setAuthentication(tokenService.toAuthentication(verified));
+
+        securityHelper.checkAuthentication(1);
+        Assert.assertTrue(securityHelper.isAuthenticatedUserTeamLeader());
+        Assert.assertTrue(securityHelper.isAuthenticatedWithToken());
+        Assert.assertEquals(1, securityHelper.getAuthenticatedPrincipal().getTeamId().intValue());
+        Assert.assertEquals(0, statistics.getQueryExecutionCount());
+
+        // The entity itself is still available when needed.
+        Assert.assertEquals("Pelin", securityHelper.getAuthenticatedUser().getName());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @WithMockUser(username = "google.manager", roles = {"MANAGER"})
+    public void checkAuthentication_otherOrganization() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.USER_UNAUTHORIZED_ORGANIZATION));
+        securityHelper.checkAuthentication(2);
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.monitise.performhance.metrics;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.MetricsController;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.GlobalExceptionHandler;
+import com.monitise.performhance.repositories.TeamRepository;
+import com.monitise.performhance.repositories.UserRepository;
+import com.monitise.performhance.services.UserService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.TimeUnit;
+
+// The registry is shared by every test of the context, so the tests compare samples before and after a call.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class MetricsTest {
+
+    private static final double DELTA = 0.000001;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+    @Autowired
+    private MetricsController metricsController;
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Test
+    public void serviceCall_shouldBeTimed() throws BaseException {
+        String series = "performhance_service_seconds_count{class=\"UserService\",method=\"get\"}";
+        double before = getSample(series);
+
+        userService.get(2);
+        Assert.assertEquals(before + 1, getSample(series), DELTA);
+    }
+
+    @Test
+    public void repositoryCall_shouldBeTimedByRepository() {
+        String userSeries = "performhance_repository_seconds_count{class=\"UserRepository\",method=\"findOne\"}";
+        String teamSeries = "performhance_repository_seconds_count{class=\"TeamRepository\",method=\"findOne\"}";
+        double usersBefore = getSample(userSeries);
+        double teamsBefore = getSample(teamSeries);
+
+        userRepository.findOne(2);
+        teamRepository.findOne(1);
+        teamRepository.findOne(2);
+        Assert.assertEquals(usersBefore + 1, getSample(userSeries), DELTA);
+        Assert.assertEquals(teamsBefore + 2, getSample(teamSeries), DELTA);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    public void controllerCall_shouldBeTimed() {
+        String series = "performhance_controller_seconds_count{class=\"MetricsController\",method=\"getMetrics\"}";
+        double before = getSample(series);
+
+        metricsController.getMetrics();
+        String text = metricsController.getMetrics();
+        Assert.assertTrue(text.contains(series + " " + (long) (before + 1) + "\n"));
+    }
+
+    @Test
+    public void errorResponse_shouldBeCountedByCode() {
+        String series = "performhance_error_responses_total{code=\"1201\",name=\"USER_ID_DOES_NOT_EXIST\"}";
+        double before = getSample(series);
+
+        globalExceptionHandler.handleBaseException(
+                new BaseException(ResponseCode.USER_ID_DOES_NOT_EXIST, "A user with given ID does not exist."));
+        Assert.assertEquals(before + 1, getSample(series), DELTA);
+    }
+
+    @Test
+    public void timer_shouldWriteCumulativeBuckets() {
+        Timer timer = metricsRegistry.timer("test_seconds", "Durations recorded by MetricsTest.", "case", "buckets");
+        timer.record(TimeUnit.MILLISECONDS.toNanos(1));
+        timer.record(TimeUnit.SECONDS.toNanos(2));
+
+        Assert.assertEquals(0, getSample("test_seconds_bucket{case=\"buckets\",le=\"0.0005\"}"), DELTA);
+        Assert.assertEquals(1, getSample("test_seconds_bucket{case=\"buckets\",le=\"0.001\"}"), DELTA);
+        Assert.assertEquals(1, getSample("test_seconds_bucket{case=\"buckets\",le=\"1\"}"), DELTA);
+        Assert.assertEquals(2, getSample("test_seconds_bucket{case=\"buckets\",le=\"2.5\"}"), DELTA);
+        Assert.assertEquals(2, getSample("test_seconds_bucket{case=\"buckets\",le=\"+Inf\"}"), DELTA);
+        Assert.assertEquals(2, getSample("test_seconds_count{case=\"buckets\"}"), DELTA);
+        Assert.assertEquals(2.001, getSample("test_seconds_sum{case=\"buckets\"}"), DELTA);
+    }
+
+    @Test
+    public void gauges_shouldReadPoolAndIngestion() {
+        String text = metricsRegistry.write();
+
+        Assert.assertTrue(text.contains("# TYPE performhance_jdbc_connections_active gauge\n"));
+        Assert.assertTrue(getSample("performhance_jdbc_connections_max{pool=\"dataSource\"}") > 0);
+        Assert.assertEquals(0, getSample("performhance_review_ingestion_queue_depth"), DELTA);
+    }
+
+    // region Helper Methods
+
+    // Value of the series in the written metrics, zero if it is not there yet.
+    private double getSample(String series) {
+        for (String line : metricsRegistry.write().split("\n")) {
+            if (line.startsWith(series + " ")) {
+                return Double.parseDouble(line.substring(series.length() + 1));
+            }
+        }
+        return 0;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,170 @@
+package com.monitise.performhance.metrics;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.SessionStatisticsController;
+import com.monitise.performhance.api.UserController;
+import com.monitise.performhance.api.model.SessionStatisticsResponse;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.repositories.UserRepository;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+// Requests are simulated by calling the interceptor around the work a handler would do.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class SessionStatisticsTest {
+
+    @Autowired
+    private SessionStatisticsInterceptor sessionStatisticsInterceptor;
+    @Autowired
+    private SessionStatisticsRegistry sessionStatisticsRegistry;
+    @Autowired
+    private SessionStatisticsProperties sessionStatisticsProperties;
+    @Autowired
+    private SessionStatisticsController sessionStatisticsController;
+    @Autowired
+    private UserController userController;
+    @Autowired
+    private UserRepository userRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private HandlerMethod handler;
+
+    @Before
+    public void setUp() throws NoSuchMethodException {
+        sessionStatisticsRegistry.reset();
+        sessionStatisticsProperties.setRepeatedQueryThreshold(5);
+        handler = new HandlerMethod(userController, UserController.class.getMethod("get", int.class));
+    }
+
+    @After
+    public void restoreProperties() {
+        sessionStatisticsProperties.setRepeatedQueryThreshold(10);
+    }
+
+    @Test
+    public void collectionReadPerElement_shouldBeFlagged() {
+        preHandle();
+        List<User> users = userRepository.findAll();
+        for (User user : users) {
+            user.getCriteriaList().size();
+        }
+        afterCompletion();
+
+        HandlerStatistics statistics = getStatistics();
+        Assert.assertEquals(1, statistics.getRequests());
+        Assert.assertEquals(users.size() + 1, statistics.getStatements());
+        Assert.assertEquals(users.size(), statistics.getCollectionsFetched());
+        Assert.assertTrue(statistics.getEntitiesLoaded() >= users.size());
+        Assert.assertEquals(1, statistics.getFlaggedRequests());
+        Assert.assertEquals(users.size(), statistics.getRepeatedQueryCount());
+        Assert.assertTrue(statistics.getRepeatedQuery().contains("user_criteria_list"));
+    }
+
+    @Test
+    public void fewRepeatedQueries_shouldNotBeFlagged() {
+        preHandle();
+        for (int userId = 2; userId <= 5; userId++) {
+            userRepository.findOne(userId);
+        }
+        afterCompletion();
+
+        HandlerStatistics statistics = getStatistics();
+        Assert.assertEquals(4, statistics.getStatements());
+        Assert.assertEquals(4, statistics.getEntitiesLoaded());
+        Assert.assertEquals(0, statistics.getFlaggedRequests());
+        Assert.assertNull(statistics.getRepeatedQuery());
+    }
+
+    @Test
+    public void flush_shouldBeCounted() {
+        preHandle();
+        User user = userRepository.findOne(2);
+        user.setName("Renamed");
+        entityManager.flush();
+        afterCompletion();
+
+        HandlerStatistics statistics = getStatistics();
+        Assert.assertEquals(1, statistics.getFlushes());
+        Assert.assertEquals(2, statistics.getStatements());
+    }
+
+    @Test
+    public void workOutsideRequest_shouldNotBeCounted() {
+        userRepository.findOne(2);
+        afterCompletion();
+
+        Assert.assertTrue(sessionStatisticsRegistry.getAll().isEmpty());
+    }
+
+    @Test
+    public void statementShape_shouldFoldLiteralsAndParameterLists() {
+        String shape = "select * from user where id in (?) and name = ? limit ?";
+        Assert.assertEquals(shape,
+                SessionStatistics.getShape("select * from user  where id in (?, ?, ?) and name = 'a''b' limit 10"));
+        Assert.assertEquals(shape,
+                SessionStatistics.getShape("select * from user where id in (?) and name = '' limit 5"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    public void getStatistics_shouldListHandlers() {
+        preHandle();
+        userRepository.findOne(2);
+        afterCompletion();
+
+        List<SessionStatisticsResponse> responses = sessionStatisticsController.getStatistics().getData();
+        Assert.assertEquals(1, responses.size());
+        Assert.assertEquals("UserController.get", responses.get(0).getHandler());
+        Assert.assertEquals(1, responses.get(0).getRequests());
+
+        sessionStatisticsController.reset();
+        Assert.assertTrue(sessionStatisticsController.getStatistics().getData().isEmpty());
+    }
+
+    // region Helper Methods
+
+    private void preHandle() {
+        sessionStatisticsInterceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler);
+    }
+
+    private void afterCompletion() {
+        sessionStatisticsInterceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler, null);
+    }
+
+    private HandlerStatistics getStatistics() {
+        List<HandlerStatistics> statisticsList = sessionStatisticsRegistry.getAll();
+        Assert.assertEquals(1, statisticsList.size());
+        Assert.assertEquals("UserController.get", statisticsList.get(0).getHandler());
+        return statisticsList.get(0);
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,232 @@
+package com.monitise.performhance.repositories;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.entity.Organization;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.RecordingStatementInspector;
+import com.monitise.performhance.services.ReviewService;
+import com.monitise.performhance.services.TeamService;
+import com.monitise.performhance.services.UserService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Every statement that Hibernate runs for the repository queries below is explained by H2 and must reach its rows
+// through an index. Queries that read whole tables on purpose, like findAll or the search index rebuild, are not
+// checked, and of the JDBC statements of the custom repositories only the ones shared with this test.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class QueryPlanTest {
+
+    // H2 writes the access path of each table as a comment, which lists the index conditions unless it is a scan.
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* (PUBLIC\\.[\\w.]+) \\*/");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private CriteriaScoreRepository criteriaScoreRepository;
+    @Autowired
+    private DailyCriteriaScoreRepository dailyCriteriaScoreRepository;
+    @Autowired
+    private CriteriaRepository criteriaRepository;
+    @Autowired
+    private JobTitleRepository jobTitleRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private ReviewService reviewService;
+
+    @Test
+    public void reviewQueries_shouldUseIndexes() {
+        assertNoFullScan(() -> {
+            reviewRepository.findOne(1);
+            reviewRepository.findByOrganizationId(1);
+            reviewRepository.findByTeamId(1);
+            reviewRepository.findByReviewerId(1);
+            reviewRepository.findByReviewedEmployeeId(1);
+            reviewRepository.countByReviewedEmployeeId(1);
+            reviewRepository.findCommentsByReviewedEmployeeId(1);
+            reviewRepository.findMinEvaluationExcludingReview(1, 1, 1);
+            reviewRepository.findMaxEvaluationExcludingReview(1, 1, 1);
+        });
+    }
+
+    @Test
+    public void userQueries_shouldUseIndexes() {
+        assertNoFullScan(() -> {
+            userRepository.findOne(1);
+            userRepository.findByUsername("faruk");
+            userRepository.findByOrganizationId(1);
+            userRepository.findAllByTeamIdSelectUserId(1);
+            userRepository.findAllByJobTitleIdSelectUserId(1);
+            userRepository.findAllByCriteriaIdSelectUserId(1);
+            userRepository.findAllByCriteriaIdAndUserIdInSelectUserId(1, Arrays.asList(1, 2));
+            userRepository.findAllByIdInSelectOrganizationId(Arrays.asList(1, 2));
+            userRepository.findAllByOrganizationIdSelectName(1);
+            userRepository.removeReviewFromUser(1);
+            userRepository.addReviewToUser(1, 1);
+        });
+    }
+
+    @Test
+    public void teamQueries_shouldUseIndexes() {
+        assertNoFullScan(() -> {
+            teamRepository.findOne(1);
+            teamRepository.findByOrganizationId(1);
+            teamRepository.findAllByIdInSelectMembers(Arrays.asList(1, 2));
+            teamRepository.findAllByOrganizationIdSelectName(1);
+        });
+    }
+
+    @Test
+    public void criteriaQueries_shouldUseIndexes() {
+        assertNoFullScan(() -> {
+            Organization organization = organizationRepository.findOne(1);
+            organizationRepository.findByName("Google");
+            criteriaRepository.findByOrganizationId(1);
+            criteriaRepository.findByOrganizationAndCriteria(organization, "Manners");
+            jobTitleRepository.findByTitleAndOrganizationId("ios dev", 1);
+            criteriaScoreRepository.findByUserId(1);
+            criteriaScoreRepository.findByUserIdForUpdate(1);
+            criteriaScoreRepository.deleteByUserId(1);
+            criteriaScoreRepository.deleteByCriteriaId(1);
+        });
+    }
+
+    @Test
+    public void windowQueries_shouldUseIndexes() {
+        Date start = new Date(0);
+        Date end = new Date();
+        assertIndexUsed("idx_review_reviewed_employee_id_created_at", () -> {
+            reviewRepository.countByReviewedEmployeeIdAndCreatedAtBetween(1, start, end);
+            reviewRepository.findCommentsByReviewedEmployeeIdAndCreatedAtBetween(1, start, end);
+            reviewRepository.findMinEvaluationBetweenExcludingReview(1, start, end, 1, 1);
+            reviewRepository.findMaxEvaluationBetweenExcludingReview(1, start, end, 1, 1);
+        });
+        // Either the index on employee and day or the unique key on employee, criteria and day, both from V4.
+        assertIndexUsed("daily_criteria_score_user_id", () -> {
+            dailyCriteriaScoreRepository.findByUserIdAndReviewDayInForUpdate(1, Arrays.asList(start, end));
+            dailyCriteriaScoreRepository.sumByUserIdAndReviewDayBetween(1, start, end);
+        });
+        assertNoFullScan(() -> {
+            dailyCriteriaScoreRepository.deleteByUserId(1);
+            dailyCriteriaScoreRepository.deleteByCriteriaId(1);
+        });
+    }
+
+    @Test
+    public void ingestionQueries_shouldUseIndexes() {
+        assertIndexUsed("idx_review_ingestion_sequence", ReviewRepositoryImpl.findExistingIngestionSequencesSql(2),
+                ReviewRepositoryImpl.findReviewIdsBySequenceSql(2));
+        assertNoFullScan(() -> teamRepository.findAllByIdInSelectId(Arrays.asList(1, 2)));
+    }
+
+    @Test
+    public void pageQueries_shouldUseIndexes() {
+        assertNoFullScan(() -> {
+            try {
+                String cursor = userService.getPageByOrganizationId(1, null, 1, "id").getNextCursor();
+                userService.getPageByOrganizationId(1, cursor, 10, "id");
+                cursor = teamService.getPageFilterByOrganizationId(1, null, 1, "name").getNextCursor();
+                teamService.getPageFilterByOrganizationId(1, cursor, 10, "name");
+                cursor = reviewService.getPageFilterByOrganizationId(1, null, 1, "id").getNextCursor();
+                reviewService.getPageFilterByOrganizationId(1, cursor, 10, "id");
+                reviewService.getPageFilterByTeamId(1, null, 10, "id");
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+    }
+
+    // region Helper Methods
+
+    // Returns the plans of the statements.
+    private List<String> assertNoFullScan(Runnable queries) {
+        entityManager.clear();
+        List<String> statements;
+        RecordingStatementInspector.start();
+        try {
+            queries.run();
+            entityManager.flush();
+        } finally {
+            statements = RecordingStatementInspector.stop();
+        }
+
+        return explainWithoutFullScan(statements);
+    }
+
+    // Also checks that every statement reads through an index whose name contains the given one.
+    private void assertIndexUsed(String index, Runnable queries) {
+        assertIndexUsed(index, assertNoFullScan(queries));
+    }
+
+    // For the JDBC statements of the custom repositories, which the inspector does not see.
+    private void assertIndexUsed(String index, String... statements) {
+        assertIndexUsed(index, explainWithoutFullScan(Arrays.asList(statements)));
+    }
+
+    private void assertIndexUsed(String index, List<String> plans) {
+        for (String plan : plans) {
+            Assert.assertTrue(index + " is not used in:\n" + plan, plan.toLowerCase().contains(index));
+        }
+    }
+
+    private List<String> explainWithoutFullScan(List<String> statements) {
+        Assert.assertFalse(statements.isEmpty());
+        List<String> plans = new ArrayList<>();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher fullScan = FULL_SCAN.matcher(plan);
+            if (fullScan.find()) {
+                Assert.fail("Full scan of " + fullScan.group(1) + " in:\n" + plan);
+            }
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    // The plan does not depend on the parameter values, so every parameter is given the same one.
+    private String explain(String sql) {
+        Object[] parameters = new Object[sql.replaceAll("[^?]", "").length()];
+        Arrays.fill(parameters, 1);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,133 @@
+package com.monitise.performhance.security;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.AuthenticatedPrincipal;
+import com.monitise.performhance.helpers.CustomMatcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+public class TokenServiceTest {
+
+    private static final AuthenticatedPrincipal PELIN =
+            new AuthenticatedPrincipal(2, "pelin.sonmez", Role.TEAM_LEADER, 1, 1);
+
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private TokenProperties tokenProperties;
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @After
+    public void restoreProperties() {
+        tokenProperties.setActiveKey("current");
+        tokenProperties.setExpirySeconds(3600);
+        tokenProperties.getKeys().clear();
+        tokenProperties.getKeys().put("current", "test-current-key");
+        tokenProperties.getKeys().put("previous", "test-previous-key");
+    }
+
+    @Test
+    public void verify_issuedToken() throws BaseException {
+        String token = tokenService.issue(PELIN).getToken();
+        AuthenticatedPrincipal principal = tokenService.verify(token);
+
+        Assert.assertEquals(2, principal.getUserId());
+        Assert.assertEquals("pelin.sonmez", principal.getUsername());
+        Assert.assertEquals(Role.TEAM_LEADER, principal.getRole());
+        Assert.assertEquals(1, principal.getOrganizationId().intValue());
+        Assert.assertEquals(1, principal.getTeamId().intValue());
+    }
+
+    @Test
+    public void verify_withoutOrganizationAndTeam() throws BaseException {
+        AuthenticatedPrincipal admin = new AuthenticatedPrincipal(10, "admin:root", Role.ADMIN, null, null);
+        AuthenticatedPrincipal principal = tokenService.verify(tokenService.issue(admin).getToken());
+
+        Assert.assertEquals("admin:root", principal.getUsername());
+        Assert.assertNull(principal.getOrganizationId());
+        Assert.assertNull(principal.getTeamId());
+    }
+
+    @Test
+    public void verify_signedWithPreviousKey() throws BaseException {
+        tokenProperties.setActiveKey("previous");
+        String token = tokenService.issue(PELIN).getToken();
+        tokenProperties.setActiveKey("current");
+
+        Assert.assertTrue(token.startsWith("previous."));
+        Assert.assertEquals(2, tokenService.verify(token).getUserId());
+    }
+
+    @Test
+    public void verify_tamperedPayload() throws BaseException {
+        String token = tokenService.issue(PELIN).getToken();
+        String[] parts = token.split("\\.");
+        String forgedToken = tokenService.issue(new AuthenticatedPrincipal(2, "pelin.sonmez", Role.MANAGER, 1, 1))
+                .getToken().split("\\.")[1];
+
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.TOKEN_INVALID));
+        tokenService.verify(parts[0] + "." + forgedToken + "." + parts[2]);
+    }
+
+    @Test
+    public void verify_unknownKey() throws BaseException {
+        String token = tokenService.issue(PELIN).getToken();
+
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.TOKEN_INVALID));
+        tokenService.verify(token.replaceFirst("current", "removed"));
+    }
+
+    @Test
+    public void verify_malformed() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.TOKEN_INVALID));
+        tokenService.verify("not-a-token");
+    }
+
+    @Test
+    public void verify_expired() throws BaseException {
+        tokenProperties.setExpirySeconds(0);
+        String token = tokenService.issue(PELIN).getToken();
+
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.TOKEN_EXPIRED));
+        tokenService.verify(token);
+    }
+
+    @Test
+    public void ensureActiveKey_withoutKeys_shouldGenerateOne() throws BaseException {
+        tokenProperties.setActiveKey(null);
+        tokenProperties.getKeys().clear();
+        tokenService.ensureActiveKey();
+
+        Assert.assertNotNull(tokenProperties.getActiveKey());
+        Assert.assertEquals(2, tokenService.verify(tokenService.issue(PELIN).getToken()).getUserId());
+    }
+
+    @Test
+    public void ensureActiveKey_withUnknownActiveKey_shouldFail() {
+        tokenProperties.setActiveKey("missing");
+
+        thrown.expect(IllegalStateException.class);
+        tokenService.ensureActiveKey();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.CriteriaScore;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.repositories.UserRepository;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Concurrent reviews commit in transactions of their own, so the tests are not transactional.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+public class CriteriaScoreConcurrencyTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+    // Forgan has a criteria but no reviews, so the first review creates the scores.
+    private static final int EMPLOYEE_ID = 9;
+    private static final int REVIEWER_ID = 8;
+
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void add_concurrentFirstReviews_shouldBothBeCounted() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        Future<?> first = executor.submit(() -> addReview(40, () -> {
+            firstLocked.countDown();
+            await(releaseFirst);
+        }));
+        Assert.assertTrue(firstLocked.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        Future<?> second = executor.submit(() -> addReview(80, () -> { }));
+        try {
+            second.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("The second review should wait for the first one to commit.");
+        } catch (TimeoutException expected) {
+            // Blocked on the row of the employee, before writing anything.
+        }
+        releaseFirst.countDown();
+        first.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        second.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        Map<Integer, CriteriaScore> scoreMap = criteriaScoreService.getMapByUserId(EMPLOYEE_ID);
+        Assert.assertEquals(1, scoreMap.size());
+        CriteriaScore score = scoreMap.values().iterator().next();
+        Assert.assertEquals(120, score.getTotalScore());
+        Assert.assertEquals(2, score.getReviewCount());
+        Assert.assertEquals(40, score.getMinScore());
+        Assert.assertEquals(80, score.getMaxScore());
+    }
+
+    // region Helper Methods
+
+    // Adds a review evaluating every criteria of the employee, and runs beforeCommit once the review is written.
+    private void addReview(int value, Runnable beforeCommit) {
+        transactionTemplate.execute(status -> {
+            User employee = userRepository.findOne(EMPLOYEE_ID);
+            Map<Criteria, Integer> evaluation = new HashMap<>();
+            for (Criteria criteria : employee.getCriteriaList()) {
+                evaluation.put(criteria, value);
+            }
+            try {
+                reviewService.add(new Review(employee, userRepository.findOne(REVIEWER_ID), evaluation, "Solid."));
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+            beforeCommit.run();
+            return null;
+        });
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            Assert.assertTrue(latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,132 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.CriteriaScore;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.ScoreWindow;
+import com.monitise.performhance.repositories.DailyCriteriaScoreRepository;
+import com.monitise.performhance.repositories.UserRepository;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class CriteriaScoreServiceTest {
+
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DailyCriteriaScoreRepository dailyCriteriaScoreRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void getMapByUserId() {
+        Map<Integer, CriteriaScore> scoreMap = criteriaScoreService.getMapByUserId(2);
+        Assert.assertEquals(2, scoreMap.size());
+        scoreCheck(scoreMap.get(1), 185, 2, 90, 95);
+        scoreCheck(scoreMap.get(3), 180, 2, 90, 90);
+    }
+
+    @Test
+    public void getMapByUserId_noReviews() {
+        Map<Integer, CriteriaScore> scoreMap = criteriaScoreService.getMapByUserId(5);
+        Assert.assertTrue(scoreMap.isEmpty());
+    }
+
+    @Test
+    public void addReview_shouldUpdateScores() throws BaseException {
+        User pelin = userRepository.findOne(2);
+        User pelya = userRepository.findOne(4);
+        Map<Criteria, Integer> evaluationMap = new HashMap<>();
+        List<Criteria> pelyaCriteria = pelya.getCriteriaList();
+        for (Criteria criteria : pelyaCriteria) {
+            evaluationMap.put(criteria, 40);
+        }
+        reviewService.add(new Review(pelya, pelin, evaluationMap, "Needs to focus."));
+
+        Map<Integer, CriteriaScore> scoreMap = criteriaScoreService.getMapByUserId(4);
+        Assert.assertEquals(4, scoreMap.size());
+        scoreCheck(scoreMap.get(1), 120, 2, 40, 80);
+        scoreCheck(scoreMap.get(2), 140, 2, 40, 100);
+        scoreCheck(scoreMap.get(3), 137, 2, 40, 97);
+        scoreCheck(scoreMap.get(4), 140, 2, 40, 100);
+    }
+
+    @Test
+    public void removeReview_shouldRecomputeMinAndMax() throws BaseException {
+        // Review 1 holds the maximum Manners score of Pelin.
+        reviewService.remove(1);
+
+        Map<Integer, CriteriaScore> scoreMap = criteriaScoreService.getMapByUserId(2);
+        scoreCheck(scoreMap.get(1), 90, 1, 90, 90);
+        scoreCheck(scoreMap.get(3), 90, 1, 90, 90);
+    }
+
+    @Test
+    public void removeReview_lastReview_shouldRemoveScores() throws BaseException {
+        reviewService.remove(4);
+        Assert.assertTrue(criteriaScoreService.getMapByUserId(4).isEmpty());
+    }
+
+    @Test
+    public void removeReview_lastReviewWithStaleCounts_shouldRemoveScores() throws BaseException {
+        User forgan = userRepository.findOne(9);
+        Map<Criteria, Integer> evaluationMap = new HashMap<>();
+        for (Criteria criteria : forgan.getCriteriaList()) {
+            evaluationMap.put(criteria, 70);
+        }
+        Review review = reviewService.add(new Review(forgan, userRepository.findOne(8), evaluationMap, "Steady."));
+        // Counts that are off by one leave no other evaluation to recompute min and max from.
+        jdbcTemplate.update("UPDATE criteria_score SET review_count = review_count + 1 WHERE user_id = 9");
+        jdbcTemplate.update("UPDATE daily_criteria_score SET review_count = review_count + 1 WHERE user_id = 9");
+        entityManager.clear();
+
+        reviewService.remove(review.getId());
+
+        Assert.assertTrue(criteriaScoreService.getMapByUserId(9).isEmpty());
+        Assert.assertTrue(dailyCriteriaScoreRepository.findByUserIdAndReviewDayInForUpdate(9,
+                Collections.singletonList(ScoreWindow.dayOf(review.getCreatedAt()))).isEmpty());
+    }
+
+    private void scoreCheck(CriteriaScore score, int totalScore, int reviewCount, int minScore, int maxScore) {
+        Assert.assertNotNull(score);
+        Assert.assertEquals(totalScore, score.getTotalScore());
+        Assert.assertEquals(reviewCount, score.getReviewCount());
+        Assert.assertEquals(minScore, score.getMinScore());
+        Assert.assertEquals(maxScore, score.getMaxScore());
+        Assert.assertEquals(totalScore / reviewCount, score.getAverageScore());
+    }
+
+}
@@ -17,6 +17,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -47,6 +48,8 @@ public class CriteriaServiceTest {
     private UserRepository userRepository;
     @Autowired
     private TeamRepository teamRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     public void getAllFilterByOrganizationId() throws BaseException {
@@ -131,6 +134,51 @@ public class CriteriaServiceTest {
         criteriaService.assignCriteriaToUserList(3, idList);
     }
 
+    @Test
+    public void assignCriteriaToUserList_someUsersHaveCriteria_shouldReturnThem() throws BaseException {
+        List<Integer> idList = new ArrayList();
+        idList.add(2);
+        idList.add(3);
+        idList.add(4);
+        idList.add(5);
+        ArrayList<Integer> existingUserList = criteriaService.assignCriteriaToUserList(3, idList);
+
+        Assert.assertEquals("[2, 4]", existingUserList.toString());
+        Assert.assertTrue(listContainsCriteria(userRepository.findOne(3).getCriteriaList(), 3, 1, "Code Coverage"));
+        Assert.assertTrue(listContainsCriteria(userRepository.findOne(5).getCriteriaList(), 3, 1, "Code Coverage"));
+    }
+
+    @Test
+    public void assignCriteriaToUserList_loadedUser_shouldSeeCriteria() throws BaseException {
+        User faruk = userRepository.findOne(3);
+        Assert.assertEquals(2, faruk.getCriteriaList().size());
+        List<Integer> idList = new ArrayList();
+        idList.add(3);
+        criteriaService.assignCriteriaToUserList(3, idList);
+
+        Assert.assertEquals(3, userRepository.findOne(3).getCriteriaList().size());
+    }
+
+    @Test
+    public void assignCriteriaToJobTitle_largeJobTitle_shouldAssignAll() throws BaseException {
+        final int USER_COUNT = 2000;
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(new Object[]{"Bulk", "User", "bulk.user." + i, 1, 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user(name, surname, username, role, job_title_id, organization_id) "
+                + "VALUES (?, ?, ?, 'EMPLOYEE', ?, ?)", users);
+        final int TEST_CRITERIA_ID = addTestCriteria(1);
+
+        ArrayList<Integer> existingUserList = criteriaService.assignCriteriaToJobTitle(TEST_CRITERIA_ID, 1);
+        Assert.assertTrue(existingUserList.isEmpty());
+        // Pelin and Fatih have job title 1 as well.
+        Assert.assertEquals(USER_COUNT + 2, userRepository.findAllByCriteriaIdSelectUserId(TEST_CRITERIA_ID).size());
+
+        existingUserList = criteriaService.assignCriteriaToJobTitle(TEST_CRITERIA_ID, 1);
+        Assert.assertEquals(USER_COUNT + 2, existingUserList.size());
+    }
+
     @Test
     public void assignCriteriaToTeam() throws BaseException {
         final int TEST_CRITERIA_ID = addTestCriteria(1);
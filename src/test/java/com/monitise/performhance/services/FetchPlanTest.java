@@ -0,0 +1,196 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.OrganizationResponse;
+import com.monitise.performhance.api.model.ReviewResponse;
+import com.monitise.performhance.api.model.SimplifiedReview;
+import com.monitise.performhance.api.model.SimplifiedTeam;
+import com.monitise.performhance.api.model.SimplifiedUser;
+import com.monitise.performhance.api.model.TeamResponse;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.generator.DataGenerator;
+import com.monitise.performhance.generator.GeneratedOrganization;
+import com.monitise.performhance.generator.GeneratorSettings;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+// List responses of a generated organization must be built with the same number of statements,
+// however many users, teams and reviews they contain. Projected lists must not load any entities.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class FetchPlanTest {
+
+    private static final String UNDEFINED = UserService.UNDEFINED;
+    private static final int USER_COUNT = 300;
+    private static final int TEAM_COUNT = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private OrganizationService organizationService;
+
+    private GeneratedOrganization organization;
+    private Statistics statistics;
+
+    @Before
+    public void generateOrganization() {
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.setUsersPerOrganization(USER_COUNT);
+        settings.setTeamsPerOrganization(TEAM_COUNT);
+        settings.setJobTitlesPerOrganization(5);
+        settings.setCriteriaPerOrganization(6);
+        settings.setCriteriaPerUser(3);
+        settings.setReviewsPerUser(5);
+        organization = new DataGenerator(jdbcTemplate, settings).generate().get(0);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void usersPage() throws BaseException {
+        startCounting();
+        List<SimplifiedUser> users =
+                userService.getPageByOrganizationId(organization.getId(), null, 500, "id").getContent();
+
+        Assert.assertEquals(USER_COUNT, users.size());
+        Assert.assertNotNull(users.get(1).getTeamName());
+        Assert.assertNotNull(users.get(1).getJobTitle());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        assertNoEntitiesLoaded();
+    }
+
+    @Test
+    public void userSearch() {
+        startCounting();
+        List<SimplifiedUser> users =
+                userService.searchUsers(organization.getId(), UNDEFINED, UNDEFINED, UNDEFINED, UNDEFINED);
+
+        Assert.assertEquals(USER_COUNT, users.size());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        assertNoEntitiesLoaded();
+    }
+
+    @Test
+    public void teamSearch() {
+        startCounting();
+        List<TeamResponse> teams = teamService.searchTeams(organization.getId(), TeamService.UNDEFINED);
+
+        Assert.assertEquals(TEAM_COUNT, teams.size());
+        int memberCount = 0;
+        for (TeamResponse team : teams) {
+            Assert.assertNotNull(team.getLeader());
+            memberCount += team.getMembers().size();
+        }
+        Assert.assertEquals(USER_COUNT - 1, memberCount);
+        // The teams, then the members of all teams.
+        Assert.assertEquals(2, statistics.getPrepareStatementCount());
+        assertNoEntitiesLoaded();
+    }
+
+    @Test
+    public void teamsPage() throws BaseException {
+        startCounting();
+        List<SimplifiedTeam> teams =
+                teamService.getPageFilterByOrganizationId(organization.getId(), null, 50, "id").getContent();
+
+        Assert.assertEquals(TEAM_COUNT, teams.size());
+        Assert.assertNotNull(teams.get(0).getLeaderName());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        assertNoEntitiesLoaded();
+    }
+
+    @Test
+    public void reviewsPage() throws BaseException {
+        startCounting();
+        List<SimplifiedReview> reviews =
+                reviewService.getPageFilterByOrganizationId(organization.getId(), null, 500, "id").getContent();
+
+        Assert.assertEquals(500, reviews.size());
+        // The organization is checked first.
+        Assert.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void reviewsOfUser() {
+        int userId = mostReviewedEmployeeId();
+        startCounting();
+        List<ReviewResponse> reviews = ReviewResponse.fromReviewList(reviewService.getByReviewedUserId(userId));
+
+        Assert.assertTrue(reviews.size() > 1);
+        Assert.assertEquals(3, reviews.get(0).getEvaluation().size());
+        // The reviews, then the criteria of the evaluations.
+        Assert.assertTrue(statistics.getPrepareStatementCount() <= 1 + 3);
+    }
+
+    @Test
+    public void organizationDetails() throws BaseException {
+        startCounting();
+        OrganizationResponse response =
+                OrganizationResponse.fromOrganization(organizationService.getWithDetails(organization.getId()));
+
+        Assert.assertEquals(USER_COUNT, response.getUsers().size());
+        Assert.assertEquals(TEAM_COUNT, response.getTeams().size());
+        // The organization, its users, its teams and the three collections of the organization.
+        Assert.assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
+    // region Helper Methods
+
+    private void startCounting() {
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private void assertNoEntitiesLoaded() {
+        Assert.assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private int mostReviewedEmployeeId() {
+        return jdbcTemplate.queryForObject("SELECT reviewed_employee_id FROM review WHERE organization_id = ? "
+                + "GROUP BY reviewed_employee_id ORDER BY COUNT(*) DESC LIMIT 1", Integer.class, organization.getId());
+    }
+
+    // endregion
+
+}
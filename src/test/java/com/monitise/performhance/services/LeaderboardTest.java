@@ -0,0 +1,202 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.LeaderboardEntry;
+import com.monitise.performhance.api.model.LeaderboardResponse;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.CustomMatcher;
+import com.monitise.performhance.helpers.Leaderboard;
+import com.monitise.performhance.repositories.UserRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The leaderboards follow reviews and team changes through events delivered after commit, so the tests are not
+// transactional.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+public class LeaderboardTest {
+
+    private static final double DELTA = 0.0001;
+    private static final int MANNERS_ID = 1;
+    private static final int PELIN_ID = 2;
+    private static final int FARUK_ID = 3;
+    private static final int PELYA_ID = 4;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private CriteriaService criteriaService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void getByOrganizationId_top_shouldRankByAverageScore() throws BaseException {
+        // Manners averages are 92.5 for Pelin, 80 for Pelya and 20 for Faruk.
+        List<LeaderboardEntry> entries = getMannersOfOrganization(10, LeaderboardService.TOP);
+
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals(PELIN_ID, entries.get(0).getUserId());
+        Assert.assertEquals(1, entries.get(0).getRank());
+        Assert.assertEquals("Pelin", entries.get(0).getName());
+        Assert.assertEquals(92.5, entries.get(0).getAverageScore(), DELTA);
+        Assert.assertEquals(2, entries.get(0).getReviewCount());
+        Assert.assertEquals(PELYA_ID, entries.get(1).getUserId());
+        Assert.assertEquals(FARUK_ID, entries.get(2).getUserId());
+    }
+
+    @Test
+    public void getByOrganizationId_bottom_shouldReturnLowestFirst() throws BaseException {
+        List<LeaderboardEntry> entries = getMannersOfOrganization(2, LeaderboardService.BOTTOM);
+
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals(FARUK_ID, entries.get(0).getUserId());
+        Assert.assertEquals(PELYA_ID, entries.get(1).getUserId());
+    }
+
+    @Test
+    public void getByOrganizationId_withoutCriteria_shouldListEveryCriteria() throws BaseException {
+        List<LeaderboardResponse> leaderboards = leaderboardService.getByOrganizationId(1, null, 10,
+                LeaderboardService.TOP);
+        Assert.assertEquals(4, leaderboards.size());
+    }
+
+    @Test
+    public void addReview_shouldUpdateRanking() throws BaseException {
+        // Takes the average of Pelya to 93.33.
+        addMannersReviewOfPelya(100);
+        addMannersReviewOfPelya(100);
+
+        List<LeaderboardEntry> entries = getMannersOfOrganization(1, LeaderboardService.TOP);
+        Assert.assertEquals(PELYA_ID, entries.get(0).getUserId());
+        Assert.assertEquals(3, entries.get(0).getReviewCount());
+    }
+
+    @Test
+    public void removeReview_lastReview_shouldLeaveLeaderboard() throws BaseException {
+        // The only review of Faruk.
+        reviewService.remove(2);
+
+        List<LeaderboardEntry> entries = getMannersOfOrganization(10, LeaderboardService.TOP);
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals(PELYA_ID, entries.get(1).getUserId());
+    }
+
+    @Test
+    public void moveEmployee_shouldMoveScoresBetweenTeams() throws BaseException {
+        transactionTemplate.execute(status -> {
+            try {
+                return teamService.removeEmployeeFromTeam(FARUK_ID, 1);
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        Assert.assertEquals(2, getMannersOfTeam(1).size());
+        Assert.assertEquals(3, getMannersOfOrganization(10, LeaderboardService.TOP).size());
+
+        transactionTemplate.execute(status -> {
+            try {
+                return teamService.assignEmployeeToTeam(FARUK_ID, 3);
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        List<LeaderboardEntry> leaderless = getMannersOfTeam(3);
+        Assert.assertEquals(1, leaderless.size());
+        Assert.assertEquals(FARUK_ID, leaderless.get(0).getUserId());
+    }
+
+    @Test
+    public void getByOrganizationId_invalidSize_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.SCORE_LEADERBOARD_SIZE_INVALID));
+        getMannersOfOrganization(LeaderboardService.MAX_SIZE + 1, LeaderboardService.TOP);
+    }
+
+    @Test
+    public void getByOrganizationId_invalidOrder_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.SCORE_LEADERBOARD_ORDER_INVALID));
+        getMannersOfOrganization(10, "middle");
+    }
+
+    @Test
+    public void getByOrganizationId_criteriaOfAnotherOrganization_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.CRITERIA_BELONGS_TO_ANOTHER_ORGANIZATION));
+        leaderboardService.getByOrganizationId(1, 5, 10, LeaderboardService.TOP);
+    }
+
+    @Test
+    public void leaderboard_equalAverages_shouldRankLowerUserIdFirst() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.add(3, 150, 2);
+        leaderboard.add(1, 75, 1);
+        leaderboard.add(2, 90, 1);
+        leaderboard.add(2, -90, -1);
+
+        Assert.assertEquals(2, leaderboard.size());
+        List<Integer> userIds = new ArrayList<>();
+        for (Leaderboard.Standing standing : leaderboard.getTop(10)) {
+            userIds.add(standing.getUserId());
+        }
+        Assert.assertEquals(1, (int) userIds.get(0));
+        Assert.assertEquals(3, (int) userIds.get(1));
+    }
+
+    // region Helper Methods
+
+    private List<LeaderboardEntry> getMannersOfOrganization(int size, String order) throws BaseException {
+        return leaderboardService.getByOrganizationId(1, MANNERS_ID, size, order).get(0).getEntries();
+    }
+
+    private List<LeaderboardEntry> getMannersOfTeam(int teamId) throws BaseException {
+        return leaderboardService.getByTeamId(teamId, MANNERS_ID, 10, LeaderboardService.TOP).get(0).getEntries();
+    }
+
+    private void addMannersReviewOfPelya(int value) {
+        transactionTemplate.execute(status -> {
+            try {
+                Map<Criteria, Integer> evaluation = new HashMap<>();
+                evaluation.put(criteriaService.get(MANNERS_ID), value);
+                return reviewService.add(new Review(userRepository.findOne(PELYA_ID), userRepository.findOne(PELIN_ID),
+                        evaluation, "Ranked."));
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+    }
+
+    // endregion
+
+}
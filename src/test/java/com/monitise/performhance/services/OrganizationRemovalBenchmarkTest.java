@@ -0,0 +1,101 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.RemovalReport;
+import com.monitise.performhance.exceptions.BaseException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Removes an organization with 10k employees, each with criteria, a team and a review.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class OrganizationRemovalBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationRemovalBenchmarkTest.class);
+    private static final int USER_COUNT = 10000;
+    private static final int FIRST_SEEDED_ID = 1000;
+    private static final int ORGANIZATION_ID = 1;
+    private static final int TEAM_ID = 1;
+
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void remove_largeOrganization() throws BaseException {
+        seedEmployees();
+
+        RemovalReport report = organizationService.remove(ORGANIZATION_ID);
+        logger.info("Removed {} employees in {} ms.", report.getDeletedRows().get("user"), report.getElapsedMillis());
+
+        Assert.assertEquals(Integer.valueOf(USER_COUNT + 5), report.getDeletedRows().get("user"));
+        Assert.assertEquals(Integer.valueOf(USER_COUNT + 4), report.getDeletedRows().get("review"));
+        Assert.assertEquals(Integer.valueOf(USER_COUNT * 2 + 8), report.getDeletedRows().get("user_criteria_list"));
+        Assert.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE organization_id = ?",
+                Integer.class, ORGANIZATION_ID).intValue());
+        Assert.assertEquals(4, userService.getByOrganizationId(2).size());
+    }
+
+    // region Helper Methods
+
+    private void seedEmployees() {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> userIds = new ArrayList<>();
+        List<Object[]> criteria = new ArrayList<>();
+        List<Object[]> reviews = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            int userId = FIRST_SEEDED_ID + i;
+            users.add(new Object[]{userId, "Bulk", "User", "bulk.user." + i, ORGANIZATION_ID, TEAM_ID});
+            userIds.add(new Object[]{ORGANIZATION_ID, userId});
+            criteria.add(new Object[]{userId, 1});
+            criteria.add(new Object[]{userId, 2});
+            // Every employee is reviewed by the previous one.
+            reviews.add(new Object[]{userId, ORGANIZATION_ID, userId, i == 0 ? 2 : userId - 1, TEAM_ID});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user(id, name, surname, username, role, organization_id, team_id) "
+                + "VALUES (?, ?, ?, ?, 'EMPLOYEE', ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO organization_users(organization_id, users_id) VALUES (?, ?)", userIds);
+        jdbcTemplate.batchUpdate("INSERT INTO team_members(team_id, members_id) VALUES (1, ?)", toUserIdRows(userIds));
+        jdbcTemplate.batchUpdate("INSERT INTO user_criteria_list(user_id, criteria_list_id) VALUES (?, ?)", criteria);
+        jdbcTemplate.batchUpdate("INSERT INTO review(id, organization_id, reviewed_employee_id, reviewer_id, team_id) "
+                + "VALUES (?, ?, ?, ?, ?)", reviews);
+        jdbcTemplate.update("INSERT INTO user_reviews(user_id, reviews_id) SELECT reviewed_employee_id, id FROM review "
+                + "WHERE id >= ?", FIRST_SEEDED_ID);
+        jdbcTemplate.update("INSERT INTO review_evaluation(review_id, evaluation, evaluation_key) "
+                + "SELECT id, 50, 1 FROM review WHERE id >= ?", FIRST_SEEDED_ID);
+    }
+
+    private List<Object[]> toUserIdRows(List<Object[]> organizationUserRows) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] row : organizationUserRows) {
+            rows.add(new Object[]{row[1]});
+        }
+        return rows;
+    }
+
+    // endregion
+
+}
@@ -25,6 +25,7 @@ import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @SpringBootTest(classes = AppConfig.class)
@@ -46,6 +47,10 @@ public class OrganizationServiceTest {
     private JobTitleRepository jobTitleRepository;
     @Autowired
     private OrganizationRepository organizationRepository;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private CriteriaService criteriaService;
 
     @Test
     public void get_existingId_shouldGet() throws BaseException {
@@ -182,6 +187,21 @@ public class OrganizationServiceTest {
         organizationService.get(1);
     }
 
+    @Test
+    public void deleteOrganization_shouldReportRowsAndKeepOtherOrganizations() throws BaseException {
+        Map<String, Integer> deletedRows = organizationService.remove(1).getDeletedRows();
+        Assert.assertEquals(Integer.valueOf(1), deletedRows.get("organization"));
+        Assert.assertEquals(Integer.valueOf(5), deletedRows.get("user"));
+        Assert.assertEquals(Integer.valueOf(4), deletedRows.get("review"));
+        Assert.assertEquals(Integer.valueOf(10), deletedRows.get("review_evaluation"));
+        Assert.assertEquals(Integer.valueOf(4), deletedRows.get("criteria"));
+        Assert.assertEquals(Integer.valueOf(2), deletedRows.get("job_title"));
+
+        Assert.assertEquals(4, userService.getByOrganizationId(2).size());
+        Assert.assertEquals(2, reviewService.getAllFilterByOrganizationId(2).size());
+        Assert.assertEquals(3, criteriaService.getAllFilterByOrganizationId(2).size());
+    }
+
     @Test
     public void deleteOrganization_idDoesNotExist_ShouldNotDelete() throws BaseException {
         organizationService.remove(1);
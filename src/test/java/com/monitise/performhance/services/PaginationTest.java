@@ -0,0 +1,174 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.SimplifiedReview;
+import com.monitise.performhance.api.model.SimplifiedTeam;
+import com.monitise.performhance.api.model.SimplifiedUser;
+import com.monitise.performhance.entity.Organization;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.CustomMatcher;
+import com.monitise.performhance.helpers.KeysetPage;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class PaginationTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void getPageByOrganizationId_sortById() throws BaseException {
+        KeysetPage<SimplifiedUser> page = userService.getPageByOrganizationId(1, null, 2, "id");
+        Assert.assertEquals(2, page.getContent().size());
+        Assert.assertEquals(1, page.getContent().get(0).getId());
+        Assert.assertEquals(2, page.getContent().get(1).getId());
+        Assert.assertNotNull(page.getNextCursor());
+
+        page = userService.getPageByOrganizationId(1, page.getNextCursor(), 2, "id");
+        Assert.assertEquals(3, page.getContent().get(0).getId());
+        Assert.assertEquals(4, page.getContent().get(1).getId());
+
+        page = userService.getPageByOrganizationId(1, page.getNextCursor(), 2, "id");
+        Assert.assertEquals(1, page.getContent().size());
+        Assert.assertEquals(5, page.getContent().get(0).getId());
+        Assert.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getPageByOrganizationId_sortByName() throws BaseException {
+        List<String> names = collectUserNames("name", 2);
+        Assert.assertEquals("[Faruk, Fatih, Google, Pelin, Pelya]", names.toString());
+    }
+
+    @Test
+    public void getPageByOrganizationId_sortByNameDescending() throws BaseException {
+        List<String> names = collectUserNames("-name", 3);
+        Assert.assertEquals("[Pelya, Pelin, Google, Fatih, Faruk]", names.toString());
+    }
+
+    // Nulls come first in ascending order and last in descending order, also when the cursor row is one of them.
+    @Test
+    public void getPageByOrganizationId_sortByNullableName() throws BaseException {
+        jdbcTemplate.update("UPDATE user SET name = NULL WHERE id IN (3, 5)");
+
+        Assert.assertEquals("[null, null, Google, Pelin, Pelya]", collectUserNames("name", 1).toString());
+        Assert.assertEquals("[null, null, Google, Pelin, Pelya]", collectUserNames("name", 2).toString());
+        Assert.assertEquals("[Pelya, Pelin, Google, null, null]", collectUserNames("-name", 1).toString());
+        Assert.assertEquals("[Pelya, Pelin, Google, null, null]", collectUserNames("-name", 3).toString());
+    }
+
+    // The next page starts after the name in the cursor, not after the current name of the cursor row.
+    @Test
+    public void getPageByOrganizationId_cursorRowRenamed_shouldContinueAfterCursor() throws BaseException {
+        KeysetPage<SimplifiedUser> page = userService.getPageByOrganizationId(1, null, 2, "name");
+        Assert.assertEquals("Fatih", page.getContent().get(1).getName());
+        jdbcTemplate.update("UPDATE user SET name = 'Zeynep' WHERE id = 5");
+
+        page = userService.getPageByOrganizationId(1, page.getNextCursor(), 2, "name");
+        Assert.assertEquals("Google", page.getContent().get(0).getName());
+        Assert.assertEquals("Pelin", page.getContent().get(1).getName());
+    }
+
+    @Test
+    public void getPageByOrganizationId_invalidSize() throws BaseException {
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.PAGE_SIZE_INVALID));
+        userService.getPageByOrganizationId(1, null, 0, "id");
+    }
+
+    @Test
+    public void getPageByOrganizationId_invalidSort() throws BaseException {
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.PAGE_SORT_INVALID));
+        userService.getPageByOrganizationId(1, null, 2, "password");
+    }
+
+    @Test
+    public void getPageByOrganizationId_invalidCursor() throws BaseException {
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.PAGE_CURSOR_INVALID));
+        userService.getPageByOrganizationId(1, "999", 2, "name");
+    }
+
+    @Test
+    public void getPageByOrganizationId_cursorOfAnotherSort() throws BaseException {
+        String cursor = userService.getPageByOrganizationId(1, null, 2, "name").getNextCursor();
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.PAGE_CURSOR_INVALID));
+        userService.getPageByOrganizationId(1, cursor, 2, "-name");
+    }
+
+    @Test
+    public void getPageFilterByOrganizationId_teams() throws BaseException {
+        KeysetPage<SimplifiedTeam> page = teamService.getPageFilterByOrganizationId(1, null, 1, "name");
+        Assert.assertEquals("GoogleLeaderless", page.getContent().get(0).getName());
+        page = teamService.getPageFilterByOrganizationId(1, page.getNextCursor(), 1, "name");
+        Assert.assertEquals("TeamPelin", page.getContent().get(0).getName());
+        Assert.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getPageFilterByTeamId_reviews() throws BaseException {
+        KeysetPage<SimplifiedReview> page = reviewService.getPageFilterByTeamId(1, null, 2, "id");
+        page = reviewService.getPageFilterByTeamId(1, page.getNextCursor(), 10, "id");
+        Assert.assertEquals(2, page.getContent().size());
+        Assert.assertEquals(3, page.getContent().get(0).getId());
+        Assert.assertEquals(4, page.getContent().get(1).getId());
+        Assert.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getPage_organizations() throws BaseException {
+        KeysetPage<Organization> page = organizationService.getPage(null, 10, "-name");
+        Assert.assertEquals(3, page.getContent().size());
+        Assert.assertEquals("Pozitron", page.getContent().get(0).getName());
+        Assert.assertNull(page.getNextCursor());
+    }
+
+    // region Helper Methods
+
+    private List<String> collectUserNames(String sort, int size) throws BaseException {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<SimplifiedUser> page = userService.getPageByOrganizationId(1, cursor, size, sort);
+            for (SimplifiedUser user : page.getContent()) {
+                names.add(user.getName());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return names;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,228 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.ReviewIngestionStatisticsResponse;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.CriteriaScore;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.PendingReview;
+import com.monitise.performhance.helpers.ReviewLog;
+import com.monitise.performhance.repositories.ReviewRepository;
+import com.monitise.performhance.repositories.UserRepository;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reviews accepted in write-behind mode are written by the worker, which runs in its own transactions, so the tests
+// are not transactional. The review log of the application is emptied before the context starts.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class, properties = {
+        "performhance.review-ingestion.enabled = true",
+        "performhance.review-ingestion.directory = " + ReviewIngestionTest.LOG_DIRECTORY})
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+public class ReviewIngestionTest {
+
+    static final String LOG_DIRECTORY = "build/test-review-log";
+    private static final long TIMEOUT_MILLIS = 10000;
+    private static final int PELIN_ID = 2;
+    private static final int PELYA_ID = 4;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    @Autowired
+    private ReviewIngestionService reviewIngestionService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeClass
+    public static void deleteReviewLog() {
+        FileSystemUtils.deleteRecursively(new File(LOG_DIRECTORY));
+    }
+
+    @Test
+    public void accept_shouldWriteReviewAndScoresLater() throws Exception {
+        int reviewCount = reviewService.countByReviewedUserId(PELYA_ID);
+        int scoreCount = getReviewCountOfScore(PELYA_ID, 1);
+        acceptReviewOfPelya(40);
+
+        Assert.assertTrue(reviewIngestionService.awaitWritten(TIMEOUT_MILLIS));
+        Assert.assertEquals(reviewCount + 1, reviewService.countByReviewedUserId(PELYA_ID));
+        Assert.assertEquals(scoreCount + 1, getReviewCountOfScore(PELYA_ID, 1));
+        Review written = null;
+        for (Review review : reviewRepository.findByReviewedEmployeeId(PELYA_ID)) {
+            if ("write-behind".equals(review.getComment())) {
+                written = review;
+            }
+        }
+        Assert.assertNotNull(written);
+        Assert.assertNotNull(written.getIngestionSequence());
+        Assert.assertEquals(4, written.getEvaluation().size());
+    }
+
+    @Test
+    public void getStatistics_afterWritten_shouldHaveEmptyQueue() throws Exception {
+        long sequence = acceptReviewOfPelya(70);
+        Assert.assertTrue(reviewIngestionService.awaitWritten(TIMEOUT_MILLIS));
+
+        ReviewIngestionStatisticsResponse statistics = reviewIngestionService.getStatistics();
+        Assert.assertTrue(statistics.isEnabled());
+        Assert.assertEquals(0, statistics.getQueueDepth());
+        Assert.assertEquals(0, statistics.getLagMillis());
+        Assert.assertEquals(sequence, statistics.getCheckpoint());
+        Assert.assertTrue(statistics.getWrittenCount() >= 1);
+    }
+
+    @Test
+    public void addAll_replayedReview_shouldNotWriteTwice() {
+        PendingReview review = newPendingReview(PELYA_ID, Long.MAX_VALUE);
+        Assert.assertEquals(1, reviewService.addAll(Collections.singletonList(review)));
+        int reviewCount = reviewService.countByReviewedUserId(PELYA_ID);
+        int scoreCount = getReviewCountOfScore(PELYA_ID, 1);
+
+        PendingReview replayed = newPendingReview(PELYA_ID, Long.MAX_VALUE);
+        Assert.assertEquals(0, reviewService.addAll(Collections.singletonList(replayed)));
+        Assert.assertEquals(reviewCount, reviewService.countByReviewedUserId(PELYA_ID));
+        Assert.assertEquals(scoreCount, getReviewCountOfScore(PELYA_ID, 1));
+    }
+
+    @Test
+    public void addAll_removedEmployee_shouldDropReview() {
+        PendingReview review = newPendingReview(999, Long.MAX_VALUE - 1);
+        Assert.assertEquals(0, reviewService.addAll(Collections.singletonList(review)));
+    }
+
+    @Test
+    public void open_afterCrash_shouldReplayReviewsAfterCheckpoint() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        ReviewLog log = new ReviewLog(directory, 1024 * 1024, true);
+        log.open();
+        for (int i = 0; i < 5; i++) {
+            log.append(newPendingReview(PELYA_ID, 0));
+        }
+        log.checkpoint(2);
+        // The application stops without closing the log.
+
+        List<PendingReview> replayed = new ReviewLog(directory, 1024 * 1024, true).open();
+        Assert.assertEquals(3, replayed.size());
+        Assert.assertEquals(3, replayed.get(0).getSequence());
+        Assert.assertEquals(5, replayed.get(2).getSequence());
+        Assert.assertEquals(Integer.valueOf(50), replayed.get(0).getEvaluation().get(1));
+    }
+
+    @Test
+    public void open_afterCrashDuringAppend_shouldCutOffPartialReview() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        ReviewLog log = new ReviewLog(directory, 1024 * 1024, true);
+        log.open();
+        log.append(newPendingReview(PELYA_ID, 0));
+        log.append(newPendingReview(PELYA_ID, 0));
+        log.close();
+        Path segment = Files.list(directory).findFirst().get();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+
+        ReviewLog reopened = new ReviewLog(directory, 1024 * 1024, true);
+        Assert.assertEquals(1, reopened.open().size());
+        Assert.assertEquals(2, reopened.append(newPendingReview(PELYA_ID, 0)));
+        reopened.close();
+        Assert.assertEquals(2, new ReviewLog(directory, 1024 * 1024, true).open().size());
+    }
+
+    @Test
+    public void checkpoint_shouldDeleteWrittenSegments() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        // Small enough for one review per segment.
+        ReviewLog log = new ReviewLog(directory, 10, false);
+        log.open();
+        for (int i = 0; i < 4; i++) {
+            log.append(newPendingReview(PELYA_ID, 0));
+        }
+        Assert.assertEquals(4, log.getSegmentCount());
+
+        log.checkpoint(3);
+        Assert.assertEquals(1, log.getSegmentCount());
+        log.checkpoint(4);
+        // The segment that is appended to is kept.
+        Assert.assertEquals(1, log.getSegmentCount());
+        log.close();
+        Assert.assertEquals(0, new ReviewLog(directory, 10, false).open().size());
+    }
+
+    // region Helper Methods
+
+    // The review is built and accepted in one session, like in a request.
+    private long acceptReviewOfPelya(int value) {
+        return transactionTemplate.execute(status -> {
+            User pelya = userRepository.findOne(PELYA_ID);
+            User pelin = userRepository.findOne(PELIN_ID);
+            Map<Criteria, Integer> evaluation = new HashMap<>();
+            for (Criteria criteria : pelya.getCriteriaList()) {
+                evaluation.put(criteria, value);
+            }
+            try {
+                return reviewIngestionService.accept(new Review(pelya, pelin, evaluation, "write-behind"));
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+    }
+
+    private int getReviewCountOfScore(int userId, int criteriaId) {
+        CriteriaScore score = criteriaScoreService.getMapByUserId(userId).get(criteriaId);
+        return score == null ? 0 : score.getReviewCount();
+    }
+
+    private PendingReview newPendingReview(int employeeId, long sequence) {
+        PendingReview review = new PendingReview();
+        review.setSequence(sequence);
+        review.setAcceptedAt(System.currentTimeMillis());
+        review.setReviewedEmployeeId(employeeId);
+        review.setReviewerId(PELIN_ID);
+        review.setOrganizationId(1);
+        review.setTeamId(1);
+        for (int criteriaId = 1; criteriaId <= 4; criteriaId++) {
+            review.getEvaluation().put(criteriaId, 50);
+        }
+        return review;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,132 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.repositories.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Submitting a review must cost the same number of statements regardless of the employee's review history.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class ReviewWriteBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewWriteBenchmarkTest.class);
+    private static final int REVIEW_HISTORY_SIZE = 10000;
+    private static final int FIRST_SEEDED_REVIEW_ID = 1000;
+    private static final int PELYA_ID = 4;
+    private static final int PELIN_ID = 2;
+
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @Before
+    public void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void add_statementCountIndependentOfReviewHistory() throws BaseException {
+        long smallHistoryStatements = measureAdd();
+
+        seedReviewHistory(PELYA_ID, PELIN_ID, REVIEW_HISTORY_SIZE);
+        long largeHistoryStatements = measureAdd();
+
+        Assert.assertEquals(smallHistoryStatements, largeHistoryStatements);
+        Assert.assertEquals(REVIEW_HISTORY_SIZE + 3, reviewService.countByReviewedUserId(PELYA_ID));
+    }
+
+    // region Helper Methods
+
+    private long measureAdd() throws BaseException {
+        entityManager.flush();
+        entityManager.clear();
+        User pelya = userRepository.findOne(PELYA_ID);
+        User pelin = userRepository.findOne(PELIN_ID);
+        Map<Criteria, Integer> evaluationMap = new HashMap<>();
+        for (Criteria criteria : pelya.getCriteriaList()) {
+            evaluationMap.put(criteria, 60);
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        reviewService.add(new Review(pelya, pelin, evaluationMap, "Steady as always."));
+        entityManager.flush();
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+        long statementCount = statistics.getPrepareStatementCount();
+        logger.info("Review write: {} statements, {} us, {} existing reviews.", statementCount, elapsedMicros,
+                reviewService.countByReviewedUserId(PELYA_ID) - 1);
+        return statementCount;
+    }
+
+    private void seedReviewHistory(int employeeId, int reviewerId, int count) {
+        List<Object[]> reviews = new ArrayList<>();
+        List<Object[]> userReviews = new ArrayList<>();
+        List<Object[]> evaluations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int reviewId = FIRST_SEEDED_REVIEW_ID + i;
+            reviews.add(new Object[]{reviewId, "Seeded review.", 1, employeeId, reviewerId, 1});
+            userReviews.add(new Object[]{employeeId, reviewId});
+            for (int criteriaId = 1; criteriaId <= 4; criteriaId++) {
+                evaluations.add(new Object[]{reviewId, i % 101, criteriaId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO review(id, comment, organization_id, reviewed_employee_id, "
+                + "reviewer_id, team_id) VALUES (?, ?, ?, ?, ?, ?)", reviews);
+        jdbcTemplate.batchUpdate("INSERT INTO user_reviews(user_id, reviews_id) VALUES (?, ?)", userReviews);
+        jdbcTemplate.batchUpdate("INSERT INTO review_evaluation(review_id, evaluation, evaluation_key) "
+                + "VALUES (?, ?, ?)", evaluations);
+    }
+
+    // endregion
+
+}
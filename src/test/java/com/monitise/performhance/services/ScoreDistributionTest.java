@@ -0,0 +1,152 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.api.model.ScoreDistributionResponse;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.CustomMatcher;
+import com.monitise.performhance.helpers.ScoreHistogram;
+import com.monitise.performhance.repositories.UserRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The distributions follow reviews through events delivered after commit, so the tests are not transactional.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+public class ScoreDistributionTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Autowired
+    private ScoreDistributionService scoreDistributionService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private CriteriaService criteriaService;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void getByOrganizationId_shouldReturnExactStatistics() throws BaseException {
+        // Manners is evaluated 95, 20, 90 and 80.
+        ScoreDistributionResponse manners = getByCriteriaId(scoreDistributionService.getByOrganizationId(1), 1);
+
+        Assert.assertEquals("Manners", manners.getCriteria());
+        Assert.assertEquals(4, manners.getEvaluationCount());
+        Assert.assertEquals(71.25, manners.getMean(), DELTA);
+        Assert.assertEquals(Math.sqrt(904.6875), manners.getStandardDeviation(), DELTA);
+        Assert.assertEquals(85.0, manners.getMedian(), DELTA);
+        Assert.assertEquals(Integer.valueOf(20), manners.getPercentile10());
+        Assert.assertEquals(Integer.valueOf(95), manners.getPercentile90());
+        Assert.assertEquals(ScoreHistogram.MAX_SCORE + 1, manners.getHistogram().length);
+        Assert.assertEquals(1, manners.getHistogram()[95]);
+        Assert.assertEquals(0, manners.getHistogram()[50]);
+    }
+
+    @Test
+    public void getByOrganizationId_shouldListCriteriaWithoutEvaluations() throws BaseException {
+        Criteria criteria = transactionTemplate.execute(status -> {
+            try {
+                return criteriaService.add(new Criteria("Not Evaluated", organizationService.get(1)));
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+
+        List<ScoreDistributionResponse> distributions = scoreDistributionService.getByOrganizationId(1);
+        Assert.assertEquals(5, distributions.size());
+        ScoreDistributionResponse notEvaluated = getByCriteriaId(distributions, criteria.getId());
+        Assert.assertEquals(0, notEvaluated.getEvaluationCount());
+        Assert.assertNull(notEvaluated.getMedian());
+        Assert.assertNull(notEvaluated.getPercentile90());
+    }
+
+    @Test
+    public void getByOrganizationId_nonExistingOrganization_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.ORGANIZATION_ID_DOES_NOT_EXIST));
+        scoreDistributionService.getByOrganizationId(999);
+    }
+
+    @Test
+    public void getByTeamId_shouldOnlyCountReviewsOfTeam() throws BaseException {
+        ScoreDistributionResponse manners = getByCriteriaId(scoreDistributionService.getByTeamId(1), 1);
+        Assert.assertEquals(4, manners.getEvaluationCount());
+
+        ScoreDistributionResponse leaderless = getByCriteriaId(scoreDistributionService.getByTeamId(3), 1);
+        Assert.assertEquals(0, leaderless.getEvaluationCount());
+    }
+
+    @Test
+    public void addReview_shouldUpdateDistribution() throws BaseException {
+        transactionTemplate.execute(status -> {
+            try {
+                Map<Criteria, Integer> evaluation = new HashMap<>();
+                evaluation.put(criteriaService.get(1), 10);
+                return reviewService.add(new Review(userRepository.findOne(4), userRepository.findOne(2), evaluation,
+                        "Counted."));
+            } catch (BaseException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+
+        ScoreDistributionResponse manners = getByCriteriaId(scoreDistributionService.getByOrganizationId(1), 1);
+        Assert.assertEquals(5, manners.getEvaluationCount());
+        Assert.assertEquals(80.0, manners.getMedian(), DELTA);
+        Assert.assertEquals(Integer.valueOf(10), manners.getPercentile10());
+        Assert.assertEquals(1, manners.getHistogram()[10]);
+        Assert.assertEquals(5, getByCriteriaId(scoreDistributionService.getByTeamId(1), 1).getEvaluationCount());
+    }
+
+    @Test
+    public void removeReview_shouldUpdateDistribution() throws BaseException {
+        // Removes the evaluation of 20.
+        reviewService.remove(2);
+
+        ScoreDistributionResponse manners = getByCriteriaId(scoreDistributionService.getByOrganizationId(1), 1);
+        Assert.assertEquals(3, manners.getEvaluationCount());
+        Assert.assertEquals(90.0, manners.getMedian(), DELTA);
+        Assert.assertEquals(0, manners.getHistogram()[20]);
+    }
+
+    // region Helper Methods
+
+    private ScoreDistributionResponse getByCriteriaId(List<ScoreDistributionResponse> distributions, int criteriaId) {
+        for (ScoreDistributionResponse distribution : distributions) {
+            if (distribution.getCriteriaId() == criteriaId) {
+                return distribution;
+            }
+        }
+        throw new AssertionError("No distribution of criteria " + criteriaId);
+    }
+
+    // endregion
+
+}
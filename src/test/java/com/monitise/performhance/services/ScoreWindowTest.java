@@ -0,0 +1,190 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.AverageCriteriaScore;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.CustomMatcher;
+import com.monitise.performhance.helpers.PendingReview;
+import com.monitise.performhance.helpers.ScoreWindow;
+import com.monitise.performhance.repositories.UserRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Reviews of the populate script have no creation time, so only the reviews added by the tests are in the windows.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class ScoreWindowTest {
+
+    private static final int PELIN_ID = 2;
+    private static final int PELYA_ID = 4;
+
+    @Autowired
+    private CriteriaScoreService criteriaScoreService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private UserRepository userRepository;
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void getAverageScores_lastDays_shouldOnlySumReviewsOfWindow() throws BaseException {
+        addReviewOfPelya(40, 0);
+        addReviewOfPelya(60, 10);
+        addReviewOfPelya(80, 100);
+        User pelya = userRepository.findOne(PELYA_ID);
+
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, ScoreWindow.ofLastDays(30)).get(0), 100, 2, 40, 60);
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, ScoreWindow.ofLastDays(365)).get(0), 180, 3, 40, 80);
+        Assert.assertEquals(2, reviewService.countByReviewedUserId(PELYA_ID, ScoreWindow.ofLastDays(30)));
+        // The review of the populate script only counts for all time.
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, null).get(0), 260, 4, 40, 80);
+        Assert.assertEquals(4, reviewService.countByReviewedUserId(PELYA_ID, null));
+    }
+
+    @Test
+    public void getAverageScores_range_shouldIncludeBothEnds() throws BaseException {
+        addReviewOfPelya(60, 10);
+        addReviewOfPelya(80, 100);
+        LocalDate today = LocalDate.now();
+        ScoreWindow window = ScoreWindow.ofRange(today.minusDays(100).toString(), today.minusDays(10).toString());
+        User pelya = userRepository.findOne(PELYA_ID);
+
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, window).get(0), 140, 2, 60, 80);
+        Assert.assertEquals(2, reviewService.getCommentsByReviewedUserId(PELYA_ID, window).size());
+        ScoreWindow emptyWindow = ScoreWindow.ofRange(today.minusDays(9).toString(), today.toString());
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, emptyWindow).get(0), 0, 0, 0, 0);
+    }
+
+    @Test
+    public void removeReview_shouldRecomputeDailyMinAndMax() throws BaseException {
+        addReviewOfPelya(40, 10);
+        Review highest = addReviewOfPelya(60, 10);
+        User pelya = userRepository.findOne(PELYA_ID);
+
+        reviewService.remove(highest.getId());
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, ScoreWindow.ofLastDays(30)).get(0), 40, 1, 40, 40);
+    }
+
+    @Test
+    public void removeReview_lastReviewOfDay_shouldRemoveDailyScores() throws BaseException {
+        Review review = addReviewOfPelya(40, 10);
+        User pelya = userRepository.findOne(PELYA_ID);
+
+        reviewService.remove(review.getId());
+        for (AverageCriteriaScore score : criteriaScoreService.getAverageScores(pelya, ScoreWindow.ofLastDays(30))) {
+            Assert.assertEquals(0, score.getReviewTimes());
+        }
+    }
+
+    @Test
+    public void addAll_shouldCountReviewsOnDayOfAcceptance() throws BaseException {
+        PendingReview review = new PendingReview();
+        review.setSequence(1);
+        review.setAcceptedAt(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(40));
+        review.setReviewedEmployeeId(PELYA_ID);
+        review.setReviewerId(PELIN_ID);
+        review.setOrganizationId(1);
+        review.setTeamId(1);
+        review.getEvaluation().put(1, 50);
+        reviewService.addAll(Collections.singletonList(review));
+        User pelya = userRepository.findOne(PELYA_ID);
+
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, ScoreWindow.ofLastDays(30)).get(0), 0, 0, 0, 0);
+        scoreCheck(criteriaScoreService.getAverageScores(pelya, ScoreWindow.ofLastDays(90)).get(0), 50, 1, 50, 50);
+    }
+
+    @Test
+    public void of_noWindow_shouldReturnNull() throws BaseException {
+        Assert.assertNull(ScoreWindow.of(null, null, null));
+    }
+
+    @Test
+    public void of_nonPositiveDays_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.SCORE_WINDOW_INVALID));
+        ScoreWindow.of(0, null, null);
+    }
+
+    @Test
+    public void of_daysAndRange_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.SCORE_WINDOW_INVALID));
+        ScoreWindow.of(30, "2016-01-01", "2016-12-31");
+    }
+
+    @Test
+    public void of_rangeWithoutEnd_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.SCORE_WINDOW_INVALID));
+        ScoreWindow.of(null, "2016-01-01", null);
+    }
+
+    @Test
+    public void of_startAfterEnd_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.SCORE_WINDOW_INVALID));
+        ScoreWindow.of(null, "2016-12-31", "2016-01-01");
+    }
+
+    @Test
+    public void of_invalidDate_shouldThrowException() throws BaseException {
+        thrown.expect(BaseException.class);
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.SCORE_WINDOW_DATE_INVALID));
+        ScoreWindow.of(null, "2016-13-01", "2016-12-31");
+    }
+
+    // region Helper Methods
+
+    // Evaluates every criteria of Pelya with the given value, as if the review was written the given days ago.
+    private Review addReviewOfPelya(int value, int daysAgo) throws BaseException {
+        User pelya = userRepository.findOne(PELYA_ID);
+        Map<Criteria, Integer> evaluation = new HashMap<>();
+        for (Criteria criteria : pelya.getCriteriaList()) {
+            evaluation.put(criteria, value);
+        }
+        Review review = new Review(pelya, userRepository.findOne(PELIN_ID), evaluation, "Windowed.");
+        review.setCreatedAt(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(daysAgo)));
+        return reviewService.add(review);
+    }
+
+    private void scoreCheck(AverageCriteriaScore score, int totalScore, int reviewCount, int minScore,
+                            int maxScore) {
+        Assert.assertEquals("Manners", score.getCriteriaName());
+        Assert.assertEquals(totalScore, score.getTotalScore());
+        Assert.assertEquals(reviewCount, score.getReviewTimes());
+        Assert.assertEquals(minScore, score.getMinScore());
+        Assert.assertEquals(maxScore, score.getMaxScore());
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,191 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.CacheStatisticsResponse;
+import com.monitise.performhance.api.model.CriteriaRequest;
+import com.monitise.performhance.api.model.ResponseCode;
+import com.monitise.performhance.entity.Criteria;
+import com.monitise.performhance.entity.JobTitle;
+import com.monitise.performhance.entity.Organization;
+import com.monitise.performhance.entity.Review;
+import com.monitise.performhance.entity.User;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.CustomMatcher;
+import com.monitise.performhance.repositories.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Organizations, job titles and criteria are read from the cache once loaded, and writes through the services
+// replace or evict the cached entries. Cached reads are checked with a new entity manager, as for the next request,
+// because entries put into the cache during a session are not read back by that same session.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+@Transactional
+public class SecondLevelCacheTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private CriteriaService criteriaService;
+    @Autowired
+    private JobTitleService jobTitleService;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private CacheService cacheService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    @Before
+    public void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void getCriteria_cached_shouldNotQueryDatabase() throws BaseException {
+        criteriaService.get(1);
+        statistics.clear();
+        EntityManager nextRequest = entityManagerFactory.createEntityManager();
+        try {
+            Criteria criteria = nextRequest.find(Criteria.class, 1);
+
+            Assert.assertEquals("Manners", criteria.getCriteria());
+            Assert.assertEquals("Google", criteria.getOrganization().getName());
+        } finally {
+            nextRequest.close();
+        }
+        Assert.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getJobTitlesOfOrganization_cached_shouldNotQueryDatabase() throws BaseException {
+        // The list is lazy, so it is read once to be cached.
+        jobTitleService.getListFilterByOrganizationId(2).size();
+        statistics.clear();
+        EntityManager nextRequest = entityManagerFactory.createEntityManager();
+        try {
+            List<JobTitle> jobTitles = nextRequest.find(Organization.class, 2).getJobTitles();
+
+            Assert.assertEquals(4, jobTitles.size());
+            Assert.assertEquals("ios dev", jobTitles.get(0).getTitle());
+        } finally {
+            nextRequest.close();
+        }
+        Assert.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void updateCriteria_shouldNotReadCachedEntry() throws BaseException {
+        criteriaService.get(1);
+        CriteriaRequest request = new CriteriaRequest();
+        request.setCriteria("Politeness");
+        criteriaService.updateFromRequest(request, 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        Assert.assertEquals("Politeness", criteriaService.get(1).getCriteria());
+    }
+
+    @Test
+    public void addJobTitle_shouldEvictJobTitlesOfOrganization() throws BaseException {
+        Organization organization = organizationService.get(1);
+        Assert.assertEquals(2, jobTitleService.getListFilterByOrganizationId(1).size());
+        jobTitleService.add(new JobTitle("QA", organization));
+        entityManager.flush();
+        entityManager.clear();
+
+        Assert.assertEquals(3, jobTitleService.getListFilterByOrganizationId(1).size());
+    }
+
+    @Test
+    public void removeOrganization_shouldEvictItsEntities() throws BaseException {
+        organizationService.get(2);
+        jobTitleService.get(3);
+        organizationService.remove(2);
+
+        thrown.expect(CustomMatcher.hasCode(ResponseCode.JOB_TITLE_ID_DOES_NOT_EXIST));
+        jobTitleService.get(3);
+    }
+
+    // Reviews write the user_reviews rows behind Hibernate's back, which must not evict unrelated regions.
+    @Test
+    public void addAndRemoveReview_shouldKeepCachedCriteria() throws BaseException {
+        criteriaService.get(1);
+        organizationService.get(1);
+        Assert.assertTrue(entityManagerFactory.getCache().contains(Criteria.class, 1));
+
+        User pelin = userRepository.findOne(2);
+        User pelya = userRepository.findOne(4);
+        Map<Criteria, Integer> evaluation = new HashMap<>();
+        for (Criteria criteria : pelya.getCriteriaList()) {
+            evaluation.put(criteria, 80);
+        }
+        int reviewId = reviewService.add(new Review(pelya, pelin, evaluation, "")).getId();
+        Assert.assertTrue(entityManagerFactory.getCache().contains(Criteria.class, 1));
+
+        reviewService.remove(reviewId);
+        entityManager.flush();
+        Assert.assertTrue(entityManagerFactory.getCache().contains(Criteria.class, 1));
+        Assert.assertTrue(entityManagerFactory.getCache().contains(Organization.class, 1));
+    }
+
+    @Test
+    public void getStatistics_shouldCountHitsAndMisses() throws BaseException {
+        criteriaService.get(2);
+        entityManager.clear();
+        criteriaService.get(2);
+
+        CacheStatisticsResponse criteriaStatistics = null;
+        for (CacheStatisticsResponse cacheStatistics : cacheService.getStatistics()) {
+            if (cacheStatistics.getName().equals(Criteria.class.getName())) {
+                criteriaStatistics = cacheStatistics;
+            }
+        }
+        Assert.assertNotNull(criteriaStatistics);
+        Assert.assertEquals(1, criteriaStatistics.getSize());
+        Assert.assertTrue(criteriaStatistics.getHits() >= 1);
+        Assert.assertTrue(criteriaStatistics.getMisses() >= 1);
+        Assert.assertEquals(20000, criteriaStatistics.getMaxSize());
+    }
+
+}
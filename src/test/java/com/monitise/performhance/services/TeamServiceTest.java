@@ -4,6 +4,8 @@ package com.monitise.performhance.services;
 import com.monitise.performhance.AppConfig;
 import com.monitise.performhance.api.model.ResponseCode;
 import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.api.model.TeamResponse;
+import com.monitise.performhance.api.model.UpdateTeamRequest;
 import com.monitise.performhance.entity.Team;
 import com.monitise.performhance.entity.User;
 import com.monitise.performhance.exceptions.BaseException;
@@ -274,29 +276,52 @@ public class TeamServiceTest {
     @Test
     public void searchTeams_undefTeamName() {
         String undef = TeamService.UNDEFINED;
-        List<Team> teams = teamService.searchTeams(1, undef);
+        List<TeamResponse> teams = teamService.searchTeams(1, undef);
 
         Assert.assertEquals(2, teams.size());
-        Assert.assertTrue(listContainsTeam(teams, 1, "TeamPelin", 1, 3));
-        Assert.assertTrue(listContainsTeam(teams, 3, "GoogleLeaderless", 1, 0));
+        Assert.assertTrue(responsesContainTeam(teams, 1, "TeamPelin", 1, 3));
+        Assert.assertTrue(responsesContainTeam(teams, 3, "GoogleLeaderless", 1, 0));
     }
 
     @Test
     public void searchTeams_partialTeamName_1() {
-        List<Team> teams = teamService.searchTeams(1, "ea");
+        List<TeamResponse> teams = teamService.searchTeams(1, "ea");
 
         Assert.assertEquals(2, teams.size());
-        Assert.assertTrue(listContainsTeam(teams, 1, "TeamPelin", 1, 3));
-        Assert.assertTrue(listContainsTeam(teams, 3, "GoogleLeaderless", 1, 0));
+        Assert.assertTrue(responsesContainTeam(teams, 1, "TeamPelin", 1, 3));
+        Assert.assertTrue(responsesContainTeam(teams, 3, "GoogleLeaderless", 1, 0));
         ExpectedException.none();
     }
 
     @Test
     public void searchTeams_partialTeamName_2() {
-        List<Team> teams = teamService.searchTeams(1, "team");
+        List<TeamResponse> teams = teamService.searchTeams(1, "team");
 
         Assert.assertEquals(1, teams.size());
-        Assert.assertTrue(listContainsTeam(teams, 1, "TeamPelin", 1, 3));
+        Assert.assertTrue(responsesContainTeam(teams, 1, "TeamPelin", 1, 3));
+    }
+
+    @Test
+    public void searchTeams_afterRename_shouldFindNewName() throws BaseException {
+        Assert.assertEquals(1, teamService.searchTeams(1, "team").size());
+        UpdateTeamRequest request = new UpdateTeamRequest();
+        request.setName("TeamGoogle");
+        teamService.updateFromRequest(3, request);
+
+        List<TeamResponse> teams = teamService.searchTeams(1, "team");
+        Assert.assertEquals(2, teams.size());
+        Assert.assertTrue(responsesContainTeam(teams, 3, "TeamGoogle", 1, 0));
+        Assert.assertEquals(0, teamService.searchTeams(1, "leaderless").size());
+    }
+
+    @Test
+    public void searchTeams_afterRemove_shouldNotFindTeam() throws BaseException {
+        Assert.assertEquals(2, teamService.searchTeams(1, "ea").size());
+        teamService.remove(3);
+
+        List<TeamResponse> teams = teamService.searchTeams(1, "ea");
+        Assert.assertEquals(1, teams.size());
+        Assert.assertTrue(responsesContainTeam(teams, 1, "TeamPelin", 1, 3));
     }
 
     private boolean listContainsUser(List<User> list, int id, String name, String surname) {
@@ -319,4 +344,14 @@ public class TeamServiceTest {
         return false;
     }
 
+    private boolean responsesContainTeam(List<TeamResponse> list, int id, String name, int organizationId, int size) {
+        for (TeamResponse team : list) {
+            if (team.getId() == id && team.getName().equals(name) && team.getOrganizationId() == organizationId
+                    && team.getMembers().size() == size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.monitise.performhance.services;
+
+import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.Role;
+import com.monitise.performhance.entity.Team;
+import com.monitise.performhance.exceptions.BaseException;
+import com.monitise.performhance.helpers.RecordingStatementInspector;
+import com.monitise.performhance.repositories.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+// Every service operation must run in a single transaction on a single connection, however many repositories it
+// goes through. Queries must not flush at all. Operations are called the way a request calls
+// them, with an open entity manager but without a surrounding transaction, so the tests are not transactional.
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = AppConfig.class)
+@WebAppConfiguration
+@SqlGroup({
+        @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:populate.sql"),
+        @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:cleanup.sql")
+})
+public class TransactionBoundaryTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionBoundaryTest.class);
+    private static final int FARUK_ID = 3;
+    private static final int TEAMLESS_EMPLOYEE_ID = 5;
+    private static final int TEAM_ID = 1;
+    private static final int LEADERLESS_TEAM_ID = 3;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private ScoreDistributionService scoreDistributionService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    // Binds an entity manager for the whole test, like OpenEntityManagerInViewInterceptor does for a request.
+    @Before
+    public void openEntityManager() {
+        TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void closeEntityManager() {
+        statistics.setStatisticsEnabled(false);
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        EntityManagerFactoryUtils.closeEntityManager(holder.getEntityManager());
+    }
+
+    @Test
+    public void assignLeaderToTeam_shouldRunInOneTransaction() throws BaseException {
+        // The employee is not in the team yet, so they are assigned to it first.
+        startCounting();
+        teamService.assignLeaderToTeam(TEAMLESS_EMPLOYEE_ID, LEADERLESS_TEAM_ID);
+        assertSingleTransaction("TeamService.assignLeaderToTeam");
+
+        Assert.assertEquals(Role.TEAM_LEADER, userRepository.findOne(TEAMLESS_EMPLOYEE_ID).getRole());
+    }
+
+    @Test
+    public void removeEmployeeFromTeam_shouldRunInOneTransaction() throws BaseException {
+        startCounting();
+        teamService.removeEmployeeFromTeam(FARUK_ID, TEAM_ID);
+        assertSingleTransaction("TeamService.removeEmployeeFromTeam");
+    }
+
+    @Test
+    public void removeUser_shouldRunInOneTransaction() throws BaseException {
+        startCounting();
+        userService.remove(FARUK_ID);
+        assertSingleTransaction("UserService.remove");
+
+        Assert.assertNull(userRepository.findOne(FARUK_ID));
+    }
+
+    @Test
+    public void getTeam_shouldNotFlush() throws BaseException {
+        startCounting();
+        Team team = teamService.get(TEAM_ID);
+        assertSingleTransaction("TeamService.get");
+        Assert.assertEquals(0, statistics.getFlushCount());
+
+        Assert.assertEquals("TeamPelin", team.getName());
+    }
+
+    @Test
+    public void getUsersOfOrganization_shouldNotFlush() throws BaseException {
+        startCounting();
+        Assert.assertEquals(5, userService.getByOrganizationId(1).size());
+        assertSingleTransaction("UserService.getByOrganizationId");
+        Assert.assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    public void getScoreDistributionsOfOrganization_shouldRunInOneTransaction() throws BaseException {
+        startCounting();
+        scoreDistributionService.getByOrganizationId(1);
+        assertSingleTransaction("ScoreDistributionService.getByOrganizationId");
+        Assert.assertEquals(0, statistics.getFlushCount());
+    }
+
+    // region Helper Methods
+
+    private void startCounting() {
+        statistics.clear();
+        RecordingStatementInspector.start();
+    }
+
+    private void assertSingleTransaction(String operation) {
+        int statementCount = RecordingStatementInspector.stop().size();
+        logger.info("{} ran {} statements in {} transactions over {} connections with {} flushes.", operation,
+                statementCount, statistics.getTransactionCount(), statistics.getConnectCount(),
+                statistics.getFlushCount());
+        Assert.assertEquals(1, statistics.getTransactionCount());
+        Assert.assertEquals(1, statistics.getConnectCount());
+    }
+
+    // endregion
+
+}
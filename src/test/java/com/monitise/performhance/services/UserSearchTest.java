@@ -2,6 +2,8 @@ package com.monitise.performhance.services;
 
 
 import com.monitise.performhance.AppConfig;
+import com.monitise.performhance.api.model.SimplifiedUser;
+import com.monitise.performhance.api.model.UpdateUserRequest;
 import com.monitise.performhance.entity.User;
 import com.monitise.performhance.exceptions.BaseException;
 import com.monitise.performhance.repositories.OrganizationRepository;
@@ -18,6 +20,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 
 import java.util.List;
+import java.util.Locale;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @SpringBootTest(classes = AppConfig.class)
@@ -42,7 +45,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithTeamId() throws BaseException {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, "1", undef, undef, undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, "1", undef, undef, undef);
 
         Assert.assertEquals(3, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 2, "Pelin", "Sonmez"));
@@ -54,7 +57,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithJobTitleId() throws BaseException {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, undef, "1", undef, undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, undef, "1", undef, undef);
 
         Assert.assertEquals(2, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 2, "Pelin", "Sonmez"));
@@ -65,7 +68,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithPartialName() throws BaseException {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, undef, undef, "pel", undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, undef, undef, "pel", undef);
 
         Assert.assertEquals(2, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 2, "Pelin", "Sonmez"));
@@ -76,7 +79,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithPartialSurname() throws BaseException {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, undef, undef, undef, "mez");
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, undef, undef, undef, "mez");
 
         Assert.assertEquals(2, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 2, "Pelin", "Sonmez"));
@@ -87,7 +90,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithPartialNameAndSurname() throws BaseException {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, undef, undef, "fA", "gul");
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, undef, undef, "fA", "gul");
 
         Assert.assertEquals(2, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 3, "Faruk", "Gulmez"));
@@ -98,7 +101,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithPartialNameAndTeamId() {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, "1", undef, "pel", undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, "1", undef, "pel", undef);
 
         Assert.assertEquals(2, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 2, "Pelin", "Sonmez"));
@@ -109,7 +112,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithJobTitleIdAndTeamId() {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, "1", "2", undef, undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, "1", "2", undef, undef);
 
         Assert.assertEquals(2, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 3, "Faruk", "Gulmez"));
@@ -120,7 +123,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithNonExistingTeamId() {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, "10", undef, undef, undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, "10", undef, undef, undef);
 
         Assert.assertEquals(0, foundUsers.size());
     }
@@ -129,7 +132,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithNonExistingPartialNames() {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, undef, undef, "AASDFGHJ", undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, undef, undef, "AASDFGHJ", undef);
         Assert.assertEquals(0, foundUsers.size());
     }
 
@@ -137,7 +140,7 @@ public class UserSearchTest {
     @WithMockUser(roles = {"MANAGER"})
     public void searchWithoutAnyInput() {
         String undef = UserService.UNDEFINED;
-        List<User> foundUsers = userService.searchUsers(1, undef, undef, undef, undef);
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, undef, undef, undef, undef);
 
         Assert.assertEquals(5, foundUsers.size());
         Assert.assertTrue(listContainsUser(foundUsers, 1, "Google", "Manager"));
@@ -147,6 +150,48 @@ public class UserSearchTest {
         Assert.assertTrue(listContainsUser(foundUsers, 5, "Fatih", "Songul"));
     }
 
+    @Test
+    @WithMockUser(roles = {"MANAGER"})
+    public void searchWithPartialName_afterRename_shouldFindNewName() throws BaseException {
+        String undef = UserService.UNDEFINED;
+        Assert.assertEquals(2, userService.searchUsers(1, undef, undef, "pel", undef).size());
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setName("Pelagia");
+        userService.updateFromRequest(request, 3);
+
+        List<SimplifiedUser> foundUsers = userService.searchUsers(1, undef, undef, "pel", undef);
+        Assert.assertEquals(3, foundUsers.size());
+        Assert.assertTrue(listContainsUser(foundUsers, 3, "Pelagia", "Gulmez"));
+        Assert.assertEquals(0, userService.searchUsers(1, undef, undef, "faruk", undef).size());
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER"})
+    public void searchWithPartialName_trigramsNotAdjacent_shouldNotFind() throws BaseException {
+        String undef = UserService.UNDEFINED;
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setName("Abcbcd");
+        userService.updateFromRequest(request, 3);
+
+        // Both ABC and BCD occur in the name, but ABCD does not.
+        Assert.assertEquals(0, userService.searchUsers(1, undef, undef, "abcd", undef).size());
+        Assert.assertEquals(1, userService.searchUsers(1, undef, undef, "bcbc", undef).size());
+    }
+
+    @Test
+    public void nameContains_withTurkishDefaultLocale_shouldMatchIgnoringCase() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            // The dotted and dotless i must not split "pelin" and "PELIN" apart.
+            List<User> found = userRepository.findAll(User.nameContains("pelin"));
+            Assert.assertEquals(1, found.size());
+            Assert.assertEquals(2, found.get(0).getId());
+            Assert.assertEquals(1, userRepository.findAll(User.nameContains("PELIN")).size());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
 
     private void genUserNamePassword(User u) {
         String name = u.getName();
@@ -160,8 +205,8 @@ public class UserSearchTest {
         u.setPassword(password);
     }
 
-    private boolean listContainsUser(List<User> list, int id, String name, String surname) {
-        for (User user : list) {
+    private boolean listContainsUser(List<SimplifiedUser> list, int id, String name, String surname) {
+        for (SimplifiedUser user : list) {
             if (user.getId() == id && user.getName().equals(name) && user.getSurname().equals(surname)) {
                 return true;
             }
@@ -2,6 +2,8 @@ SET FOREIGN_KEY_CHECKS=0;
 
 
 TRUNCATE TABLE `criteria`;                  ALTER TABLE `criteria` ALTER COLUMN `id` RESTART WITH 1;
+TRUNCATE TABLE `criteria_score`;            ALTER TABLE `criteria_score` ALTER COLUMN `id` RESTART WITH 1;
+TRUNCATE TABLE `daily_criteria_score`;      ALTER TABLE `daily_criteria_score` ALTER COLUMN `id` RESTART WITH 1;
 TRUNCATE TABLE `job_title`;                 ALTER TABLE `job_title` ALTER COLUMN `id` RESTART WITH 1;
 TRUNCATE TABLE `organization`;              ALTER TABLE `organization` ALTER COLUMN `id` RESTART WITH 1;
 TRUNCATE TABLE `organization_criteria_list`;
@@ -198,3 +198,10 @@ INSERT INTO `review_evaluation`(review_id, evaluation, evaluation_key) VALUES(5,
 
 INSERT INTO `review_evaluation`(review_id, evaluation, evaluation_key) VALUES(6, 100, 5); -- Punctuality
 INSERT INTO `review_evaluation`(review_id, evaluation, evaluation_key) VALUES(6, 95, 7); -- Code Clarity
+
+
+--                 CRITERIA SCORE AGGREGATE INSERTIONS              --
+INSERT INTO `criteria_score`(user_id, criteria_id, total_score, review_count, min_score, max_score)
+    SELECT r.reviewed_employee_id, e.evaluation_key, SUM(e.evaluation), COUNT(*), MIN(e.evaluation), MAX(e.evaluation)
+    FROM `review` r JOIN `review_evaluation` e ON e.review_id = r.id
+    GROUP BY r.reviewed_employee_id, e.evaluation_key;